@@ -0,0 +1,85 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark;
+
+import org.citydb.benchmark.data.CityModelGenerator;
+import org.citydb.config.project.database.DBConnection;
+import org.citydb.config.project.database.DatabaseSrs;
+import org.citydb.config.project.database.DatabaseSrsType;
+import org.citydb.config.project.database.DatabaseType;
+import org.citydb.database.adapter.AbstractDatabaseAdapter;
+import org.citydb.database.adapter.DatabaseAdapterFactory;
+import org.citydb.database.connection.DatabaseConnectionDetails;
+import org.citydb.database.connection.DatabaseMetaData;
+import org.citydb.event.EventDispatcher;
+import org.citydb.registry.ObjectRegistry;
+import org.citygml4j.CityGMLContext;
+import org.citygml4j.builder.jaxb.CityGMLBuilder;
+import org.citygml4j.builder.jaxb.CityGMLBuilderException;
+
+/**
+ * Provides the runtime objects the benchmarks need without connecting
+ * to a database.
+ */
+public class BenchmarkSupport {
+
+	private BenchmarkSupport() {
+		// just to thwart instantiation
+	}
+
+	public static AbstractDatabaseAdapter createDatabaseAdapter(DatabaseType databaseType) {
+		DBConnection connection = new DBConnection();
+		connection.setDatabaseType(databaseType);
+
+		DatabaseMetaData metaData = new DatabaseMetaData(new DatabaseConnectionDetails(connection));
+		metaData.setDatabaseMajorVersion(12);
+		metaData.setReferenceSystem(new DatabaseSrs(CityModelGenerator.SRID, CityModelGenerator.SRS_NAME,
+				"Synthetic benchmark data", "ETRS89 / UTM zone 32N", DatabaseSrsType.PROJECTED, true));
+
+		AbstractDatabaseAdapter databaseAdapter = DatabaseAdapterFactory.getInstance().createDatabaseAdapter(databaseType);
+		databaseAdapter.setConnectionMetaData(metaData);
+
+		return databaseAdapter;
+	}
+
+	public static synchronized CityGMLBuilder getCityGMLBuilder() throws CityGMLBuilderException {
+		ObjectRegistry registry = ObjectRegistry.getInstance();
+		if (registry.getCityGMLBuilder() == null)
+			registry.setCityGMLBuilder(CityGMLContext.getInstance().createCityGMLBuilder());
+
+		return registry.getCityGMLBuilder();
+	}
+
+	public static synchronized EventDispatcher getEventDispatcher() {
+		ObjectRegistry registry = ObjectRegistry.getInstance();
+		if (registry.getEventDispatcher() == null)
+			registry.setEventDispatcher(new EventDispatcher());
+
+		return registry.getEventDispatcher();
+	}
+}
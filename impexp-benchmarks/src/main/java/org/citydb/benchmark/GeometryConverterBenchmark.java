@@ -0,0 +1,83 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark;
+
+import org.citydb.benchmark.data.CityModelGenerator;
+import org.citydb.citygml.importer.CityGMLImportException;
+import org.citydb.citygml.importer.database.content.GeometryConverter;
+import org.citydb.config.geometry.GeometryObject;
+import org.citydb.config.project.database.DatabaseType;
+import org.citygml4j.model.gml.geometry.primitives.Polygon;
+import org.citygml4j.model.gml.geometry.primitives.Solid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeometryConverterBenchmark {
+	@Param({"4", "16", "64"})
+	private int vertices;
+
+	private GeometryConverter geometryConverter;
+	private Polygon polygon;
+	private Solid solid;
+
+	@Setup
+	public void setup() {
+		geometryConverter = new GeometryConverter(BenchmarkSupport.createDatabaseAdapter(DatabaseType.POSTGIS));
+
+		CityModelGenerator generator = new CityModelGenerator(1, vertices);
+		polygon = generator.createPolygon();
+		solid = generator.createPrism();
+	}
+
+	@Benchmark
+	public GeometryObject polygon() throws CityGMLImportException {
+		return geometryConverter.getPolygon(polygon);
+	}
+
+	@Benchmark
+	public GeometryObject solid() {
+		return geometryConverter.getSolid(solid);
+	}
+}
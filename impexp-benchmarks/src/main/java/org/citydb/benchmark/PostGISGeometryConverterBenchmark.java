@@ -0,0 +1,107 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark;
+
+import org.citydb.benchmark.data.CityModelGenerator;
+import org.citydb.citygml.importer.CityGMLImportException;
+import org.citydb.citygml.importer.database.content.GeometryConverter;
+import org.citydb.config.geometry.GeometryObject;
+import org.citydb.config.project.database.DatabaseType;
+import org.citydb.database.adapter.AbstractDatabaseAdapter;
+import org.citydb.database.adapter.AbstractGeometryConverterAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.postgis.PGgeometry;
+import org.postgis.binary.BinaryWriter;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of geometries into PostGIS database objects.
+ * Polygons are encoded as EWKT and parsed into {@link PGgeometry} objects,
+ * whereas solids are passed to the database as EWKT strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostGISGeometryConverterBenchmark {
+	@Param({"4", "16", "64"})
+	private int vertices;
+
+	private AbstractGeometryConverterAdapter geometryConverterAdapter;
+	private BinaryWriter binaryWriter;
+	private GeometryObject polygon;
+	private GeometryObject solid;
+	private PGgeometry pgPolygon;
+
+	@Setup
+	public void setup() throws CityGMLImportException, SQLException {
+		AbstractDatabaseAdapter databaseAdapter = BenchmarkSupport.createDatabaseAdapter(DatabaseType.POSTGIS);
+		geometryConverterAdapter = databaseAdapter.getGeometryConverter();
+		binaryWriter = new BinaryWriter();
+
+		GeometryConverter geometryConverter = new GeometryConverter(databaseAdapter);
+		CityModelGenerator generator = new CityModelGenerator(1, vertices);
+		polygon = geometryConverter.getPolygon(generator.createPolygon());
+		solid = geometryConverter.getSolid(generator.createPrism());
+		pgPolygon = (PGgeometry) geometryConverterAdapter.getDatabaseObject(polygon, null);
+	}
+
+	@Benchmark
+	public Object polygonToEWKT() throws SQLException {
+		return geometryConverterAdapter.getDatabaseObject(polygon, null);
+	}
+
+	@Benchmark
+	public Object solidToEWKT() throws SQLException {
+		return geometryConverterAdapter.getDatabaseObject(solid, null);
+	}
+
+	@Benchmark
+	public byte[] polygonToWKB() {
+		return binaryWriter.writeBinary(pgPolygon.getGeometry());
+	}
+
+	@Benchmark
+	public GeometryObject polygonFromDatabase() throws SQLException {
+		return geometryConverterAdapter.getPolygon(pgPolygon);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark;
+
+import org.citydb.concurrent.DefaultWorker;
+import org.citydb.concurrent.SingleWorkerPool;
+import org.citydb.writer.SequentialWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the cost of restoring the sequence order of objects that are
+ * produced concurrently, as done for sorted exports. Each producer thread
+ * simulates a random amount of work before handing over its object, so
+ * objects arrive out of order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SequentialWriterBenchmark {
+	@Param({"0", "256"})
+	private int maxTokens;
+
+	private final AtomicLong sequenceId = new AtomicLong();
+	private SingleWorkerPool<Long> writerPool;
+	private SequentialWriter<Long> sequentialWriter;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		writerPool = new SingleWorkerPool<>("benchmark_writer", DiscardingWorker::new, 100, false);
+		writerPool.prestartCoreWorkers();
+		sequentialWriter = new SequentialWriter<>(writerPool);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() throws InterruptedException {
+		sequentialWriter.interrupt();
+		writerPool.shutdownAndWait();
+	}
+
+	@Benchmark
+	public void write() throws InterruptedException {
+		long id = sequenceId.getAndIncrement();
+		if (maxTokens > 0)
+			Blackhole.consumeCPU(ThreadLocalRandom.current().nextInt(maxTokens));
+
+		sequentialWriter.write(id, id);
+	}
+
+	private static final class DiscardingWorker extends DefaultWorker<Long> {
+		@Override
+		public void doWork(Long work) {
+			// nothing to do
+		}
+
+		@Override
+		public void shutdown() {
+			// nothing to do
+		}
+	}
+}
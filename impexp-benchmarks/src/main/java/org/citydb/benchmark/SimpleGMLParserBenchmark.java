@@ -0,0 +1,103 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark;
+
+import org.citydb.benchmark.data.CityModelGenerator;
+import org.citydb.config.Config;
+import org.citydb.config.geometry.GeometryObject;
+import org.citydb.config.project.database.DatabaseType;
+import org.citydb.query.geometry.DatabaseSrsParser;
+import org.citydb.query.geometry.GeometryParseException;
+import org.citydb.query.geometry.SrsParseException;
+import org.citydb.query.geometry.gml.SimpleGMLParser;
+import org.citygml4j.builder.jaxb.CityGMLBuilderException;
+import org.citygml4j.builder.jaxb.unmarshal.JAXBUnmarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleGMLParserBenchmark {
+	@Param({"4", "64", "1024"})
+	private int vertices;
+
+	private SimpleGMLParser parser;
+	private DocumentBuilder documentBuilder;
+	private String gml;
+	private Element element;
+
+	@Setup
+	public void setup() throws CityGMLBuilderException, ParserConfigurationException, IOException, SAXException {
+		JAXBUnmarshaller unmarshaller = BenchmarkSupport.getCityGMLBuilder().createJAXBUnmarshaller();
+		unmarshaller.setThrowMissingADESchema(false);
+		unmarshaller.setParseSchema(false);
+
+		DatabaseSrsParser srsParser = new DatabaseSrsParser(BenchmarkSupport.createDatabaseAdapter(DatabaseType.POSTGIS), new Config());
+		parser = new SimpleGMLParser(unmarshaller, srsParser);
+
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		documentBuilder = factory.newDocumentBuilder();
+
+		gml = new CityModelGenerator(1, vertices).createPolygonGML();
+		element = documentBuilder.parse(new InputSource(new StringReader(gml))).getDocumentElement();
+	}
+
+	@Benchmark
+	public GeometryObject parseElement() throws GeometryParseException, SrsParseException {
+		return parser.parseGeometry(element);
+	}
+
+	@Benchmark
+	public GeometryObject parseText() throws GeometryParseException, SrsParseException, IOException, SAXException {
+		return parser.parseGeometry(documentBuilder.parse(new InputSource(new StringReader(gml))).getDocumentElement());
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark;
+
+import org.citydb.citygml.common.database.uid.UIDCache;
+import org.citydb.citygml.common.database.uid.UIDCacheEntry;
+import org.citydb.citygml.common.database.uid.UIDCachingModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures put and lookup operations on a {@link UIDCache} under contention.
+ * Entries that are drained from the cache are kept in memory instead of
+ * being written to a temporary database table, so the benchmark includes
+ * the draining logic of the cache but not the database round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class UIDCacheBenchmark {
+	@Param({"10000", "1000000"})
+	private int capacity;
+
+	@Param({"100000"})
+	private int keys;
+
+	private String[] gmlIds;
+	private UIDCache cache;
+
+	@Setup(Level.Trial)
+	public void createKeys() {
+		gmlIds = new String[keys];
+		for (int i = 0; i < keys; i++)
+			gmlIds[i] = "UUID_" + new UUID(i, ~i);
+	}
+
+	@Setup(Level.Iteration)
+	public void createCache() {
+		cache = new UIDCache(new InMemoryCachingModel(), capacity, 0.4f, 16);
+	}
+
+	@TearDown(Level.Iteration)
+	public void shutdownCache() throws SQLException {
+		cache.shutdown();
+	}
+
+	@Benchmark
+	public boolean lookupAndPut() {
+		int index = ThreadLocalRandom.current().nextInt(keys);
+		return cache.lookupAndPut(gmlIds[index], index, 26);
+	}
+
+	@Benchmark
+	public UIDCacheEntry get() {
+		return cache.get(gmlIds[ThreadLocalRandom.current().nextInt(keys)]);
+	}
+
+	private static final class InMemoryCachingModel implements UIDCachingModel {
+		private final ConcurrentHashMap<String, UIDCacheEntry> backUp = new ConcurrentHashMap<>();
+
+		@Override
+		public void drainToDB(ConcurrentHashMap<String, UIDCacheEntry> map, int drain) throws SQLException {
+			int drainCounter = 0;
+
+			// like the database models, first drain those entries which have already been requested
+			Iterator<Map.Entry<String, UIDCacheEntry>> iter = map.entrySet().iterator();
+			while (drainCounter <= drain && iter.hasNext()) {
+				Map.Entry<String, UIDCacheEntry> entry = iter.next();
+				if (entry.getValue().isRequested()) {
+					backUp.put(entry.getKey(), entry.getValue());
+					iter.remove();
+					drainCounter++;
+				}
+			}
+
+			iter = map.entrySet().iterator();
+			while (drainCounter <= drain && iter.hasNext()) {
+				Map.Entry<String, UIDCacheEntry> entry = iter.next();
+				backUp.put(entry.getKey(), entry.getValue());
+				iter.remove();
+				drainCounter++;
+			}
+		}
+
+		@Override
+		public UIDCacheEntry lookupDB(String key) throws SQLException {
+			return backUp.get(key);
+		}
+
+		@Override
+		public void close() throws SQLException {
+			backUp.clear();
+		}
+
+		@Override
+		public String getType() {
+			return "benchmark";
+		}
+	}
+}
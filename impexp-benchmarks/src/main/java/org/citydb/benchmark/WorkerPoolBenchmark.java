@@ -0,0 +1,134 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark;
+
+import org.citydb.concurrent.DefaultWorker;
+import org.citydb.concurrent.PoolSizeAdaptationStrategy;
+import org.citydb.concurrent.Worker;
+import org.citydb.concurrent.WorkerFactory;
+import org.citydb.concurrent.WorkerPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how many work items per second a {@link WorkerPool} hands over
+ * from a producer to its workers. The workers only consume a few CPU cycles
+ * per item, so the result is dominated by the work queue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkerPoolBenchmark {
+	private static final int ITEMS = 10000;
+
+	@Param({"1", "4"})
+	private int workers;
+
+	@Param({"100", "1000"})
+	private int queueSize;
+
+	@Param({"1", "16"})
+	private int workBatchSize;
+
+	private final AtomicLong processed = new AtomicLong();
+	private WorkerPool<Long> workerPool;
+	private long submitted;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		workerPool = new WorkerPool<>(
+				"benchmark_pool",
+				workers,
+				workers,
+				PoolSizeAdaptationStrategy.AGGRESSIVE,
+				new CountingWorkerFactory(processed),
+				queueSize,
+				false);
+
+		workerPool.setWorkBatchSize(workBatchSize);
+		workerPool.prestartCoreWorkers();
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() throws InterruptedException {
+		workerPool.shutdownAndWait();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ITEMS)
+	public void transfer() {
+		for (int i = 0; i < ITEMS; i++)
+			workerPool.addWork(submitted++);
+
+		while (processed.get() < submitted)
+			Thread.yield();
+	}
+
+	private static final class CountingWorkerFactory implements WorkerFactory<Long> {
+		private final AtomicLong processed;
+
+		CountingWorkerFactory(AtomicLong processed) {
+			this.processed = processed;
+		}
+
+		@Override
+		public Worker<Long> createWorker() {
+			return new DefaultWorker<Long>() {
+				@Override
+				public void doWork(Long work) {
+					Blackhole.consumeCPU(16);
+					processed.incrementAndGet();
+				}
+
+				@Override
+				public void shutdown() {
+					// nothing to do
+				}
+			};
+		}
+	}
+}
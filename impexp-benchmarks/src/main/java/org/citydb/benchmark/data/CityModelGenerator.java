@@ -0,0 +1,457 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark.data;
+
+import org.citygml4j.CityGMLContext;
+import org.citygml4j.builder.cityjson.CityJSONBuilder;
+import org.citygml4j.builder.cityjson.json.io.writer.CityJSONOutputFactory;
+import org.citygml4j.builder.cityjson.json.io.writer.CityJSONWriter;
+import org.citygml4j.builder.jaxb.CityGMLBuilder;
+import org.citygml4j.factory.DimensionMismatchException;
+import org.citygml4j.factory.GMLGeometryFactory;
+import org.citygml4j.model.citygml.appearance.Appearance;
+import org.citygml4j.model.citygml.appearance.AppearanceProperty;
+import org.citygml4j.model.citygml.appearance.ParameterizedTexture;
+import org.citygml4j.model.citygml.appearance.SurfaceDataProperty;
+import org.citygml4j.model.citygml.appearance.TexCoordList;
+import org.citygml4j.model.citygml.appearance.TextureAssociation;
+import org.citygml4j.model.citygml.appearance.TextureCoordinates;
+import org.citygml4j.model.citygml.building.AbstractBoundarySurface;
+import org.citygml4j.model.citygml.building.BoundarySurfaceProperty;
+import org.citygml4j.model.citygml.building.Building;
+import org.citygml4j.model.citygml.building.GroundSurface;
+import org.citygml4j.model.citygml.building.RoofSurface;
+import org.citygml4j.model.citygml.building.WallSurface;
+import org.citygml4j.model.citygml.core.CityModel;
+import org.citygml4j.model.citygml.core.CityObjectMember;
+import org.citygml4j.model.citygml.generics.DoubleAttribute;
+import org.citygml4j.model.citygml.generics.StringAttribute;
+import org.citygml4j.model.gml.basicTypes.Code;
+import org.citygml4j.model.gml.geometry.aggregates.MultiSurface;
+import org.citygml4j.model.gml.geometry.aggregates.MultiSurfaceProperty;
+import org.citygml4j.model.gml.geometry.complexes.CompositeSurface;
+import org.citygml4j.model.gml.geometry.primitives.Polygon;
+import org.citygml4j.model.gml.geometry.primitives.Solid;
+import org.citygml4j.model.gml.geometry.primitives.SolidProperty;
+import org.citygml4j.model.gml.geometry.primitives.SurfaceProperty;
+import org.citygml4j.model.gml.measures.Length;
+import org.citygml4j.model.module.citygml.CityGMLVersion;
+import org.citygml4j.util.bbox.BoundingBoxOptions;
+import org.citygml4j.xml.io.CityGMLOutputFactory;
+import org.citygml4j.xml.io.writer.CityModelWriter;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates reproducible synthetic CityGML content for benchmarks. Buildings
+ * are prisms with a configurable number of vertices per ring that are
+ * randomly placed within a 10 x 10 km area. LoD1 buildings are represented
+ * by a solid. LoD2 buildings are represented by ground, roof and wall
+ * surfaces and can additionally carry a solid whose members reference the
+ * surface polygons by XLinks as well as wall textures. Using the same seed
+ * and settings always results in the same city model.
+ */
+public class CityModelGenerator {
+	public static final int SRID = 25832;
+	public static final String SRS_NAME = "urn:ogc:def:crs,crs:EPSG::25832,crs:EPSG::5783";
+	public static final String TEXTURE_DIR = "appearance";
+
+	private static final double ORIGIN_X = 690000;
+	private static final double ORIGIN_Y = 5336000;
+	private static final double EXTENT = 10000;
+	private static final int TEXTURE_IMAGES = 8;
+
+	private final GMLGeometryFactory geometryFactory = new GMLGeometryFactory();
+	private final Random random;
+	private final int verticesPerRing;
+	private long buildingId;
+	private long geometryId;
+
+	private int lod = 1;
+	private boolean textures;
+	private boolean xlinks;
+	private int genericAttributes;
+
+	public CityModelGenerator(long seed, int verticesPerRing) {
+		if (verticesPerRing < 3)
+			throw new IllegalArgumentException("A ring requires at least three vertices.");
+
+		random = new Random(seed);
+		this.verticesPerRing = verticesPerRing;
+	}
+
+	public CityModelGenerator(long seed) {
+		this(seed, 8);
+	}
+
+	public int getVerticesPerRing() {
+		return verticesPerRing;
+	}
+
+	public int getLod() {
+		return lod;
+	}
+
+	public void setLod(int lod) {
+		if (lod != 1 && lod != 2)
+			throw new IllegalArgumentException("Only LoD1 and LoD2 buildings are supported.");
+
+		this.lod = lod;
+	}
+
+	public boolean isTextures() {
+		return textures;
+	}
+
+	public void setTextures(boolean textures) {
+		this.textures = textures;
+	}
+
+	public boolean isXlinks() {
+		return xlinks;
+	}
+
+	public void setXlinks(boolean xlinks) {
+		this.xlinks = xlinks;
+	}
+
+	public int getGenericAttributes() {
+		return genericAttributes;
+	}
+
+	public void setGenericAttributes(int genericAttributes) {
+		this.genericAttributes = Math.max(0, genericAttributes);
+	}
+
+	public double[] createRing(double x, double y, double z, double radius, boolean reverse) {
+		double[] coordinates = new double[(verticesPerRing + 1) * 3];
+		for (int i = 0; i < verticesPerRing; i++) {
+			double angle = 2 * Math.PI * (reverse ? verticesPerRing - i : i) / verticesPerRing;
+			coordinates[i * 3] = x + radius * Math.cos(angle);
+			coordinates[i * 3 + 1] = y + radius * Math.sin(angle);
+			coordinates[i * 3 + 2] = z;
+		}
+
+		// close ring
+		System.arraycopy(coordinates, 0, coordinates, verticesPerRing * 3, 3);
+		return coordinates;
+	}
+
+	public Polygon createPolygon(double x, double y, double z, double radius) {
+		return createPolygon(createRing(x, y, z, radius, false));
+	}
+
+	public Polygon createPolygon() {
+		return createPolygon(nextX(), nextY(), 0, nextRadius());
+	}
+
+	public Solid createPrism(double x, double y, double radius, double height) {
+		CompositeSurface shell = new CompositeSurface();
+		for (Polygon polygon : createPrismSurfaces(x, y, radius, height))
+			shell.addSurfaceMember(new SurfaceProperty(polygon));
+
+		return createSolid(shell);
+	}
+
+	public Solid createPrism() {
+		return createPrism(nextX(), nextY(), nextRadius(), nextHeight());
+	}
+
+	public Building createBuilding() {
+		double height = nextHeight();
+
+		Building building = new Building();
+		building.setId("BLDG_" + buildingId++);
+		building.addFunction(new Code(String.valueOf(1000 + random.nextInt(10) * 10)));
+
+		Length measuredHeight = new Length(height);
+		measuredHeight.setUom("urn:ogc:def:uom:UCUM::m");
+		building.setMeasuredHeight(measuredHeight);
+
+		for (int i = 0; i < genericAttributes; i++) {
+			if (i % 2 == 0) {
+				StringAttribute attribute = new StringAttribute();
+				attribute.setName("attribute_" + i);
+				attribute.setValue(Long.toString(random.nextLong(), 36));
+				building.addGenericAttribute(attribute);
+			} else {
+				DoubleAttribute attribute = new DoubleAttribute();
+				attribute.setName("attribute_" + i);
+				attribute.setValue(random.nextDouble() * 1000);
+				building.addGenericAttribute(attribute);
+			}
+		}
+
+		if (lod == 1)
+			building.setLod1Solid(new SolidProperty(createPrism(nextX(), nextY(), nextRadius(), height)));
+		else
+			addLod2Geometry(building, nextX(), nextY(), nextRadius(), height);
+
+		building.setBoundedBy(building.calcBoundedBy(BoundingBoxOptions.defaults()));
+		return building;
+	}
+
+	public List<Building> createBuildings(int count) {
+		List<Building> buildings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			buildings.add(createBuilding());
+
+		return buildings;
+	}
+
+	public String createPolygonGML() {
+		double[] coordinates = createRing(nextX(), nextY(), 0, nextRadius(), false);
+
+		StringBuilder gml = new StringBuilder()
+				.append("<gml:Polygon xmlns:gml=\"http://www.opengis.net/gml\" srsName=\"").append(SRS_NAME).append("\">")
+				.append("<gml:exterior><gml:LinearRing><gml:posList srsDimension=\"3\">");
+
+		for (int i = 0; i < coordinates.length; i++) {
+			if (i > 0)
+				gml.append(' ');
+
+			gml.append(coordinates[i]);
+		}
+
+		return gml.append("</gml:posList></gml:LinearRing></gml:exterior></gml:Polygon>").toString();
+	}
+
+	public void writeCityModel(File file, int buildings, CityGMLBuilder cityGMLBuilder) throws Exception {
+		if (textures)
+			writeTextureImages(file);
+
+		CityGMLOutputFactory factory = cityGMLBuilder.createCityGMLOutputFactory(CityGMLVersion.v2_0_0);
+		CityModelWriter writer = factory.createCityModelWriter(file, "UTF-8");
+
+		try {
+			writer.setPrefixes(CityGMLVersion.v2_0_0);
+			writer.setSchemaLocations(CityGMLVersion.v2_0_0);
+			writer.setIndentString("  ");
+			writer.writeStartDocument();
+
+			for (int i = 0; i < buildings; i++)
+				writer.writeFeatureMember(createBuilding());
+
+			writer.writeEndDocument();
+		} finally {
+			writer.close();
+		}
+	}
+
+	public void writeCityJSON(File file, int buildings, CityJSONBuilder cityJSONBuilder) throws Exception {
+		if (textures)
+			writeTextureImages(file);
+
+		// CityJSON requires the entire city model to be written at once
+		CityModel cityModel = new CityModel();
+		for (int i = 0; i < buildings; i++)
+			cityModel.addCityObjectMember(new CityObjectMember(createBuilding()));
+
+		CityJSONOutputFactory factory = cityJSONBuilder.createCityJSONOutputFactory();
+		CityJSONWriter writer = factory.createCityJSONWriter(file);
+
+		try {
+			writer.write(cityModel);
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void addLod2Geometry(Building building, double x, double y, double radius, double height) {
+		List<Polygon> polygons = createPrismSurfaces(x, y, radius, height);
+		ParameterizedTexture texture = null;
+
+		for (int i = 0; i < polygons.size(); i++) {
+			Polygon polygon = polygons.get(i);
+			polygon.setId("POLY_" + geometryId++);
+			polygon.getExterior().getRing().setId("RING_" + geometryId++);
+
+			AbstractBoundarySurface surface;
+			if (i == 0)
+				surface = new GroundSurface();
+			else if (i == 1)
+				surface = new RoofSurface();
+			else {
+				surface = new WallSurface();
+				if (textures) {
+					if (texture == null)
+						texture = createTexture();
+
+					addTextureTarget(texture, polygon);
+				}
+			}
+
+			MultiSurface multiSurface = new MultiSurface();
+			multiSurface.addSurfaceMember(new SurfaceProperty(polygon));
+
+			surface.setId(building.getId() + "_SURFACE_" + i);
+			surface.setLod2MultiSurface(new MultiSurfaceProperty(multiSurface));
+			building.addBoundedBySurface(new BoundarySurfaceProperty(surface));
+		}
+
+		if (xlinks) {
+			CompositeSurface shell = new CompositeSurface();
+			for (Polygon polygon : polygons) {
+				SurfaceProperty member = new SurfaceProperty();
+				member.setHref("#" + polygon.getId());
+				shell.addSurfaceMember(member);
+			}
+
+			building.setLod2Solid(new SolidProperty(createSolid(shell)));
+		}
+
+		if (texture != null) {
+			Appearance appearance = new Appearance();
+			appearance.setTheme("rgbTexture");
+			appearance.addSurfaceDataMember(new SurfaceDataProperty(texture));
+			building.addAppearance(new AppearanceProperty(appearance));
+		}
+	}
+
+	private List<Polygon> createPrismSurfaces(double x, double y, double radius, double height) {
+		double[] bottom = createRing(x, y, 0, radius, true);
+		double[] top = createRing(x, y, height, radius, false);
+
+		List<Polygon> polygons = new ArrayList<>(verticesPerRing + 2);
+		polygons.add(createPolygon(bottom));
+		polygons.add(createPolygon(top));
+
+		for (int i = 0; i < verticesPerRing; i++) {
+			int from = i * 3;
+			int to = from + 3;
+			polygons.add(createPolygon(new double[]{
+					top[from], top[from + 1], 0,
+					top[to], top[to + 1], 0,
+					top[to], top[to + 1], height,
+					top[from], top[from + 1], height,
+					top[from], top[from + 1], 0
+			}));
+		}
+
+		return polygons;
+	}
+
+	private Solid createSolid(CompositeSurface shell) {
+		Solid solid = new Solid();
+		solid.setExterior(new SurfaceProperty(shell));
+		solid.setSrsName(SRS_NAME);
+
+		return solid;
+	}
+
+	private ParameterizedTexture createTexture() {
+		ParameterizedTexture texture = new ParameterizedTexture();
+		texture.setImageURI(TEXTURE_DIR + "/texture_" + random.nextInt(TEXTURE_IMAGES) + ".png");
+		texture.setMimeType(new Code("image/png"));
+
+		return texture;
+	}
+
+	private void addTextureTarget(ParameterizedTexture texture, Polygon polygon) {
+		TextureCoordinates coordinates = new TextureCoordinates();
+		coordinates.setRing("#" + polygon.getExterior().getRing().getId());
+		coordinates.setValue(Arrays.asList(0.0, 0.0, 1.0, 0.0, 1.0, 1.0, 0.0, 1.0, 0.0, 0.0));
+
+		TexCoordList texCoordList = new TexCoordList();
+		texCoordList.addTextureCoordinates(coordinates);
+
+		TextureAssociation target = new TextureAssociation();
+		target.setTextureParameterization(texCoordList);
+		target.setUri("#" + polygon.getId());
+		texture.addTarget(target);
+	}
+
+	private void writeTextureImages(File file) throws IOException {
+		File textureDir = new File(file.getAbsoluteFile().getParentFile(), TEXTURE_DIR);
+		if (!textureDir.exists() && !textureDir.mkdirs())
+			throw new IOException("Failed to create texture directory '" + textureDir + "'.");
+
+		Random colors = new Random(TEXTURE_IMAGES);
+		for (int i = 0; i < TEXTURE_IMAGES; i++) {
+			BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = image.createGraphics();
+			graphics.setColor(new Color(colors.nextInt(0xffffff)));
+			graphics.fillRect(0, 0, 256, 256);
+			graphics.setColor(Color.DARK_GRAY);
+			for (int y = 32; y < 256; y += 64)
+				graphics.fillRect(32, y, 192, 32);
+
+			graphics.dispose();
+			ImageIO.write(image, "png", new File(textureDir, "texture_" + i + ".png"));
+		}
+	}
+
+	private Polygon createPolygon(double[] coordinates) {
+		try {
+			return geometryFactory.createLinearPolygon(coordinates, 3);
+		} catch (DimensionMismatchException e) {
+			throw new IllegalStateException("Failed to create synthetic polygon.", e);
+		}
+	}
+
+	private double nextX() {
+		return ORIGIN_X + random.nextDouble() * EXTENT;
+	}
+
+	private double nextY() {
+		return ORIGIN_Y + random.nextDouble() * EXTENT;
+	}
+
+	private double nextRadius() {
+		return 5 + random.nextDouble() * 15;
+	}
+
+	private double nextHeight() {
+		return 3 + random.nextDouble() * 57;
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: CityModelGenerator <file> <buildings> [<seed>] [<vertices per ring>]");
+			System.exit(1);
+		}
+
+		File file = new File(args[0]);
+		int buildings = Integer.parseInt(args[1]);
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+		int vertices = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+
+		CityGMLBuilder cityGMLBuilder = CityGMLContext.getInstance().createCityGMLBuilder();
+		new CityModelGenerator(seed, vertices).writeCityModel(file, buildings, cityGMLBuilder);
+		System.out.println("Wrote " + buildings + " synthetic buildings to " + file.getAbsolutePath() + ".");
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark.harness;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a macro-benchmark run. Besides the phase measurements, it records
+ * the dataset settings and the runtime environment so that results of
+ * different releases and configurations can be compared.
+ */
+public class BenchmarkResult {
+	private String label;
+	private String timestamp;
+	private String version;
+	private Map<String, String> environment = new LinkedHashMap<>();
+	private Map<String, Object> dataset = new LinkedHashMap<>();
+	private List<PhaseResult> phases = new ArrayList<>();
+
+	public String getLabel() {
+		return label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public String getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(String timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
+	public Map<String, String> getEnvironment() {
+		return environment;
+	}
+
+	public Map<String, Object> getDataset() {
+		return dataset;
+	}
+
+	public List<PhaseResult> getPhases() {
+		return phases;
+	}
+
+	public void addPhase(PhaseResult phase) {
+		phases.add(phase);
+	}
+}
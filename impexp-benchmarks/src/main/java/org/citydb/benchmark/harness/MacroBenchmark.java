@@ -0,0 +1,290 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark.harness;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.citydb.ImpExp;
+import org.citydb.benchmark.data.CityModelGenerator;
+import org.citygml4j.CityGMLContext;
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.kohsuke.args4j.ParserProperties;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end benchmark harness. A synthetic dataset is generated and then
+ * imported into, exported from and deleted from the database configured in
+ * the given project file. Every phase is run in a forked JVM so that heap and
+ * garbage collection measurements are not affected by previous phases. The
+ * results are written to a JSON file that can be compared across commits.
+ */
+public class MacroBenchmark {
+
+	@Option(name="-config", required=true, usage="config file containing the project settings\nincluding the active database connection", metaVar="fileName")
+	private File configFile;
+
+	@Option(name="-workDir", usage="working directory for the dataset and exported files", metaVar="dir")
+	private File workDir = new File("build/macro-benchmark");
+
+	@Option(name="-output", usage="result file (default: <workDir>/result.json)", metaVar="fileName")
+	private File outputFile;
+
+	@Option(name="-buildings", usage="number of buildings to generate", metaVar="count")
+	private int buildings = 1000;
+
+	@Option(name="-lod", usage="LoD of the generated buildings (1 or 2)", metaVar="lod")
+	private int lod = 2;
+
+	@Option(name="-vertices", usage="number of vertices per ring", metaVar="count")
+	private int vertices = 8;
+
+	@Option(name="-textures", usage="add textured appearances")
+	private boolean textures;
+
+	@Option(name="-xlinks", usage="add XLink references between geometries")
+	private boolean xlinks;
+
+	@Option(name="-attributes", usage="number of generic attributes per building", metaVar="count")
+	private int attributes;
+
+	@Option(name="-format", usage="dataset format (citygml or cityjson)", metaVar="format")
+	private String format = "citygml";
+
+	@Option(name="-seed", usage="seed of the dataset generator", metaVar="seed")
+	private long seed = 1;
+
+	@Option(name="-phases", usage="comma-separated list of phases to run\n(import, export, delete)", metaVar="phases")
+	private String phases = "import,export,delete";
+
+	@Option(name="-jvmArgs", usage="space-separated JVM arguments for the forked phases", metaVar="args")
+	private String jvmArgs = "-Xmx4g";
+
+	@Option(name="-dbStart", usage="shell command that starts the database before the first phase", metaVar="command")
+	private String dbStart;
+
+	@Option(name="-dbStop", usage="shell command that stops the database after the last phase", metaVar="command")
+	private String dbStop;
+
+	@Option(name="-label", usage="label stored with the result", metaVar="label")
+	private String label;
+
+	public static void main(String[] args) throws Exception {
+		new MacroBenchmark().doMain(args);
+	}
+
+	private void doMain(String[] args) throws Exception {
+		CmdLineParser parser = new CmdLineParser(this, ParserProperties.defaults().withUsageWidth(80));
+		try {
+			parser.parseArgument(args);
+		} catch (CmdLineException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Usage: MacroBenchmark [options]");
+			parser.printUsage(System.err);
+			System.exit(1);
+		}
+
+		if (!"citygml".equalsIgnoreCase(format) && !"cityjson".equalsIgnoreCase(format)) {
+			System.err.println("Unsupported dataset format '" + format + "'.");
+			System.exit(1);
+		}
+
+		Path work = workDir.toPath().toAbsolutePath();
+		Files.createDirectories(work);
+		if (outputFile == null)
+			outputFile = work.resolve("result.json").toFile();
+
+		File dataset = generateDataset(work.resolve("dataset"));
+
+		BenchmarkResult result = new BenchmarkResult();
+		result.setLabel(label);
+		result.setTimestamp(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").format(new Date()));
+		result.setVersion(ImpExp.class.getPackage().getImplementationVersion());
+		addEnvironment(result.getEnvironment());
+		addDatasetSettings(result.getDataset());
+
+		if (dbStart != null)
+			runCommand(dbStart);
+
+		try {
+			for (String phase : phases.split(",")) {
+				phase = phase.trim().toLowerCase();
+				if (phase.isEmpty())
+					continue;
+
+				String[] impExpArgs = getImpExpArgs(phase, dataset, work);
+				if (impExpArgs == null) {
+					System.err.println("Skipping unknown phase '" + phase + "'.");
+					continue;
+				}
+
+				System.out.println("Running benchmark phase '" + phase + "'...");
+				PhaseResult phaseResult = runPhase(phase, impExpArgs, work);
+				phaseResult.setFeatures(buildings);
+				result.addPhase(phaseResult);
+
+				if (!phaseResult.isSuccess()) {
+					System.err.println("Benchmark phase '" + phase + "' failed. Skipping remaining phases.");
+					break;
+				}
+			}
+		} finally {
+			if (dbStop != null)
+				runCommand(dbStop);
+		}
+
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		try (BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+			gson.toJson(result, writer);
+		}
+
+		for (PhaseResult phase : result.getPhases()) {
+			System.out.println(String.format("%-8s %s %10.2f s %10.1f features/s %6d round trips",
+					phase.getPhase(), phase.isSuccess() ? "ok    " : "failed",
+					phase.getSeconds(), phase.getFeaturesPerSecond(), phase.getRoundTrips()));
+		}
+
+		System.out.println("Benchmark result written to " + outputFile.getAbsolutePath() + ".");
+	}
+
+	private File generateDataset(Path dir) throws Exception {
+		Files.createDirectories(dir);
+
+		CityModelGenerator generator = new CityModelGenerator(seed, vertices);
+		generator.setLod(lod);
+		generator.setTextures(textures);
+		generator.setXlinks(xlinks);
+		generator.setGenericAttributes(attributes);
+
+		File file;
+		if ("cityjson".equalsIgnoreCase(format)) {
+			file = dir.resolve("dataset.json").toFile();
+			generator.writeCityJSON(file, buildings, CityGMLContext.getInstance().createCityJSONBuilder());
+		} else {
+			file = dir.resolve("dataset.gml").toFile();
+			generator.writeCityModel(file, buildings, CityGMLContext.getInstance().createCityGMLBuilder());
+		}
+
+		System.out.println("Generated " + buildings + " synthetic buildings in " + file.getAbsolutePath() + ".");
+		return file;
+	}
+
+	private String[] getImpExpArgs(String phase, File dataset, Path work) throws IOException {
+		String config = configFile.getAbsolutePath();
+
+		switch (phase) {
+			case "import":
+				return new String[]{"-shell", "-config", config, "-import", dataset.getAbsolutePath()};
+			case "export":
+				Path exportDir = Files.createDirectories(work.resolve("export"));
+				return new String[]{"-shell", "-config", config, "-export", exportDir.resolve("export.gml").toString()};
+			case "delete":
+				return new String[]{"-shell", "-config", config, "-delete"};
+			default:
+				return null;
+		}
+	}
+
+	private PhaseResult runPhase(String phase, String[] impExpArgs, Path work) throws Exception {
+		Path resultFile = work.resolve("phase-" + phase + ".json");
+		Files.deleteIfExists(resultFile);
+
+		List<String> command = new ArrayList<>();
+		command.add(new File(System.getProperty("java.home"), "bin" + File.separator + "java").getAbsolutePath());
+		for (String arg : jvmArgs.trim().split("\\s+")) {
+			if (!arg.isEmpty())
+				command.add(arg);
+		}
+
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(PhaseRunner.class.getName());
+		command.add(resultFile.toString());
+		command.add(phase);
+		command.addAll(Arrays.asList(impExpArgs));
+
+		Process process = new ProcessBuilder(command).inheritIO().start();
+		int exitCode = process.waitFor();
+
+		if (exitCode == 0 && Files.exists(resultFile)) {
+			try (Reader reader = Files.newBufferedReader(resultFile, StandardCharsets.UTF_8)) {
+				return new Gson().fromJson(reader, PhaseResult.class);
+			}
+		}
+
+		PhaseResult failed = new PhaseResult();
+		failed.setPhase(phase);
+		failed.setSuccess(false);
+		return failed;
+	}
+
+	private void runCommand(String command) throws Exception {
+		String[] shell = System.getProperty("os.name").toLowerCase().startsWith("windows") ?
+				new String[]{"cmd", "/c", command} :
+				new String[]{"sh", "-c", command};
+
+		System.out.println("Executing '" + command + "'...");
+		int exitCode = new ProcessBuilder(shell).inheritIO().start().waitFor();
+		if (exitCode != 0)
+			throw new IOException("Command '" + command + "' failed with exit code " + exitCode + ".");
+	}
+
+	private void addEnvironment(Map<String, String> environment) {
+		environment.put("java.version", System.getProperty("java.version"));
+		environment.put("java.vm.name", System.getProperty("java.vm.name"));
+		environment.put("os.name", System.getProperty("os.name"));
+		environment.put("os.arch", System.getProperty("os.arch"));
+		environment.put("processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+		environment.put("jvmArgs", jvmArgs);
+	}
+
+	private void addDatasetSettings(Map<String, Object> dataset) {
+		dataset.put("buildings", buildings);
+		dataset.put("lod", lod);
+		dataset.put("verticesPerRing", vertices);
+		dataset.put("textures", textures);
+		dataset.put("xlinks", xlinks);
+		dataset.put("genericAttributes", attributes);
+		dataset.put("format", format.toLowerCase());
+		dataset.put("seed", seed);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark.harness;
+
+import java.util.Map;
+
+/**
+ * Measurements of a single import, export or delete run.
+ */
+public class PhaseResult {
+	private String phase;
+	private boolean success;
+	private long features;
+	private double seconds;
+	private double featuresPerSecond;
+	private long peakHeapBytes;
+	private long gcCount;
+	private long gcMillis;
+	private long roundTrips;
+	private Map<String, Map<String, Number>> metrics;
+
+	public String getPhase() {
+		return phase;
+	}
+
+	public void setPhase(String phase) {
+		this.phase = phase;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	public long getFeatures() {
+		return features;
+	}
+
+	public void setFeatures(long features) {
+		this.features = features;
+		featuresPerSecond = seconds > 0 ? features / seconds : 0;
+	}
+
+	public double getSeconds() {
+		return seconds;
+	}
+
+	public void setSeconds(double seconds) {
+		this.seconds = seconds;
+		featuresPerSecond = seconds > 0 ? features / seconds : 0;
+	}
+
+	public double getFeaturesPerSecond() {
+		return featuresPerSecond;
+	}
+
+	public long getPeakHeapBytes() {
+		return peakHeapBytes;
+	}
+
+	public void setPeakHeapBytes(long peakHeapBytes) {
+		this.peakHeapBytes = peakHeapBytes;
+	}
+
+	public long getGcCount() {
+		return gcCount;
+	}
+
+	public void setGcCount(long gcCount) {
+		this.gcCount = gcCount;
+	}
+
+	public long getGcMillis() {
+		return gcMillis;
+	}
+
+	public void setGcMillis(long gcMillis) {
+		this.gcMillis = gcMillis;
+	}
+
+	public long getRoundTrips() {
+		return roundTrips;
+	}
+
+	public void setRoundTrips(long roundTrips) {
+		this.roundTrips = roundTrips;
+	}
+
+	public Map<String, Map<String, Number>> getMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(Map<String, Map<String, Number>> metrics) {
+		this.metrics = metrics;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.benchmark.harness;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.citydb.ImpExp;
+import org.citydb.database.connection.StatementStatistics;
+import org.citydb.metrics.Metric;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.plugin.Plugin;
+
+import java.io.BufferedWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs a single benchmark phase in a dedicated JVM. The phase is executed by
+ * passing the command line arguments to the shell version of the
+ * Importer/Exporter. Afterwards, the measurements are written to the result
+ * file as JSON. If the phase fails, no result file is written.
+ */
+public class PhaseRunner {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 3) {
+			System.err.println("Usage: PhaseRunner <result file> <phase> <Importer/Exporter arguments>");
+			System.exit(1);
+		}
+
+		Path resultFile = Paths.get(args[0]);
+		String phase = args[1];
+		String[] impExpArgs = Arrays.copyOfRange(args, 2, args.length);
+
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		metrics.setEnabled(true);
+		StatementStatistics.getInstance().setEnabled(true);
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			pool.resetPeakUsage();
+
+		long gcCount = getGcCount();
+		long gcMillis = getGcMillis();
+		long start = System.nanoTime();
+
+		// exits the JVM with a non-zero status on failure
+		new ImpExp().doMain(impExpArgs, new Plugin[0]);
+
+		PhaseResult result = new PhaseResult();
+		result.setPhase(phase);
+		result.setSuccess(true);
+		result.setSeconds((System.nanoTime() - start) / 1e9);
+		result.setPeakHeapBytes(getPeakHeapUsage());
+		result.setGcCount(getGcCount() - gcCount);
+		result.setGcMillis(getGcMillis() - gcMillis);
+
+		Map<String, Map<String, Number>> values = new TreeMap<>();
+		for (Map.Entry<String, Metric> entry : metrics.getMetrics().entrySet())
+			values.put(entry.getKey(), entry.getValue().getValues());
+
+		result.setMetrics(values);
+		result.setRoundTrips(StatementStatistics.getInstance().getRoundTrips());
+
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		try (BufferedWriter writer = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8)) {
+			gson.toJson(result, writer);
+		}
+
+		System.exit(0);
+	}
+
+	private static long getPeakHeapUsage() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null)
+				peak += pool.getPeakUsage().getUsed();
+		}
+
+		return peak;
+	}
+
+	private static long getGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, gc.getCollectionCount());
+
+		return count;
+	}
+
+	private static long getGcMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			millis += Math.max(0, gc.getCollectionTime());
+
+		return millis;
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.citygml.exporter.writer;
+
+import org.citydb.benchmark.BenchmarkSupport;
+import org.citydb.benchmark.data.CityModelGenerator;
+import org.citygml4j.builder.jaxb.CityGMLBuilderException;
+import org.citygml4j.model.citygml.building.Building;
+import org.citygml4j.model.module.Module;
+import org.citygml4j.model.module.ModuleContext;
+import org.citygml4j.model.module.citygml.CityGMLVersion;
+import org.citygml4j.util.xml.SAXWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the marshalling of top-level features by {@link CityGMLWriter}.
+ * The benchmark lives in the package of the writer to create instances
+ * without a query and schema mapping. The resulting document is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CityGMLWriterBenchmark {
+	private static final int BUILDINGS = 1000;
+
+	@Param({"8", "32"})
+	private int vertices;
+
+	@Param({"false", "true"})
+	private boolean useSequentialWriting;
+
+	private final AtomicInteger counter = new AtomicInteger();
+	private List<Building> buildings;
+	private CityGMLWriter writer;
+
+	@Setup(Level.Trial)
+	public void setup() throws CityGMLBuilderException, FeatureWriteException {
+		BenchmarkSupport.getCityGMLBuilder();
+		BenchmarkSupport.getEventDispatcher();
+		buildings = new CityModelGenerator(1, vertices).createBuildings(BUILDINGS);
+
+		SAXWriter saxWriter = new SAXWriter();
+		saxWriter.setIndentString("  ");
+		for (Module module : new ModuleContext(CityGMLVersion.v2_0_0).getModules())
+			saxWriter.setPrefix(module.getNamespacePrefix(), module.getNamespaceURI());
+
+		saxWriter.setOutput(new DiscardingWriter());
+
+		writer = new CityGMLWriter(saxWriter, CityGMLVersion.v2_0_0, null, useSequentialWriting);
+		writer.writeHeader();
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() throws FeatureWriteException {
+		writer.close();
+	}
+
+	@Benchmark
+	public void write() throws FeatureWriteException {
+		// sequence ids must be gap-free when writing sequentially
+		int sequenceId = counter.getAndIncrement();
+		writer.write(buildings.get(sequenceId % BUILDINGS), useSequentialWriting ? sequenceId : -1);
+	}
+
+	private static final class DiscardingWriter extends Writer {
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			// discard output
+		}
+
+		@Override
+		public void flush() {
+			// nothing to do
+		}
+
+		@Override
+		public void close() {
+			// nothing to do
+		}
+	}
+}
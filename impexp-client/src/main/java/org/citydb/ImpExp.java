@@ -30,6 +30,7 @@ package org.citydb;
 import org.citydb.ade.ADEExtension;
 import org.citydb.ade.ADEExtensionManager;
 import org.citydb.cli.ImpExpCli;
+import org.citydb.cli.ProgressReporter;
 import org.citydb.config.Config;
 import org.citydb.config.ConfigUtil;
 import org.citydb.config.gui.Gui;
@@ -38,8 +39,10 @@ import org.citydb.config.project.Project;
 import org.citydb.config.project.global.LanguageType;
 import org.citydb.config.project.global.LogLevel;
 import org.citydb.config.project.global.Logging;
+import org.citydb.config.project.global.Metrics;
 import org.citydb.config.project.query.util.QueryWrapper;
 import org.citydb.database.DatabaseController;
+import org.citydb.database.connection.StatementStatistics;
 import org.citydb.database.schema.mapping.SchemaMapping;
 import org.citydb.database.schema.mapping.SchemaMappingException;
 import org.citydb.database.schema.mapping.SchemaMappingValidationException;
@@ -50,6 +53,9 @@ import org.citydb.gui.ImpExpGui;
 import org.citydb.gui.components.SplashScreen;
 import org.citydb.gui.util.OSXAdapter;
 import org.citydb.log.Logger;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.MetricsReporter;
+import org.citydb.metrics.jfr.FlightRecording;
 import org.citydb.modules.citygml.exporter.CityGMLExportPlugin;
 import org.citydb.modules.citygml.importer.CityGMLImportPlugin;
 import org.citydb.modules.database.DatabasePlugin;
@@ -85,6 +91,7 @@ import javax.xml.bind.JAXBException;
 import java.awt.*;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.net.ProxySelector;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -134,6 +141,18 @@ public class ImpExp {
 	@Option(name="-pid-file", usage="create file containing the current process ID", metaVar="fileName")
 	private Path pidFile;
 
+	@Option(name="-progress", usage="periodically log the progress and estimated time left\n(shell version only)")
+	private boolean progress;
+
+	@Option(name="-progressFile", usage="periodically append the progress as JSON object\nto this file (shell version only)", metaVar="fileName")
+	private Path progressFile;
+
+	@Option(name="-progressInterval", usage="interval between progress reports in seconds\n(default: 10)", metaVar="seconds")
+	private int progressInterval = 10;
+
+	@Option(name="-jfr", usage="record a Java Flight Recorder profile including\nimport and export events to this file", metaVar="fileName")
+	private Path jfrFile;
+
 	@Option(name="-noSplash")
 	private boolean noSplash;
 
@@ -480,6 +499,40 @@ public class ImpExp {
 			log.writeToFile(msg.toString());
 		}
 
+		// init metrics
+		Metrics metrics = config.getProject().getGlobal().getMetrics();
+		if (metrics.isEnabled()) {
+			MetricsRegistry registry = MetricsRegistry.getInstance();
+			registry.setEnabled(true);
+
+			if (metrics.isUseJmx())
+				registry.registerMBeans(ManagementFactory.getPlatformMBeanServer());
+
+			if (metrics.isSetDumpFile()) {
+				MetricsReporter reporter = new MetricsReporter(registry,
+						Paths.get(metrics.getDumpFile()),
+						metrics.getDumpFormat(),
+						metrics.getDumpInterval() * 1000L);
+
+				reporter.start();
+				Runtime.getRuntime().addShutdownHook(new Thread(reporter::stop));
+				log.debug("Writing metrics to '" + metrics.getDumpFile() + "' every " + metrics.getDumpInterval() + " seconds.");
+			}
+		}
+
+		// statement statistics may also have been enabled programmatically
+		if (metrics.isStatementStatistics())
+			StatementStatistics.getInstance().setEnabled(true);
+
+		// start flight recording
+		if (jfrFile != null) {
+			try {
+				FlightRecording.startRecording(jfrFile.normalize().toAbsolutePath());
+			} catch (IOException e) {
+				throw new ImpExpException("Failed to start Java Flight Recorder.", e);
+			}
+		}
+
 		// create pid file
 		if (pidFile != null) {
 			try {
@@ -546,6 +599,12 @@ public class ImpExp {
 			ImpExpCli cmd = new ImpExpCli(kmlContext, colladaContext, config);
 			boolean success = false;
 
+			if (progress || progressFile != null) {
+				cmd.setProgressReporter(new ProgressReporter(ObjectRegistry.getInstance().getEventDispatcher(),
+						progressFile != null ? progressFile.normalize().toAbsolutePath() : null,
+						Math.max(progressInterval, 1) * 1000L));
+			}
+
 			if (validateFile != null)
 				success = cmd.doValidate(validateFile);
 			else if (importFile != null)
@@ -68,6 +68,7 @@ public class ImpExpCli {
 	private JAXBContext jaxbKmlContext;
 	private JAXBContext jaxbColladaContext;
 	private Config config;
+	private ProgressReporter progressReporter;
 
 	public ImpExpCli(JAXBContext jaxbKmlContext,
 			JAXBContext jaxbColladaContext,
@@ -81,6 +82,10 @@ public class ImpExpCli {
 		schemaMapping = ObjectRegistry.getInstance().getSchemaMapping();
 	}
 
+	public void setProgressReporter(ProgressReporter progressReporter) {
+		this.progressReporter = progressReporter;
+	}
+
 	public boolean doImport(String importFiles) throws ImpExpException {
 		// prepare list of files to be validated
 		List<Path> files = getFiles(importFiles);
@@ -98,6 +103,9 @@ public class ImpExpCli {
 		Importer importer = new Importer(cityGMLBuilder, schemaMapping, config, eventDispatcher);
 		boolean success = false;
 
+		if (progressReporter != null)
+			progressReporter.start("import");
+
 		try {
 			success = importer.doProcess();
 		} catch (CityGMLImportException e) {
@@ -109,6 +117,9 @@ public class ImpExpCli {
 				//
 			}
 
+			if (progressReporter != null)
+				progressReporter.stop(success);
+
 			dbPool.disconnect();
 		}
 
@@ -166,6 +177,9 @@ public class ImpExpCli {
 		Exporter exporter = new Exporter(cityGMLBuilder, schemaMapping, config, eventDispatcher);
 		boolean success = false;
 
+		if (progressReporter != null)
+			progressReporter.start("export");
+
 		try {
 			success = exporter.doProcess();
 		} catch (CityGMLExportException e) {
@@ -177,6 +191,9 @@ public class ImpExpCli {
 				//
 			}
 
+			if (progressReporter != null)
+				progressReporter.stop(success);
+
 			dbPool.disconnect();
 		}
 
@@ -199,6 +216,9 @@ public class ImpExpCli {
 		Deleter deleter = new Deleter(config, schemaMapping, eventDispatcher);
 		boolean success = false;
 
+		if (progressReporter != null)
+			progressReporter.start("delete");
+
 		try {
 			success = deleter.doProcess();
 		} catch (CityGMLDeleteException e) {
@@ -210,6 +230,9 @@ public class ImpExpCli {
 				//
 			}
 
+			if (progressReporter != null)
+				progressReporter.stop(success);
+
 			dbPool.disconnect();
 		}
 
@@ -233,7 +256,10 @@ public class ImpExpCli {
 		EventDispatcher eventDispatcher = ObjectRegistry.getInstance().getEventDispatcher();
 		KmlExporter kmlExporter = new KmlExporter(jaxbKmlContext, jaxbColladaContext, schemaMapping, config, eventDispatcher);
 		boolean success = false;
-		
+
+		if (progressReporter != null)
+			progressReporter.start("kmlExport");
+
 		try {
 			success = kmlExporter.doProcess();
 		} catch (KmlExportException e) {
@@ -245,6 +271,9 @@ public class ImpExpCli {
 				//
 			}
 
+			if (progressReporter != null)
+				progressReporter.stop(success);
+
 			dbPool.disconnect();
 		}
 
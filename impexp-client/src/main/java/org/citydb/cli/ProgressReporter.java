@@ -0,0 +1,359 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.cli;
+
+import com.google.gson.Gson;
+import org.citydb.concurrent.WorkerPool;
+import org.citydb.event.Event;
+import org.citydb.event.EventDispatcher;
+import org.citydb.event.EventHandler;
+import org.citydb.event.global.CounterEvent;
+import org.citydb.event.global.EventType;
+import org.citydb.event.global.ProgressBarEventType;
+import org.citydb.event.global.StatusDialogMessage;
+import org.citydb.event.global.StatusDialogProgressBar;
+import org.citydb.event.global.StatusDialogTitle;
+import org.citydb.file.InputFile;
+import org.citydb.log.Logger;
+import org.citydb.metrics.Gauge;
+import org.citydb.metrics.Metric;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.util.Util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reports the progress of a shell operation at a fixed interval. The reporter
+ * consumes the same events as the status dialogs of the GUI and complements
+ * them with the bytes read from the input files and the queue depths of the
+ * worker pools. Each status is either logged or appended as JSON object to a
+ * file, one object per line.
+ */
+public class ProgressReporter implements EventHandler, Runnable {
+	// smoothing period of the moving averages in milliseconds
+	private static final double RATE_PERIOD = 60000;
+
+	private final Logger log = Logger.getInstance();
+	private final EventDispatcher eventDispatcher;
+	private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+	private final Path file;
+	private final long interval;
+	private final Gson gson = new Gson();
+
+	// start and stop are called by the thread running the operation
+	private String operation;
+	private Thread reporterThread;
+	private volatile boolean shouldRun;
+
+	private long startTime;
+	private long features;
+	private long textures;
+	private long progress;
+	private long progressMax;
+	private long remainingFiles = -1;
+	private long remainingTiles = -1;
+	private int openedFiles;
+	private String title;
+	private String message;
+	private boolean interrupted;
+	private long bytesReadBase;
+	private long bytesTotalBase;
+
+	private long lastTime;
+	private long lastFeatures;
+	private long lastProgress;
+	private long lastBytesRead;
+	private double featureRate = -1;
+	private double progressRate = -1;
+	private double byteRate = -1;
+
+	/**
+	 * @param file the file to write JSON status objects to or {@code null}
+	 *             to log the status
+	 * @param interval the reporting interval in milliseconds
+	 */
+	public ProgressReporter(EventDispatcher eventDispatcher, Path file, long interval) {
+		if (interval <= 0)
+			throw new IllegalArgumentException("Interval must be greater than zero.");
+
+		this.eventDispatcher = eventDispatcher;
+		this.file = file;
+		this.interval = interval;
+	}
+
+	public void start(String operation) {
+		if (reporterThread != null)
+			return;
+
+		this.operation = operation;
+		startTime = lastTime = System.currentTimeMillis();
+		synchronized (this) {
+			features = textures = progress = progressMax = 0;
+			remainingFiles = remainingTiles = -1;
+			featureRate = progressRate = byteRate = -1;
+			lastFeatures = lastProgress = lastBytesRead = 0;
+			openedFiles = 0;
+			title = message = null;
+			interrupted = false;
+		}
+
+		bytesReadBase = metrics.counter(InputFile.BYTES_READ_METRIC).getCount();
+		bytesTotalBase = metrics.counter(InputFile.BYTES_TOTAL_METRIC).getCount();
+
+		// let worker pools expose their queue depths
+		metrics.addGaugeConsumer();
+
+		eventDispatcher.addEventHandler(EventType.COUNTER, this);
+		eventDispatcher.addEventHandler(EventType.STATUS_DIALOG_PROGRESS_BAR, this);
+		eventDispatcher.addEventHandler(EventType.STATUS_DIALOG_TITLE, this);
+		eventDispatcher.addEventHandler(EventType.STATUS_DIALOG_MESSAGE, this);
+		eventDispatcher.addEventHandler(EventType.INTERRUPT, this);
+
+		shouldRun = true;
+		reporterThread = new Thread(this);
+		reporterThread.setName("progress_reporter");
+		reporterThread.setDaemon(true);
+		reporterThread.start();
+	}
+
+	public void stop(boolean success) {
+		if (reporterThread == null)
+			return;
+
+		shouldRun = false;
+		reporterThread.interrupt();
+		try {
+			reporterThread.join();
+		} catch (InterruptedException e) {
+			//
+		}
+
+		reporterThread = null;
+		eventDispatcher.removeEventHandler(this);
+
+		// report final status
+		report(success ? "finished" : "aborted");
+		metrics.removeGaugeConsumer();
+	}
+
+	@Override
+	public void run() {
+		while (shouldRun) {
+			try {
+				Thread.sleep(interval);
+			} catch (InterruptedException e) {
+				continue;
+			}
+
+			report(interrupted ? "aborting" : "running");
+		}
+	}
+
+	@Override
+	public synchronized void handleEvent(Event event) throws Exception {
+		switch ((EventType) event.getEventType()) {
+			case COUNTER:
+				CounterEvent counterEvent = (CounterEvent) event;
+				switch (counterEvent.getType()) {
+					case TOPLEVEL_FEATURE:
+						features += counterEvent.getCounter();
+						break;
+					case TEXTURE_IMAGE:
+						textures += counterEvent.getCounter();
+						break;
+					case FILE:
+						remainingFiles = counterEvent.getCounter();
+						break;
+					case REMAINING_TILES:
+						remainingTiles = counterEvent.getCounter();
+						break;
+				}
+				break;
+			case STATUS_DIALOG_PROGRESS_BAR:
+				StatusDialogProgressBar progressBar = (StatusDialogProgressBar) event;
+				if (progressBar.getType() == ProgressBarEventType.INIT) {
+					progressMax = progressBar.isSetIntermediate() ? 0 : progressBar.getValue();
+					progress = lastProgress = 0;
+					progressRate = -1;
+				} else
+					progress += progressBar.getValue();
+				break;
+			case STATUS_DIALOG_TITLE:
+				title = ((StatusDialogTitle) event).getTitle();
+				openedFiles++;
+				break;
+			case STATUS_DIALOG_MESSAGE:
+				message = ((StatusDialogMessage) event).getMessage();
+				break;
+			case INTERRUPT:
+				interrupted = true;
+				break;
+			default:
+				break;
+		}
+	}
+
+	private synchronized void report(String state) {
+		long now = System.currentTimeMillis();
+		long bytesRead = metrics.counter(InputFile.BYTES_READ_METRIC).getCount() - bytesReadBase;
+		long bytesTotal = metrics.counter(InputFile.BYTES_TOTAL_METRIC).getCount() - bytesTotalBase;
+
+		// exponentially weighted moving averages of the rates per second
+		long elapsed = now - lastTime;
+		if (elapsed > 0) {
+			double alpha = 1 - Math.exp(-elapsed / RATE_PERIOD);
+			featureRate = updateRate(featureRate, features - lastFeatures, elapsed, alpha);
+			progressRate = updateRate(progressRate, progress - lastProgress, elapsed, alpha);
+			byteRate = updateRate(byteRate, bytesRead - lastBytesRead, elapsed, alpha);
+			lastTime = now;
+			lastFeatures = features;
+			lastProgress = progress;
+			lastBytesRead = bytesRead;
+		}
+
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("timestamp", Instant.ofEpochMilli(now).toString());
+		status.put("operation", operation);
+		status.put("state", state);
+		status.put("elapsedSeconds", (now - startTime) / 1000);
+		status.put("features", features);
+		status.put("featuresPerSecond", round(Math.max(featureRate, 0)));
+		if (textures > 0) status.put("textureImages", textures);
+		if (progressMax > 0) {
+			status.put("progress", progress);
+			status.put("progressMax", progressMax);
+		}
+		if (bytesTotal > 0) {
+			status.put("bytesRead", bytesRead);
+			status.put("bytesTotal", bytesTotal);
+		}
+		if (title != null) status.put("file", title);
+		if (remainingFiles >= 0) status.put("remainingFiles", remainingFiles);
+		if (remainingTiles >= 0) status.put("remainingTiles", remainingTiles);
+		if (message != null) status.put("message", message);
+
+		Map<String, Number> queues = getQueueDepths();
+		if (!queues.isEmpty()) status.put("queues", queues);
+
+		long eta = "running".equals(state) ? getEstimatedTimeLeft(bytesRead, bytesTotal) : -1;
+		if (eta >= 0) status.put("etaSeconds", eta / 1000);
+
+		if (file != null)
+			write(status);
+		else
+			log(status, eta);
+	}
+
+	private long getEstimatedTimeLeft(long bytesRead, long bytesTotal) {
+		// prefer the progress of the current stage
+		if (progressMax > 0 && progressRate > 0)
+			return (long) (Math.max(progressMax - progress, 0) / progressRate * 1000);
+
+		// otherwise, estimate from the input files assuming that remaining
+		// files have the average size of the files opened so far
+		if (bytesTotal > 0 && byteRate > 0) {
+			double remainingBytes = Math.max(bytesTotal - bytesRead, 0);
+			if (remainingFiles > 0 && openedFiles > 0)
+				remainingBytes += remainingFiles * (double) bytesTotal / openedFiles;
+
+			return (long) (remainingBytes / byteRate * 1000);
+		}
+
+		return -1;
+	}
+
+	private Map<String, Number> getQueueDepths() {
+		Map<String, Number> queues = new TreeMap<>();
+		for (Map.Entry<String, Metric> entry : metrics.getMetrics().entrySet()) {
+			if (entry.getKey().startsWith(WorkerPool.QUEUE_METRIC_PREFIX) && entry.getValue() instanceof Gauge) {
+				String poolName = entry.getKey().substring(WorkerPool.QUEUE_METRIC_PREFIX.length());
+				queues.put(poolName, ((Gauge) entry.getValue()).getValue());
+			}
+		}
+
+		return queues;
+	}
+
+	private void log(Map<String, Object> status, long eta) {
+		StringBuilder msg = new StringBuilder("Progress [").append(status.get("state")).append("]: ")
+				.append(features).append(" features (").append(status.get("featuresPerSecond")).append("/s)");
+
+		if (progressMax > 0)
+			msg.append(", ").append(progress).append(" of ").append(progressMax).append(" objects");
+
+		if (status.containsKey("bytesRead"))
+			msg.append(", ").append(toMegaBytes((long) status.get("bytesRead"))).append(" of ")
+					.append(toMegaBytes((long) status.get("bytesTotal"))).append(" MB read");
+
+		if (remainingFiles > 0)
+			msg.append(", ").append(remainingFiles).append(" files left");
+
+		if (remainingTiles >= 0)
+			msg.append(", ").append(remainingTiles).append(" tiles left");
+
+		if (status.containsKey("queues"))
+			msg.append(", queues ").append(status.get("queues"));
+
+		if (eta >= 0)
+			msg.append(", ETA ").append(Util.formatElapsedTime(eta));
+
+		log.info(msg.toString());
+	}
+
+	private void write(Map<String, Object> status) {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			writer.write(gson.toJson(status));
+			writer.newLine();
+		} catch (IOException e) {
+			log.error("Failed to write progress to '" + file + "': " + e.getMessage());
+		}
+	}
+
+	private double updateRate(double rate, long delta, long elapsed, double alpha) {
+		double current = delta * 1000.0 / elapsed;
+		return rate < 0 ? current : rate + alpha * (current - rate);
+	}
+
+	private double round(double value) {
+		return Math.round(value * 10) / 10.0;
+	}
+
+	private String toMegaBytes(long bytes) {
+		return String.valueOf(round(bytes / 1048576.0));
+	}
+}
@@ -773,6 +773,7 @@ public class KmlExportPanel extends JPanel implements EventHandler {
 			// check API key when using the elevation API
 			if (config.getProject().getKmlExporter().getAltitudeOffsetMode() == AltitudeOffsetMode.GENERIC_ATTRIBUTE
 					&& config.getProject().getKmlExporter().isCallGElevationService()
+					&& !config.getProject().getKmlExporter().getElevationModel().isEnabled()
 					&& !config.getProject().getGlobal().getApiKeys().isSetGoogleElevation()) {
 				log.error("The Google Elevation API cannot be used due to a missing API key.");
 				log.error("Please enter an API key or change the export preferences.");
@@ -281,6 +281,17 @@ public class GeometryObject {
 		return coordinates;
 	}
 
+	public GeometryObject copy(double[][] coordinates, int srid) {
+		if (coordinates.length != elementTypes.length)
+			throw new IllegalArgumentException("The number of coordinate arrays does not match the number of geometry elements.");
+
+		GeometryObject geometryObject = new GeometryObject(geometryType, dimension, srid);
+		geometryObject.elementTypes = elementTypes;
+		geometryObject.coordinates = coordinates;
+
+		return geometryObject;
+	}
+
 	public void changeSrid(int srid) {
 		if (this.srid != srid)
 			this.srid = srid;
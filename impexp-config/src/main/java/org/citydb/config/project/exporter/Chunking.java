@@ -0,0 +1,110 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.config.project.exporter;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlSchemaType;
+import javax.xml.bind.annotation.XmlType;
+
+@XmlType(name="ExportChunkingType", propOrder={
+		"maxFeatures",
+		"maxFileSize",
+		"useSeparateFolders",
+		"concurrentChunks"
+})
+public class Chunking {
+	@XmlAttribute(required=true)
+	private boolean isEnabled = false;
+	@XmlSchemaType(name="positiveInteger")
+	private Integer maxFeatures;
+	@XmlSchemaType(name="positiveInteger")
+	private Integer maxFileSize;
+	@XmlElement(defaultValue="false")
+	private Boolean useSeparateFolders = false;
+	@XmlElement(defaultValue="1")
+	@XmlSchemaType(name="positiveInteger")
+	private Integer concurrentChunks = 1;
+
+	public boolean isEnabled() {
+		return isEnabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		isEnabled = enabled;
+	}
+
+	public boolean isSetMaxFeatures() {
+		return maxFeatures != null && maxFeatures > 0;
+	}
+
+	public int getMaxFeatures() {
+		return isSetMaxFeatures() ? maxFeatures : 0;
+	}
+
+	public void setMaxFeatures(Integer maxFeatures) {
+		this.maxFeatures = maxFeatures;
+	}
+
+	public boolean isSetMaxFileSize() {
+		return maxFileSize != null && maxFileSize > 0;
+	}
+
+	/**
+	 * @return the maximum size of an output file in megabytes
+	 */
+	public int getMaxFileSize() {
+		return isSetMaxFileSize() ? maxFileSize : 0;
+	}
+
+	public void setMaxFileSize(Integer maxFileSize) {
+		this.maxFileSize = maxFileSize;
+	}
+
+	public Boolean getUseSeparateFolders() {
+		return useSeparateFolders;
+	}
+
+	public boolean isUseSeparateFolders() {
+		return useSeparateFolders != null && useSeparateFolders;
+	}
+
+	public void setUseSeparateFolders(Boolean useSeparateFolders) {
+		this.useSeparateFolders = useSeparateFolders;
+	}
+
+	public int getConcurrentChunks() {
+		return concurrentChunks != null && concurrentChunks > 0 ? concurrentChunks : 1;
+	}
+
+	public void setConcurrentChunks(Integer concurrentChunks) {
+		if (concurrentChunks != null && concurrentChunks > 0)
+			this.concurrentChunks = concurrentChunks;
+	}
+
+}
@@ -45,6 +45,8 @@ import javax.xml.bind.annotation.XmlType;
 		"appearances",
 		"xlink",
 		"xslTransformation",
+		"resumption",
+		"chunking",
 		"metadataProvider",
 		"cityGMLOptions",
 		"resources"
@@ -61,6 +63,8 @@ public class Exporter {
 	private ExportAppearance appearances;
 	private XLink xlink;
 	private XSLTransformation xslTransformation;
+	private Resumption resumption;
+	private Chunking chunking;
 	private String metadataProvider;
 	private CityGMLOptions cityGMLOptions;
 	private Resources resources;
@@ -75,6 +79,8 @@ public class Exporter {
 		appearances = new ExportAppearance();
 		xlink = new XLink();
 		xslTransformation = new XSLTransformation();
+		resumption = new Resumption();
+		chunking = new Chunking();
 		cityGMLOptions = new CityGMLOptions();
 		resources = new Resources();
 	}
@@ -168,6 +174,24 @@ public class Exporter {
 			this.xslTransformation = xslTransformation;
 	}
 
+	public Resumption getResumption() {
+		return resumption;
+	}
+
+	public void setResumption(Resumption resumption) {
+		if (resumption != null)
+			this.resumption = resumption;
+	}
+
+	public Chunking getChunking() {
+		return chunking;
+	}
+
+	public void setChunking(Chunking chunking) {
+		if (chunking != null)
+			this.chunking = chunking;
+	}
+
 	public boolean isSetMetadataProvider() {
 		return metadataProvider != null;
 	}
@@ -31,6 +31,7 @@ package org.citydb.config.project.exporter;
 import org.citydb.config.project.query.filter.tiling.AbstractTilingOptions;
 
 import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlSchemaType;
 import javax.xml.bind.annotation.XmlType;
 
 @XmlType(name="CityGMLTilingOptionsType", propOrder={
@@ -38,7 +39,9 @@ import javax.xml.bind.annotation.XmlType;
 		"tilePathSuffix",
 		"tileNameSuffix",
 		"includeTileAsGenericAttribute",
-		"genericAttributeValue"
+		"genericAttributeValue",
+		"concurrentTiles",
+		"skipEmptyTiles"
 })
 public class SimpleTilingOptions extends AbstractTilingOptions {
 	private String tilePath = "tile";
@@ -47,6 +50,11 @@ public class SimpleTilingOptions extends AbstractTilingOptions {
 	@XmlElement(defaultValue="false")
 	private Boolean includeTileAsGenericAttribute = false;
 	private TileSuffixMode genericAttributeValue = TileSuffixMode.XMIN_YMIN_XMAX_YMAX;
+	@XmlElement(defaultValue="1")
+	@XmlSchemaType(name="positiveInteger")
+	private Integer concurrentTiles = 1;
+	@XmlElement(defaultValue="false")
+	private Boolean skipEmptyTiles = false;
 
 	public String getTilePath() {
 		return tilePath;
@@ -91,5 +99,26 @@ public class SimpleTilingOptions extends AbstractTilingOptions {
 	public void setGenericAttributeValue(TileSuffixMode genericAttributeValue) {
 		this.genericAttributeValue = genericAttributeValue;
 	}
+
+	public int getConcurrentTiles() {
+		return concurrentTiles != null && concurrentTiles > 0 ? concurrentTiles : 1;
+	}
+
+	public void setConcurrentTiles(Integer concurrentTiles) {
+		if (concurrentTiles != null && concurrentTiles > 0)
+			this.concurrentTiles = concurrentTiles;
+	}
+
+	public Boolean getSkipEmptyTiles() {
+		return skipEmptyTiles;
+	}
+
+	public boolean isSkipEmptyTiles() {
+		return skipEmptyTiles != null && skipEmptyTiles;
+	}
+
+	public void setSkipEmptyTiles(Boolean skipEmptyTiles) {
+		this.skipEmptyTiles = skipEmptyTiles;
+	}
 	
 }
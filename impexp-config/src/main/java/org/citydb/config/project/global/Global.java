@@ -34,7 +34,8 @@ import javax.xml.bind.annotation.XmlType;
 		"logging",
 		"language",
 		"proxies",
-		"apiKeys"
+		"apiKeys",
+		"metrics"
 		})
 public class Global {
 	private Cache cache;
@@ -42,12 +43,14 @@ public class Global {
 	private LanguageType language = LanguageType.fromValue(System.getProperty("user.language"));
 	private Proxies proxies;
 	private APIKeys apiKeys;
+	private Metrics metrics;
 
 	public Global() {
 		cache = new Cache();
 		logging = new Logging();
 		proxies = new Proxies();
 		apiKeys = new APIKeys();
+		metrics = new Metrics();
 	}
 	
 	public Cache getCache() {
@@ -94,4 +97,13 @@ public class Global {
 		if (apiKeys != null)
 			this.apiKeys = apiKeys;
 	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(Metrics metrics) {
+		if (metrics != null)
+			this.metrics = metrics;
+	}
 }
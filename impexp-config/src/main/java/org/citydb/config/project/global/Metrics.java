@@ -0,0 +1,132 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.config.project.global;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlSchemaType;
+import javax.xml.bind.annotation.XmlType;
+
+@XmlType(name="MetricsType", propOrder={
+		"useJmx",
+		"dumpFile",
+		"dumpFormat",
+		"dumpInterval",
+		"statementStatistics",
+		"statementReportSize"
+})
+public class Metrics {
+	@XmlAttribute(required=true)
+	private boolean isEnabled = false;
+	@XmlElement(defaultValue="true")
+	private Boolean useJmx = true;
+	private String dumpFile;
+	@XmlElement(defaultValue="csv")
+	private MetricsDumpFormat dumpFormat = MetricsDumpFormat.CSV;
+	@XmlElement(defaultValue="60")
+	@XmlSchemaType(name="positiveInteger")
+	private Integer dumpInterval = 60;
+	@XmlElement(defaultValue="false")
+	private Boolean statementStatistics = false;
+	@XmlElement(defaultValue="10")
+	@XmlSchemaType(name="positiveInteger")
+	private Integer statementReportSize = 10;
+
+	public boolean isEnabled() {
+		return isEnabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		isEnabled = enabled;
+	}
+
+	public boolean isUseJmx() {
+		return useJmx != null && useJmx;
+	}
+
+	public void setUseJmx(Boolean useJmx) {
+		this.useJmx = useJmx;
+	}
+
+	public boolean isSetDumpFile() {
+		return dumpFile != null && !dumpFile.trim().isEmpty();
+	}
+
+	public String getDumpFile() {
+		return dumpFile;
+	}
+
+	public void setDumpFile(String dumpFile) {
+		this.dumpFile = dumpFile;
+	}
+
+	public MetricsDumpFormat getDumpFormat() {
+		return dumpFormat != null ? dumpFormat : MetricsDumpFormat.CSV;
+	}
+
+	public void setDumpFormat(MetricsDumpFormat dumpFormat) {
+		this.dumpFormat = dumpFormat;
+	}
+
+	/**
+	 * @return the interval between two dumps in seconds
+	 */
+	public int getDumpInterval() {
+		return dumpInterval != null && dumpInterval > 0 ? dumpInterval : 60;
+	}
+
+	public void setDumpInterval(Integer dumpInterval) {
+		if (dumpInterval != null && dumpInterval > 0)
+			this.dumpInterval = dumpInterval;
+	}
+
+	/**
+	 * Statement statistics count the database round trips and the time spent
+	 * per SQL statement. They are independent of the other metrics.
+	 */
+	public boolean isStatementStatistics() {
+		return statementStatistics != null && statementStatistics;
+	}
+
+	public void setStatementStatistics(Boolean statementStatistics) {
+		this.statementStatistics = statementStatistics;
+	}
+
+	/**
+	 * @return the number of statements reported at the end of an operation
+	 */
+	public int getStatementReportSize() {
+		return statementReportSize != null && statementReportSize > 0 ? statementReportSize : 10;
+	}
+
+	public void setStatementReportSize(Integer statementReportSize) {
+		if (statementReportSize != null && statementReportSize > 0)
+			this.statementReportSize = statementReportSize;
+	}
+
+}
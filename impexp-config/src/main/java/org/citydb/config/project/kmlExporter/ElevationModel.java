@@ -0,0 +1,85 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.config.project.kmlExporter;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.ArrayList;
+import java.util.List;
+
+@XmlType(name="ElevationModelType", propOrder={
+		"files",
+		"srid"
+})
+public class ElevationModel {
+	@XmlAttribute(required=true)
+	private boolean isEnabled = false;
+	@XmlElement(name="file")
+	private List<String> files;
+	private Integer srid;
+
+	public boolean isEnabled() {
+		return isEnabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		isEnabled = enabled;
+	}
+
+	public boolean isSetFiles() {
+		return files != null && !files.isEmpty();
+	}
+
+	public List<String> getFiles() {
+		return files;
+	}
+
+	public void addFile(String file) {
+		if (files == null)
+			files = new ArrayList<>();
+
+		files.add(file);
+	}
+
+	public void setFiles(List<String> files) {
+		this.files = files;
+	}
+
+	public boolean isSetSrid() {
+		return srid != null;
+	}
+
+	public Integer getSrid() {
+		return srid;
+	}
+
+	public void setSrid(Integer srid) {
+		this.srid = srid;
+	}
+}
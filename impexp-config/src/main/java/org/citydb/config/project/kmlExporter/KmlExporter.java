@@ -99,7 +99,9 @@ import java.util.Locale;
 		"altitudeOffsetMode",
 		"altitudeOffsetValue",
 		"callGElevationService",
+		"elevationModel",
 		"useOriginalZCoords",
+		"transformCoordinatesOnClient",
 		"idPrefixes",
 		"resources"
 })
@@ -186,7 +188,9 @@ public class KmlExporter {
 	private AltitudeOffsetMode altitudeOffsetMode;
 	private double altitudeOffsetValue;
 	private boolean callGElevationService;
+	private ElevationModel elevationModel;
 	private boolean useOriginalZCoords;
+	private boolean transformCoordinatesOnClient;
 
 	private IdPrefixes idPrefixes;
 	private Resources resources;
@@ -263,6 +267,7 @@ public class KmlExporter {
 		setAltitudeOffsetMode(AltitudeOffsetMode.NO_OFFSET);
 		altitudeOffsetValue = 0;
 		callGElevationService = false;
+		elevationModel = new ElevationModel();
 		setUseOriginalZCoords(true);
 
 		idPrefixes = new IdPrefixes();
@@ -522,6 +527,15 @@ public class KmlExporter {
 		return callGElevationService;
 	}
 
+	public ElevationModel getElevationModel() {
+		return elevationModel;
+	}
+
+	public void setElevationModel(ElevationModel elevationModel) {
+		if (elevationModel != null)
+			this.elevationModel = elevationModel;
+	}
+
 	public void setWriteJSONFile(boolean writeJSONFile) {
 		this.writeJSONFile = writeJSONFile;
 	}
@@ -570,6 +584,14 @@ public class KmlExporter {
 		return useOriginalZCoords;
 	}
 
+	public void setTransformCoordinatesOnClient(boolean transformCoordinatesOnClient) {
+		this.transformCoordinatesOnClient = transformCoordinatesOnClient;
+	}
+
+	public boolean isTransformCoordinatesOnClient() {
+		return transformCoordinatesOnClient;
+	}
+
 	public void setBuildingBalloon(Balloon buildingBalloon) {
 		this.buildingBalloon = buildingBalloon;
 	}
@@ -29,13 +29,33 @@ package org.citydb.config.project.kmlExporter;
 
 import org.citydb.config.project.query.filter.tiling.AbstractTilingOptions;
 
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlSchemaType;
 import javax.xml.bind.annotation.XmlType;
 
 @XmlType(name="KmlTilingOptionsType", propOrder={
-		"autoTileSideLength"
+		"autoTileSideLength",
+		"concurrentTiles",
+		"incrementalExport",
+		"quadtreeTiling",
+		"quadtreeMaxObjects",
+		"quadtreeMaxLevel"
 })
 public class KmlTilingOptions extends AbstractTilingOptions {
 	private double autoTileSideLength = 125.0;
+	@XmlElement(defaultValue="1")
+	@XmlSchemaType(name="positiveInteger")
+	private Integer concurrentTiles = 1;
+	@XmlElement(defaultValue="false")
+	private Boolean incrementalExport = false;
+	@XmlElement(defaultValue="false")
+	private Boolean quadtreeTiling = false;
+	@XmlElement(defaultValue="2000")
+	@XmlSchemaType(name="positiveInteger")
+	private Integer quadtreeMaxObjects = 2000;
+	@XmlElement(defaultValue="4")
+	@XmlSchemaType(name="nonNegativeInteger")
+	private Integer quadtreeMaxLevel = 4;
 
 	public void setAutoTileSideLength(double autoTileSideLength) {
 		this.autoTileSideLength = autoTileSideLength;
@@ -44,5 +64,50 @@ public class KmlTilingOptions extends AbstractTilingOptions {
 	public double getAutoTileSideLength() {
 		return autoTileSideLength;
 	}
+
+	public int getConcurrentTiles() {
+		return concurrentTiles != null && concurrentTiles > 0 ? concurrentTiles : 1;
+	}
+
+	public void setConcurrentTiles(Integer concurrentTiles) {
+		if (concurrentTiles != null && concurrentTiles > 0)
+			this.concurrentTiles = concurrentTiles;
+	}
+
+	public boolean isIncrementalExport() {
+		return incrementalExport != null ? incrementalExport : false;
+	}
+
+	public void setIncrementalExport(Boolean incrementalExport) {
+		if (incrementalExport != null)
+			this.incrementalExport = incrementalExport;
+	}
+
+	public boolean isQuadtreeTiling() {
+		return quadtreeTiling != null ? quadtreeTiling : false;
+	}
+
+	public void setQuadtreeTiling(Boolean quadtreeTiling) {
+		if (quadtreeTiling != null)
+			this.quadtreeTiling = quadtreeTiling;
+	}
+
+	public int getQuadtreeMaxObjects() {
+		return quadtreeMaxObjects != null && quadtreeMaxObjects > 0 ? quadtreeMaxObjects : 2000;
+	}
+
+	public void setQuadtreeMaxObjects(Integer quadtreeMaxObjects) {
+		if (quadtreeMaxObjects != null && quadtreeMaxObjects > 0)
+			this.quadtreeMaxObjects = quadtreeMaxObjects;
+	}
+
+	public int getQuadtreeMaxLevel() {
+		return quadtreeMaxLevel != null && quadtreeMaxLevel >= 0 ? quadtreeMaxLevel : 4;
+	}
+
+	public void setQuadtreeMaxLevel(Integer quadtreeMaxLevel) {
+		if (quadtreeMaxLevel != null && quadtreeMaxLevel >= 0)
+			this.quadtreeMaxLevel = quadtreeMaxLevel;
+	}
 	
 }
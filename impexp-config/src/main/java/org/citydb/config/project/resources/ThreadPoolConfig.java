@@ -33,7 +33,8 @@ import javax.xml.bind.annotation.XmlType;
 
 @XmlType(name="ThreadPoolConfigType", propOrder={
 		"minThreads",
-		"maxThreads"		
+		"maxThreads",
+		"adaptivePoolSize"
 })
 public class ThreadPoolConfig {
 	@XmlElement(required=true)
@@ -42,6 +43,8 @@ public class ThreadPoolConfig {
 	@XmlElement(required=true)
 	@XmlSchemaType(name="positiveInteger")
 	private Integer maxThreads;
+	@XmlElement(defaultValue="false")
+	private Boolean adaptivePoolSize = false;
 	
 	public ThreadPoolConfig() {
 		minThreads = 2;
@@ -65,5 +68,21 @@ public class ThreadPoolConfig {
 		if (maxThreads != null && maxThreads > 0)
 			this.maxThreads = maxThreads;
 	}
+
+	public Boolean getAdaptivePoolSize() {
+		return adaptivePoolSize;
+	}
+
+	/**
+	 * If enabled, the pool sizes are adapted to the load at runtime between
+	 * minThreads and maxThreads.
+	 */
+	public boolean isAdaptivePoolSize() {
+		return adaptivePoolSize != null && adaptivePoolSize;
+	}
+
+	public void setAdaptivePoolSize(Boolean adaptivePoolSize) {
+		this.adaptivePoolSize = adaptivePoolSize;
+	}
 	
 }
@@ -0,0 +1,64 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.citydb.export.ExportFeature")
+@Label("Export Feature")
+@Description("Export of a top-level feature from the database")
+@Category({"3DCityDB", "Export"})
+@StackTrace(false)
+public class ExportFeatureEvent extends jdk.jfr.Event implements FlightRecorderEvents.ExportFeature {
+	@Label("Feature Type")
+	String featureType;
+
+	@Label("gml:id")
+	String gmlId;
+
+	@Label("Database ID")
+	long id;
+
+	public ExportFeatureEvent() {
+		begin();
+	}
+
+	@Override
+	public void commit(String featureType, String gmlId, long id) {
+		if (shouldCommit()) {
+			this.featureType = featureType;
+			this.gmlId = gmlId;
+			this.id = id;
+			commit();
+		}
+	}
+}
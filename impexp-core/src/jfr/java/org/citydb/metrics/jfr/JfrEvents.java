@@ -0,0 +1,116 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import org.citydb.log.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+
+public class JfrEvents implements FlightRecorderEvents {
+	private final EventType parseChunk = EventType.getEventType(ParseChunkEvent.class);
+	private final EventType importFeature = EventType.getEventType(ImportFeatureEvent.class);
+	private final EventType executeBatch = EventType.getEventType(ExecuteBatchEvent.class);
+	private final EventType uidCacheDrain = EventType.getEventType(UIDCacheDrainEvent.class);
+	private final EventType xlinkPhase = EventType.getEventType(XlinkPhaseEvent.class);
+	private final EventType exportFeature = EventType.getEventType(ExportFeatureEvent.class);
+	private final EventType writerWait = EventType.getEventType(WriterWaitEvent.class);
+
+	@Override
+	public ParseChunk beginParseChunk() {
+		return parseChunk.isEnabled() ? new ParseChunkEvent() : null;
+	}
+
+	@Override
+	public ImportFeature beginImportFeature() {
+		return importFeature.isEnabled() ? new ImportFeatureEvent() : null;
+	}
+
+	@Override
+	public ExecuteBatch beginExecuteBatch() {
+		return executeBatch.isEnabled() ? new ExecuteBatchEvent() : null;
+	}
+
+	@Override
+	public UIDCacheDrain beginUIDCacheDrain() {
+		return uidCacheDrain.isEnabled() ? new UIDCacheDrainEvent() : null;
+	}
+
+	@Override
+	public XlinkPhase beginXlinkPhase() {
+		return xlinkPhase.isEnabled() ? new XlinkPhaseEvent() : null;
+	}
+
+	@Override
+	public ExportFeature beginExportFeature() {
+		return exportFeature.isEnabled() ? new ExportFeatureEvent() : null;
+	}
+
+	@Override
+	public WriterWait beginWriterWait() {
+		return writerWait.isEnabled() ? new WriterWaitEvent() : null;
+	}
+
+	@Override
+	public void startRecording(Path file) throws IOException {
+		Recording recording;
+		try {
+			recording = new Recording(Configuration.getConfiguration("profile"));
+		} catch (ParseException e) {
+			throw new IOException("Failed to parse the JFR profile settings.", e);
+		}
+
+		List<Class<? extends jdk.jfr.Event>> events = Arrays.asList(
+				ParseChunkEvent.class,
+				ImportFeatureEvent.class,
+				ExecuteBatchEvent.class,
+				UIDCacheDrainEvent.class,
+				XlinkPhaseEvent.class,
+				ExportFeatureEvent.class,
+				WriterWaitEvent.class);
+
+		for (Class<? extends jdk.jfr.Event> event : events)
+			recording.enable(event).withoutThreshold();
+
+		recording.setName("3DCityDB Importer/Exporter");
+		recording.setToDisk(true);
+		recording.setDestination(file);
+
+		// the recorder stops running recordings on JVM shutdown,
+		// which writes the recording to its destination
+		recording.start();
+
+		Logger.getInstance().debug("Recording Java Flight Recorder events to '" + file + "'.");
+	}
+}
@@ -35,6 +35,11 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.citydb.log.Logger;
+import org.citydb.metrics.Counter;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.Timer;
+import org.citydb.metrics.jfr.FlightRecorderEvents.UIDCacheDrain;
+import org.citydb.metrics.jfr.FlightRecording;
 
 public class UIDCache {
 	private final Logger log = Logger.getInstance();
@@ -51,6 +56,11 @@ public class UIDCache {
 	private final AtomicInteger entries = new AtomicInteger(0);
 	private volatile boolean backUp = false;
 
+	private final Counter hits;
+	private final Counter misses;
+	private final Timer lookupDBTimer;
+	private final Timer drainTimer;
+
 	public UIDCache(
 			UIDCachingModel cacheModel,
 			int capacity,
@@ -61,6 +71,13 @@ public class UIDCache {
 		this.drainFactor = drainFactor;
 
 		map = new ConcurrentHashMap<String, UIDCacheEntry>(capacity, .75f, concurrencyLevel);
+
+		String prefix = "uidcache." + cacheModel.getType().replace(' ', '_') + '.';
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		hits = metrics.counter(prefix + "hits");
+		misses = metrics.counter(prefix + "misses");
+		lookupDBTimer = metrics.timer(prefix + "lookupDB");
+		drainTimer = metrics.timer(prefix + "spill");
 	}
 
 	public void put(String key, long id, long rootId, boolean reverse, String mapping, int objectClassId) {
@@ -111,8 +128,11 @@ public class UIDCache {
 
 	private UIDCacheEntry lookupMap(String key) {
 		UIDCacheEntry entry = map.get(key);
-		if (entry != null)
+		if (entry != null) {
 			entry.getAndSetRequested(true);
+			hits.increment();
+		} else
+			misses.increment();
 
 		return entry;
 	}
@@ -136,8 +156,14 @@ public class UIDCache {
 			
 			int drain = Math.round(capacity * drainFactor);
 			try {
+				UIDCacheDrain jfrEvent = FlightRecording.events().beginUIDCacheDrain();
+				long start = drainTimer.start();
 				cacheModel.drainToDB(map, drain);
 				entries.set(map.size());
+				drainTimer.stop(start);
+
+				if (jfrEvent != null)
+					jfrEvent.commit(String.valueOf(cacheModel.getType()), drain);
 
 				log.debug("Entries written to " + cacheModel.getType() + " cache.");
 
@@ -172,12 +198,15 @@ public class UIDCache {
 			}
 		}
 
+		long start = lookupDBTimer.start();
 		try {			
 			return cacheModel.lookupDB(key);
 		} catch (SQLException sqlEx) {
 			log.error("SQL error while querying the " + cacheModel.getType() + " cache: " + sqlEx.getMessage());
 			return null;
-		} 
+		} finally {
+			lookupDBTimer.stop(start);
+		}
 	}
 	
 	public void shutdown() throws SQLException {
@@ -35,13 +35,11 @@ import org.citydb.config.project.deleter.DeleteMode;
 import org.citydb.config.project.global.LogLevel;
 import org.citydb.database.adapter.AbstractDatabaseAdapter;
 import org.citydb.event.Event;
+import org.citydb.event.EventAggregator;
 import org.citydb.event.EventDispatcher;
 import org.citydb.event.EventHandler;
 import org.citydb.event.global.EventType;
 import org.citydb.event.global.InterruptEvent;
-import org.citydb.event.global.ObjectCounterEvent;
-import org.citydb.event.global.ProgressBarEventType;
-import org.citydb.event.global.StatusDialogProgressBar;
 import org.citydb.log.Logger;
 
 import java.sql.CallableStatement;
@@ -51,8 +49,6 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class DBDeleteWorker extends Worker<DBSplittingResult> implements EventHandler {
@@ -63,6 +59,7 @@ public class DBDeleteWorker extends Worker<DBSplittingResult> implements EventHa
 	private final AbstractDatabaseAdapter databaseAdapter;
 	private final Config config;
 	private final EventDispatcher eventDispatcher;
+	private final EventAggregator eventAggregator;
 
 	private volatile boolean shouldRun = true;
 	private volatile boolean shouldWork = true;
@@ -71,6 +68,7 @@ public class DBDeleteWorker extends Worker<DBSplittingResult> implements EventHa
 		this.databaseAdapter = databaseAdapter;
 		this.config = config;
 		this.eventDispatcher = eventDispatcher;
+		eventAggregator = eventDispatcher.createEventAggregator(this);
 
 		eventDispatcher.addEventHandler(EventType.INTERRUPT, this);
 
@@ -119,6 +117,7 @@ public class DBDeleteWorker extends Worker<DBSplittingResult> implements EventHa
 				log.logStackTrace(e);
 			}
 
+			eventAggregator.close();
 			eventDispatcher.removeEventHandler(this);
 		}
 	}
@@ -157,13 +156,11 @@ public class DBDeleteWorker extends Worker<DBSplittingResult> implements EventHa
 
 			if (deletedObjectId == objectId) {
 				log.debug(work.getObjectType().getPath() + " (ID = " + objectId + ") deleted.");
-				Map<Integer, Long> objectCounter = new HashMap<>();
-				objectCounter.put(work.getObjectType().getObjectClassId(), 1L);
-				eventDispatcher.triggerEvent(new ObjectCounterEvent(objectCounter, eventChannel, this));
+				eventAggregator.addObjectCounter(work.getObjectType().getObjectClassId(), 1, eventChannel);
 			} else
 				log.warn("Failed to delete " + work.getObjectType().getPath() + " (ID = " + objectId + ").");
 
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+			eventAggregator.addProgress(1);
 		} catch (SQLException e) {
 			eventDispatcher.triggerEvent(new InterruptEvent("Failed to delete " + work.getObjectType().getPath() + " (ID = " + work.getId() + ").", LogLevel.WARN, e, eventChannel, this));
 		} catch (Throwable e) {
@@ -91,6 +91,15 @@ public class Deleter implements EventHandler {
 		long start = System.currentTimeMillis();
 		int minThreads = 2;
 		int maxThreads = Math.max(minThreads, Runtime.getRuntime().availableProcessors());
+
+		// delete workers are bound by database round trips. so do not start more workers
+		// than the connection pool can serve besides the connection of the splitter
+		int maxDbThreads = DatabaseConnectionPool.getInstance().limitToAvailableConnections(maxThreads, 1);
+		if (maxDbThreads < maxThreads) {
+			log.info("Limiting database workers to " + maxDbThreads + " threads due to the size of the connection pool.");
+			maxThreads = maxDbThreads;
+			minThreads = Math.min(minThreads, maxThreads);
+		}
 		
 		// adding listeners
 		eventDispatcher.addEventHandler(EventType.OBJECT_COUNTER, this);
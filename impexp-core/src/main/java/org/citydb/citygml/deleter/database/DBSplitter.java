@@ -77,6 +77,7 @@ public class DBSplitter {
 	private final Connection connection;
 	private final SchemaMapping schemaMapping;
 	private final SQLQueryBuilder builder;
+	private final int fetchSize;
 
 	private volatile boolean shouldRun = true;
 	private boolean calculateNumberMatched;
@@ -95,6 +96,11 @@ public class DBSplitter {
 		databaseAdapter = DatabaseConnectionPool.getInstance().getActiveDatabaseAdapter();
 		connection = DatabaseConnectionPool.getInstance().getConnection();
 
+		// disable auto-commit so that the top-level features can be streamed
+		// in chunks that match the capacity of the work queue
+		connection.setAutoCommit(false);
+		fetchSize = dbWorkerPool.getMaximumQueueSize();
+
 		builder = new SQLQueryBuilder(
 				schemaMapping, 
 				databaseAdapter,
@@ -167,7 +173,7 @@ public class DBSplitter {
 		}
 
 		// issue query
-		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection);
+		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection, fetchSize);
 			 ResultSet rs = stmt.executeQuery()) {
 			if (rs.next()) {
 				if (calculateNumberMatched) {
@@ -43,17 +43,15 @@ import org.citydb.database.adapter.AbstractDatabaseAdapter;
 import org.citydb.database.schema.mapping.MappingConstants;
 import org.citydb.database.schema.mapping.SchemaMapping;
 import org.citydb.event.Event;
+import org.citydb.event.EventAggregator;
 import org.citydb.event.EventDispatcher;
 import org.citydb.event.EventHandler;
-import org.citydb.event.global.CounterEvent;
 import org.citydb.event.global.CounterType;
 import org.citydb.event.global.EventType;
-import org.citydb.event.global.GeometryCounterEvent;
 import org.citydb.event.global.InterruptEvent;
-import org.citydb.event.global.ObjectCounterEvent;
-import org.citydb.event.global.ProgressBarEventType;
-import org.citydb.event.global.StatusDialogProgressBar;
 import org.citydb.file.OutputFile;
+import org.citydb.metrics.jfr.FlightRecorderEvents.ExportFeature;
+import org.citydb.metrics.jfr.FlightRecording;
 import org.citydb.plugin.PluginException;
 import org.citydb.plugin.PluginManager;
 import org.citydb.plugin.extension.export.CityGMLExportExtension;
@@ -76,9 +74,9 @@ public class DBExportWorker extends Worker<DBSplittingResult> implements EventHa
 	private final CityGMLExportManager exporter;
 	private final FeatureWriter featureWriter;
 	private final EventDispatcher eventDispatcher;
+	private final EventAggregator eventAggregator;
 	private final Config config;
 
-	private int exportCounter = 0;
 	private List<CityGMLExportExtension> plugins;
 
 	public DBExportWorker(OutputFile outputFile,
@@ -97,6 +95,7 @@ public class DBExportWorker extends Worker<DBSplittingResult> implements EventHa
 		this.featureWriter = featureWriter;
 		this.eventDispatcher = eventDispatcher;
 		this.config = config;
+		eventAggregator = eventDispatcher.createEventAggregator(this);
 
 		exporter = new CityGMLExportManager(
 				outputFile,
@@ -137,10 +136,8 @@ public class DBExportWorker extends Worker<DBSplittingResult> implements EventHa
 				}
 			}
 
-			eventDispatcher.triggerEvent(new CounterEvent(CounterType.TOPLEVEL_FEATURE, exportCounter, this));
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, exportCounter, this));
-			eventDispatcher.triggerEvent(new ObjectCounterEvent(exporter.getAndResetObjectCounter(), this));
-			eventDispatcher.triggerEvent(new GeometryCounterEvent(exporter.getAndResetGeometryCounter(), this));
+			eventAggregator.addObjectCounter(exporter.getAndResetObjectCounter());
+			eventAggregator.addGeometryCounter(exporter.getAndResetGeometryCounter());
 		} finally {
 			try {
 				exporter.close();
@@ -154,6 +151,7 @@ public class DBExportWorker extends Worker<DBSplittingResult> implements EventHa
 				//
 			}
 
+			eventAggregator.close();
 			eventDispatcher.removeEventHandler(this);
 		}
 	}
@@ -166,12 +164,16 @@ public class DBExportWorker extends Worker<DBSplittingResult> implements EventHa
 			if (!shouldWork)
 				return;
 
+			ExportFeature jfrEvent = FlightRecording.events().beginExportFeature();
 			AbstractGML topLevelObject;
 			if (work.getObjectType().getObjectClassId() == MappingConstants.APPEARANCE_OBJECTCLASS_ID)
 				topLevelObject = exporter.exportGlobalAppearance(work.getId());			
 			else
 				topLevelObject = exporter.exportObject(work.getId(), work.getObjectType(), false);
 
+			if (jfrEvent != null)
+				jfrEvent.commit(work.getObjectType().getPath(), topLevelObject != null ? topLevelObject.getId() : null, work.getId());
+
 			if (topLevelObject instanceof AbstractFeature) {
 				// cleanup appearances
 				exporter.cleanupAppearances(topLevelObject);
@@ -196,11 +198,8 @@ public class DBExportWorker extends Worker<DBSplittingResult> implements EventHa
 				
 				// update export counter
 				exporter.updateExportCounter(topLevelObject);
-				if (++exportCounter == 20) {
-					eventDispatcher.triggerEvent(new CounterEvent(CounterType.TOPLEVEL_FEATURE, exportCounter, this));
-					eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, exportCounter, this));
-					exportCounter = 0;
-				}
+				eventAggregator.addCounter(CounterType.TOPLEVEL_FEATURE, 1);
+				eventAggregator.addProgress(1);
 			} else
 				featureWriter.updateSequenceId(work.getSequenceId());
 
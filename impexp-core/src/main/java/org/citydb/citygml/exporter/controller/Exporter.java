@@ -27,6 +27,7 @@
  */
 package org.citydb.citygml.exporter.controller;
 
+import org.apache.commons.compress.utils.CountingOutputStream;
 import org.citydb.citygml.common.database.cache.CacheTableManager;
 import org.citydb.citygml.common.database.uid.UIDCacheManager;
 import org.citydb.citygml.common.database.uid.UIDCacheType;
@@ -38,24 +39,32 @@ import org.citydb.citygml.exporter.database.content.DBSplitter;
 import org.citydb.citygml.exporter.database.content.DBSplittingResult;
 import org.citydb.citygml.exporter.database.uid.FeatureGmlIdCache;
 import org.citydb.citygml.exporter.database.uid.GeometryGmlIdCache;
+import org.citydb.citygml.exporter.util.ExportCheckpoint;
 import org.citydb.file.output.OutputFileFactory;
 import org.citydb.citygml.exporter.writer.FeatureWriteException;
 import org.citydb.citygml.exporter.writer.FeatureWriter;
 import org.citydb.citygml.exporter.writer.FeatureWriterFactory;
 import org.citydb.citygml.exporter.writer.FeatureWriterFactoryBuilder;
+import org.citydb.citygml.importer.database.uid.TextureImageCache;
 import org.citydb.concurrent.PoolSizeAdaptationStrategy;
+import org.citydb.concurrent.PoolSizeController;
+import org.citydb.concurrent.DefaultWorker;
 import org.citydb.concurrent.WorkerPool;
 import org.citydb.config.Config;
 import org.citydb.config.i18n.Language;
 import org.citydb.config.internal.Internal;
 import org.citydb.config.project.database.DatabaseSrs;
 import org.citydb.config.project.database.Workspace;
+import org.citydb.config.project.exporter.Chunking;
+import org.citydb.config.project.exporter.Resumption;
 import org.citydb.config.project.exporter.SimpleTilingOptions;
 import org.citydb.config.project.exporter.TileNameSuffixMode;
 import org.citydb.config.project.exporter.TileSuffixMode;
+import org.citydb.config.project.global.LogLevel;
 import org.citydb.database.adapter.AbstractDatabaseAdapter;
 import org.citydb.database.adapter.IndexStatusInfo.IndexType;
 import org.citydb.database.connection.DatabaseConnectionPool;
+import org.citydb.database.connection.StatementStatistics;
 import org.citydb.database.schema.mapping.SchemaMapping;
 import org.citydb.event.Event;
 import org.citydb.event.EventDispatcher;
@@ -72,18 +81,25 @@ import org.citydb.event.global.StatusDialogTitle;
 import org.citydb.file.FileType;
 import org.citydb.file.OutputFile;
 import org.citydb.log.Logger;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.Timer;
 import org.citydb.plugin.PluginManager;
 import org.citydb.plugin.extension.export.CityGMLExportExtension;
 import org.citydb.plugin.extension.export.MetadataProvider;
 import org.citydb.query.Query;
 import org.citydb.query.builder.QueryBuildException;
 import org.citydb.query.builder.config.ConfigQueryBuilder;
+import org.citydb.query.builder.sql.BuildProperties;
+import org.citydb.query.builder.sql.SQLQueryBuilder;
 import org.citydb.query.filter.FilterException;
+import org.citydb.query.filter.counter.CounterFilter;
 import org.citydb.query.filter.selection.Predicate;
 import org.citydb.query.filter.selection.SelectionFilter;
+import org.citydb.query.filter.selection.operator.comparison.ComparisonOperatorName;
 import org.citydb.query.filter.selection.operator.logical.LogicalOperationFactory;
 import org.citydb.query.filter.tiling.Tile;
 import org.citydb.query.filter.tiling.Tiling;
+import org.citydb.sqlbuilder.select.Select;
 import org.citydb.util.Util;
 import org.citygml4j.builder.jaxb.CityGMLBuilder;
 import org.citygml4j.model.citygml.cityobjectgroup.CityObjectGroup;
@@ -92,19 +108,29 @@ import org.citygml4j.model.module.citygml.CityGMLModuleType;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Exporter implements EventHandler {
 	private final Logger log = Logger.getInstance();
@@ -114,16 +140,37 @@ public class Exporter implements EventHandler {
 	private final SchemaMapping schemaMapping;
 	private final Config config;
 	private final EventDispatcher eventDispatcher;
-	private DBSplitter dbSplitter;
 
 	private volatile boolean shouldRun = true;
 	private AtomicBoolean isInterrupted = new AtomicBoolean(false);
 
-	private WorkerPool<DBSplittingResult> dbWorkerPool;
-	private WorkerPool<DBXlink> xlinkExporterPool;
-	private CacheTableManager cacheTableManager;
-	private UIDCacheManager uidCacheManager;
+	private final Set<FileExport> fileExports = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger remainingTiles = new AtomicInteger();
+	private final AtomicReference<CityGMLExportException> exportException = new AtomicReference<>();
+	private WorkerPool<FileExportTask> fileExportPool;
+	private int concurrentExports;
+	private int minThreadsPerTile;
+	private int maxThreadsPerTile;
+
+	private Query query;
+	private Workspace workspace;
+	private FeatureWriterFactory writerFactory;
+	private MetadataProvider metadataProvider;
+	private Tiling tiling;
+	private SimpleTilingOptions tilingOptions;
+	private Predicate predicate;
+	private OutputFileFactory fileFactory;
+	private Path exportFile;
+	private String textureFolder;
+	private boolean textureFolderIsAbsolute;
+	private boolean exportAppearance;
 	private boolean useTiling;
+	private boolean useResumption;
+	private boolean useChunking;
+	private boolean useParts;
+	private boolean useSeparateFolders;
+	private long featuresPerPart;
+	private long maxBytesPerPart;
 
 	private HashMap<Integer, Long> objectCounter;
 	private EnumMap<GMLClass, Long> geometryCounter;
@@ -157,14 +204,13 @@ public class Exporter implements EventHandler {
 		eventDispatcher.addEventHandler(EventType.INTERRUPT, this);
 
 		// checking workspace
-		Workspace workspace = config.getProject().getDatabase().getWorkspaces().getExportWorkspace();
+		workspace = config.getProject().getDatabase().getWorkspaces().getExportWorkspace();
 		if (shouldRun && databaseAdapter.hasVersioningSupport() && 
 				!databaseAdapter.getWorkspaceManager().equalsDefaultWorkspaceName(workspace.getName()) &&
 				!databaseAdapter.getWorkspaceManager().existsWorkspace(workspace, true))
 			return false;
 
 		// build query from filter settings
-		Query query;
 		try {
 			ConfigQueryBuilder queryBuilder = new ConfigQueryBuilder(schemaMapping, databaseAdapter);
 			if (config.getProject().getExporter().isUseSimpleQuery())
@@ -176,8 +222,31 @@ public class Exporter implements EventHandler {
 			throw new CityGMLExportException("Failed to build the export query expression.", e);
 		}
 
+		// resumable and chunked exports page through the top-level features in the order
+		// of their ids and write every page to a separate output file
+		Resumption resumption = config.getProject().getExporter().getResumption();
+		Chunking chunking = config.getProject().getExporter().getChunking();
+		useResumption = resumption.isEnabled();
+		useChunking = chunking.isEnabled() && (chunking.isSetMaxFeatures() || chunking.isSetMaxFileSize());
+		useParts = useResumption || useChunking;
+
+		if (useParts) {
+			if (query.isSetTiling())
+				throw new CityGMLExportException("Splitting the export into parts cannot be combined with tiling.");
+			else if (query.isSetSorting())
+				throw new CityGMLExportException("Splitting the export into parts cannot be combined with sorting.");
+			else if (query.isSetCounterFilter())
+				throw new CityGMLExportException("Splitting the export into parts cannot be combined with a counter filter.");
+
+			featuresPerPart = useResumption ? resumption.getFeaturesPerPart() : 0;
+			if (useChunking && chunking.isSetMaxFeatures())
+				featuresPerPart = featuresPerPart > 0 ? Math.min(featuresPerPart, chunking.getMaxFeatures()) : chunking.getMaxFeatures();
+
+			maxBytesPerPart = useChunking && chunking.isSetMaxFileSize() ? chunking.getMaxFileSize() * 1024L * 1024L : 0;
+			useSeparateFolders = useChunking && chunking.isUseSeparateFolders();
+		}
+
 		// create feature writer factory
-		FeatureWriterFactory writerFactory;
 		try {
 			writerFactory = FeatureWriterFactoryBuilder.buildFactory(query, schemaMapping, config);
 		} catch (FeatureWriteException e) {
@@ -185,7 +254,7 @@ public class Exporter implements EventHandler {
 		}
 
 		// get metadata provider
-		MetadataProvider metadataProvider = null;
+		metadataProvider = null;
 		if (config.getProject().getExporter().isSetMetadataProvider()) {
 			for (CityGMLExportExtension plugin : PluginManager.getInstance().getExternalPlugins(CityGMLExportExtension.class)) {
 				if (plugin instanceof MetadataProvider
@@ -241,9 +310,9 @@ public class Exporter implements EventHandler {
 				&& query.getFeatureTypeFilter().containsFeatureType(schemaMapping.getFeatureType(query.getTargetVersion().getCityGMLModule(CityGMLModuleType.CITY_OBJECT_GROUP).getFeatureName(CityObjectGroup.class))));
 
 		// tiling
-		Tiling tiling = query.getTiling();
-		SimpleTilingOptions tilingOptions = null;
-		Predicate predicate = null;
+		tiling = query.getTiling();
+		tilingOptions = null;
+		predicate = null;
 		useTiling = query.isSetTiling();
 		int rows = useTiling ? tiling.getRows() : 1;  
 		int columns = useTiling ? tiling.getColumns() : 1;
@@ -260,15 +329,15 @@ public class Exporter implements EventHandler {
 		}
 
 		// create output file factory
-		OutputFileFactory fileFactory = new OutputFileFactory(config, eventDispatcher);
-		Path exportFile = config.getInternal().getExportFile();
+		fileFactory = new OutputFileFactory(config, eventDispatcher);
+		exportFile = config.getInternal().getExportFile();
 		if (exportFile.getFileName() == null)
 			throw new CityGMLExportException("The export file '" + exportFile + "' is invalid.");
 
 		// process export folder for texture files
-		String textureFolder = null;
-		boolean textureFolderIsAbsolute = false;
-		boolean exportAppearance = config.getProject().getExporter().getAppearances().isSetExportAppearance();
+		textureFolder = null;
+		textureFolderIsAbsolute = false;
+		exportAppearance = config.getProject().getExporter().getAppearances().isSetExportAppearance();
 
 		if (exportAppearance) {
 			textureFolder = config.getProject().getExporter().getAppearances().getTexturePath().getPath();
@@ -302,298 +371,622 @@ public class Exporter implements EventHandler {
 			}
 		}
 
-		int remainingTiles = rows * columns;
+		// chunks can only be exported concurrently if their boundaries are known in
+		// advance. so we need a fixed number of features per chunk
+		List<Long> chunkStartIds = null;
+		if (useChunking && chunking.getConcurrentChunks() > 1) {
+			if (useResumption || maxBytesPerPart > 0 || featuresPerPart == 0)
+				log.warn("Exporting chunks sequentially because concurrent chunks require a feature limit without file size limit and resumption.");
+			else
+				chunkStartIds = getChunkStartIds();
+		}
+
+		// export several tiles or chunks concurrently if requested. the threads of the
+		// default pool are split between the files so that concurrent exports share the
+		// same budget of database connections
+		int maxThreads = config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads();
+		int minThreads = config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMinThreads();
+		if (useTiling)
+			concurrentExports = Math.min(tilingOptions.getConcurrentTiles(), rows * columns);
+		else if (chunkStartIds != null)
+			concurrentExports = Math.max(1, Math.min(chunking.getConcurrentChunks(), chunkStartIds.size()));
+		else
+			concurrentExports = 1;
+
+		maxThreadsPerTile = Math.max(1, maxThreads / concurrentExports);
+
+		// export workers are bound by database round trips. so do not start more workers
+		// than the connection pool can serve. every export also needs a connection for its
+		// splitter and runs an xlink exporter pool with up to half of its threads
+		int connectionsPerExport = DatabaseConnectionPool.getInstance().getAvailableConnections() / concurrentExports - 1;
+		int maxDbThreadsPerExport = Math.max(1, connectionsPerExport * 2 / 3);
+		if (maxDbThreadsPerExport < maxThreadsPerTile) {
+			log.info("Limiting database workers to " + maxDbThreadsPerExport + " threads per export due to the size of the connection pool.");
+			maxThreadsPerTile = maxDbThreadsPerExport;
+		}
+
+		minThreadsPerTile = Math.min(minThreads, maxThreadsPerTile);
+
+		remainingTiles.set(rows * columns);
+		StatementStatistics.getInstance().reset();
 		long start = System.currentTimeMillis();
 
-		for (int i = 0; shouldRun && i < rows; i++) {
-			for (int j = 0; shouldRun && j < columns; j++) {
-				Path folder = exportFile.getParent();
-				String fileName = exportFile.getFileName().toString();
+		if (concurrentExports > 1) {
+			log.info("Exporting up to " + concurrentExports + (useTiling ? " tiles" : " chunks") + " concurrently.");
+
+			fileExportPool = new WorkerPool<>(
+					"file_exporter_pool",
+					concurrentExports,
+					concurrentExports,
+					PoolSizeAdaptationStrategy.NONE,
+					() -> new FileExportWorker(),
+					concurrentExports,
+					false);
 
+			try {
+				fileExportPool.prestartCoreWorkers();
 				if (useTiling) {
-					Tile tile;
-					try {
-						tile = tiling.getTileAt(i, j);
-						tiling.setActiveTile(tile);
-
-						Predicate bboxFilter = tile.getFilterPredicate(databaseAdapter);
-						if (predicate != null)
-							query.setSelection(new SelectionFilter(LogicalOperationFactory.AND(predicate, bboxFilter)));
-						else
-							query.setSelection(new SelectionFilter(bboxFilter));
-
-					} catch (FilterException e) {
-						throw new CityGMLExportException("Failed to get tile at [" + i + "," + j + "].", e);
+					for (int i = 0; shouldRun && i < rows; i++) {
+						for (int j = 0; shouldRun && j < columns; j++) {
+							Tile tile = getTileAt(i, j);
+							fileExportPool.addWork(() -> exportTile(tile));
+						}
 					}
-
-					// create suffix for folderName and fileName
-					TileSuffixMode suffixMode = tilingOptions.getTilePathSuffix();
-					String suffix;
-
-					double minX = tile.getExtent().getLowerCorner().getX();
-					double minY = tile.getExtent().getLowerCorner().getY();
-					double maxX = tile.getExtent().getUpperCorner().getX();
-					double maxY = tile.getExtent().getUpperCorner().getY();
-
-					switch (suffixMode) {
-						case XMIN_YMIN:
-							suffix = String.valueOf(minX) + '_' + String.valueOf(minY);
-							break;
-						case XMAX_YMIN:
-							suffix = String.valueOf(maxX) + '_' + String.valueOf(minY);
-							break;
-						case XMIN_YMAX:
-							suffix = String.valueOf(minX) + '_' + String.valueOf(maxY);
-							break;
-						case XMAX_YMAX:
-							suffix = String.valueOf(maxX) + '_' + String.valueOf(maxY);
-							break;
-						case XMIN_YMIN_XMAX_YMAX:
-							suffix = String.valueOf(minX) + '_' + String.valueOf(minY) + '_' + String.valueOf(maxX) + '_' + String.valueOf(maxY);
-							break;
-						default:
-							suffix = String.valueOf(i) + '_' + String.valueOf(j);
-					}
-
-					folder = folder.resolve(tilingOptions.getTilePath() + '_' + suffix);
-					if (tilingOptions.getTileNameSuffix() == TileNameSuffixMode.SAME_AS_PATH) {
-						int index = fileName.indexOf('.');
-						fileName = index > 0 ?
-								fileName.substring(0, index) + '_' + suffix + fileName.substring(index) :
-								fileName + '_' + suffix;
+				} else {
+					for (int i = 0; shouldRun && i < chunkStartIds.size(); i++) {
+						long startId = chunkStartIds.get(i);
+						int part = i + 1;
+						fileExportPool.addWork(() -> exportPart(startId, part));
 					}
 				}
 
-				FeatureWriter writer = null;
-				OutputFile file = null;
+				fileExportPool.shutdownAndWait();
+			} catch (InterruptedException e) {
+				throw new CityGMLExportException("Failed to shutdown worker pools.", e);
+			} finally {
+				if (!fileExportPool.isTerminated())
+					fileExportPool.shutdownNow();
+			}
+
+			CityGMLExportException e = exportException.get();
+			if (e != null)
+				throw e;
+		} else if (useParts) {
+			exportParts();
+		} else {
+			for (int i = 0; shouldRun && i < rows; i++) {
+				for (int j = 0; shouldRun && j < columns; j++)
+					exportTile(useTiling ? getTileAt(i, j) : null);
+			}
+		}
+
+		// show totally exported features
+		if ((useTiling && (rows > 1 || columns > 1)) || useParts) {
+			if (!totalObjectCounter.isEmpty()) {
+				log.info("Total exported CityGML features:");
+				Map<String, Long> typeNames = Util.mapObjectCounter(totalObjectCounter, schemaMapping);
+				typeNames.keySet().forEach(object -> log.info(object + ": " + typeNames.get(object)));	
+			}
+
+			if (!totalGeometryCounter.isEmpty())
+				log.info("Total processed objects: " + totalGeometryCounter.values().stream().reduce(0L, Long::sum));
+		}
+
+		if (shouldRun)
+			log.info("Total export time: " + Util.formatElapsedTime(System.currentTimeMillis() - start) + ".");
+
+		// report the statements causing most database time
+		StatementStatistics statementStatistics = StatementStatistics.getInstance();
+		if (statementStatistics.isEnabled())
+			statementStatistics.logReport(config.getProject().getGlobal().getMetrics().getStatementReportSize());
+
+		return shouldRun;
+	}
+
+	private Tile getTileAt(int row, int column) throws CityGMLExportException {
+		try {
+			return tiling.getTileAt(row, column);
+		} catch (FilterException e) {
+			throw new CityGMLExportException("Failed to get tile at [" + row + "," + column + "].", e);
+		}
+	}
+
+	private void exportTile(Tile tile) throws CityGMLExportException {
+		Path folder = exportFile.getParent();
+		String fileName = exportFile.getFileName().toString();
+		Query query = this.query;
+
+		if (tile != null) {
+			// use a copy of the query and tiling per tile so that
+			// tiles can be exported concurrently
+			try {
+				Tiling tiling = new Tiling(this.tiling);
+				tiling.setActiveTile(tile);
+
+				query = new Query(this.query);
+				query.setTiling(tiling);
+
+				Predicate bboxFilter = tile.getFilterPredicate(databaseAdapter);
+				if (predicate != null)
+					query.setSelection(new SelectionFilter(LogicalOperationFactory.AND(predicate, bboxFilter)));
+				else
+					query.setSelection(new SelectionFilter(bboxFilter));
+
+			} catch (FilterException e) {
+				throw new CityGMLExportException("Failed to get tile at [" + tile.getX() + "," + tile.getY() + "].", e);
+			}
+
+			// skip tiles that do not contain any top-level feature
+			if (tilingOptions.isSkipEmptyTiles() && !containsTopLevelFeatures(query)) {
+				log.debug("Skipping tile [" + tile.getX() + "," + tile.getY() + "] because no top-level feature matches the query expression.");
+				eventDispatcher.triggerEvent(new CounterEvent(CounterType.REMAINING_TILES, remainingTiles.decrementAndGet(), this));
+				return;
+			}
+
+			// create suffix for folderName and fileName
+			TileSuffixMode suffixMode = tilingOptions.getTilePathSuffix();
+			String suffix;
+
+			double minX = tile.getExtent().getLowerCorner().getX();
+			double minY = tile.getExtent().getLowerCorner().getY();
+			double maxX = tile.getExtent().getUpperCorner().getX();
+			double maxY = tile.getExtent().getUpperCorner().getY();
+
+			switch (suffixMode) {
+				case XMIN_YMIN:
+					suffix = String.valueOf(minX) + '_' + String.valueOf(minY);
+					break;
+				case XMAX_YMIN:
+					suffix = String.valueOf(maxX) + '_' + String.valueOf(minY);
+					break;
+				case XMIN_YMAX:
+					suffix = String.valueOf(minX) + '_' + String.valueOf(maxY);
+					break;
+				case XMAX_YMAX:
+					suffix = String.valueOf(maxX) + '_' + String.valueOf(maxY);
+					break;
+				case XMIN_YMIN_XMAX_YMAX:
+					suffix = String.valueOf(minX) + '_' + String.valueOf(minY) + '_' + String.valueOf(maxX) + '_' + String.valueOf(maxY);
+					break;
+				default:
+					suffix = String.valueOf(tile.getX()) + '_' + String.valueOf(tile.getY());
+			}
+
+			folder = folder.resolve(tilingOptions.getTilePath() + '_' + suffix);
+			if (tilingOptions.getTileNameSuffix() == TileNameSuffixMode.SAME_AS_PATH)
+				fileName = addFileNameSuffix(fileName, suffix);
+		}
+
+		eventDispatcher.triggerEvent(new CounterEvent(CounterType.REMAINING_TILES, remainingTiles.decrementAndGet(), this));
+		exportFile(query, folder, fileName);
+	}
+
+	private void exportParts() throws CityGMLExportException {
+		long lastId = 0;
+		int part = 0;
+
+		ExportCheckpoint checkpoint = null;
+		if (useResumption) {
+			Resumption resumption = config.getProject().getExporter().getResumption();
+			Path checkpointFile;
+			try {
+				checkpointFile = resumption.isSetCheckpointFile() ?
+						Paths.get(resumption.getCheckpointFile()).toAbsolutePath().normalize() :
+						exportFile.resolveSibling(exportFile.getFileName() + ".checkpoint");
+			} catch (InvalidPathException e) {
+				throw new CityGMLExportException("The checkpoint file '" + resumption.getCheckpointFile() + "' is invalid.", e);
+			}
+
+			try {
+				checkpoint = ExportCheckpoint.load(checkpointFile, exportFile);
+			} catch (IOException e) {
+				throw new CityGMLExportException("Failed to read checkpoint file '" + checkpointFile + "'.", e);
+			}
+
+			lastId = checkpoint.getLastId();
+			part = checkpoint.getPart();
+			if (part > 0)
+				log.info("Resuming export after top-level feature with id " + lastId + " (continuing with part " + (part + 1) + ").");
+		}
+
+		while (shouldRun) {
+			// avoid writing an empty part if the previous part ended exactly at the last feature
+			if (part > 0 && !containsTopLevelFeatures(createPartQuery(lastId)))
+				break;
+
+			DBSplitter dbSplitter = exportPart(lastId, ++part);
+			if (!shouldRun || dbSplitter == null)
+				break;
+
+			lastId = dbSplitter.getLastId();
+			if (checkpoint != null) {
+				checkpoint.setLastId(lastId);
+				checkpoint.setPart(part);
 				try {
-					eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("export.dialog.cityObj.msg"), this));
-					eventDispatcher.triggerEvent(new StatusDialogTitle(fileName, this));
-					eventDispatcher.triggerEvent(new CounterEvent(CounterType.REMAINING_TILES, --remainingTiles, this));
-
-					try {
-						file = fileFactory.createOutputFile(folder.resolve(fileName));
-					} catch (IOException e) {
-						throw new CityGMLExportException("Failed to create output file '" + folder.resolve(fileName) + "'.", e);
-					}
+					checkpoint.save();
+				} catch (IOException e) {
+					throw new CityGMLExportException("Failed to write checkpoint file '" + checkpoint.getFile() + "'.", e);
+				}
+			}
 
-					// create relative folder for texture files
-					if (exportAppearance && !textureFolderIsAbsolute &&
-							(file.getType() == FileType.ARCHIVE || !Files.isDirectory(Paths.get(file.resolve(textureFolder))))) {
-						try {
-							file.createDirectories(textureFolder);
-							log.info("Created texture files folder '" + textureFolder + "'.");
-						} catch (IOException e) {
-							throw new CityGMLExportException("Failed to create texture files folder '" + textureFolder + "'.", e);
-						}
-					}
+			if (!dbSplitter.isOutputSizeLimitReached()
+					&& (featuresPerPart == 0 || dbSplitter.getNumberOfTopLevelRows() < featuresPerPart))
+				break;
+		}
 
-					// create output writer
-					try {
-						writer = writerFactory.createFeatureWriter(new OutputStreamWriter(file.openStream(), StandardCharsets.UTF_8));
-						writer.useIndentation(file.getType() == FileType.REGULAR);
-					} catch (FeatureWriteException | IOException e) {
-						throw new CityGMLExportException("Failed to open file '" + file.getFile() + "' for writing.", e);
-					}
+		// the checkpoint is no longer required after a complete export
+		if (checkpoint != null && shouldRun) {
+			try {
+				checkpoint.delete();
+			} catch (IOException e) {
+				log.warn("Failed to delete checkpoint file '" + checkpoint.getFile() + "': " + e.getMessage());
+			}
+		}
+	}
 
-					// create instance of temp table manager
-					try {
-						cacheTableManager = new CacheTableManager(
-								config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads(),
-								config);
-					} catch (SQLException | IOException e) {
-						throw new CityGMLExportException("Failed to initialize internal cache manager.", e);
-					}
+	private DBSplitter exportPart(long startId, int part) throws CityGMLExportException {
+		String fileName = exportFile.getFileName().toString();
+		Path folder = exportFile.getParent();
 
-					// create instance of gml:id lookup server manager...
-					uidCacheManager = new UIDCacheManager();
-
-					// ...and start servers
-					try {
-						uidCacheManager.initCache(
-								UIDCacheType.GEOMETRY,
-								new GeometryGmlIdCache(cacheTableManager,
-										config.getProject().getExporter().getResources().getGmlIdCache().getGeometry().getPartitions(),
-										config.getProject().getDatabase().getUpdateBatching().getGmlIdCacheBatchValue()),
-								config.getProject().getExporter().getResources().getGmlIdCache().getGeometry().getCacheSize(),
-								config.getProject().getExporter().getResources().getGmlIdCache().getGeometry().getPageFactor(),
-								config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads());
-
-						uidCacheManager.initCache(
-								UIDCacheType.OBJECT,
-								new FeatureGmlIdCache(cacheTableManager,
-										config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getPartitions(),
-										config.getProject().getDatabase().getUpdateBatching().getGmlIdCacheBatchValue()),
-								config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getCacheSize(),
-								config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getPageFactor(),
-								config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads());
-					} catch (SQLException e) {
-						throw new CityGMLExportException("Failed to initialize internal gml:id caches.", e);
-					}
+		// separate folders give every part its own local texture folder
+		if (useSeparateFolders) {
+			int index = fileName.indexOf('.');
+			folder = folder.resolve((index > 0 ? fileName.substring(0, index) : fileName) + "_part" + part);
+		}
 
-					// create worker pools
-					// here we have an open issue: queue sizes are fix...
-					xlinkExporterPool = new WorkerPool<>(
-							"xlink_exporter_pool",
-							1,
-							Math.max(1, config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads() / 2),
-							PoolSizeAdaptationStrategy.AGGRESSIVE,
-							new DBExportXlinkWorkerFactory(file, config, eventDispatcher),
-							300,
-							false);
-
-					dbWorkerPool = new WorkerPool<>(
-							"db_exporter_pool",
-							config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMinThreads(),
-							config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads(),
-							PoolSizeAdaptationStrategy.AGGRESSIVE,
-							new DBExportWorkerFactory(
-									file,
-									schemaMapping,
-									cityGMLBuilder,
-									writer,
-									xlinkExporterPool,
-									uidCacheManager,
-									cacheTableManager,
-									query,
-									config,
-									eventDispatcher),
-							300,
-							false);
-
-					// prestart pool workers
-					xlinkExporterPool.prestartCoreWorkers();
-					dbWorkerPool.prestartCoreWorkers();
-
-					// fail if we could not start a single import worker
-					if (dbWorkerPool.getPoolSize() == 0)
-						throw new CityGMLExportException("Failed to start database export worker pool. Check the database connection pool settings.");
-
-					// ok, preparations done. inform user...
-					log.info("Exporting to file: " + file.getFile());
-
-					// get database splitter and start query
-					try {
-						dbSplitter = new DBSplitter(
-								writer,
-								schemaMapping,
-								dbWorkerPool,
-								query,
-								uidCacheManager.getCache(UIDCacheType.OBJECT),
-								cacheTableManager,
-								eventDispatcher,
-								config);
-
-						if (shouldRun) {
-							dbSplitter.setMetadataProvider(metadataProvider);
-							dbSplitter.setCalculateNumberMatched(Internal.IS_GUI_MODE);
-							dbSplitter.startQuery();
-						}
-					} catch (SQLException | QueryBuildException | FilterException e) {
-						throw new CityGMLExportException("Failed to query the database.", e);
-					} catch (FeatureWriteException e) {
-						throw new CityGMLExportException("Failed to write to output file.", e);
-					}
+		return exportFile(createPartQuery(startId), folder, addFileNameSuffix(fileName, "part" + part));
+	}
 
-					try {
-						dbWorkerPool.shutdownAndWait();
-						xlinkExporterPool.shutdownAndWait();
-					} catch (InterruptedException e) {
-						throw new CityGMLExportException("Failed to shutdown worker pools.", e);
-					}
+	private Query createPartQuery(long startId) {
+		// every part selects the next page of top-level features with an id greater
+		// than the last exported one. this keeps the queries short and lets us resume
+		// the export from the last completed part
+		Query partQuery = new Query(query);
+		CounterFilter counterFilter = new CounterFilter();
+		counterFilter.setStartId(startId, ComparisonOperatorName.GREATER_THAN);
+		if (featuresPerPart > 0)
+			counterFilter.setCount(featuresPerPart);
+
+		partQuery.setCounterFilter(counterFilter);
+		return partQuery;
+	}
 
-					eventDispatcher.triggerEvent(new StatusDialogProgressBar(true, this));
-					eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("export.dialog.finish.msg"), this));
-				} catch (CityGMLExportException e) {
-					throw e;
-				} catch (Throwable e) {
-					throw new CityGMLExportException("An unexpected error occurred.", e);
-				} finally {
-					// close writer before closing output file
-					if (writer != null) {
-						try {
-							writer.close();
-						} catch (FeatureWriteException e) {
-							log.error("Failed to close output writer: " + e.getMessage());
-							shouldRun = false;
-						}
-					}
+	private List<Long> getChunkStartIds() throws CityGMLExportException {
+		List<Long> startIds = new ArrayList<>();
 
-					if (file != null) {
-						try {
-							file.close();
-						} catch (IOException e) {
-							log.error("Failed to close output file: " + e.getMessage());
-							shouldRun = false;
-						}
-					}
-					
-					// clean up
-					if (xlinkExporterPool != null && !xlinkExporterPool.isTerminated())
-						xlinkExporterPool.shutdownNow();
-
-					if (dbWorkerPool != null && !dbWorkerPool.isTerminated())
-						dbWorkerPool.shutdownNow();
-
-					try {
-						eventDispatcher.flushEvents();
-					} catch (InterruptedException e) {
-						//
-					}
+		try (Connection connection = DatabaseConnectionPool.getInstance().getConnection()) {
+			// try and change workspace for connection
+			if (databaseAdapter.hasVersioningSupport())
+				databaseAdapter.getWorkspaceManager().gotoWorkspace(connection, workspace);
 
-					if (uidCacheManager != null) {
-						try {
-							uidCacheManager.shutdownAll();
-						} catch (SQLException e) {
-							log.error("Failed to clean gml:id caches: " + e.getMessage());
-							shouldRun = false;
-						}
-					}
+			// PostgreSQL only streams the result if auto-commit is disabled
+			connection.setAutoCommit(false);
 
-					if (cacheTableManager != null) {
-						try {
-							log.info("Cleaning temporary cache.");
-							cacheTableManager.dropAll();
-							cacheTableManager = null;
-						} catch (SQLException e) {
-							log.error("Failed to clean temporary cache: " + e.getMessage());
-							shouldRun = false;
-						}					
-					}
+			Query idQuery = new Query(query);
+			CounterFilter counterFilter = new CounterFilter();
+			counterFilter.setStartId(0, ComparisonOperatorName.GREATER_THAN);
+			idQuery.setCounterFilter(counterFilter);
+
+			SQLQueryBuilder builder = new SQLQueryBuilder(schemaMapping, databaseAdapter, BuildProperties.defaults());
+			Select select = builder.buildQuery(idQuery);
+
+			// every chunk starts after the last id of its predecessor
+			try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection, 10000);
+				 ResultSet rs = stmt.executeQuery()) {
+				long lastId = 0;
+				for (long i = 0; rs.next(); i++) {
+					if (i % featuresPerPart == 0)
+						startIds.add(lastId);
+
+					lastId = rs.getLong("id");
+				}
+			}
+		} catch (SQLException | QueryBuildException e) {
+			throw new CityGMLExportException("Failed to query the chunk boundaries.", e);
+		}
+
+		return startIds;
+	}
+
+	private String addFileNameSuffix(String fileName, String suffix) {
+		int index = fileName.indexOf('.');
+		return index > 0 ?
+				fileName.substring(0, index) + '_' + suffix + fileName.substring(index) :
+				fileName + '_' + suffix;
+	}
+
+	private DBSplitter exportFile(Query query, Path folder, String fileName) throws CityGMLExportException {
+		FileExport fileExport = new FileExport();
+		fileExports.add(fileExport);
+		DBSplitter dbSplitter = null;
+
+		FeatureWriter writer = null;
+		OutputFile file = null;
+		CacheTableManager cacheTableManager = null;
+		UIDCacheManager uidCacheManager = null;
+		WorkerPool<DBSplittingResult> dbWorkerPool = null;
+		WorkerPool<DBXlink> xlinkExporterPool = null;
+		PoolSizeController poolSizeController = null;
+		CountingOutputStream outputStream = null;
+
+		try {
+			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("export.dialog.cityObj.msg"), this));
+			eventDispatcher.triggerEvent(new StatusDialogTitle(fileName, this));
+
+			try {
+				file = fileFactory.createOutputFile(folder.resolve(fileName));
+			} catch (IOException e) {
+				throw new CityGMLExportException("Failed to create output file '" + folder.resolve(fileName) + "'.", e);
+			}
+
+			// create relative folder for texture files
+			if (exportAppearance && !textureFolderIsAbsolute &&
+					(file.getType() == FileType.ARCHIVE || !Files.isDirectory(Paths.get(file.resolve(textureFolder))))) {
+				try {
+					file.createDirectories(textureFolder);
+					log.info("Created texture files folder '" + textureFolder + "'.");
+				} catch (IOException e) {
+					throw new CityGMLExportException("Failed to create texture files folder '" + textureFolder + "'.", e);
+				}
+			}
+
+			// create output writer
+			try {
+				OutputStream stream = file.openStream();
+				if (maxBytesPerPart > 0)
+					stream = outputStream = new CountingOutputStream(stream);
+
+				writer = writerFactory.createFeatureWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+				writer.useIndentation(file.getType() == FileType.REGULAR);
+			} catch (FeatureWriteException | IOException e) {
+				throw new CityGMLExportException("Failed to open file '" + file.getFile() + "' for writing.", e);
+			}
+
+			// create instance of temp table manager
+			try {
+				cacheTableManager = new CacheTableManager(
+						maxThreadsPerTile,
+						config);
+			} catch (SQLException | IOException e) {
+				throw new CityGMLExportException("Failed to initialize internal cache manager.", e);
+			}
+
+			// create instance of gml:id lookup server manager...
+			uidCacheManager = new UIDCacheManager();
+
+			// ...and start servers
+			try {
+				uidCacheManager.initCache(
+						UIDCacheType.GEOMETRY,
+						new GeometryGmlIdCache(cacheTableManager,
+								config.getProject().getExporter().getResources().getGmlIdCache().getGeometry().getPartitions(),
+								config.getProject().getDatabase().getUpdateBatching().getGmlIdCacheBatchValue()),
+						config.getProject().getExporter().getResources().getGmlIdCache().getGeometry().getCacheSize(),
+						config.getProject().getExporter().getResources().getGmlIdCache().getGeometry().getPageFactor(),
+						maxThreadsPerTile);
+
+				uidCacheManager.initCache(
+						UIDCacheType.OBJECT,
+						new FeatureGmlIdCache(cacheTableManager,
+								config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getPartitions(),
+								config.getProject().getDatabase().getUpdateBatching().getGmlIdCacheBatchValue()),
+						config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getCacheSize(),
+						config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getPageFactor(),
+						maxThreadsPerTile);
+
+				// share the ids of exported texture images between all workers. there is no
+				// separate cache configuration for exports, so we use the feature settings
+				if (exportAppearance && config.getProject().getExporter().getAppearances().isSetExportTextureFiles()) {
+					uidCacheManager.initCache(
+							UIDCacheType.TEXTURE_IMAGE,
+							new TextureImageCache(cacheTableManager,
+									config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getPartitions(),
+									config.getProject().getDatabase().getUpdateBatching().getGmlIdCacheBatchValue()),
+							config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getCacheSize(),
+							config.getProject().getExporter().getResources().getGmlIdCache().getFeature().getPageFactor(),
+							maxThreadsPerTile);
 				}
+			} catch (SQLException e) {
+				throw new CityGMLExportException("Failed to initialize internal gml:id caches.", e);
+			}
+
+			// create worker pools
+			// here we have an open issue: queue sizes are fix...
+			xlinkExporterPool = new WorkerPool<>(
+					"xlink_exporter_pool",
+					1,
+					Math.max(1, maxThreadsPerTile / 2),
+					PoolSizeAdaptationStrategy.AGGRESSIVE,
+					new DBExportXlinkWorkerFactory(file, config, eventDispatcher),
+					300,
+					false);
+
+			dbWorkerPool = new WorkerPool<>(
+					"db_exporter_pool",
+					minThreadsPerTile,
+					maxThreadsPerTile,
+					PoolSizeAdaptationStrategy.AGGRESSIVE,
+					new DBExportWorkerFactory(
+							file,
+							schemaMapping,
+							cityGMLBuilder,
+							writer,
+							xlinkExporterPool,
+							uidCacheManager,
+							cacheTableManager,
+							query,
+							config,
+							eventDispatcher),
+					300,
+					false);
+
+			fileExport.dbWorkerPool = dbWorkerPool;
+			fileExport.xlinkExporterPool = xlinkExporterPool;
+
+			// prestart pool workers
+			xlinkExporterPool.prestartCoreWorkers();
+			dbWorkerPool.prestartCoreWorkers();
+
+			// fail if we could not start a single import worker
+			if (dbWorkerPool.getPoolSize() == 0)
+				throw new CityGMLExportException("Failed to start database export worker pool. Check the database connection pool settings.");
+
+			// adapt pool sizes to the load at runtime if requested
+			if (config.getProject().getExporter().getResources().getThreadPool().getDefaultPool().isAdaptivePoolSize()) {
+				poolSizeController = new PoolSizeController();
+				poolSizeController.register(dbWorkerPool, minThreadsPerTile, maxThreadsPerTile,
+						() -> DatabaseConnectionPool.getInstance().getAvailableConnections());
+				poolSizeController.start();
+			}
+
+			// ok, preparations done. inform user...
+			log.info("Exporting to file: " + file.getFile());
 
-				// show exported features
-				if (!objectCounter.isEmpty()) {
-					log.info("Exported city objects:");
-					Map<String, Long> typeNames = Util.mapObjectCounter(objectCounter, schemaMapping);					
-					typeNames.keySet().stream().sorted().forEach(object -> log.info(object + ": " + typeNames.get(object)));			
+			// get database splitter and start query
+			try {
+				dbSplitter = new DBSplitter(
+						writer,
+						schemaMapping,
+						dbWorkerPool,
+						query,
+						uidCacheManager.getCache(UIDCacheType.OBJECT),
+						cacheTableManager,
+						eventDispatcher,
+						config);
+
+				fileExport.dbSplitter = dbSplitter;
+				if (shouldRun) {
+					dbSplitter.setMetadataProvider(metadataProvider);
+					dbSplitter.setCalculateNumberMatched(Internal.IS_GUI_MODE && concurrentExports == 1);
+					if (outputStream != null)
+						dbSplitter.setOutputSizeLimit(maxBytesPerPart, outputStream::getBytesWritten);
+
+					dbSplitter.startQuery();
 				}
+			} catch (SQLException | QueryBuildException | FilterException e) {
+				throw new CityGMLExportException("Failed to query the database.", e);
+			} catch (FeatureWriteException e) {
+				throw new CityGMLExportException("Failed to write to output file.", e);
+			}
+
+			try {
+				dbWorkerPool.shutdownAndWait();
+
+				// remaining xlinks are resolved after all features have been exported
+				Timer xlinkTimer = MetricsRegistry.getInstance().timer("export.xlink");
+				long xlinkStart = xlinkTimer.start();
+				xlinkExporterPool.shutdownAndWait();
+				xlinkTimer.stop(xlinkStart);
+			} catch (InterruptedException e) {
+				throw new CityGMLExportException("Failed to shutdown worker pools.", e);
+			}
 
-				// show processed geometries
-				if (!geometryCounter.isEmpty())
-					log.info("Processed geometry objects: " + geometryCounter.values().stream().reduce(0L, Long::sum));
+			eventDispatcher.triggerEvent(new StatusDialogProgressBar(true, this));
+			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("export.dialog.finish.msg"), this));
+		} catch (CityGMLExportException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new CityGMLExportException("An unexpected error occurred.", e);
+		} finally {
+			// close writer before closing output file
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (FeatureWriteException e) {
+					log.error("Failed to close output writer: " + e.getMessage());
+					shouldRun = false;
+				}
+			}
 
-				objectCounter.clear();
-				geometryCounter.clear();
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException e) {
+					log.error("Failed to close output file: " + e.getMessage());
+					shouldRun = false;
+				}
 			}
+			
+			// clean up
+			if (poolSizeController != null)
+				poolSizeController.shutdown();
+
+			if (xlinkExporterPool != null && !xlinkExporterPool.isTerminated())
+				xlinkExporterPool.shutdownNow();
+
+			if (dbWorkerPool != null && !dbWorkerPool.isTerminated())
+				dbWorkerPool.shutdownNow();
+
+			try {
+				eventDispatcher.flushEvents();
+			} catch (InterruptedException e) {
+				//
+			}
+
+			if (uidCacheManager != null) {
+				try {
+					uidCacheManager.shutdownAll();
+				} catch (SQLException e) {
+					log.error("Failed to clean gml:id caches: " + e.getMessage());
+					shouldRun = false;
+				}
+			}
+
+			if (cacheTableManager != null) {
+				try {
+					log.info("Cleaning temporary cache.");
+					cacheTableManager.dropAll();
+				} catch (SQLException e) {
+					log.error("Failed to clean temporary cache: " + e.getMessage());
+					shouldRun = false;
+				}					
+			}
+
+			fileExports.remove(fileExport);
 		}
 
-		// show totally exported features
-		if (useTiling && (rows > 1 || columns > 1)) {
-			if (!totalObjectCounter.isEmpty()) {
-				log.info("Total exported CityGML features:");
-				Map<String, Long> typeNames = Util.mapObjectCounter(totalObjectCounter, schemaMapping);
-				typeNames.keySet().forEach(object -> log.info(object + ": " + typeNames.get(object)));	
+		// per-tile statistics are not collected when exporting tiles concurrently
+		if (concurrentExports == 1) {
+			// show exported features
+			if (!objectCounter.isEmpty()) {
+				log.info("Exported city objects:");
+				Map<String, Long> typeNames = Util.mapObjectCounter(objectCounter, schemaMapping);
+				typeNames.keySet().stream().sorted().forEach(object -> log.info(object + ": " + typeNames.get(object)));
 			}
 
-			if (!totalGeometryCounter.isEmpty())
-				log.info("Total processed objects: " + totalGeometryCounter.values().stream().reduce(0L, Long::sum));
+			// show processed geometries
+			if (!geometryCounter.isEmpty())
+				log.info("Processed geometry objects: " + geometryCounter.values().stream().reduce(0L, Long::sum));
 		}
 
-		if (shouldRun)
-			log.info("Total export time: " + Util.formatElapsedTime(System.currentTimeMillis() - start) + ".");
+		objectCounter.clear();
+		geometryCounter.clear();
 
-		return shouldRun;
+		return dbSplitter;
+	}
+
+	private boolean containsTopLevelFeatures(Query query) throws CityGMLExportException {
+		Query existsQuery = new Query(query);
+		existsQuery.unsetSorting();
+
+		try (Connection connection = DatabaseConnectionPool.getInstance().getConnection()) {
+			// try and change workspace for connection
+			if (databaseAdapter.hasVersioningSupport())
+				databaseAdapter.getWorkspaceManager().gotoWorkspace(connection, workspace);
+
+			SQLQueryBuilder builder = new SQLQueryBuilder(schemaMapping, databaseAdapter, BuildProperties.defaults());
+			Select select = builder.buildQuery(existsQuery);
+
+			// we only need to know whether there is at least one matching feature
+			try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection)) {
+				stmt.setMaxRows(1);
+				try (ResultSet rs = stmt.executeQuery()) {
+					return rs.next();
+				}
+			}
+		} catch (SQLException | QueryBuildException e) {
+			throw new CityGMLExportException("Failed to query the existence of top-level features.", e);
+		}
 	}
 
 	@Override
@@ -602,10 +995,13 @@ public class Exporter implements EventHandler {
 			Map<Integer, Long> counter = ((ObjectCounterEvent)e).getCounter();
 
 			for (Entry<Integer, Long> entry : counter.entrySet()) {
-				Long tmp = objectCounter.get(entry.getKey());
-				objectCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
+				Long tmp;
+				if (concurrentExports == 1) {
+					tmp = objectCounter.get(entry.getKey());
+					objectCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
+				}
 
-				if (useTiling) {
+				if (useTiling || useParts) {
 					tmp = totalObjectCounter.get(entry.getKey());
 					totalObjectCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
 				}
@@ -616,10 +1012,13 @@ public class Exporter implements EventHandler {
 			Map<GMLClass, Long> counter = ((GeometryCounterEvent)e).getCounter();
 
 			for (Entry<GMLClass, Long> entry : counter.entrySet()) {
-				Long tmp = geometryCounter.get(entry.getKey());
-				geometryCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
+				Long tmp;
+				if (concurrentExports == 1) {
+					tmp = geometryCounter.get(entry.getKey());
+					geometryCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
+				}
 
-				if (useTiling) {
+				if (useTiling || useParts) {
 					tmp = totalGeometryCounter.get(entry.getKey());
 					totalGeometryCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
 				}
@@ -650,15 +1049,61 @@ public class Exporter implements EventHandler {
 				if (msg != null)
 					log.log(interruptEvent.getLogLevelType(), msg);
 
-				if (dbSplitter != null)
-					dbSplitter.shutdown();
+				if (fileExportPool != null)
+					fileExportPool.drainWorkQueue();
+
+				for (FileExport fileExport : fileExports)
+					fileExport.interrupt();
+			}
+		}
+	}
+
+	private static final class FileExport {
+		private volatile DBSplitter dbSplitter;
+		private volatile WorkerPool<DBSplittingResult> dbWorkerPool;
+		private volatile WorkerPool<DBXlink> xlinkExporterPool;
+
+		private void interrupt() {
+			DBSplitter dbSplitter = this.dbSplitter;
+			if (dbSplitter != null)
+				dbSplitter.shutdown();
+
+			WorkerPool<DBSplittingResult> dbWorkerPool = this.dbWorkerPool;
+			if (dbWorkerPool != null)
+				dbWorkerPool.drainWorkQueue();
+
+			WorkerPool<DBXlink> xlinkExporterPool = this.xlinkExporterPool;
+			if (xlinkExporterPool != null)
+				xlinkExporterPool.drainWorkQueue();
+		}
+	}
+
+	@FunctionalInterface
+	private interface FileExportTask {
+		void export() throws CityGMLExportException;
+	}
+
+	private final class FileExportWorker extends DefaultWorker<FileExportTask> {
 
-				if (dbWorkerPool != null)
-					dbWorkerPool.drainWorkQueue();
+		@Override
+		public void doWork(FileExportTask task) {
+			if (!shouldRun)
+				return;
 
-				if (xlinkExporterPool != null)
-					xlinkExporterPool.drainWorkQueue();
+			try {
+				task.export();
+			} catch (CityGMLExportException e) {
+				exportException.compareAndSet(null, e);
+				eventDispatcher.triggerSyncEvent(new InterruptEvent(null, LogLevel.ERROR, eventChannel, this));
+			} catch (Throwable e) {
+				exportException.compareAndSet(null, new CityGMLExportException("An unexpected error occurred.", e));
+				eventDispatcher.triggerSyncEvent(new InterruptEvent(null, LogLevel.ERROR, eventChannel, this));
 			}
 		}
+
+		@Override
+		public void shutdown() {
+			// nothing to do
+		}
 	}
 }
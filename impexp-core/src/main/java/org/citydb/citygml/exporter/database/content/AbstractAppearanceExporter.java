@@ -178,10 +178,28 @@ public class AbstractAppearanceExporter extends AbstractTypeExporter {
 		texImageIds.clear();
 	}
 
+	protected void setCityObject(long cityObjectId) {
+		textureParamExporter.setCityObject(cityObjectId);
+	}
+
+	protected void clearCityObject() {
+		textureParamExporter.clearCityObject();
+	}
+
 	protected List<PlaceHolder<?>> getThemeTokens() {
 		return themes;
 	}
 
+	private boolean isNewTextureImage(long texImageId, boolean lazyExport) {
+		// texture images are shared between city objects, so we use the texture image cache
+		// of the export to avoid exporting the same image more than once. lazily exported
+		// textures might be removed later and are therefore only tracked per top-level object
+		if (!lazyExport && exporter.hasTextureImageCache())
+			return !exporter.lookupAndPutTextureImageUID(texImageId);
+
+		return uniqueFileNames || texImageIds.add(texImageId);
+	}
+
 	protected void getAppearanceProperties(Appearance appearance, long appearanceId, ResultSet rs) throws CityGMLExportException, SQLException {
 		appearance.setId(rs.getString(2));
 
@@ -321,7 +339,7 @@ public class AbstractAppearanceExporter extends AbstractTypeExporter {
 				abstractTexture.setImageURI(textureURI != null ? textureURI + separator + fileName : fileName);
 
 				// export texture image from database
-				if (exportTextureImage && (uniqueFileNames || !texImageIds.contains(texImageId))) {
+				if (exportTextureImage && isNewTextureImage(texImageId, lazyExport)) {
 					if (dbImageSize > 0) {
 						DBXlinkTextureFile xlink = new DBXlinkTextureFile(
 								texImageId,
@@ -337,8 +355,6 @@ public class AbstractAppearanceExporter extends AbstractTypeExporter {
 								": Skipping 0 byte texture file '" + imageURI + "'.");
 					}
 
-					if (!uniqueFileNames)
-						texImageIds.add(texImageId);
 				}
 			} else {
 				// skip texture elements lacking a texture image
@@ -677,6 +677,18 @@ public class CityGMLExportManager implements CityGMLExportHelper {
 			return false;
 	}
 
+	public boolean hasTextureImageCache() {
+		return uidCacheManager.getCache(UIDCacheType.TEXTURE_IMAGE) != null;
+	}
+
+	public boolean lookupAndPutTextureImageUID(long texImageId) {
+		UIDCache cache = uidCacheManager.getCache(UIDCacheType.TEXTURE_IMAGE);
+		if (cache != null)
+			return cache.lookupAndPut(String.valueOf(texImageId), texImageId, 0);
+		else
+			return false;
+	}
+
 	public String getGeometrySignature(AbstractGeometry geometry, long id) {
 		return getGeometrySignature(geometry.getGMLClass(), id);
 	}
@@ -53,6 +53,8 @@ public class DBLocalAppearance extends AbstractAppearanceExporter {
 		if (isTopLevelObject)
 			clearTextureImageCache();
 
+		setCityObject(cityObjectId);
+
 		List<PlaceHolder<?>> themes = getThemeTokens();
 		ps.setLong(1, cityObjectId);
 		for (int i = 0; i < themes.size(); i++)
@@ -84,6 +86,8 @@ public class DBLocalAppearance extends AbstractAppearanceExporter {
 				// add surface data to appearance
 				addSurfaceData(appearance, rs, lazyExport);
 			}
+		} finally {
+			clearCityObject();
 		}
 	}
 }
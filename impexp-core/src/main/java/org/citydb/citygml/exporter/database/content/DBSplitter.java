@@ -50,6 +50,8 @@ import org.citydb.event.global.ProgressBarEventType;
 import org.citydb.event.global.StatusDialogMessage;
 import org.citydb.event.global.StatusDialogProgressBar;
 import org.citydb.log.Logger;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.Timer;
 import org.citydb.plugin.PluginException;
 import org.citydb.plugin.extension.export.MetadataProvider;
 import org.citydb.query.Query;
@@ -85,9 +87,11 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.LongSupplier;
 
 public class DBSplitter {
 	private final Logger log = Logger.getInstance();
+	private final Timer queryTimer = MetricsRegistry.getInstance().timer("export.splitter.query");
 
 	private final WorkerPool<DBSplittingResult> dbWorkerPool;
 	private final Query query;
@@ -102,12 +106,18 @@ public class DBSplitter {
 	private final String schema;
 	private final SchemaMapping schemaMapping;
 	private final SQLQueryBuilder builder;
+	private final int fetchSize;
 
 	private MetadataProvider metadataProvider;
 	private volatile boolean shouldRun = true;
 	private boolean calculateNumberMatched;
 	private boolean calculateExtent;
 	private long sequenceId;
+	private long lastId;
+	private long numberOfTopLevelRows;
+	private long maxOutputSize;
+	private LongSupplier outputSize;
+	private boolean isOutputSizeLimitReached;
 
 	public DBSplitter(FeatureWriter writer,
 			SchemaMapping schemaMapping,
@@ -131,6 +141,10 @@ public class DBSplitter {
 		connection.setAutoCommit(false);
 		schema = databaseAdapter.getConnectionDetails().getSchema();
 
+		// stream top-level features in chunks that match the capacity of the work queue
+		// so that we do not hold more features in memory than the workers can consume
+		fetchSize = dbWorkerPool.getMaximumQueueSize();
+
 		// try and change workspace for connection
 		if (databaseAdapter.hasVersioningSupport()) {
 			databaseAdapter.getWorkspaceManager().gotoWorkspace(
@@ -180,6 +194,23 @@ public class DBSplitter {
 		this.calculateNumberMatched = calculateNumberMatched;
 	}
 
+	public long getLastId() {
+		return lastId;
+	}
+
+	public long getNumberOfTopLevelRows() {
+		return numberOfTopLevelRows;
+	}
+
+	public void setOutputSizeLimit(long maxOutputSize, LongSupplier outputSize) {
+		this.maxOutputSize = maxOutputSize;
+		this.outputSize = outputSize;
+	}
+
+	public boolean isOutputSizeLimitReached() {
+		return isOutputSizeLimitReached;
+	}
+
 	public void shutdown() {
 		shouldRun = false;
 		eventDispatcher.triggerEvent(new StatusDialogProgressBar(true, this));
@@ -250,9 +281,13 @@ public class DBSplitter {
 		}
 
 		// issue query
-		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection);
+		long start = queryTimer.start();
+		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection, fetchSize);
 			 ResultSet rs = stmt.executeQuery()) {
-			if (rs.next()) {
+			boolean hasResults = rs.next();
+			queryTimer.stop(start);
+
+			if (hasResults) {
 				if (calculateNumberMatched) {
 					log.info("Found " + hits + " top-level feature(s) matching the request.");
 
@@ -297,6 +332,10 @@ public class DBSplitter {
 					long id = rs.getLong("id");
 					int objectClassId = rs.getInt("objectclass_id");
 
+					// remember the last id to support keyset pagination
+					lastId = id;
+					numberOfTopLevelRows++;
+
 					AbstractObjectType<?> objectType = schemaMapping.getAbstractObjectType(objectClassId);
 					if (objectType == null) {
 						log.error("Failed to map the object class id '" + objectClassId + "' to an object type (ID: " + id + ").");
@@ -317,6 +356,13 @@ public class DBSplitter {
 					// set initial context...
 					DBSplittingResult splitter = new DBSplittingResult(id, objectType, sequenceId++);
 					dbWorkerPool.addWork(splitter);
+
+					// stop once the output has reached its size limit. since features are written
+					// asynchronously, the limit is a lower bound and may be exceeded slightly
+					if (maxOutputSize > 0 && outputSize.getAsLong() >= maxOutputSize) {
+						isOutputSizeLimitReached = true;
+						break;
+					}
 				} while (rs.next() && shouldRun);
 			} else {
 				log.info("No top-level feature matches the query expression.");
@@ -395,7 +441,7 @@ public class DBSplitter {
 			}
 
 			// issue query
-			try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection);
+			try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection, fetchSize);
 				 ResultSet rs = stmt.executeQuery()) {
 				if (rs.next()) {
 					if (calculateNumberMatched) {
@@ -491,7 +537,7 @@ public class DBSplitter {
 			hits = getNumberMatched(select, globalAppTempTable.getConnection());
 		}
 
-		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, globalAppTempTable.getConnection());
+		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, globalAppTempTable.getConnection(), fetchSize);
 			 ResultSet rs = stmt.executeQuery()) {
 			if (rs.next()) {
 				if (calculateNumberMatched) {
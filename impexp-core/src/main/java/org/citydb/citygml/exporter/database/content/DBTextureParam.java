@@ -53,14 +53,21 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DBTextureParam implements DBExporter {
 	private final CityGMLExportManager exporter;
 
 	private PreparedStatement ps;
+	private PreparedStatement psBulk;
 	private AttributeValueSplitter valueSplitter;
 
+	private long cityObjectId;
+	private Map<Long, Map<Long, TextureParam>> textureParams;
+
 	public DBTextureParam(boolean isGlobal, Connection connection, CacheTable cacheTable, CityGMLExportManager exporter) throws SQLException {
 		this.exporter = exporter;
 		
@@ -73,6 +80,18 @@ public class DBTextureParam implements DBExporter {
 		if (!isGlobal) {
 			select.addJoin(JoinFactory.inner(surfaceGeometry, "id", ComparisonName.EQUAL_TO, textureParam.getColumn("surface_geometry_id")));
 			ps = connection.prepareStatement(select.toString());
+
+			// fetch the texture parameters of all surface data of a city object at once
+			Table appearToSurfaceData = new Table(TableEnum.APPEAR_TO_SURFACE_DATA.getName(), schema);
+			Table appearance = new Table(TableEnum.APPEARANCE.getName(), schema);
+			Select bulk = new Select().addProjection(textureParam.getColumn("surface_data_id"), textureParam.getColumn("surface_geometry_id"),
+					textureParam.getColumn("world_to_texture"), textureParam.getColumn("texture_coordinates"),
+					surfaceGeometry.getColumn("gmlid"), surfaceGeometry.getColumn("is_reverse"))
+					.addJoin(JoinFactory.inner(surfaceGeometry, "id", ComparisonName.EQUAL_TO, textureParam.getColumn("surface_geometry_id")))
+					.addJoin(JoinFactory.inner(appearToSurfaceData, "surface_data_id", ComparisonName.EQUAL_TO, textureParam.getColumn("surface_data_id")))
+					.addJoin(JoinFactory.inner(appearance, "id", ComparisonName.EQUAL_TO, appearToSurfaceData.getColumn("appearance_id")))
+					.addSelection(ComparisonFactory.equalTo(appearance.getColumn("cityobject_id"), new PlaceHolder<>()));
+			psBulk = connection.prepareStatement(bulk.toString());
 		} else {
 			Table tmp = new Table(cacheTable.getTableName());
 			select.addJoin(JoinFactory.inner(tmp, "id", ComparisonName.EQUAL_TO, textureParam.getColumn("surface_geometry_id")))
@@ -83,7 +102,35 @@ public class DBTextureParam implements DBExporter {
 		valueSplitter = exporter.getAttributeValueSplitter();
 	}
 
+	protected void setCityObject(long cityObjectId) {
+		this.cityObjectId = cityObjectId;
+		textureParams = null;
+	}
+
+	protected void clearCityObject() {
+		cityObjectId = 0;
+		textureParams = null;
+	}
+
 	protected boolean doExport(AbstractSurfaceData surfaceData, long surfaceDataId) throws SQLException {
+		if (psBulk != null && cityObjectId != 0) {
+			// the texture parameters are fetched lazily upon the first surface data
+			// so that city objects without appearances do not cause an additional query
+			if (textureParams == null)
+				textureParams = fetchTextureParams(cityObjectId);
+
+			// the same surface data may be exported more than once for a city object,
+			// so the parameters are kept until the city object has been processed
+			Map<Long, TextureParam> params = textureParams.get(surfaceDataId);
+			if (params == null)
+				return false;
+
+			for (TextureParam param : params.values())
+				addTarget(surfaceData, param.target, param.worldToTexture, param.texCoordsObj, param.isReverse);
+
+			return true;
+		}
+
 		ps.setLong(1, surfaceDataId);
 
 		try (ResultSet rs = ps.executeQuery()) {
@@ -91,94 +138,125 @@ public class DBTextureParam implements DBExporter {
 				return false;
 
 			do {
-				String target = rs.getString(3);
-				if (target == null || target.length() == 0)
-					continue;
-				
-				target = "#" + target;
-
-				if (surfaceData instanceof X3DMaterial) {
-					((X3DMaterial)surfaceData).addTarget(target);
-				}
+				addTarget(surfaceData, rs.getString(3), rs.getString(1), rs.getObject(2), rs.getBoolean(4));
+			} while (rs.next());
 
-				else if (surfaceData instanceof GeoreferencedTexture) {
-					((GeoreferencedTexture)surfaceData).addTarget(target);
-				}
-				
-				else if (surfaceData instanceof ParameterizedTexture) {
-					ParameterizedTexture parameterizedTexture = (ParameterizedTexture)surfaceData;
-
-					String worldToTexture = rs.getString(1);
-					Object texCoordsObj = rs.getObject(2);
-
-					if (texCoordsObj != null) {
-						GeometryObject texCoords = exporter.getDatabaseAdapter().getGeometryConverter().getPolygon(texCoordsObj);
-						if (texCoords != null && texCoords.getDimension() == 2) {
-							TextureAssociation textureAssociation = new TextureAssociation();
-							textureAssociation.setUri(target);
-							TexCoordList texCoordList = new TexCoordList();
-
-							for (int i = 0; i < texCoords.getNumElements(); i++) {
-								double[] coordinates = texCoords.getCoordinates(i);
-
-								// reverse order of texture coordinates if necessary
-								boolean isReverse = rs.getBoolean(4);
-								if (isReverse) {
-									for (int lower = 0, upper = coordinates.length - 2; lower < upper; lower += 2, upper -= 2) {
-										double x = coordinates[lower];
-										double y = coordinates[lower + 1];
-										coordinates[lower] = coordinates[upper];
-										coordinates[lower + 1] = coordinates[upper + 1];
-										coordinates[upper] = x;
-										coordinates[upper + 1] = y;
-									}
-								}
-
-								List<Double> value = new ArrayList<Double>(coordinates.length);
-								for (double coordinate : coordinates)
-									value.add(coordinate);
-
-								TextureCoordinates texureCoordinates = new TextureCoordinates();
-								texureCoordinates.setValue(value);
-								texureCoordinates.setRing(target + '_' + i + '_');
-
-								texCoordList.addTextureCoordinates(texureCoordinates);
-							}
+			return true;
+		}
+	}
 
-							textureAssociation.setTextureParameterization(texCoordList);
-							parameterizedTexture.addTarget(textureAssociation);
-						}
-					}
+	private Map<Long, Map<Long, TextureParam>> fetchTextureParams(long cityObjectId) throws SQLException {
+		Map<Long, Map<Long, TextureParam>> textureParams = new HashMap<>();
+		psBulk.setLong(1, cityObjectId);
 
-					else if (worldToTexture != null) {
-						TextureAssociation textureAssociation = new TextureAssociation();
-						textureAssociation.setUri(target);
+		try (ResultSet rs = psBulk.executeQuery()) {
+			while (rs.next()) {
+				// a surface data object may be referenced by more than one appearance
+				// of the city object. so use the surface geometry id to skip duplicates
+				textureParams.computeIfAbsent(rs.getLong(1), v -> new LinkedHashMap<>())
+						.putIfAbsent(rs.getLong(2), new TextureParam(rs.getString(5), rs.getString(3), rs.getObject(4), rs.getBoolean(6)));
+			}
+		}
 
-						List<Double> m = valueSplitter.splitDoubleList(worldToTexture);
-						if (m.size() >= 12) {
-							Matrix matrix = new Matrix(3, 4);
-							matrix.setMatrix(m.subList(0, 12));
+		return textureParams;
+	}
 
-							WorldToTexture worldToTextureMatrix = new WorldToTexture();
-							worldToTextureMatrix.setMatrix(matrix);
+	private void addTarget(AbstractSurfaceData surfaceData, String target, String worldToTexture, Object texCoordsObj, boolean isReverse) throws SQLException {
+		if (target == null || target.length() == 0)
+			return;
 
-							TexCoordGen texCoordGen = new TexCoordGen();
-							texCoordGen.setWorldToTexture(worldToTextureMatrix);
+		target = "#" + target;
 
-							textureAssociation.setTextureParameterization(texCoordGen);
-							parameterizedTexture.addTarget(textureAssociation);
+		if (surfaceData instanceof X3DMaterial) {
+			((X3DMaterial)surfaceData).addTarget(target);
+		}
+
+		else if (surfaceData instanceof GeoreferencedTexture) {
+			((GeoreferencedTexture)surfaceData).addTarget(target);
+		}
+
+		else if (surfaceData instanceof ParameterizedTexture) {
+			ParameterizedTexture parameterizedTexture = (ParameterizedTexture)surfaceData;
+
+			if (texCoordsObj != null) {
+				GeometryObject texCoords = exporter.getDatabaseAdapter().getGeometryConverter().getPolygon(texCoordsObj);
+				if (texCoords != null && texCoords.getDimension() == 2) {
+					TextureAssociation textureAssociation = new TextureAssociation();
+					textureAssociation.setUri(target);
+					TexCoordList texCoordList = new TexCoordList();
+
+					for (int i = 0; i < texCoords.getNumElements(); i++) {
+						double[] coordinates = texCoords.getCoordinates(i);
+
+						// reverse order of texture coordinates if necessary
+						if (isReverse) {
+							for (int lower = 0, upper = coordinates.length - 2; lower < upper; lower += 2, upper -= 2) {
+								double x = coordinates[lower];
+								double y = coordinates[lower + 1];
+								coordinates[lower] = coordinates[upper];
+								coordinates[lower + 1] = coordinates[upper + 1];
+								coordinates[upper] = x;
+								coordinates[upper + 1] = y;
+							}
 						}
+
+						List<Double> value = new ArrayList<Double>(coordinates.length);
+						for (double coordinate : coordinates)
+							value.add(coordinate);
+
+						TextureCoordinates texureCoordinates = new TextureCoordinates();
+						texureCoordinates.setValue(value);
+						texureCoordinates.setRing(target + '_' + i + '_');
+
+						texCoordList.addTextureCoordinates(texureCoordinates);
 					}
+
+					textureAssociation.setTextureParameterization(texCoordList);
+					parameterizedTexture.addTarget(textureAssociation);
 				}
-			} while (rs.next());
+			}
 
-			return true;
+			else if (worldToTexture != null) {
+				TextureAssociation textureAssociation = new TextureAssociation();
+				textureAssociation.setUri(target);
+
+				List<Double> m = valueSplitter.splitDoubleList(worldToTexture);
+				if (m.size() >= 12) {
+					Matrix matrix = new Matrix(3, 4);
+					matrix.setMatrix(m.subList(0, 12));
+
+					WorldToTexture worldToTextureMatrix = new WorldToTexture();
+					worldToTextureMatrix.setMatrix(matrix);
+
+					TexCoordGen texCoordGen = new TexCoordGen();
+					texCoordGen.setWorldToTexture(worldToTextureMatrix);
+
+					textureAssociation.setTextureParameterization(texCoordGen);
+					parameterizedTexture.addTarget(textureAssociation);
+				}
+			}
 		}
 	}
 	
 	@Override
 	public void close() throws SQLException {
 		ps.close();
+		if (psBulk != null)
+			psBulk.close();
+	}
+
+	private static final class TextureParam {
+		private final String target;
+		private final String worldToTexture;
+		private final Object texCoordsObj;
+		private final boolean isReverse;
+
+		private TextureParam(String target, String worldToTexture, Object texCoordsObj, boolean isReverse) {
+			this.target = target;
+			this.worldToTexture = worldToTexture;
+			this.texCoordsObj = texCoordsObj;
+			this.isReverse = isReverse;
+		}
 	}
 
 }
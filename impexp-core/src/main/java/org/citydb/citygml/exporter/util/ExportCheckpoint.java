@@ -0,0 +1,121 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.citygml.exporter.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+public class ExportCheckpoint {
+	private static final String EXPORT_FILE = "exportFile";
+	private static final String LAST_ID = "lastId";
+	private static final String PART = "part";
+
+	private final Path file;
+	private final Path exportFile;
+	private long lastId;
+	private int part;
+
+	private ExportCheckpoint(Path file, Path exportFile) {
+		this.file = file;
+		this.exportFile = exportFile;
+	}
+
+	public static ExportCheckpoint load(Path file, Path exportFile) throws IOException {
+		ExportCheckpoint checkpoint = new ExportCheckpoint(file, exportFile.toAbsolutePath().normalize());
+		if (!Files.exists(file))
+			return checkpoint;
+
+		Properties properties = new Properties();
+		try (InputStream stream = Files.newInputStream(file)) {
+			properties.load(stream);
+		}
+
+		String target = properties.getProperty(EXPORT_FILE);
+		if (target != null && !target.equals(checkpoint.exportFile.toString()))
+			throw new IOException("The checkpoint belongs to the export file '" + target + "'.");
+
+		try {
+			checkpoint.lastId = Long.parseLong(properties.getProperty(LAST_ID, "0"));
+			checkpoint.part = Integer.parseInt(properties.getProperty(PART, "0"));
+		} catch (NumberFormatException e) {
+			throw new IOException("The checkpoint file is corrupt.", e);
+		}
+
+		return checkpoint;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public long getLastId() {
+		return lastId;
+	}
+
+	public void setLastId(long lastId) {
+		this.lastId = lastId;
+	}
+
+	public int getPart() {
+		return part;
+	}
+
+	public void setPart(int part) {
+		this.part = part;
+	}
+
+	public void save() throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(EXPORT_FILE, exportFile.toString());
+		properties.setProperty(LAST_ID, String.valueOf(lastId));
+		properties.setProperty(PART, String.valueOf(part));
+
+		// write to a temporary file first so that a crash never leaves a broken checkpoint
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (OutputStream stream = Files.newOutputStream(tmp)) {
+			properties.store(stream, "3DCityDB export checkpoint");
+		}
+
+		try {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	public void delete() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+}
@@ -34,6 +34,8 @@ import org.citydb.event.Event;
 import org.citydb.event.EventDispatcher;
 import org.citydb.event.EventHandler;
 import org.citydb.event.global.EventType;
+import org.citydb.metrics.Histogram;
+import org.citydb.metrics.MetricsRegistry;
 import org.citydb.registry.ObjectRegistry;
 import org.citydb.writer.SequentialWriter;
 import org.citydb.writer.XMLWriterWorkerFactory;
@@ -78,6 +80,8 @@ public class CityGMLWriter implements FeatureWriter, EventHandler {
 	private final TransformerChainFactory transformerChainFactory;
 	private final boolean useSequentialWriting;
 	private final EventDispatcher eventDispatcher;
+	private final MetricsRegistry metrics;
+	private final Histogram queueDepth;
 
 	private volatile boolean headerWritten = false;
 	private Metadata metadata;
@@ -96,6 +100,9 @@ public class CityGMLWriter implements FeatureWriter, EventHandler {
 		eventDispatcher = ObjectRegistry.getInstance().getEventDispatcher();
 		eventDispatcher.addEventHandler(EventType.INTERRUPT, this);
 
+		metrics = MetricsRegistry.getInstance();
+		queueDepth = metrics.histogram("export.writer.queue");
+
 		writerPool = new SingleWorkerPool<>(
 				"citygml_writer_pool",
 				new XMLWriterWorkerFactory(saxWriter, eventDispatcher),
@@ -178,6 +185,10 @@ public class CityGMLWriter implements FeatureWriter, EventHandler {
 		if (buffer.isEmpty())
 			throw new FeatureWriteException("Failed to write feature with gml:id '" + feature.getId() + "'.");
 
+		// sample the writer queue to see whether writing is the bottleneck
+		if (metrics.isEnabled())
+			queueDepth.update(writerPool.getWorkQueue().size());
+
 		if (!useSequentialWriting)
 			writerPool.addWork(buffer);
 		else {
@@ -42,18 +42,21 @@ import org.citydb.config.project.global.LogLevel;
 import org.citydb.database.adapter.AbstractDatabaseAdapter;
 import org.citydb.database.schema.mapping.SchemaMapping;
 import org.citydb.event.Event;
+import org.citydb.event.EventAggregator;
 import org.citydb.event.EventDispatcher;
 import org.citydb.event.EventHandler;
-import org.citydb.event.global.CounterEvent;
 import org.citydb.event.global.CounterType;
 import org.citydb.event.global.EventType;
-import org.citydb.event.global.GeometryCounterEvent;
 import org.citydb.event.global.InterruptEvent;
-import org.citydb.event.global.ObjectCounterEvent;
 import org.citydb.file.InputFile;
 import org.citydb.log.Logger;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.Timer;
+import org.citydb.metrics.jfr.FlightRecorderEvents.ImportFeature;
+import org.citydb.metrics.jfr.FlightRecording;
 import org.citygml4j.builder.jaxb.CityGMLBuilder;
 import org.citygml4j.model.citygml.CityGML;
+import org.citygml4j.model.citygml.CityGMLClass;
 import org.citygml4j.model.citygml.appearance.Appearance;
 import org.citygml4j.model.gml.base.AbstractGML;
 import org.citygml4j.model.gml.feature.AbstractFeature;
@@ -62,6 +65,7 @@ import org.citygml4j.util.bbox.BoundingBoxOptions;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.EnumMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class DBImportWorker extends Worker<CityGML> implements EventHandler {
@@ -74,9 +78,12 @@ public class DBImportWorker extends Worker<CityGML> implements EventHandler {
 	private final CityGMLFilter filter;
 	private final ImportLogger importLogger;
 	private final EventDispatcher eventDispatcher;
+	private final EventAggregator eventAggregator;
 
 	private final BoundingBoxOptions bboxOptions;
 	private final CityGMLImportManager importer;
+	private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+	private final EnumMap<CityGMLClass, Timer> featureTimers = new EnumMap<>(CityGMLClass.class);
 
 	private int updateCounter = 0;
 	private int commitAfter = 20;
@@ -99,6 +106,7 @@ public class DBImportWorker extends Worker<CityGML> implements EventHandler {
 		this.filter = filter;
 		this.importLogger = importLogger;
 		this.eventDispatcher = eventDispatcher;
+		eventAggregator = eventDispatcher.createEventAggregator(this);
 
 		importer = new CityGMLImportManager(inputFile,
 				connection,
@@ -181,6 +189,7 @@ public class DBImportWorker extends Worker<CityGML> implements EventHandler {
 				}
 			}
 
+			eventAggregator.close();
 			eventDispatcher.removeEventHandler(this);
 		}
 	}
@@ -198,7 +207,14 @@ public class DBImportWorker extends Worker<CityGML> implements EventHandler {
 			if (work instanceof Appearance) {
 				// global appearances
 				Appearance appearance = (Appearance)work;
+				ImportFeature jfrEvent = FlightRecording.events().beginImportFeature();
+				long start = metrics.isEnabled() ? System.nanoTime() : 0;
 				id = importer.importGlobalAppearance(appearance);
+				if (start != 0)
+					getFeatureTimer(work.getCityGMLClass()).stop(start);
+
+				if (jfrEvent != null)
+					jfrEvent.commit(String.valueOf(work.getCityGMLClass()), appearance.getId(), id);
 			} 
 
 			else if (work instanceof AbstractFeature) {
@@ -211,7 +227,15 @@ public class DBImportWorker extends Worker<CityGML> implements EventHandler {
 				if (!filter.getSelectionFilter().isSatisfiedBy(feature))
 					return;			
 
+				ImportFeature jfrEvent = FlightRecording.events().beginImportFeature();
+				long start = metrics.isEnabled() ? System.nanoTime() : 0;
 				id = importer.importObject(feature);
+				if (start != 0)
+					getFeatureTimer(feature.getCityGMLClass()).stop(start);
+
+				if (jfrEvent != null)
+					jfrEvent.commit(String.valueOf(feature.getCityGMLClass()), feature.getId(), id);
+
 				if (id == 0)
 					importer.logOrThrowErrorMessage("Failed to import object " + importer.getObjectSignature(feature) + ".");
 			}
@@ -253,10 +277,14 @@ public class DBImportWorker extends Worker<CityGML> implements EventHandler {
 		}
 	}
 
+	private Timer getFeatureTimer(CityGMLClass type) {
+		return featureTimers.computeIfAbsent(type, v -> metrics.timer("import.feature." + v));
+	}
+
 	private void updateImportContext() throws IOException {
-		eventDispatcher.triggerEvent(new ObjectCounterEvent(importer.getAndResetObjectCounter(), this));
-		eventDispatcher.triggerEvent(new GeometryCounterEvent(importer.getAndResetGeometryCounter(), this));
-		eventDispatcher.triggerEvent(new CounterEvent(CounterType.TOPLEVEL_FEATURE, updateCounter, this));
+		eventAggregator.addObjectCounter(importer.getAndResetObjectCounter());
+		eventAggregator.addGeometryCounter(importer.getAndResetGeometryCounter());
+		eventAggregator.addCounter(CounterType.TOPLEVEL_FEATURE, updateCounter);
 		updateCounter = 0;
 
 		// log imported top-level features
@@ -108,13 +108,17 @@ public class DBImportXlinkWorker extends Worker<DBXlink> implements EventHandler
 			firstWork = null;
 		}
 
-		while (shouldRun) {
-			try {
-				DBXlink work = workQueue.take();
-				doWork(work);
-			} catch (InterruptedException ie) {
-				// re-check state
+		try {
+			while (shouldRun) {
+				try {
+					DBXlink work = takeWork();
+					doWork(work);
+				} catch (InterruptedException ie) {
+					// re-check state
+				}
 			}
+		} finally {
+			returnWork();
 		}
 
 		try {
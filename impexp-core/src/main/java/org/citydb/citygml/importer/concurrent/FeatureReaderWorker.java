@@ -36,7 +36,12 @@ import org.citydb.config.project.global.LogLevel;
 import org.citydb.event.EventDispatcher;
 import org.citydb.event.global.InterruptEvent;
 import org.citydb.log.Logger;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.Timer;
+import org.citydb.metrics.jfr.FlightRecorderEvents.ParseChunk;
+import org.citydb.metrics.jfr.FlightRecording;
 import org.citygml4j.model.citygml.CityGML;
+import org.citygml4j.model.gml.base.AbstractGML;
 import org.citygml4j.xml.io.reader.MissingADESchemaException;
 import org.citygml4j.xml.io.reader.UnmarshalException;
 import org.citygml4j.xml.io.reader.XMLChunk;
@@ -49,6 +54,7 @@ public class FeatureReaderWorker extends Worker<XMLChunk> {
 	private final WorkerPool<CityGML> dbWorkerPool;
 	private final EventDispatcher eventDispatcher;
 	private final boolean useValidation;
+	private final Timer parseTimer;
 
 	public FeatureReaderWorker(WorkerPool<CityGML> dbWorkerPool,
 			Config config,
@@ -57,6 +63,7 @@ public class FeatureReaderWorker extends Worker<XMLChunk> {
 		this.eventDispatcher = eventDispatcher;
 
 		useValidation = config.getProject().getImporter().getXMLValidation().isSetUseXMLValidation();
+		parseTimer = MetricsRegistry.getInstance().timer("import.parse");
 	}
 	
 	@Override
@@ -87,7 +94,15 @@ public class FeatureReaderWorker extends Worker<XMLChunk> {
 
 		try {
 			try {
+				ParseChunk jfrEvent = FlightRecording.events().beginParseChunk();
+				long start = parseTimer.start();
 				CityGML cityGML = work.unmarshal();
+				parseTimer.stop(start);
+
+				if (jfrEvent != null)
+					jfrEvent.commit(String.valueOf(cityGML.getCityGMLClass()),
+							cityGML instanceof AbstractGML ? ((AbstractGML) cityGML).getId() : null);
+
 				if (!useValidation || work.hasPassedXMLValidation())
 					dbWorkerPool.addWork(cityGML);
 			} catch (UnmarshalException e) {
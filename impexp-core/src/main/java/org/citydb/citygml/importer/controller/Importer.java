@@ -49,6 +49,7 @@ import org.citydb.citygml.importer.reader.FeatureReaderFactoryBuilder;
 import org.citydb.citygml.importer.util.AffineTransformer;
 import org.citydb.citygml.importer.util.ImportLogger;
 import org.citydb.concurrent.PoolSizeAdaptationStrategy;
+import org.citydb.concurrent.PoolSizeController;
 import org.citydb.concurrent.WorkerPool;
 import org.citydb.config.Config;
 import org.citydb.config.i18n.Language;
@@ -65,6 +66,7 @@ import org.citydb.database.adapter.IndexStatusInfo.IndexInfoObject;
 import org.citydb.database.adapter.IndexStatusInfo.IndexStatus;
 import org.citydb.database.adapter.IndexStatusInfo.IndexType;
 import org.citydb.database.connection.DatabaseConnectionPool;
+import org.citydb.database.connection.StatementStatistics;
 import org.citydb.database.schema.mapping.SchemaMapping;
 import org.citydb.event.Event;
 import org.citydb.event.EventDispatcher;
@@ -83,7 +85,10 @@ import org.citydb.file.InputFile;
 import org.citydb.file.input.AbstractArchiveInputFile;
 import org.citydb.file.input.DirectoryScanner;
 import org.citydb.log.Logger;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.Timer;
 import org.citydb.query.filter.FilterException;
+import org.citydb.registry.ObjectRegistry;
 import org.citydb.util.CoreConstants;
 import org.citydb.util.Util;
 import org.citygml4j.builder.jaxb.CityGMLBuilder;
@@ -240,9 +245,11 @@ public class Importer implements EventHandler {
 		WorkerPool<CityGML> dbWorkerPool = null;
 		WorkerPool<DBXlink> tmpXlinkPool = null;
 		WorkerPool<DBXlink> xlinkResolverPool = null;
+		PoolSizeController poolSizeController = null;
 		DBXlinkSplitter splitter;
 		ImportLogger importLogger = null;
 
+		StatementStatistics.getInstance().reset();
 		long start = System.currentTimeMillis();
 
 		while (shouldRun && fileCounter < importFiles.size()) {
@@ -345,11 +352,16 @@ public class Importer implements EventHandler {
 						queueSize,
 						false);
 
-				// this pool basically works on the data import
+				// xlinks are cheap to process, so let workers take them in batches
+				tmpXlinkPool.setWorkBatchSize(64);
+
+				// this pool basically works on the data import. its workers are bound by
+				// database round trips, so size it by the connection pool capacity
+				int maxDbThreads = getMaxDatabaseThreads(maxThreads);
 				dbWorkerPool = new WorkerPool<>(
 						"db_importer_pool",
-						minThreads,
-						maxThreads,
+						Math.min(minThreads, maxDbThreads),
+						maxDbThreads,
 						PoolSizeAdaptationStrategy.AGGRESSIVE,
 						new DBImportWorkerFactory(file,
 								schemaMapping,
@@ -374,6 +386,17 @@ public class Importer implements EventHandler {
 					return false;
 				}
 
+				// adapt pool sizes to the load at runtime if requested. the reader registers
+				// its parser pool with this controller as well
+				if (resourcesConfig.getThreadPool().getDefaultPool().isAdaptivePoolSize()) {
+					poolSizeController = new PoolSizeController();
+					poolSizeController.register(tmpXlinkPool, minThreads, maxThreads);
+					poolSizeController.register(dbWorkerPool, dbWorkerPool.getCorePoolSize(), maxDbThreads,
+							() -> DatabaseConnectionPool.getInstance().getAvailableConnections());
+					ObjectRegistry.getInstance().register(poolSizeController);
+					poolSizeController.start();
+				}
+
 				FeatureReaderFactory factory;
 				try {
 					factory = builder.buildFactory(file, filter, config);
@@ -405,10 +428,14 @@ public class Importer implements EventHandler {
 				if (shouldRun) {
 					// get an xlink resolver pool
 					log.info("Resolving XLink references.");
+					Timer xlinkTimer = MetricsRegistry.getInstance().timer("import.xlink.resolve");
+					long xlinkStart = xlinkTimer.start();
+
+					maxDbThreads = getMaxDatabaseThreads(maxThreads);
 					xlinkResolverPool = new WorkerPool<>(
 							"xlink_resolver_pool",
-							minThreads,
-							maxThreads,
+							Math.min(minThreads, maxDbThreads),
+							maxDbThreads,
 							PoolSizeAdaptationStrategy.AGGRESSIVE,
 							new DBImportXlinkResolverWorkerFactory(file,
 									tmpXlinkPool,
@@ -422,6 +449,11 @@ public class Importer implements EventHandler {
 					// prestart its workers
 					xlinkResolverPool.prestartCoreWorkers();
 
+					if (poolSizeController != null) {
+						poolSizeController.register(xlinkResolverPool, xlinkResolverPool.getCorePoolSize(), maxDbThreads,
+								() -> DatabaseConnectionPool.getInstance().getAvailableConnections());
+					}
+
 					// resolve xlinks based on temp tables
 					if (shouldRun) {
 						splitter = new DBXlinkSplitter(cacheTableManager,
@@ -439,6 +471,8 @@ public class Importer implements EventHandler {
 					} catch (InterruptedException e) {
 						throw new CityGMLImportException("Failed to shutdown worker pools.", e);
 					}
+
+					xlinkTimer.stop(xlinkStart);
 				}
 
 				// shutdown tmp xlink pool
@@ -458,6 +492,12 @@ public class Importer implements EventHandler {
 				throw new CityGMLImportException("An unexpected error occurred.", e);
 			} finally {
 				// clean up
+				if (poolSizeController != null) {
+					ObjectRegistry.getInstance().unregister(PoolSizeController.class);
+					poolSizeController.shutdown();
+					poolSizeController = null;
+				}
+
 				if (dbWorkerPool != null && !dbWorkerPool.isTerminated())
 					dbWorkerPool.shutdownNow();
 
@@ -535,9 +575,22 @@ public class Importer implements EventHandler {
 		if (shouldRun)
 			log.info("Total import time: " + Util.formatElapsedTime(System.currentTimeMillis() - start) + ".");
 
+		// report the statements causing most database time
+		StatementStatistics statementStatistics = StatementStatistics.getInstance();
+		if (statementStatistics.isEnabled())
+			statementStatistics.logReport(config.getProject().getGlobal().getMetrics().getStatementReportSize());
+
 		return shouldRun;
 	}
 
+	private int getMaxDatabaseThreads(int maxThreads) {
+		int maxDbThreads = DatabaseConnectionPool.getInstance().limitToAvailableConnections(maxThreads, 0);
+		if (maxDbThreads < maxThreads)
+			log.info("Limiting database workers to " + maxDbThreads + " threads due to the size of the connection pool.");
+
+		return maxDbThreads;
+	}
+
 	private void manageIndexes(boolean enable, boolean workOnSpatialIndexes) throws SQLException {
 		AbstractUtilAdapter utilAdapter = databaseAdapter.getUtil();
 		log.info((enable ? "Activating " : "Deactivating ") + (workOnSpatialIndexes ? "spatial" : "normal") + " indexes...");
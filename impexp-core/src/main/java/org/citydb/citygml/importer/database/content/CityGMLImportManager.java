@@ -60,6 +60,11 @@ import org.citydb.database.schema.mapping.ObjectType;
 import org.citydb.database.schema.mapping.SchemaMapping;
 import org.citydb.file.InputFile;
 import org.citydb.log.Logger;
+import org.citydb.metrics.Histogram;
+import org.citydb.metrics.MetricsRegistry;
+import org.citydb.metrics.Timer;
+import org.citydb.metrics.jfr.FlightRecorderEvents.ExecuteBatch;
+import org.citydb.metrics.jfr.FlightRecording;
 import org.citydb.util.CoreConstants;
 import org.citydb.util.Util;
 import org.citygml4j.builder.jaxb.CityGMLBuilder;
@@ -125,6 +130,7 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -133,6 +139,9 @@ import java.util.Map.Entry;
 
 public class CityGMLImportManager implements CityGMLImportHelper {
 	private final Logger log = Logger.getInstance();
+	private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+	private final EnumMap<TableEnum, Timer> batchTimers = new EnumMap<>(TableEnum.class);
+	private final EnumMap<TableEnum, Histogram> batchSizes = new EnumMap<>(TableEnum.class);
 	private final IdentityHashMap<Class<? extends DBImporter>, DBImporter> importers = new IdentityHashMap<>();
 	private final IdentityHashMap<ADEExtension, ADEImportManager> adeImporters = new IdentityHashMap<>();
 
@@ -737,8 +746,20 @@ public class CityGMLImportManager implements CityGMLImportHelper {
 		TableEnum table = TableEnum.fromTableName(tableName);
 		if (table != TableEnum.UNDEFINED) {
 			DBImporter importer = importers.get(tableHelper.getImporterClass(table));
-			if (importer != null)
+			if (importer != null) {
+				int batchSize = importer.getBatchSize();
+				ExecuteBatch jfrEvent = batchSize > 0 ? FlightRecording.events().beginExecuteBatch() : null;
+				long start = batchSize > 0 && metrics.isEnabled() ? System.nanoTime() : 0;
 				importer.executeBatch();
+
+				if (start != 0) {
+					batchTimers.computeIfAbsent(table, v -> metrics.timer("import.batch." + v.getName())).stop(start);
+					batchSizes.computeIfAbsent(table, v -> metrics.histogram("import.batch." + v.getName() + ".size")).update(batchSize);
+				}
+
+				if (jfrEvent != null)
+					jfrEvent.commit(table.getName(), batchSize);
+			}
 		}
 
 		else {
@@ -258,6 +258,11 @@ public class DBAddress implements DBImporter {
 		}
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
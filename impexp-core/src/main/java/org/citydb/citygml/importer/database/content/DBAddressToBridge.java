@@ -60,6 +60,11 @@ public class DBAddressToBridge implements DBImporter {
 			importer.executeBatch(TableEnum.ADDRESS_TO_BRIDGE);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
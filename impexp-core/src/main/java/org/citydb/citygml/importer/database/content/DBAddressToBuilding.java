@@ -60,6 +60,11 @@ public class DBAddressToBuilding implements DBImporter {
 			importer.executeBatch(TableEnum.ADDRESS_TO_BUILDING);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
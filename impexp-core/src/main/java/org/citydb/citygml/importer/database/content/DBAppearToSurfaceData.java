@@ -60,6 +60,11 @@ public class DBAppearToSurfaceData implements DBImporter {
 			importer.executeBatch(TableEnum.APPEAR_TO_SURFACE_DATA);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -205,6 +205,11 @@ public class DBAppearance implements DBImporter {
 		texturedSurfaceConverter.convertTexturedSurfaceXlink(href, surfaceGeometryId, parentId);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		texturedSurfaceConverter.flush();
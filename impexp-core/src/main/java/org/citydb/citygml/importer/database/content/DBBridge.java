@@ -489,6 +489,11 @@ public class DBBridge implements DBImporter {
 		return bridgeId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -334,6 +334,11 @@ public class DBBridgeConstrElement implements DBImporter {
 		return bridgeConstructionId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -236,6 +236,11 @@ public class DBBridgeFurniture implements DBImporter {
 		return bridgeFurnitureId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -484,6 +484,11 @@ public class DBBridgeInstallation implements DBImporter {
 		return intBridgeInstallationId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
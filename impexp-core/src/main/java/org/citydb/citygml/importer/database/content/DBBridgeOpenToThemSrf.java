@@ -60,6 +60,11 @@ public class DBBridgeOpenToThemSrf implements DBImporter {
 			importer.executeBatch(TableEnum.BRIDGE_OPEN_TO_THEM_SRF);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
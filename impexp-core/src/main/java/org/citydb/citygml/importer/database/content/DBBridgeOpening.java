@@ -245,6 +245,11 @@ public class DBBridgeOpening implements DBImporter {
 		return openingId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -265,6 +265,11 @@ public class DBBridgeRoom implements DBImporter {
 		return bridgeRoomId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
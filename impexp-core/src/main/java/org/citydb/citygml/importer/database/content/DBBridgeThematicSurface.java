@@ -193,6 +193,11 @@ public class DBBridgeThematicSurface implements DBImporter {
 		return boundarySurfaceId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
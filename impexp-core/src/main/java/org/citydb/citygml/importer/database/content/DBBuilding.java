@@ -551,6 +551,11 @@ public class DBBuilding implements DBImporter {
 		return buildingId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -236,6 +236,11 @@ public class DBBuildingFurniture implements DBImporter {
 		return buildingFurnitureId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -484,6 +484,11 @@ public class DBBuildingInstallation implements DBImporter {
 		return intBuildingInstallationId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -296,6 +296,11 @@ public class DBCityFurniture implements DBImporter {
 		return cityFurnitureId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -389,6 +389,11 @@ public class DBCityObject implements DBImporter {
 		return objectId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -252,6 +252,11 @@ public class DBCityObjectGenericAttrib implements DBImporter {
 			importer.executeBatch(TableEnum.CITYOBJECT_GENERICATTRIB);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -212,6 +212,11 @@ public class DBCityObjectGroup implements DBImporter {
 		return cityObjectGroupId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -93,6 +93,11 @@ public class DBExternalReference implements DBImporter {
 			importer.executeBatch(TableEnum.EXTERNAL_REFERENCE);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
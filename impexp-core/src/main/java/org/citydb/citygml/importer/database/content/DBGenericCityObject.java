@@ -306,6 +306,11 @@ public class DBGenericCityObject implements DBImporter {
 		return genericCityObjectId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -239,6 +239,11 @@ public class DBImplicitGeometry implements DBImporter {
 		return implicitGeometryId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
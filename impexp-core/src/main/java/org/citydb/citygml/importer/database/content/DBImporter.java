@@ -32,6 +32,14 @@ import java.sql.SQLException;
 import org.citydb.citygml.importer.CityGMLImportException;
 
 public interface DBImporter {
+	/**
+	 * Returns the number of statements pending in the batch of this importer. Importers
+	 * that do not report their batch size are not included in the batch metrics.
+	 */
+	public default int getBatchSize() {
+		return 0;
+	}
+
 	public void executeBatch() throws CityGMLImportException, SQLException;
 	public void close() throws CityGMLImportException, SQLException;
 }
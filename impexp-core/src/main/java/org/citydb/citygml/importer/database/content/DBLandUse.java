@@ -173,6 +173,11 @@ public class DBLandUse implements DBImporter {
 	}
 
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
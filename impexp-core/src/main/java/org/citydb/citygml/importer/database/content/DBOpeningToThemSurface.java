@@ -60,6 +60,11 @@ public class DBOpeningToThemSurface implements DBImporter {
 			importer.executeBatch(TableEnum.OPENING_TO_THEM_SURFACE);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
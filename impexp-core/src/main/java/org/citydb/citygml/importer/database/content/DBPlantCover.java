@@ -222,6 +222,11 @@ public class DBPlantCover implements DBImporter {
 		return plantCoverId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -305,6 +305,11 @@ public class DBReliefComponent implements DBImporter {
 		return reliefComponentId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
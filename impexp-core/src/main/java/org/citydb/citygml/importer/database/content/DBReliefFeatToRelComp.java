@@ -60,6 +60,11 @@ public class DBReliefFeatToRelComp implements DBImporter {
 			importer.executeBatch(TableEnum.RELIEF_FEAT_TO_REL_COMP);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -124,6 +124,11 @@ public class DBReliefFeature implements DBImporter {
 		return reliefFeatureId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
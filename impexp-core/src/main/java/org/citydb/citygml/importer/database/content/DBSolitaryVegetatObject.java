@@ -300,6 +300,11 @@ public class DBSolitaryVegetatObject implements DBImporter {
 		return vegetationObjectId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
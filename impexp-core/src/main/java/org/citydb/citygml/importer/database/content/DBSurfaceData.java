@@ -668,6 +668,11 @@ public class DBSurfaceData implements DBImporter {
 		}
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -1157,6 +1157,11 @@ public class DBSurfaceGeometry implements DBImporter {
 			importer.executeBatch(TableEnum.SURFACE_GEOMETRY);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -148,6 +148,11 @@ public class DBTexImage implements DBImporter {
 		return hexString.toString();
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -93,6 +93,11 @@ public class DBTextureParam implements DBImporter {
 			importer.executeBatch(TableEnum.TEXTUREPARAM);		
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -182,6 +182,11 @@ public class DBThematicSurface implements DBImporter {
 		return boundarySurfaceId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
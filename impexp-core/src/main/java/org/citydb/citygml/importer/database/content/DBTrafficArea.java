@@ -294,6 +294,11 @@ public class DBTrafficArea implements DBImporter {
 		return auxiliaryTrafficAreaId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
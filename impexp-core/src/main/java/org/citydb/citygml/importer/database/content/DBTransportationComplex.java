@@ -277,6 +277,11 @@ public class DBTransportationComplex implements DBImporter {
 		return transportationComplexId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
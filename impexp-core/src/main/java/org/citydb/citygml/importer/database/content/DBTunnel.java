@@ -433,6 +433,11 @@ public class DBTunnel implements DBImporter {
 		return tunnelId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
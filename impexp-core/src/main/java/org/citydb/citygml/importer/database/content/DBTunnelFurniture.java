@@ -237,6 +237,11 @@ public class DBTunnelFurniture implements DBImporter {
 		return tunnelFurnitureId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -266,6 +266,11 @@ public class DBTunnelHollowSpace implements DBImporter {
 		return hollowSpaceId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -479,6 +479,11 @@ public class DBTunnelInstallation implements DBImporter {
 		return intTunnelInstallationId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -208,6 +208,11 @@ public class DBTunnelOpening implements DBImporter {
 		return openingId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
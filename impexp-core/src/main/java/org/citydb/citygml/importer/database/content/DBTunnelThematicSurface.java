@@ -183,6 +183,11 @@ public class DBTunnelThematicSurface implements DBImporter {
 		return boundarySurfaceId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
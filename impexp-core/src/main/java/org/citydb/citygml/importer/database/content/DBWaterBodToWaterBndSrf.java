@@ -60,6 +60,11 @@ public class DBWaterBodToWaterBndSrf implements DBImporter {
 			importer.executeBatch(TableEnum.WATERBOD_TO_WATERBND_SRF);
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -270,6 +270,11 @@ public class DBWaterBody implements DBImporter {
 		return waterBodyId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
@@ -150,6 +150,11 @@ public class DBWaterBoundarySurface implements DBImporter {
 		return waterBoundarySurfaceId;
 	}
 
+	@Override
+	public int getBatchSize() {
+		return batchCounter;
+	}
+
 	@Override
 	public void executeBatch() throws CityGMLImportException, SQLException {
 		if (batchCounter > 0) {
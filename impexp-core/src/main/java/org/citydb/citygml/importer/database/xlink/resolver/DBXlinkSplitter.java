@@ -47,6 +47,7 @@ import org.citydb.concurrent.WorkerPool;
 import org.citydb.config.i18n.Language;
 import org.citydb.config.project.global.LogLevel;
 import org.citydb.event.Event;
+import org.citydb.event.EventAggregator;
 import org.citydb.event.EventDispatcher;
 import org.citydb.event.EventHandler;
 import org.citydb.event.global.EventType;
@@ -55,6 +56,8 @@ import org.citydb.event.global.ProgressBarEventType;
 import org.citydb.event.global.StatusDialogMessage;
 import org.citydb.event.global.StatusDialogProgressBar;
 import org.citydb.log.Logger;
+import org.citydb.metrics.jfr.FlightRecorderEvents.XlinkPhase;
+import org.citydb.metrics.jfr.FlightRecording;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -69,6 +72,7 @@ public class DBXlinkSplitter implements EventHandler {
 	private final WorkerPool<DBXlink> tmpXlinkPool;
 	private final Object eventChannel;
 	private final EventDispatcher eventDispatcher;
+	private final EventAggregator eventAggregator;
 	private volatile boolean shouldRun = true;
 
 	public DBXlinkSplitter(CacheTableManager cacheTableManager, 
@@ -81,16 +85,17 @@ public class DBXlinkSplitter implements EventHandler {
 		this.tmpXlinkPool = tmpXlinkPool;
 		this.eventChannel = eventChannel;
 		this.eventDispatcher = eventDispatcher;
+		eventAggregator = eventDispatcher.createEventAggregator(this);
 
 		eventDispatcher.addEventHandler(EventType.INTERRUPT, this);
 	}
 
 	public void startQuery() {
 		try {
-			basicXlinks();
-			groupMemberXLinks(true);
-			appearanceXlinks();
-			libraryObjectXLinks();
+			runPhase("basic", this::basicXlinks);
+			runPhase("groupMember", () -> groupMemberXLinks(true));
+			runPhase("appearance", this::appearanceXlinks);
+			runPhase("libraryObject", this::libraryObjectXLinks);
 
 			if (!shouldRun)
 				return;
@@ -108,7 +113,7 @@ public class DBXlinkSplitter implements EventHandler {
 			// xlinks to deprecated appearances can only be handled if
 			// appearances have been fully written - otherwise information is
 			// missing in tables SURFACE_DATA and TEXTURPARAM
-			deprecatedMaterialXlinks();
+			runPhase("deprecatedMaterial", this::deprecatedMaterialXlinks);
 
 			// handling geometry xlinks is more tricky...
 			// the reason is that we really hard copy the entries within the database.
@@ -116,19 +121,28 @@ public class DBXlinkSplitter implements EventHandler {
 			// itself points to another geometry. in order to really copy any information
 			// we have to resolve the inner xlink firstly. afterwards we can deal with the
 			// outer xlink. thus, we need a recursive strategy here...
-			surfaceGeometryXlinks(true);
+			runPhase("surfaceGeometry", () -> surfaceGeometryXlinks(true));
 
 			// rebuild solid geometry objects referencing surfaces from other features
 			// this requires that we have resolved surface geometry xlinks first
-			solidGeometryXlinks();
+			runPhase("solidGeometry", this::solidGeometryXlinks);
 		} catch (SQLException e) {
 			// fire interrupt event to stop other import workers
 			eventDispatcher.triggerEvent(new InterruptEvent("Aborting import due to SQL errors.", LogLevel.WARN, e, eventChannel, this));
 		} finally {
+			eventAggregator.close();
 			eventDispatcher.removeEventHandler(this);
 		}
 	}
 
+	private void runPhase(String name, XlinkPhase phase) throws SQLException {
+		XlinkPhase jfrEvent = FlightRecording.events().beginXlinkPhase();
+		phase.run();
+
+		if (jfrEvent != null)
+			jfrEvent.commit(name);
+	}
+
 	private void basicXlinks() throws SQLException {
 		if (!shouldRun)
 			return;
@@ -142,14 +156,14 @@ public class DBXlinkSplitter implements EventHandler {
 				return;
 
 			LOG.info("Resolving feature XLinks...");
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
+			eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
 			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.basicXLink.msg"), this));
 
 			stmt = cacheTable.getConnection().createStatement();
 			rs = stmt.executeQuery("select * from " + cacheTable.getTableName());
 
 			while (rs.next() && shouldRun) {
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+				eventAggregator.addProgress(1);
 
 				long id = rs.getLong("ID");
 				String table = rs.getString("TABLE_NAME");
@@ -198,7 +212,7 @@ public class DBXlinkSplitter implements EventHandler {
 		ResultSet rs = null;
 
 		try {					
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (remaining == -1) ? (int)cacheTable.size() : (int)remaining, this));
+			eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (remaining == -1) ? (int)cacheTable.size() : (int)remaining, this));
 			String text = Language.I18N.getString("import.dialog.groupXLink.msg");
 			Object[] args = new Object[]{ pass };
 			eventDispatcher.triggerEvent(new StatusDialogMessage(MessageFormat.format(text, args), this));
@@ -210,7 +224,7 @@ public class DBXlinkSplitter implements EventHandler {
 			rs = stmt.executeQuery("select * from " + mirrorTable.getTableName());
 
 			while (rs.next() && shouldRun) {
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+				eventAggregator.addProgress(1);
 
 				long groupId = rs.getLong("GROUP_ID");
 				String gmlId = rs.getString("GMLID");
@@ -285,7 +299,7 @@ public class DBXlinkSplitter implements EventHandler {
 			if (texParamTableTable != null) max += (int)texParamTableTable.size();
 			
 			LOG.info("Resolving appearance XLinks...");
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, max, this));
+			eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, max, this));
 			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.appXlink.msg"), this));
 
 			// first step: resolve texture coordinates
@@ -299,7 +313,7 @@ public class DBXlinkSplitter implements EventHandler {
 						.append(" join ").append(linearRingTable.getTableName()).append(" lr on tc.GMLID=lr.GMLID where lr.RING_NO = 0").toString());
 
 				while (rs.next() && shouldRun) {
-					eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+					eventAggregator.addProgress(1);
 
 					long id = rs.getLong("ID");
 					String gmlId = rs.getString("GMLID");
@@ -330,7 +344,7 @@ public class DBXlinkSplitter implements EventHandler {
 				rs = stmt.executeQuery("select * from " + texParamTableTable.getTableName());
 
 				while (rs.next() && shouldRun) {
-					eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+					eventAggregator.addProgress(1);
 
 					long id = rs.getLong("ID");
 					String gmlId = rs.getString("GMLID");
@@ -364,14 +378,14 @@ public class DBXlinkSplitter implements EventHandler {
 				CacheTable temporaryTable = cacheTableManager.getCacheTable(CacheTableModel.TEXTURE_FILE);
 
 				LOG.info("Importing texture images...");
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)temporaryTable.size(), this));
+				eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)temporaryTable.size(), this));
 				eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.texImg.msg"), this));
 
 				stmt = temporaryTable.getConnection().createStatement();
 				rs = stmt.executeQuery("select * from " + temporaryTable.getTableName());
 
 				while (rs.next() && shouldRun) {
-					eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+					eventAggregator.addProgress(1);
 
 					long id = rs.getLong("ID");
 					String imageURI = rs.getString("FILE_URI");
@@ -396,14 +410,14 @@ public class DBXlinkSplitter implements EventHandler {
 				CacheTable temporaryTable = cacheTableManager.getCacheTable(CacheTableModel.SURFACE_DATA_TO_TEX_IMAGE);
 
 				LOG.info("Linking texture images to surface data...");
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)temporaryTable.size(), this));
+				eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)temporaryTable.size(), this));
 				eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.linkTexImg.msg"), this));
 
 				stmt = temporaryTable.getConnection().createStatement();
 				rs = stmt.executeQuery("select * from " + temporaryTable.getTableName());
 
 				while (rs.next() && shouldRun) {
-					eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+					eventAggregator.addProgress(1);
 
 					long fromId = rs.getLong("FROM_ID");
 					long toId = rs.getLong("TO_ID");
@@ -432,14 +446,14 @@ public class DBXlinkSplitter implements EventHandler {
 				CacheTable cacheTable = cacheTableManager.getCacheTable(CacheTableModel.TEXTUREASSOCIATION);
 				cacheTableManager.getCacheTable(CacheTableModel.TEXTUREASSOCIATION_TARGET).createIndexes();
 
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
+				eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
 				eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.appXlink.msg"), this));
 
 				stmt = cacheTable.getConnection().createStatement();
 				rs = stmt.executeQuery("select * from " + cacheTable.getTableName());
 
 				while (rs.next() && shouldRun) {
-					eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+					eventAggregator.addProgress(1);
 
 					long id = rs.getLong("ID");
 					String gmlId = rs.getString("GMLID");
@@ -478,14 +492,14 @@ public class DBXlinkSplitter implements EventHandler {
 				return;
 
 			LOG.info("Importing library objects...");
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
+			eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
 			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.libObj.msg"), this));
 
 			stmt = cacheTable.getConnection().createStatement();
 			rs = stmt.executeQuery("select * from " + cacheTable.getTableName());
 
 			while (rs.next() && shouldRun) {
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+				eventAggregator.addProgress(1);
 
 				long id = rs.getLong("ID");
 				String imageURI = rs.getString("FILE_URI");
@@ -523,14 +537,14 @@ public class DBXlinkSplitter implements EventHandler {
 				return;
 
 			LOG.info("Resolving TexturedSurface XLinks...");
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
+			eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
 			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.depMat.msg"), this));
 
 			stmt = cacheTable.getConnection().createStatement();
 			rs = stmt.executeQuery("select * from " + cacheTable.getTableName());
 
 			while (rs.next() && shouldRun) {
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+				eventAggregator.addProgress(1);
 
 				long appearanceId = rs.getLong("ID");
 				String gmlId = rs.getString("GMLID");
@@ -578,7 +592,7 @@ public class DBXlinkSplitter implements EventHandler {
 		ResultSet rs = null;
 
 		try {
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (remaining == -1) ? (int)cacheTable.size() : (int)remaining, this));
+			eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (remaining == -1) ? (int)cacheTable.size() : (int)remaining, this));
 			String text = Language.I18N.getString("import.dialog.geomXLink.msg");
 			Object[] args = new Object[]{ pass };
 			eventDispatcher.triggerEvent(new StatusDialogMessage(MessageFormat.format(text, args), this));
@@ -590,7 +604,7 @@ public class DBXlinkSplitter implements EventHandler {
 			rs = stmt.executeQuery("select * from " + mirrorTable.getTableName());
 
 			while (rs.next() && shouldRun) {
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+				eventAggregator.addProgress(1);
 
 				long id = rs.getLong("ID");
 				long parentId = rs.getLong("PARENT_ID");
@@ -663,14 +677,14 @@ public class DBXlinkSplitter implements EventHandler {
 			if (cacheTable == null)
 				return;
 
-			eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
+			eventAggregator.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.INIT, (int)cacheTable.size(), this));
 			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("import.dialog.solidXLink.msg"), this));
 
 			stmt = cacheTable.getConnection().createStatement();
 			rs = stmt.executeQuery("select * from " + cacheTable.getTableName());
 
 			while (rs.next() && shouldRun) {
-				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, 1, this));
+				eventAggregator.addProgress(1);
 
 				long id = rs.getLong("ID");
 
@@ -697,4 +711,9 @@ public class DBXlinkSplitter implements EventHandler {
 			shouldRun = false;
 	}
 
+	@FunctionalInterface
+	private interface XlinkPhase {
+		void run() throws SQLException;
+	}
+
 }
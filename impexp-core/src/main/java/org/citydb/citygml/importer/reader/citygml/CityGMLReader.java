@@ -5,6 +5,7 @@ import org.citydb.citygml.importer.filter.selection.counter.CounterFilter;
 import org.citydb.citygml.importer.reader.FeatureReadException;
 import org.citydb.citygml.importer.reader.FeatureReader;
 import org.citydb.concurrent.PoolSizeAdaptationStrategy;
+import org.citydb.concurrent.PoolSizeController;
 import org.citydb.concurrent.WorkerPool;
 import org.citydb.config.Config;
 import org.citydb.event.Event;
@@ -72,6 +73,11 @@ public class CityGMLReader implements FeatureReader, EventHandler {
 
             featureWorkerPool.prestartCoreWorkers();
 
+            // parsing is CPU-bound, so the parser pool is adapted independently of the database pools
+            PoolSizeController poolSizeController = ObjectRegistry.getInstance().lookup(PoolSizeController.class);
+            if (poolSizeController != null)
+                poolSizeController.register(featureWorkerPool, minThreads, maxThreads);
+
             try {
                 reader = factory.createFilteredCityGMLReader(factory.createCityGMLReader(inputFile.getFile().toString(), inputFile.openStream()), typeFilter);
 
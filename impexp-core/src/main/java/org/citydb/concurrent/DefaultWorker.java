@@ -48,13 +48,14 @@ public abstract class DefaultWorker<T> extends Worker<T> {
 
 			while (shouldRun) {
 				try {
-					T work = workQueue.take();
-					lockAndDoWork(work);					
+					T work = takeWork();
+					lockAndDoWork(work);
 				} catch (InterruptedException ie) {
 					// re-check state
 				}
 			}
 		} finally {
+			returnWork();
 			shutdown();
 		}
 	}
@@ -0,0 +1,228 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.concurrent;
+
+import org.citydb.log.Logger;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Periodically adapts the size of registered worker pools to their load. Every interval,
+ * the controller samples the queue depth, the share of busy workers and the throughput of
+ * each pool. A pool grows while its queue fills up and its workers are busy, and shrinks
+ * while its queue stays empty. The average time a busy worker needs per work item serves as
+ * latency signal: if a pool did not gain throughput from its last growth but its workers got
+ * slower, the downstream resource (usually the database) is saturated and the growth is
+ * reverted.
+ */
+public class PoolSizeController implements Runnable {
+	private final Logger log = Logger.getInstance();
+	private final ConcurrentHashMap<WorkerPool<?>, PoolState> pools = new ConcurrentHashMap<>();
+	private final long interval;
+
+	private volatile boolean shouldRun;
+	private Thread controllerThread;
+
+	private static final class PoolState {
+		private final int minPoolSize;
+		private final IntSupplier headroom;
+		private int maxPoolSize;
+		private int poolSize;
+		private long takeCount;
+		private double throughput;
+		private double serviceTime;
+		private int lastChange;
+		private int cooldown;
+
+		private PoolState(int minPoolSize, int maxPoolSize, IntSupplier headroom) {
+			this.minPoolSize = minPoolSize;
+			this.maxPoolSize = maxPoolSize;
+			this.headroom = headroom;
+		}
+	}
+
+	public PoolSizeController() {
+		this(2000);
+	}
+
+	public PoolSizeController(long interval) {
+		if (interval <= 0)
+			throw new IllegalArgumentException("Interval must be greater than zero.");
+
+		this.interval = interval;
+	}
+
+	public void register(WorkerPool<?> pool, int minPoolSize, int maxPoolSize) {
+		register(pool, minPoolSize, maxPoolSize, null);
+	}
+
+	/**
+	 * Registers a worker pool whose size is adapted between the given bounds. The
+	 * optional headroom supplier returns how many more workers can be served by a shared
+	 * resource, for instance the free connections of the database connection pool. The
+	 * pool is only grown while the headroom is positive.
+	 */
+	public void register(WorkerPool<?> pool, int minPoolSize, int maxPoolSize, IntSupplier headroom) {
+		if (pool == null)
+			throw new IllegalArgumentException("Worker pool may not be null.");
+
+		if (minPoolSize <= 0 || maxPoolSize < minPoolSize)
+			throw new IllegalArgumentException("Invalid pool size bounds.");
+
+		PoolState state = new PoolState(minPoolSize, maxPoolSize, headroom);
+		state.poolSize = Math.max(minPoolSize, Math.min(maxPoolSize, pool.getCorePoolSize()));
+		state.takeCount = pool.getWorkQueue().getTakeCount();
+
+		// from now on, the pool shall only grow on our account
+		resize(pool, state.poolSize);
+		pools.put(pool, state);
+	}
+
+	public void unregister(WorkerPool<?> pool) {
+		pools.remove(pool);
+	}
+
+	public synchronized void start() {
+		if (controllerThread != null)
+			return;
+
+		shouldRun = true;
+		controllerThread = new Thread(this);
+		controllerThread.setName("pool_size_controller");
+		controllerThread.setDaemon(true);
+		controllerThread.start();
+	}
+
+	public synchronized void shutdown() {
+		if (controllerThread == null)
+			return;
+
+		shouldRun = false;
+		controllerThread.interrupt();
+		try {
+			controllerThread.join();
+		} catch (InterruptedException e) {
+			//
+		}
+
+		controllerThread = null;
+		pools.clear();
+	}
+
+	@Override
+	public void run() {
+		while (shouldRun) {
+			try {
+				Thread.sleep(interval);
+			} catch (InterruptedException e) {
+				continue;
+			}
+
+			Iterator<Entry<WorkerPool<?>, PoolState>> iter = pools.entrySet().iterator();
+			while (shouldRun && iter.hasNext()) {
+				Entry<WorkerPool<?>, PoolState> entry = iter.next();
+				WorkerPool<?> pool = entry.getKey();
+
+				if (pool.isTerminated() || pool.isTerminating()) {
+					iter.remove();
+					continue;
+				}
+
+				try {
+					adapt(pool, entry.getValue());
+				} catch (Exception e) {
+					log.debug("[" + pool.getName() + "] Failed to adapt pool size: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	private void adapt(WorkerPool<?> pool, PoolState state) {
+		// the pool lowers its maximum size itself if workers cannot be created
+		if (pool.getMaximumPoolSize() < state.poolSize) {
+			state.maxPoolSize = Math.max(state.minPoolSize, pool.getMaximumPoolSize());
+			state.poolSize = pool.getMaximumPoolSize();
+		}
+
+		WorkerPool.WorkQueue<?> workQueue = pool.getWorkQueue();
+		long takeCount = workQueue.getTakeCount();
+		long taken = takeCount - state.takeCount;
+		state.takeCount = takeCount;
+
+		int poolSize = pool.getPoolSize();
+		if (poolSize == 0)
+			return;
+
+		int active = pool.getActiveWorkerCount();
+		double utilization = (double) active / poolSize;
+		double queueFill = (double) workQueue.size() / pool.getMaximumQueueSize();
+		double throughput = (double) taken / interval;
+		double serviceTime = taken > 0 ? (double) active * interval / taken : 0;
+
+		int change = 0;
+		if (state.cooldown > 0)
+			state.cooldown--;
+		else if (state.lastChange > 0
+				&& throughput < state.throughput * 1.05
+				&& serviceTime > state.serviceTime * 1.2) {
+			// more workers only made each of them slower
+			change = -state.lastChange;
+			state.maxPoolSize = Math.max(state.minPoolSize, state.poolSize + change);
+			state.cooldown = 3;
+		} else if (queueFill >= 0.5 && utilization >= 0.75 && state.poolSize < state.maxPoolSize
+				&& (state.headroom == null || state.headroom.getAsInt() > 0))
+			change = Math.min(Math.max(1, state.poolSize / 4), state.maxPoolSize - state.poolSize);
+		else if (queueFill == 0 && utilization < 0.5 && state.poolSize > state.minPoolSize)
+			change = -1;
+
+		if (change != 0) {
+			state.poolSize += change;
+			resize(pool, state.poolSize);
+			log.debug("[" + pool.getName() + "] Adapting pool size to " + state.poolSize + " worker(s) " +
+					"(queue: " + Math.round(queueFill * 100) + "%, busy: " + active + "/" + poolSize + ").");
+		}
+
+		state.lastChange = change;
+		state.throughput = throughput;
+		state.serviceTime = serviceTime;
+	}
+
+	private void resize(WorkerPool<?> pool, int poolSize) {
+		// keep core pool size <= maximum pool size at any time
+		if (poolSize > pool.getMaximumPoolSize()) {
+			pool.setMaximumPoolSize(poolSize);
+			pool.setCorePoolSize(poolSize);
+		} else {
+			pool.setCorePoolSize(poolSize);
+			pool.setMaximumPoolSize(poolSize);
+		}
+	}
+}
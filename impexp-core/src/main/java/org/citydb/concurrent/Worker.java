@@ -29,11 +29,36 @@ package org.citydb.concurrent;
 
 import org.citydb.concurrent.WorkerPool.WorkQueue;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 public abstract class Worker<T> implements Runnable {
 	protected WorkQueue<T> workQueue;
 	protected Thread workerThread;
 	protected T firstWork;
 	protected Object eventChannel;
+	protected int workBatchSize = 1;
+	private final Deque<T> workBatch = new ArrayDeque<>();
+
+	/**
+	 * Takes the next work item. If the pool hands out work in batches, further items
+	 * are reserved for this worker and returned by the next calls. Reserved items are
+	 * still part of the work queue, so they are drained together with the queue.
+	 */
+	protected final T takeWork() throws InterruptedException {
+		return workBatchSize > 1 ?
+				workQueue.take(workBatch, workBatchSize) :
+				workQueue.take();
+	}
+
+	/**
+	 * Hands reserved work items that have not been processed back to the work queue.
+	 * Must be called when the worker stops taking work.
+	 */
+	protected final void returnWork() {
+		if (workBatchSize > 1)
+			workQueue.returnBatch(workBatch);
+	}
 	
 	public abstract void interrupt();
 }
@@ -29,26 +29,39 @@ package org.citydb.concurrent;
 
 import org.citydb.event.Event;
 import org.citydb.log.Logger;
+import org.citydb.metrics.Gauge;
+import org.citydb.metrics.MetricsRegistry;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class WorkerPool<T> {
+	public static final String QUEUE_METRIC_PREFIX = "queue.";
+	private static final Map<String, QueueGauge> QUEUE_GAUGES = new HashMap<>();
 	private final ReentrantLock mainLock = new ReentrantLock();
 
 	private final Logger log = Logger.getInstance();
 	private final WorkQueue<T> workQueue;
 	private final ConcurrentHashMap<Worker<T>, Object> workers;
+	private final ConcurrentHashMap<Worker<T>, Object> retiredWorkers;
 	private final WorkerFactory<T> workerFactory;
 	private final String poolName;
 	private final Object DUMMY = new Object();
+	private final String queueMetricName;
+	private boolean hasQueueGauge;
 
 	private volatile int runState;
 	private final byte RUNNING    = 0;
@@ -63,6 +76,7 @@ public class WorkerPool<T> {
 	private volatile int corePoolSize;
 	private volatile int maximumPoolSize;
 	private final int queueSize;
+	private volatile int workBatchSize = 1;
 	private final boolean daemon;
 	private int poolSize;
 	private byte poolSizeAdaptationFailure;
@@ -78,9 +92,13 @@ public class WorkerPool<T> {
 		private final Condition flushed;
 
 		private final E[] workItems;
+		private final Set<Thread> waitingThreads = ConcurrentHashMap.newKeySet();
+		private final List<Deque<E>> batches = new ArrayList<>();
 		private int putIndex;
 		private int takeIndex;
 		private int count;
+		private int batched;
+		private volatile long takeCount;
 		private volatile boolean blockAndFlush;
 		private volatile boolean isInterrupted;
 
@@ -119,8 +137,9 @@ public class WorkerPool<T> {
 			workItems[takeIndex] = null;
 			takeIndex = inc(takeIndex);
 			--count;
+			++takeCount;
 			notFull.signal();
-			if (count == 0)
+			if (count == 0 && batched == 0)
 				empty.signalAll();
 			return work;
 		}
@@ -146,7 +165,7 @@ public class WorkerPool<T> {
 
 			--count;
 			notFull.signal();
-			if (count == 0)
+			if (count == 0 && batched == 0)
 				empty.signalAll();
 		}
 
@@ -160,7 +179,7 @@ public class WorkerPool<T> {
 				if (blockAndFlush)
 					flushed.awaitUninterruptibly();
 
-				if (count == workItems.length)
+				if (count + batched == workItems.length)
 					return false;
 				else {
 					insert(work);
@@ -183,7 +202,7 @@ public class WorkerPool<T> {
 					flushed.awaitUninterruptibly();
 
 				for (;;) {
-					if (count != workItems.length) {
+					if (count + batched != workItems.length) {
 						insert(work);
 						return true;
 					}
@@ -214,7 +233,7 @@ public class WorkerPool<T> {
 				if (blockAndFlush)
 					flushed.awaitUninterruptibly();
 
-				while (count == workItems.length)
+				while (count + batched == workItems.length)
 					notFull.awaitUninterruptibly();
 
 				insert(work);
@@ -269,7 +288,7 @@ public class WorkerPool<T> {
 						if (isInterrupted)
 							throw new InterruptedException("Work queue has been interrupted.");
 
-						notEmpty.await();
+						awaitWork();
 					}
 				} catch (InterruptedException ie) {
 					notEmpty.signal();
@@ -282,6 +301,103 @@ public class WorkerPool<T> {
 			}
 		}
 
+		public E take(Deque<E> batch, int maxItems) throws InterruptedException {
+			if (batch == null)
+				throw new NullPointerException();
+
+			final E[] workItems = this.workItems;
+			final ReentrantLock lock = this.lock;
+			lock.lockInterruptibly();
+			try {
+				// continue with the items reserved by a previous call
+				E work = batch.poll();
+				if (work != null) {
+					--batched;
+					++takeCount;
+					if (batch.isEmpty())
+						batches.remove(batch);
+
+					notFull.signal();
+					if (count == 0 && batched == 0)
+						empty.signalAll();
+
+					return work;
+				}
+
+				try {
+					while (count == 0) {
+						if (isInterrupted)
+							throw new InterruptedException("Work queue has been interrupted.");
+
+						awaitWork();
+					}
+				} catch (InterruptedException ie) {
+					notEmpty.signal();
+					throw ie;
+				}
+
+				work = extract();
+
+				// reserve up to maxItems - 1 further items with the same lock acquisition.
+				// reserved items keep their capacity until they are taken
+				int n = Math.min(count, maxItems - 1);
+				if (n > 0) {
+					for (int i = 0; i < n; i++) {
+						batch.add(workItems[takeIndex]);
+						workItems[takeIndex] = null;
+						takeIndex = inc(takeIndex);
+					}
+
+					count -= n;
+					batched += n;
+					batches.add(batch);
+				}
+
+				if (count > 0)
+					notEmpty.signal();
+
+				return work;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		public void returnBatch(Deque<E> batch) {
+			final E[] workItems = this.workItems;
+			final ReentrantLock lock = this.lock;
+			lock.lock();
+			try {
+				// put the items back in front of the queue in their original order
+				E work;
+				while ((work = batch.pollLast()) != null) {
+					takeIndex = (takeIndex == 0 ? workItems.length : takeIndex) - 1;
+					workItems[takeIndex] = work;
+					++count;
+					--batched;
+					notEmpty.signal();
+				}
+
+				batches.remove(batch);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void awaitWork() throws InterruptedException {
+			// threads waiting for work are idle
+			Thread thread = Thread.currentThread();
+			waitingThreads.add(thread);
+			try {
+				notEmpty.await();
+			} finally {
+				waitingThreads.remove(thread);
+			}
+		}
+
+		boolean isWaitingForWork(Thread thread) {
+			return waitingThreads.contains(thread);
+		}
+
 		public E peek() {
 			final ReentrantLock lock = this.lock;
 			lock.lock();
@@ -320,17 +436,21 @@ public class WorkerPool<T> {
 			final ReentrantLock lock = this.lock;
 			lock.lock();
 			try {
-				return count;
+				return count + batched;
 			} finally {
 				lock.unlock();
 			}
 		}
 
+		public long getTakeCount() {
+			return takeCount;
+		}
+
 		public int remainingCapacity() {
 			final ReentrantLock lock = this.lock;
 			lock.lock();
 			try {
-				return workItems.length - count;
+				return workItems.length - count - batched;
 			} finally {
 				lock.unlock();
 			}
@@ -340,7 +460,7 @@ public class WorkerPool<T> {
 			final ReentrantLock lock = this.lock;
 			lock.lock();
 			try {
-				return count == 0;
+				return count == 0 && batched == 0;
 			} finally {
 				lock.unlock();
 			}
@@ -358,6 +478,11 @@ public class WorkerPool<T> {
 					i = inc(i);
 				}
 
+				for (Deque<E> batch : batches)
+					batch.clear();
+
+				batches.clear();
+				batched = 0;
 				count = 0;
 				putIndex = 0;
 				takeIndex = 0;
@@ -375,11 +500,21 @@ public class WorkerPool<T> {
 			final ReentrantLock lock = this.lock;
 			lock.lock();
 			try {
-				int i = takeIndex;
 				int n = 0;
-				int max = count;
 
-				while (n < max) {
+				// items reserved by workers have been taken before the queued ones
+				for (Deque<E> batch : batches) {
+					n += batch.size();
+					collection.addAll(batch);
+					batch.clear();
+				}
+
+				batches.clear();
+				batched = 0;
+
+				int i = takeIndex;
+				int max = count;
+				for (int k = 0; k < max; k++) {
 					collection.add(workItems[i]);
 					workItems[i] = null;
 					i = inc(i);
@@ -431,6 +566,11 @@ public class WorkerPool<T> {
 		this.queueSize = queueSize;
 		workQueue = new WorkQueue<>(queueSize, fair);
 		workers = new ConcurrentHashMap<>(maximumPoolSize);
+		retiredWorkers = new ConcurrentHashMap<>();
+
+		// expose the queue depth until the pool is terminated
+		queueMetricName = QUEUE_METRIC_PREFIX + poolName;
+		addQueueGauge();
 	}
 
 	public WorkerPool(String poolName,
@@ -483,6 +623,7 @@ public class WorkerPool<T> {
 					worker.workQueue = workQueue;
 					worker.workerThread = workerThread;
 					worker.eventChannel = eventSource != null ? eventSource : Event.GLOBAL_CHANNEL;
+					worker.workBatchSize = workBatchSize;
 					if (firstWork != null)
 						worker.firstWork = firstWork;
 
@@ -561,6 +702,7 @@ public class WorkerPool<T> {
 
 		try {
 			workers.clear();
+			retiredWorkers.clear();
 			poolSize = 0;
 		} finally {
 			mainLock.unlock();
@@ -663,6 +805,7 @@ public class WorkerPool<T> {
 		} finally {
 			queueLock.unlock();
 			mainLock.unlock();
+			removeQueueGauge();
 		}
 	}
 
@@ -704,6 +847,7 @@ public class WorkerPool<T> {
 			joinWorkerThreads();
 		} finally {
 			runState = TERMINATED;
+			removeQueueGauge();
 		}
 	}
 
@@ -736,6 +880,60 @@ public class WorkerPool<T> {
 			return workList;
 		} finally {
 			mainLock.unlock();
+			removeQueueGauge();
+		}
+	}
+
+	private void addQueueGauge() {
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		if (!metrics.isGaugesEnabled())
+			return;
+
+		// pools sharing the same name share a single gauge reporting the sum of their
+		// queue depths. queues are only weakly referenced, so pools that are never
+		// shut down do not leak
+		synchronized (QUEUE_GAUGES) {
+			QueueGauge queueGauge = QUEUE_GAUGES.get(queueMetricName);
+			if (queueGauge == null || !metrics.getMetrics().containsKey(queueMetricName)) {
+				queueGauge = new QueueGauge();
+				queueGauge.gauge = metrics.gauge(queueMetricName, queueGauge::getQueueDepth);
+				QUEUE_GAUGES.put(queueMetricName, queueGauge);
+			}
+
+			queueGauge.queues.add(workQueue);
+			hasQueueGauge = true;
+		}
+	}
+
+	private void removeQueueGauge() {
+		synchronized (QUEUE_GAUGES) {
+			if (!hasQueueGauge)
+				return;
+
+			hasQueueGauge = false;
+			QueueGauge queueGauge = QUEUE_GAUGES.get(queueMetricName);
+			if (queueGauge != null) {
+				queueGauge.queues.remove(workQueue);
+				if (queueGauge.queues.isEmpty()) {
+					MetricsRegistry.getInstance().remove(queueMetricName, queueGauge.gauge);
+					QUEUE_GAUGES.remove(queueMetricName);
+				}
+			}
+		}
+	}
+
+	private static class QueueGauge {
+		private final Set<WorkQueue<?>> queues = Collections.newSetFromMap(new WeakHashMap<>());
+		private Gauge gauge;
+
+		private int getQueueDepth() {
+			synchronized (QUEUE_GAUGES) {
+				int depth = 0;
+				for (WorkQueue<?> queue : queues)
+					depth += queue.size();
+
+				return depth;
+			}
 		}
 	}
 
@@ -825,6 +1023,11 @@ public class WorkerPool<T> {
 		try {
 			for (Worker<T> worker : workers.keySet())
 				worker.workerThread.join();
+
+			for (Worker<T> worker : retiredWorkers.keySet())
+				worker.workerThread.join();
+
+			retiredWorkers.clear();
 		} finally {
 			mainLock.unlock();
 		}
@@ -860,6 +1063,25 @@ public class WorkerPool<T> {
 		return queueSize;
 	}
 
+	public int getWorkBatchSize() {
+		return workBatchSize;
+	}
+
+	/**
+	 * Lets workers take up to the given number of work items from the queue at once.
+	 * This reduces lock contention for cheap work items. Items reserved by a worker
+	 * remain part of the queue until the worker starts them, so they count towards its
+	 * size and capacity, are removed by drainWorkQueue() and shutdownNow(), and are
+	 * waited for by join() and shutdown(). Workers must take their work through
+	 * Worker.takeWork(). Must be set before workers are started.
+	 */
+	public void setWorkBatchSize(int workBatchSize) {
+		if (workBatchSize <= 0)
+			throw new IllegalArgumentException();
+
+		this.workBatchSize = workBatchSize;
+	}
+
 	public void setMaximumPoolSize(int maximumPoolSize) {
 		if (maximumPoolSize <= 0 || maximumPoolSize < corePoolSize)
 			throw new IllegalArgumentException();
@@ -873,9 +1095,14 @@ public class WorkerPool<T> {
 			if (extra > 0 && poolSize > maximumPoolSize) {
 				Iterator<Entry<Worker<T>, Object>> it = workers.entrySet().iterator();
 				while (it.hasNext() && extra-- > 0 && poolSize > maximumPoolSize) {
-					it.next().getKey().interrupt();
+					Worker<T> worker = it.next().getKey();
+					worker.interrupt();
 					it.remove();
 					--poolSize;
+
+					// the worker finishes its current work on its own. keep track of it
+					// so that shutdown and join still wait for this work to complete
+					retiredWorkers.put(worker, DUMMY);
 				}
 			}
 		} finally {
@@ -924,6 +1151,22 @@ public class WorkerPool<T> {
 		return poolSize;
 	}
 
+	/**
+	 * Returns the number of workers currently processing a work item, including workers
+	 * that wait on locks or downstream queues while doing so. Workers waiting for new
+	 * work are not counted.
+	 */
+	public int getActiveWorkerCount() {
+		int active = 0;
+		for (Worker<T> worker : workers.keySet()) {
+			Thread workerThread = worker.workerThread;
+			if (workerThread.isAlive() && !workQueue.isWaitingForWork(workerThread))
+				++active;
+		}
+
+		return active;
+	}
+
 	public PoolSizeAdaptationStrategy getPoolSizeAdaptationStrategy() {
 		return adaptationStrategy;
 	}
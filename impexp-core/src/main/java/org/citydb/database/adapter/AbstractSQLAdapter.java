@@ -39,6 +39,7 @@ import org.citydb.sqlbuilder.select.projection.Function;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Collections;
@@ -160,6 +161,18 @@ public abstract class AbstractSQLAdapter {
 		
 		return preparedStatement;
 	}
+
+	public PreparedStatement prepareStatement(SQLStatement statement, Connection connection, int fetchSize) throws SQLException {
+		// use a forward-only cursor so that the JDBC driver may stream the result set
+		// in chunks of fetchSize rows instead of buffering it completely on the client.
+		// note that PostgreSQL only uses server-side cursors if auto-commit is disabled
+		PreparedStatement preparedStatement = connection.prepareStatement(statement.toString(),
+				ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		preparedStatement.setFetchSize(fetchSize);
+		fillPlaceHolders(statement, preparedStatement, connection);
+
+		return preparedStatement;
+	}
 	
 	public void fillPlaceHolders(SQLStatement statement, PreparedStatement preparedStatement, Connection connection) throws SQLException {
 		List<PlaceHolder<?>> placeHolders = statement.getInvolvedPlaceHolders();
@@ -41,6 +41,8 @@ import org.citydb.database.schema.util.SchemaMappingUtil;
 import org.geotools.referencing.CRS;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
 
 import javax.xml.bind.JAXBException;
 import java.sql.CallableStatement;
@@ -52,12 +54,15 @@ import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractUtilAdapter {
     protected final AbstractDatabaseAdapter databaseAdapter;
     protected final ConcurrentHashMap<Integer, DatabaseSrs> srsInfoMap;
     private final ConcurrentHashMap<Integer, CoordinateReferenceSystem> srsDefMap;
+    private final ConcurrentHashMap<Long, MathTransform> transformMap;
+    private final Set<Long> unsupportedTransforms;
 
     protected CallableStatement interruptableCallableStatement;
     protected PreparedStatement interruptablePreparedStatement;
@@ -67,6 +72,8 @@ public abstract class AbstractUtilAdapter {
         this.databaseAdapter = databaseAdapter;
         srsInfoMap = new ConcurrentHashMap<>();
         srsDefMap = new ConcurrentHashMap<>();
+        transformMap = new ConcurrentHashMap<>();
+        unsupportedTransforms = ConcurrentHashMap.newKeySet();
     }
 
     protected abstract void getCityDBVersion(DatabaseMetaData metaData, String schema, Connection connection) throws SQLException;
@@ -410,4 +417,98 @@ public abstract class AbstractUtilAdapter {
         srsDefMap.putIfAbsent(srs.getSrid(), tmp);
         return tmp;
     }
+
+    public MathTransform getHorizontalTransform(int sourceSrid, int targetSrid) throws FactoryException {
+        long key = getTransformKey(sourceSrid, targetSrid);
+        MathTransform transform = transformMap.get(key);
+        if (transform == null) {
+            if (unsupportedTransforms.contains(key))
+                throw new FactoryException("No exact transformation from SRID " + sourceSrid + " to SRID " + targetSrid + " is available.");
+
+            // a lenient transformation silently ignores datum shifts without Bursa-Wolf
+            // parameters, which may be off by hundreds of meters. so only accept exact ones
+            try {
+                CoordinateReferenceSystem sourceCrs = CRS.getHorizontalCRS(decodeLongitudeFirst(sourceSrid));
+                CoordinateReferenceSystem targetCrs = CRS.getHorizontalCRS(decodeLongitudeFirst(targetSrid));
+                if (sourceCrs == null || targetCrs == null)
+                    throw new FactoryException("Failed to determine the horizontal reference systems of SRID " + sourceSrid + " and SRID " + targetSrid + ".");
+
+                transform = CRS.findMathTransform(sourceCrs, targetCrs, false);
+            } catch (FactoryException e) {
+                unsupportedTransforms.add(key);
+                throw e;
+            }
+
+            transformMap.putIfAbsent(key, transform);
+        }
+
+        return transform;
+    }
+
+    public boolean isHorizontalTransformSupported(int sourceSrid, int targetSrid) {
+        // this is called per geometry, so only try to create the transformation once
+        long key = getTransformKey(sourceSrid, targetSrid);
+        if (transformMap.containsKey(key))
+            return true;
+        else if (unsupportedTransforms.contains(key))
+            return false;
+
+        try {
+            getHorizontalTransform(sourceSrid, targetSrid);
+            return true;
+        } catch (FactoryException e) {
+            return false;
+        }
+    }
+
+    private long getTransformKey(int sourceSrid, int targetSrid) {
+        return ((long) sourceSrid << 32) | (targetSrid & 0xffffffffL);
+    }
+
+    public GeometryObject transformOnClient(GeometryObject geometry, DatabaseSrs targetSrs) throws FactoryException, TransformException {
+        // only the horizontal coordinates are transformed, height values are kept
+        MathTransform transform = getHorizontalTransform(geometry.getSrid(), targetSrs.getSrid());
+        int dimension = geometry.getDimension();
+        double[][] coordinates = new double[geometry.getNumElements()][];
+
+        for (int i = 0; i < coordinates.length; i++) {
+            double[] source = geometry.getCoordinates(i);
+            double[] target = source.clone();
+            int points = source.length / dimension;
+
+            if (dimension == 2)
+                transform.transform(source, 0, target, 0, points);
+            else if (points > 0) {
+                double[] xy = new double[points * 2];
+                for (int j = 0; j < points; j++) {
+                    xy[j * 2] = source[j * dimension];
+                    xy[j * 2 + 1] = source[j * dimension + 1];
+                }
+
+                transform.transform(xy, 0, xy, 0, points);
+                for (int j = 0; j < points; j++) {
+                    target[j * dimension] = xy[j * 2];
+                    target[j * dimension + 1] = xy[j * 2 + 1];
+                }
+            }
+
+            coordinates[i] = target;
+        }
+
+        return geometry.copy(coordinates, targetSrs.getSrid());
+    }
+
+    private CoordinateReferenceSystem decodeLongitudeFirst(int srid) throws FactoryException {
+        // coordinates are stored with easting or longitude first, regardless
+        // of the axis order defined by the EPSG database
+        try {
+            return CRS.decode("EPSG:" + srid, true);
+        } catch (FactoryException e) {
+            DatabaseSrs srs = srsInfoMap.get(srid);
+            if (srs == null)
+                throw e;
+
+            return decodeDatabaseSrs(srs);
+        }
+    }
 }
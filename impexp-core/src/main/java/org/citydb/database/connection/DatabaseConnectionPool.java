@@ -200,13 +200,40 @@ public class DatabaseConnectionPool implements ConnectionManager {
 		Connection connection = dataSource.getConnection();
 		connection.setAutoCommit(true);
 
-		return connection;
+		// optionally account for database round trips per SQL statement
+		return StatementStatistics.getInstance().wrap(connection);
 	}
 
 	public synchronized boolean isConnected() {
 		return dataSource != null && dataSource.getPool() != null && !dataSource.getPool().isClosed();
 	}
 
+	public synchronized int getMaxActive() {
+		return isConnected() ? dataSource.getMaxActive() : 0;
+	}
+
+	public synchronized int getActiveConnections() {
+		return isConnected() ? dataSource.getNumActive() : 0;
+	}
+
+	public synchronized int getAvailableConnections() {
+		return Math.max(0, getMaxActive() - getActiveConnections());
+	}
+
+	/**
+	 * Limits the size of a worker pool whose workers each hold a connection from this pool.
+	 * These workers are blocked on database round trips most of the time, so their number
+	 * is bounded by the free connections rather than by the number of processors. Workers
+	 * exceeding this bound would only wait for a connection and fail after maxWait.
+	 *
+	 * @param threads the requested number of worker threads
+	 * @param reserved connections to keep free for other users such as the splitter
+	 * @return the number of worker threads that can be served, at least one
+	 */
+	public int limitToAvailableConnections(int threads, int reserved) {
+		return Math.max(1, Math.min(threads, getAvailableConnections() - reserved));
+	}
+
 	public synchronized void purge() {
 		if (isConnected())
 			dataSource.purge();
@@ -0,0 +1,104 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.database.connection;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Round-trip statistics of a single SQL statement text.
+ */
+public class StatementStatistic {
+	private final String sql;
+	private final LongAdder executions = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder batchedStatements = new LongAdder();
+	private final LongAdder rowsFetched = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+
+	StatementStatistic(String sql) {
+		this.sql = sql;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * @return the number of single executions, not counting batch executions
+	 */
+	public long getExecutions() {
+		return executions.sum();
+	}
+
+	public long getBatches() {
+		return batches.sum();
+	}
+
+	public long getBatchedStatements() {
+		return batchedStatements.sum();
+	}
+
+	public double getAverageBatchSize() {
+		long batches = getBatches();
+		return batches > 0 ? (double) getBatchedStatements() / batches : 0;
+	}
+
+	public long getRoundTrips() {
+		return getExecutions() + getBatches();
+	}
+
+	public long getRowsFetched() {
+		return rowsFetched.sum();
+	}
+
+	/**
+	 * @return the time spent in executing the statement and in fetching
+	 * its results in milliseconds
+	 */
+	public double getTotalTime() {
+		return nanos.sum() / 1e6;
+	}
+
+	void addExecution(long nanos) {
+		executions.increment();
+		this.nanos.add(nanos);
+	}
+
+	void addBatch(int size, long nanos) {
+		batches.increment();
+		batchedStatements.add(size);
+		this.nanos.add(nanos);
+	}
+
+	void addFetch(boolean hasRow, long nanos) {
+		if (hasRow)
+			rowsFetched.increment();
+
+		this.nanos.add(nanos);
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.database.connection;
+
+import org.citydb.log.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts executions, batch sizes, fetched rows and the time spent per SQL text
+ * for all statements created on connections obtained from the
+ * {@link DatabaseConnectionPool} while the statistics are enabled. To this end,
+ * connections, statements and result sets are wrapped by dynamic proxies.
+ */
+public class StatementStatistics {
+	private static StatementStatistics instance;
+	private static final int MAX_STATEMENTS = 5000;
+	private static final int MAX_SQL_LENGTH = 300;
+	private static final String OTHER_STATEMENTS = "<other statements>";
+	private static final String UNKNOWN_STATEMENT = "<unknown statement>";
+
+	private final Logger log = Logger.getInstance();
+	private final ConcurrentHashMap<String, StatementStatistic> statistics = new ConcurrentHashMap<>();
+	private volatile boolean enabled;
+
+	private StatementStatistics() {
+		// just to thwart instantiation
+	}
+
+	public static synchronized StatementStatistics getInstance() {
+		if (instance == null)
+			instance = new StatementStatistics();
+
+		return instance;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enabling the statistics only affects connections that are obtained
+	 * from the connection pool afterwards.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Connection wrap(Connection connection) {
+		return enabled ? (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[]{Connection.class}, new ConnectionHandler(connection)) : connection;
+	}
+
+	public void reset() {
+		statistics.clear();
+	}
+
+	/**
+	 * @return the statistics of all statements sorted by cumulative time
+	 */
+	public List<StatementStatistic> getStatistics() {
+		List<StatementStatistic> result = new ArrayList<>(statistics.values());
+		result.sort(Comparator.comparingDouble(StatementStatistic::getTotalTime).reversed());
+		return result;
+	}
+
+	public long getRoundTrips() {
+		return statistics.values().stream().mapToLong(StatementStatistic::getRoundTrips).sum();
+	}
+
+	public void logReport(int limit) {
+		List<StatementStatistic> statistics = getStatistics();
+		if (statistics.isEmpty())
+			return;
+
+		int size = Math.min(limit, statistics.size());
+		log.info("Top " + size + " of " + statistics.size() + " SQL statements by cumulative time ("
+				+ getRoundTrips() + " database round trips in total):");
+
+		for (int i = 0; i < size; i++) {
+			StatementStatistic statistic = statistics.get(i);
+			log.info(String.format(Locale.ENGLISH, "%d. %.1f ms, %d executions, %d batches (avg. size %.1f), %d rows: %s",
+					i + 1,
+					statistic.getTotalTime(),
+					statistic.getExecutions(),
+					statistic.getBatches(),
+					statistic.getAverageBatchSize(),
+					statistic.getRowsFetched(),
+					abbreviate(statistic.getSql())));
+		}
+	}
+
+	private StatementStatistic getStatistic(String sql) {
+		String key = sql != null ? sql : UNKNOWN_STATEMENT;
+		StatementStatistic statistic = statistics.get(key);
+		if (statistic == null) {
+			// statements with inlined values must not let the map grow without limit
+			if (statistics.size() >= MAX_STATEMENTS)
+				key = OTHER_STATEMENTS;
+
+			statistic = statistics.computeIfAbsent(key, StatementStatistic::new);
+		}
+
+		return statistic;
+	}
+
+	private String abbreviate(String sql) {
+		String text = sql.replaceAll("\\s+", " ").trim();
+		return text.length() > MAX_SQL_LENGTH ? text.substring(0, MAX_SQL_LENGTH) + "..." : text;
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private class ConnectionHandler implements InvocationHandler {
+		private final Connection connection;
+
+		ConnectionHandler(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = StatementStatistics.invoke(connection, method, args);
+
+			switch (method.getName()) {
+				case "prepareStatement":
+					return createStatement(PreparedStatement.class, result, (String) args[0], proxy);
+				case "prepareCall":
+					return createStatement(CallableStatement.class, result, (String) args[0], proxy);
+				case "createStatement":
+					return createStatement(Statement.class, result, null, proxy);
+				default:
+					return result;
+			}
+		}
+
+		private Object createStatement(Class<? extends Statement> type, Object statement, String sql, Object connection) {
+			return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+					new StatementHandler((Statement) statement, sql, connection));
+		}
+	}
+
+	private class StatementHandler implements InvocationHandler {
+		private final Statement statement;
+		private final String sql;
+		private final Object connection;
+		private StatementStatistic lastStatistic;
+		private String batchSql;
+		private int batchSize;
+
+		StatementHandler(Statement statement, String sql, Object connection) {
+			this.statement = statement;
+			this.sql = sql;
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "addBatch":
+					if (batchSql == null && args != null && args.length == 1)
+						batchSql = (String) args[0];
+
+					batchSize++;
+					return StatementStatistics.invoke(statement, method, args);
+				case "clearBatch":
+					batchSql = null;
+					batchSize = 0;
+					return StatementStatistics.invoke(statement, method, args);
+				case "executeBatch":
+				case "executeLargeBatch":
+					return executeBatch(method, args);
+				case "execute":
+				case "executeQuery":
+				case "executeUpdate":
+				case "executeLargeUpdate":
+					return execute(method, args);
+				case "getResultSet":
+					return wrapResultSet(StatementStatistics.invoke(statement, method, args));
+				case "getConnection":
+					return connection;
+				default:
+					return StatementStatistics.invoke(statement, method, args);
+			}
+		}
+
+		private Object executeBatch(Method method, Object[] args) throws Throwable {
+			StatementStatistic statistic = getStatistic(sql != null ? sql : batchSql);
+			int size = batchSize;
+			batchSql = null;
+			batchSize = 0;
+
+			long start = System.nanoTime();
+			try {
+				return StatementStatistics.invoke(statement, method, args);
+			} finally {
+				statistic.addBatch(size, System.nanoTime() - start);
+			}
+		}
+
+		private Object execute(Method method, Object[] args) throws Throwable {
+			// plain statements pass the SQL text with the execute call
+			lastStatistic = getStatistic(args != null && args.length > 0 && args[0] instanceof String ?
+					(String) args[0] : sql);
+
+			Object result;
+			long start = System.nanoTime();
+			try {
+				result = StatementStatistics.invoke(statement, method, args);
+			} finally {
+				lastStatistic.addExecution(System.nanoTime() - start);
+			}
+
+			return wrapResultSet(result);
+		}
+
+		private Object wrapResultSet(Object result) {
+			return result instanceof ResultSet && lastStatistic != null ?
+					Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+							new ResultSetHandler((ResultSet) result, lastStatistic)) :
+					result;
+		}
+	}
+
+	private static class ResultSetHandler implements InvocationHandler {
+		private final ResultSet resultSet;
+		private final StatementStatistic statistic;
+
+		ResultSetHandler(ResultSet resultSet, StatementStatistic statistic) {
+			this.resultSet = resultSet;
+			this.statistic = statistic;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (!method.getName().equals("next"))
+				return StatementStatistics.invoke(resultSet, method, args);
+
+			// fetching further rows may require additional round trips
+			long start = System.nanoTime();
+			boolean hasRow = false;
+			try {
+				hasRow = (Boolean) StatementStatistics.invoke(resultSet, method, args);
+				return hasRow;
+			} finally {
+				statistic.addFetch(hasRow, System.nanoTime() - start);
+			}
+		}
+	}
+}
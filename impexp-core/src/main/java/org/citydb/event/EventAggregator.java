@@ -0,0 +1,178 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.event;
+
+import org.citydb.event.global.CounterEvent;
+import org.citydb.event.global.CounterType;
+import org.citydb.event.global.GeometryCounterEvent;
+import org.citydb.event.global.ObjectCounterEvent;
+import org.citydb.event.global.ProgressBarEventType;
+import org.citydb.event.global.StatusDialogProgressBar;
+import org.citygml4j.model.gml.GMLClass;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects additive counter updates of a single event source locally and
+ * publishes their sums as events. Publishing happens periodically by the
+ * {@link EventDispatcher} that created this aggregator, whenever
+ * {@link #publish()} or {@link #triggerEvent(Event)} is called, and when the
+ * aggregator is closed. This way, producers do not have to trigger an event
+ * per processed item.
+ */
+public class EventAggregator {
+	private final EventDispatcher eventDispatcher;
+	private final Object source;
+	private final ConcurrentHashMap<Object, ChannelCounters> channels = new ConcurrentHashMap<>();
+
+	EventAggregator(EventDispatcher eventDispatcher, Object source) {
+		this.eventDispatcher = eventDispatcher;
+		this.source = source;
+	}
+
+	public void addCounter(CounterType type, long value, Object channel) {
+		if (type != CounterType.TOPLEVEL_FEATURE && type != CounterType.TEXTURE_IMAGE)
+			throw new IllegalArgumentException("Counter type " + type + " cannot be aggregated.");
+
+		getChannelCounters(channel).counters.computeIfAbsent(type, v -> new Slot()).add(value);
+	}
+
+	public void addCounter(CounterType type, long value) {
+		addCounter(type, value, Event.GLOBAL_CHANNEL);
+	}
+
+	public void addProgress(int value) {
+		getChannelCounters(Event.GLOBAL_CHANNEL).progress.add(value);
+	}
+
+	public void addObjectCounter(Map<Integer, Long> objectCounter, Object channel) {
+		if (objectCounter != null && !objectCounter.isEmpty()) {
+			ChannelCounters counters = getChannelCounters(channel);
+			for (Map.Entry<Integer, Long> entry : objectCounter.entrySet())
+				counters.objectCounter.computeIfAbsent(entry.getKey(), v -> new Slot()).add(entry.getValue());
+		}
+	}
+
+	public void addObjectCounter(int objectClassId, long value, Object channel) {
+		getChannelCounters(channel).objectCounter.computeIfAbsent(objectClassId, v -> new Slot()).add(value);
+	}
+
+	public void addObjectCounter(Map<Integer, Long> objectCounter) {
+		addObjectCounter(objectCounter, Event.GLOBAL_CHANNEL);
+	}
+
+	public void addGeometryCounter(Map<GMLClass, Long> geometryCounter, Object channel) {
+		if (geometryCounter != null && !geometryCounter.isEmpty()) {
+			ChannelCounters counters = getChannelCounters(channel);
+			for (Map.Entry<GMLClass, Long> entry : geometryCounter.entrySet())
+				counters.geometryCounter.computeIfAbsent(entry.getKey(), v -> new Slot()).add(entry.getValue());
+		}
+	}
+
+	public void addGeometryCounter(Map<GMLClass, Long> geometryCounter) {
+		addGeometryCounter(geometryCounter, Event.GLOBAL_CHANNEL);
+	}
+
+	public void triggerEvent(Event event) {
+		// publish pending updates first so that handlers receive
+		// the events of this source in the order they were created
+		publish();
+		eventDispatcher.triggerEvent(event);
+	}
+
+	public synchronized void publish() {
+		for (Map.Entry<Object, ChannelCounters> entry : channels.entrySet()) {
+			Object channel = entry.getKey();
+			ChannelCounters counters = entry.getValue();
+
+			Map<Integer, Long> objectCounter = getAndPublish(counters.objectCounter);
+			if (!objectCounter.isEmpty())
+				eventDispatcher.triggerEvent(new ObjectCounterEvent(objectCounter, channel, source));
+
+			Map<GMLClass, Long> geometryCounter = getAndPublish(counters.geometryCounter);
+			if (!geometryCounter.isEmpty())
+				eventDispatcher.triggerEvent(new GeometryCounterEvent(geometryCounter, channel, source));
+
+			for (Map.Entry<CounterType, Long> counter : getAndPublish(counters.counters).entrySet())
+				eventDispatcher.triggerEvent(new CounterEvent(counter.getKey(), counter.getValue(), channel, source));
+
+			long progress = counters.progress.getAndPublish();
+			if (progress > 0)
+				eventDispatcher.triggerEvent(new StatusDialogProgressBar(ProgressBarEventType.UPDATE, (int) progress, source));
+		}
+	}
+
+	public void close() {
+		eventDispatcher.removeEventAggregator(this);
+		publish();
+	}
+
+	private ChannelCounters getChannelCounters(Object channel) {
+		return channels.computeIfAbsent(channel, v -> new ChannelCounters());
+	}
+
+	private <K> Map<K, Long> getAndPublish(Map<K, Slot> slots) {
+		Map<K, Long> values = new HashMap<>();
+		for (Map.Entry<K, Slot> entry : slots.entrySet()) {
+			long value = entry.getValue().getAndPublish();
+			if (value != 0)
+				values.put(entry.getKey(), value);
+		}
+
+		return values;
+	}
+
+	private static final class ChannelCounters {
+		private final ConcurrentHashMap<CounterType, Slot> counters = new ConcurrentHashMap<>();
+		private final ConcurrentHashMap<Integer, Slot> objectCounter = new ConcurrentHashMap<>();
+		private final ConcurrentHashMap<GMLClass, Slot> geometryCounter = new ConcurrentHashMap<>();
+		private final Slot progress = new Slot();
+	}
+
+	private static final class Slot {
+		private final LongAdder value = new LongAdder();
+		private long published;
+
+		private void add(long delta) {
+			value.add(delta);
+		}
+
+		private long getAndPublish() {
+			// the adder is never reset since concurrent updates
+			// could get lost. we rather publish the delta to the
+			// last published sum.
+			long sum = value.sum();
+			long delta = sum - published;
+			published = sum;
+			return delta;
+		}
+	}
+}
@@ -30,25 +30,69 @@ package org.citydb.event;
 import org.citydb.concurrent.SingleWorkerPool;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
-
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dispatches events to the registered event handlers. Asynchronous events are delivered
+ * by several dispatcher threads, which are assigned based on the event type. Events of
+ * the same type are delivered in the order they have been triggered. Events of different
+ * types may however be delivered in a different order than they have been triggered,
+ * because they can be handled by different dispatcher threads. Synchronous events are
+ * delivered on the calling thread and may therefore overtake pending asynchronous events.
+ * However, a synchronous event is never delivered while an asynchronous event is being
+ * delivered, and no asynchronous event is delivered until the synchronous event has been
+ * handled by all its handlers.
+ * <p>
+ * An event handler is never called concurrently, even if it is registered for several
+ * event types. Handlers that depend on the order of events of different types must
+ * trigger and wait for them synchronously or call {@link #flushEvents()} in between.
+ */
 public class EventDispatcher {
-	private SingleWorkerPool<Event> eventDispatcherThread;
-	private ConcurrentHashMap<Enum<?>, EventHandlerContainerQueue> containerQueueMap;
-	private ReentrantLock mainLock;
+	private static final long AGGREGATION_INTERVAL = 250;
 
-	public EventDispatcher(int eventQueueSize) {
+	private final List<SingleWorkerPool<Event>> eventDispatcherThreads;
+	private final ConcurrentHashMap<Enum<?>, EventHandlerContainerQueue> containerQueueMap;
+	private final Map<EventHandler, ReentrantLock> handlerLocks;
+	private final ReentrantReadWriteLock deliveryLock = new ReentrantReadWriteLock();
+	private final Set<EventAggregator> aggregators;
+	private final Thread aggregatorThread;
+	private volatile boolean shouldRun = true;
+
+	public EventDispatcher(int eventQueueSize, int dispatcherThreads) {
 		containerQueueMap = new ConcurrentHashMap<>();
-		eventDispatcherThread = new SingleWorkerPool<>(
-				"event_dispatcher",
-				new EventWorkerFactory(this),
-				eventQueueSize,
-				true);
+		handlerLocks = Collections.synchronizedMap(new WeakHashMap<>());
+		aggregators = ConcurrentHashMap.newKeySet();
+		eventDispatcherThreads = new ArrayList<>();
+
+		// events are assigned to dispatcher threads based on their
+		// event type. so events of the same type are always delivered
+		// in the order they have been triggered.
+		for (int i = 0; i < Math.max(1, dispatcherThreads); i++) {
+			SingleWorkerPool<Event> eventDispatcherThread = new SingleWorkerPool<>(
+					"event_dispatcher",
+					new EventWorkerFactory(this),
+					eventQueueSize,
+					true);
+
+			eventDispatcherThread.prestartCoreWorkers();
+			eventDispatcherThreads.add(eventDispatcherThread);
+		}
 
-		eventDispatcherThread.prestartCoreWorkers();
-		mainLock = new ReentrantLock();
+		aggregatorThread = new Thread(this::publishAggregators);
+		aggregatorThread.setName("event_aggregator");
+		aggregatorThread.setDaemon(true);
+		aggregatorThread.start();
+	}
+
+	public EventDispatcher(int eventQueueSize) {
+		this(eventQueueSize, Math.min(4, Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
 	}
 
 	public EventDispatcher() {
@@ -56,23 +100,18 @@ public class EventDispatcher {
 	}
 
 	public void addEventHandler(Enum<?> type, EventHandler handler, boolean autoRemove) {
-		containerQueueMap.putIfAbsent(type, new EventHandlerContainerQueue());
-
-		EventHandlerContainerQueue containerQueue = containerQueueMap.get(type);
-		containerQueue.addEventHandler(handler, autoRemove);
+		// a handler uses the same lock for all event types
+		containerQueueMap.computeIfAbsent(type, v -> new EventHandlerContainerQueue())
+				.addEventHandler(handler, autoRemove, handlerLocks.computeIfAbsent(handler, v -> new ReentrantLock()));
 	}
 
-
 	public void addEventHandler(Enum<?> type, EventHandler handler) {
 		addEventHandler(type, handler, false);
 	}
 
 	public boolean removeEventHandler(Enum<?> type, EventHandler handler) {
-		if (!containerQueueMap.containsKey(type))
-			return false;
-
 		EventHandlerContainerQueue containerQueue = containerQueueMap.get(type);
-		return containerQueue.removeEventHandler(handler);
+		return containerQueue != null && containerQueue.removeEventHandler(handler);
 	}
 
 	public void removeEventHandler(EventHandler handler) {
@@ -80,40 +119,57 @@ public class EventDispatcher {
 			containerQueue.removeEventHandler(handler);	
 	}
 
+	public EventAggregator createEventAggregator(Object source) {
+		EventAggregator aggregator = new EventAggregator(this, source);
+		aggregators.add(aggregator);
+		return aggregator;
+	}
+
+	protected void removeEventAggregator(EventAggregator aggregator) {
+		aggregators.remove(aggregator);
+	}
+
 	public void triggerEvent(Event event) {
-		eventDispatcherThread.addWork(event);
+		int index = Math.floorMod(event.getEventType().hashCode(), eventDispatcherThreads.size());
+		eventDispatcherThreads.get(index).addWork(event);
 	}
 
 	public Event triggerSyncEvent(Event event) {
-		final ReentrantLock lock = this.mainLock;
-		lock.lock();
+		// a handler of an asynchronous event already holds the read lock
+		// and cannot upgrade it, so its synchronous events are delivered
+		// as part of the current delivery
+		if (deliveryLock.getReadHoldCount() > 0)
+			return deliver(event);
 
+		deliveryLock.writeLock().lock();
 		try {
-			return propagate(event);
+			return deliver(event);
 		} finally {
-			lock.unlock();
+			deliveryLock.writeLock().unlock();
 		}
 	}
 
 	protected Event propagate(Event event) {
-		final ReentrantLock lock = this.mainLock;
-		lock.lock();
-
+		deliveryLock.readLock().lock();
 		try {
-			if (containerQueueMap.containsKey(event.getEventType())) {
-				EventHandlerContainerQueue containerQueue = containerQueueMap.get(event.getEventType());
-				containerQueue.propagate(event);
-			}
-
-			return event;
+			return deliver(event);
 		} finally {
-			lock.unlock();
+			deliveryLock.readLock().unlock();
 		}
 	}
 
+	private Event deliver(Event event) {
+		// handlers are serialized per handler, not across handlers
+		EventHandlerContainerQueue containerQueue = containerQueueMap.get(event.getEventType());
+		if (containerQueue != null)
+			containerQueue.propagate(event);
+
+		return event;
+	}
+
 	public List<EventHandler> getRegisteredHandlers(Enum<?> type) {
-		return containerQueueMap.containsKey(type) ?
-				containerQueueMap.get(type).getHandlers() : new ArrayList<>();
+		EventHandlerContainerQueue containerQueue = containerQueueMap.get(type);
+		return containerQueue != null ? containerQueue.getHandlers() : new ArrayList<>();
 	}
 
 	public void reset() {
@@ -122,22 +178,69 @@ public class EventDispatcher {
 	}
 
 	public void flushEvents() throws InterruptedException {
-		eventDispatcherThread.join();
+		for (EventAggregator aggregator : aggregators)
+			aggregator.publish();
+
+		// handlers might trigger events for other dispatcher
+		// threads, so join until all queues are empty
+		boolean flushed;
+		do {
+			for (SingleWorkerPool<Event> eventDispatcherThread : eventDispatcherThreads)
+				eventDispatcherThread.join();
+
+			flushed = true;
+			for (SingleWorkerPool<Event> eventDispatcherThread : eventDispatcherThreads) {
+				if (!eventDispatcherThread.getWorkQueue().isEmpty()) {
+					flushed = false;
+					break;
+				}
+			}
+		} while (!flushed);
 	}
 	
 	public void shutdown() {
-		eventDispatcherThread.shutdown();
+		stopAggregatorThread();
+		for (SingleWorkerPool<Event> eventDispatcherThread : eventDispatcherThreads)
+			eventDispatcherThread.shutdown();
+
 		containerQueueMap.clear();
 	}
 	
 	public void shutdownNow() {
-		eventDispatcherThread.shutdownNow();
+		stopAggregatorThread();
+		for (SingleWorkerPool<Event> eventDispatcherThread : eventDispatcherThreads)
+			eventDispatcherThread.shutdownNow();
+
 		containerQueueMap.clear();
 	}
 	
 	public void shutdownAndWait() throws InterruptedException {
-		eventDispatcherThread.shutdownAndWait();
+		stopAggregatorThread();
+		for (EventAggregator aggregator : aggregators)
+			aggregator.publish();
+
+		for (SingleWorkerPool<Event> eventDispatcherThread : eventDispatcherThreads)
+			eventDispatcherThread.shutdownAndWait();
+
 		containerQueueMap.clear();
 	}
+
+	private void publishAggregators() {
+		while (shouldRun) {
+			try {
+				Thread.sleep(AGGREGATION_INTERVAL);
+			} catch (InterruptedException e) {
+				continue;
+			}
+
+			for (EventAggregator aggregator : aggregators)
+				aggregator.publish();
+		}
+	}
+
+	private void stopAggregatorThread() {
+		shouldRun = false;
+		aggregatorThread.interrupt();
+	}
 	
 }
@@ -28,13 +28,25 @@
 package org.citydb.event;
 
 import java.lang.ref.WeakReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class EventHandlerContainer {
 	private final WeakReference<EventHandler> eventHandlerRef;
+	private final ReentrantLock handlerLock;
 	private boolean autoRemove = false;
 
-	public EventHandlerContainer(EventHandler handler) {
+	public EventHandlerContainer(EventHandler handler, ReentrantLock handlerLock) {
 		this.eventHandlerRef = new WeakReference<EventHandler>(handler);
+		this.handlerLock = handlerLock;
+	}
+
+	public EventHandlerContainer(EventHandler handler) {
+		this(handler, new ReentrantLock());
+	}
+
+	public EventHandlerContainer(EventHandler handler, boolean autoRemove, ReentrantLock handlerLock) {
+		this(handler, handlerLock);
+		this.autoRemove = autoRemove;
 	}
 
 	public EventHandlerContainer(EventHandler handler, boolean autoRemove) {
@@ -53,4 +65,8 @@ public class EventHandlerContainer {
 	public EventHandler getEventHandler() {
 		return eventHandlerRef.get();
 	}
+
+	public ReentrantLock getHandlerLock() {
+		return handlerLock;
+	}
 }
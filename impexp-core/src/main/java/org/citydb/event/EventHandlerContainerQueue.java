@@ -33,19 +33,24 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class EventHandlerContainerQueue {
-	private ConcurrentLinkedQueue<EventHandlerContainer> containerQueue;
+	private final ConcurrentLinkedQueue<EventHandlerContainer> containerQueue;
 
 	public EventHandlerContainerQueue() {
 		containerQueue = new ConcurrentLinkedQueue<EventHandlerContainer>();
 	}
 
-	public void addEventHandler(EventHandler handler, boolean autoRemove) {
-		EventHandlerContainer container = new EventHandlerContainer(handler, autoRemove);
+	public void addEventHandler(EventHandler handler, boolean autoRemove, ReentrantLock handlerLock) {
+		EventHandlerContainer container = new EventHandlerContainer(handler, autoRemove, handlerLock);
 		containerQueue.add(container);
 	}
 
+	public void addEventHandler(EventHandler handler, boolean autoRemove) {
+		addEventHandler(handler, autoRemove, new ReentrantLock());
+	}
+
 	public void addEventHandler(EventHandler handler) {
 		addEventHandler(handler, false);
 	}
@@ -77,16 +82,25 @@ public class EventHandlerContainerQueue {
 				continue;
 			}
 			
+			// make sure that a handler to be removed after the first event
+			// is not called again by a concurrent propagation
+			if (container.isAutoRemove() && !containerQueue.remove(container))
+				continue;
+
+			// adding and removing handlers is lock-free, but a handler is never
+			// called concurrently, even if it is registered for several event types
+			final ReentrantLock lock = container.getHandlerLock();
+			lock.lock();
+
 			try {
 				handler.handleEvent(event);
 			} catch (Exception e) {
 				Logger.getInstance().error(e.getMessage());
 				break;
+			} finally {
+				lock.unlock();
 			}
 			
-			if (container.isAutoRemove())
-				iter.remove();
-			
 			if (event.isCancelled())
 				break;
 		}
@@ -29,6 +29,7 @@
 package org.citydb.file;
 
 import org.apache.tika.mime.MediaType;
+import org.citydb.metrics.MetricsRegistry;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,6 +42,8 @@ public abstract class InputFile implements AutoCloseable {
     public static final MediaType APPLICATION_JSON = MediaType.parse("application/json");
     public static final MediaType APPLICATION_GZIP = MediaType.parse("application/gzip");
     public static final MediaType APPLICATION_ZIP = MediaType.APPLICATION_ZIP;
+    public static final String BYTES_READ_METRIC = "input.bytesRead";
+    public static final String BYTES_TOTAL_METRIC = "input.bytesTotal";
 
     protected final Path file;
     protected final FileType type;
@@ -71,4 +74,15 @@ public abstract class InputFile implements AutoCloseable {
     public MediaType getMediaType() {
         return mediaType;
     }
+
+    /**
+     * Wraps a stream so that the bytes read from it are counted by the
+     * {@value #BYTES_READ_METRIC} metric. The size of the stream is added
+     * to the {@value #BYTES_TOTAL_METRIC} metric.
+     */
+    protected InputStream countBytes(InputStream stream, long size) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.counter(BYTES_TOTAL_METRIC).add(size);
+        return new CountingInputStream(stream, metrics.counter(BYTES_READ_METRIC));
+    }
 }
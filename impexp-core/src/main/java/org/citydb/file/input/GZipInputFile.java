@@ -45,6 +45,6 @@ public class GZipInputFile extends AbstractRegularInputFile {
 
     @Override
     public InputStream openStream() throws IOException {
-        return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        return new GZIPInputStream(new BufferedInputStream(countBytes(Files.newInputStream(file), Files.size(file))));
     }
 }
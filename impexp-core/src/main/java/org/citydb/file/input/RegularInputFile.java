@@ -44,6 +44,6 @@ public class RegularInputFile extends AbstractRegularInputFile {
 
     @Override
     public InputStream openStream() throws IOException {
-        return new BufferedInputStream(Files.newInputStream(file));
+        return new BufferedInputStream(countBytes(Files.newInputStream(file), Files.size(file)));
     }
 }
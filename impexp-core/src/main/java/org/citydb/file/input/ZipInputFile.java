@@ -53,7 +53,8 @@ public class ZipInputFile extends AbstractArchiveInputFile {
 
     @Override
     public InputStream openStream() throws IOException {
-        return new BufferedInputStream(Files.newInputStream(getFileSystem().getPath(contentFile)));
+        Path path = getFileSystem().getPath(contentFile);
+        return new BufferedInputStream(countBytes(Files.newInputStream(path), Files.size(path)));
     }
 
     @Override
@@ -0,0 +1,121 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histogram implements Metric {
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+	// bucket i counts the values whose highest set bit is bit i - 1
+	private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+
+	Histogram() {
+		// created by the metrics registry
+	}
+
+	public void update(long value) {
+		if (value < 0)
+			value = 0;
+
+		count.increment();
+		sum.add(value);
+		min.accumulate(value);
+		max.accumulate(value);
+		buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getSum() {
+		return sum.sum();
+	}
+
+	public long getMin() {
+		return getCount() > 0 ? min.get() : 0;
+	}
+
+	public long getMax() {
+		return getCount() > 0 ? max.get() : 0;
+	}
+
+	public double getMean() {
+		long count = getCount();
+		return count > 0 ? (double) getSum() / count : 0;
+	}
+
+	/**
+	 * Returns an estimate of the given percentile. Values are counted in buckets
+	 * of powers of two, so the estimate is the upper bound of the bucket holding
+	 * the percentile, capped by the maximum value.
+	 */
+	public long getPercentile(double percentile) {
+		long[] counts = new long[buckets.length()];
+		long total = 0;
+		for (int i = 0; i < counts.length; i++)
+			total += counts[i] = buckets.get(i);
+
+		if (total == 0)
+			return 0;
+
+		long rank = (long) Math.ceil(Math.max(0, Math.min(1, percentile)) * total);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank && counts[i] > 0) {
+				long upperBound = i == 0 ? 0 : i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+				return Math.min(upperBound, getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	@Override
+	public Map<String, Number> getValues() {
+		Map<String, Number> values = new LinkedHashMap<>();
+		values.put("count", getCount());
+		values.put("sum", getSum());
+		values.put("min", getMin());
+		values.put("max", getMax());
+		values.put("mean", getMean());
+		values.put("p50", getPercentile(0.5));
+		values.put("p95", getPercentile(0.95));
+		values.put("p99", getPercentile(0.99));
+		return values;
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics;
+
+import org.citydb.log.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class MetricsRegistry {
+	private static MetricsRegistry instance;
+	private static final String JMX_DOMAIN = "org.citydb";
+
+	private final Logger log = Logger.getInstance();
+	private final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<>();
+	private final AtomicInteger gaugeConsumers = new AtomicInteger();
+	private volatile boolean enabled;
+	private volatile MBeanServer mBeanServer;
+
+	private MetricsRegistry() {
+		// just to thwart instantiation
+	}
+
+	public static synchronized MetricsRegistry getInstance() {
+		if (instance == null)
+			instance = new MetricsRegistry();
+
+		return instance;
+	}
+
+	/**
+	 * Timers only measure while metrics are enabled. Counters and histograms
+	 * are cheap enough to be updated at any time.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gauges that are costly to maintain should only be registered while metrics
+	 * are enabled or another consumer, such as a progress reporter, reads them.
+	 */
+	public boolean isGaugesEnabled() {
+		return enabled || gaugeConsumers.get() > 0;
+	}
+
+	public void addGaugeConsumer() {
+		gaugeConsumers.incrementAndGet();
+	}
+
+	public void removeGaugeConsumer() {
+		gaugeConsumers.decrementAndGet();
+	}
+
+	public Counter counter(String name) {
+		return getOrCreate(name, Counter.class, Counter::new);
+	}
+
+	public Timer timer(String name) {
+		return getOrCreate(name, Timer.class, () -> new Timer(this));
+	}
+
+	public Histogram histogram(String name) {
+		return getOrCreate(name, Histogram.class, Histogram::new);
+	}
+
+	/**
+	 * Registers a gauge under the given name. Gauges are bound to their owner,
+	 * so an existing gauge with the same name is replaced. Owners should
+	 * {@link #remove(String, Metric) remove} their gauge when they are done.
+	 */
+	public Gauge gauge(String name, Supplier<? extends Number> supplier) {
+		Gauge gauge = new Gauge(supplier);
+		Metric previous = metrics.put(name, gauge);
+		if (previous != null)
+			unregisterMBean(name);
+
+		registerMBean(name, gauge);
+		return gauge;
+	}
+
+	public boolean remove(String name, Metric metric) {
+		if (metrics.remove(name, metric)) {
+			unregisterMBean(name);
+			return true;
+		}
+
+		return false;
+	}
+
+	public Map<String, Metric> getMetrics() {
+		return new TreeMap<>(metrics);
+	}
+
+	public synchronized void registerMBeans(MBeanServer mBeanServer) {
+		if (this.mBeanServer != null)
+			return;
+
+		this.mBeanServer = mBeanServer;
+		metrics.forEach(this::registerMBean);
+	}
+
+	public synchronized void unregisterMBeans() {
+		if (mBeanServer == null)
+			return;
+
+		for (String name : metrics.keySet())
+			unregisterMBean(name);
+
+		mBeanServer = null;
+	}
+
+	private <T extends Metric> T getOrCreate(String name, Class<T> type, Supplier<T> supplier) {
+		Metric metric = metrics.get(name);
+		if (metric == null) {
+			T newMetric = supplier.get();
+			metric = metrics.putIfAbsent(name, newMetric);
+			if (metric == null) {
+				metric = newMetric;
+				registerMBean(name, metric);
+			}
+		}
+
+		if (!type.isInstance(metric))
+			throw new IllegalArgumentException("The metric '" + name + "' is not of type " + type.getSimpleName() + ".");
+
+		return type.cast(metric);
+	}
+
+	private void registerMBean(String name, Metric metric) {
+		MBeanServer mBeanServer = this.mBeanServer;
+		if (mBeanServer != null) {
+			try {
+				ObjectName objectName = getObjectName(name);
+				if (!mBeanServer.isRegistered(objectName))
+					mBeanServer.registerMBean(new MetricMBean(metric), objectName);
+			} catch (JMException e) {
+				log.debug("Failed to register JMX bean for metric '" + name + "': " + e.getMessage());
+			}
+		}
+	}
+
+	private void unregisterMBean(String name) {
+		MBeanServer mBeanServer = this.mBeanServer;
+		if (mBeanServer != null) {
+			try {
+				ObjectName objectName = getObjectName(name);
+				if (mBeanServer.isRegistered(objectName))
+					mBeanServer.unregisterMBean(objectName);
+			} catch (JMException e) {
+				log.debug("Failed to unregister JMX bean for metric '" + name + "': " + e.getMessage());
+			}
+		}
+	}
+
+	private ObjectName getObjectName(String name) throws JMException {
+		return new ObjectName(JMX_DOMAIN + ":type=Metrics,name=" + ObjectName.quote(name));
+	}
+}
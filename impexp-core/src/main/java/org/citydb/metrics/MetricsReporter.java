@@ -0,0 +1,182 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics;
+
+import org.citydb.config.project.global.MetricsDumpFormat;
+import org.citydb.log.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Periodically appends a snapshot of all metrics to a file. CSV dumps write one
+ * row per metric value, JSON dumps write one JSON object per snapshot and line.
+ */
+public class MetricsReporter implements Runnable {
+	private final Logger log = Logger.getInstance();
+	private final MetricsRegistry registry;
+	private final Path file;
+	private final MetricsDumpFormat format;
+	private final long interval;
+
+	private volatile boolean shouldRun;
+	private Thread reporterThread;
+
+	public MetricsReporter(MetricsRegistry registry, Path file, MetricsDumpFormat format, long interval) {
+		if (interval <= 0)
+			throw new IllegalArgumentException("Interval must be greater than zero.");
+
+		this.registry = registry;
+		this.file = file;
+		this.format = format;
+		this.interval = interval;
+	}
+
+	public synchronized void start() {
+		if (reporterThread != null)
+			return;
+
+		shouldRun = true;
+		reporterThread = new Thread(this);
+		reporterThread.setName("metrics_reporter");
+		reporterThread.setDaemon(true);
+		reporterThread.start();
+	}
+
+	public synchronized void stop() {
+		if (reporterThread == null)
+			return;
+
+		shouldRun = false;
+		reporterThread.interrupt();
+		try {
+			reporterThread.join();
+		} catch (InterruptedException e) {
+			//
+		}
+
+		reporterThread = null;
+
+		// write final snapshot
+		try {
+			dump();
+		} catch (IOException e) {
+			log.error("Failed to write metrics to '" + file + "': " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void run() {
+		while (shouldRun) {
+			try {
+				Thread.sleep(interval);
+			} catch (InterruptedException e) {
+				continue;
+			}
+
+			try {
+				dump();
+			} catch (IOException e) {
+				log.error("Failed to write metrics to '" + file + "': " + e.getMessage());
+			}
+		}
+	}
+
+	public synchronized void dump() throws IOException {
+		Map<String, Metric> metrics = registry.getMetrics();
+		String timestamp = Instant.now().toString();
+
+		if (file.getParent() != null)
+			Files.createDirectories(file.getParent());
+
+		boolean writeHeader = !Files.exists(file) || Files.size(file) == 0;
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			if (format == MetricsDumpFormat.JSON)
+				writeJson(writer, timestamp, metrics);
+			else
+				writeCsv(writer, timestamp, metrics, writeHeader);
+		}
+	}
+
+	private void writeCsv(BufferedWriter writer, String timestamp, Map<String, Metric> metrics, boolean writeHeader) throws IOException {
+		if (writeHeader) {
+			writer.write("timestamp,metric,type,value,number");
+			writer.newLine();
+		}
+
+		for (Entry<String, Metric> entry : metrics.entrySet()) {
+			String type = entry.getValue().getClass().getSimpleName().toLowerCase();
+			for (Entry<String, Number> value : entry.getValue().getValues().entrySet()) {
+				writer.write(timestamp + ',' + escapeCsv(entry.getKey()) + ',' + type + ',' + value.getKey() + ',' + value.getValue());
+				writer.newLine();
+			}
+		}
+	}
+
+	private void writeJson(BufferedWriter writer, String timestamp, Map<String, Metric> metrics) throws IOException {
+		StringBuilder json = new StringBuilder("{\"timestamp\":\"").append(timestamp).append("\",\"metrics\":{");
+		Iterator<Entry<String, Metric>> iter = metrics.entrySet().iterator();
+		while (iter.hasNext()) {
+			Entry<String, Metric> entry = iter.next();
+			json.append('"').append(escapeJson(entry.getKey())).append("\":{");
+
+			Iterator<Entry<String, Number>> values = entry.getValue().getValues().entrySet().iterator();
+			while (values.hasNext()) {
+				Entry<String, Number> value = values.next();
+				json.append('"').append(value.getKey()).append("\":").append(value.getValue());
+				if (values.hasNext())
+					json.append(',');
+			}
+
+			json.append('}');
+			if (iter.hasNext())
+				json.append(',');
+		}
+
+		writer.write(json.append("}}").toString());
+		writer.newLine();
+	}
+
+	private String escapeCsv(String value) {
+		return value.indexOf(',') == -1 && value.indexOf('"') == -1 ?
+				value : '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private String escapeJson(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class Timer implements Metric {
+	private final MetricsRegistry registry;
+	private final Histogram histogram = new Histogram();
+
+	Timer(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Returns the start time to be passed to {@link #stop(long)}, or zero if
+	 * metrics are disabled. This keeps the overhead of disabled timers at a
+	 * single volatile read.
+	 */
+	public long start() {
+		return registry.isEnabled() ? System.nanoTime() : 0;
+	}
+
+	public void stop(long start) {
+		if (start != 0)
+			update(System.nanoTime() - start);
+	}
+
+	public void update(long nanos) {
+		histogram.update(nanos);
+	}
+
+	public long getCount() {
+		return histogram.getCount();
+	}
+
+	public double getTotalTime() {
+		return toMillis(histogram.getSum());
+	}
+
+	public double getMeanTime() {
+		return histogram.getMean() / 1e6;
+	}
+
+	public double getMaxTime() {
+		return toMillis(histogram.getMax());
+	}
+
+	@Override
+	public Map<String, Number> getValues() {
+		Map<String, Number> values = new LinkedHashMap<>();
+		values.put("count", getCount());
+		values.put("totalMillis", getTotalTime());
+		values.put("meanMillis", getMeanTime());
+		values.put("maxMillis", getMaxTime());
+		values.put("p50Millis", toMillis(histogram.getPercentile(0.5)));
+		values.put("p95Millis", toMillis(histogram.getPercentile(0.95)));
+		values.put("p99Millis", toMillis(histogram.getPercentile(0.99)));
+		return values;
+	}
+
+	private double toMillis(long nanos) {
+		return nanos / 1e6;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Creates the custom Java Flight Recorder events of the import and export pipelines.
+ * Every begin method returns null if the event is not enabled in a running recording,
+ * so callers only allocate events while they are actually recorded. This interface does
+ * not depend on the JFR API, which is only loaded by the implementation returned by
+ * {@link FlightRecording#events()}.
+ */
+public interface FlightRecorderEvents {
+	interface ParseChunk {
+		void commit(String featureType, String gmlId);
+	}
+
+	interface ImportFeature {
+		void commit(String featureType, String gmlId, long id);
+	}
+
+	interface ExecuteBatch {
+		void commit(String table, int batchSize);
+	}
+
+	interface UIDCacheDrain {
+		void commit(String cacheType, int entries);
+	}
+
+	interface XlinkPhase {
+		void commit(String phase);
+	}
+
+	interface ExportFeature {
+		void commit(String featureType, String gmlId, long id);
+	}
+
+	interface WriterWait {
+		void commit(long sequenceId, long currentSequenceId);
+	}
+
+	ParseChunk beginParseChunk();
+	ImportFeature beginImportFeature();
+	ExecuteBatch beginExecuteBatch();
+	UIDCacheDrain beginUIDCacheDrain();
+	XlinkPhase beginXlinkPhase();
+	ExportFeature beginExportFeature();
+	WriterWait beginWriterWait();
+	void startRecording(Path file) throws IOException;
+}
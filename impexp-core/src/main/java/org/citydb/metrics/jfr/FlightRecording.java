@@ -0,0 +1,118 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.metrics.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Support for the custom Java Flight Recorder events of the import and export
+ * pipelines. The JFR events are compiled separately and are only loaded if the
+ * JVM provides the JFR API (Java 8u272 and later). Otherwise, a no-op fallback
+ * is used that never creates events. Events are recorded by any JFR recording,
+ * whether started with -XX:StartFlightRecording, from JMC or by
+ * {@link #startRecording(Path)}.
+ */
+public class FlightRecording {
+	private static final String JFR_EVENTS = "org.citydb.metrics.jfr.JfrEvents";
+	private static final FlightRecorderEvents EVENTS = loadEvents();
+
+	private FlightRecording() {
+		// just to thwart instantiation
+	}
+
+	public static boolean isAvailable() {
+		return !(EVENTS instanceof NoOpEvents);
+	}
+
+	public static FlightRecorderEvents events() {
+		return EVENTS;
+	}
+
+	/**
+	 * Starts a recording based on the "profile" settings of the JVM with all
+	 * custom events enabled. The recording is written to the given file when
+	 * the JVM shuts down.
+	 */
+	public static void startRecording(Path file) throws IOException {
+		EVENTS.startRecording(file);
+	}
+
+	private static FlightRecorderEvents loadEvents() {
+		try {
+			ClassLoader loader = FlightRecording.class.getClassLoader();
+			Class.forName("jdk.jfr.Event", false, loader);
+			return (FlightRecorderEvents) Class.forName(JFR_EVENTS, true, loader).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			return new NoOpEvents();
+		}
+	}
+
+	private static final class NoOpEvents implements FlightRecorderEvents {
+
+		@Override
+		public ParseChunk beginParseChunk() {
+			return null;
+		}
+
+		@Override
+		public ImportFeature beginImportFeature() {
+			return null;
+		}
+
+		@Override
+		public ExecuteBatch beginExecuteBatch() {
+			return null;
+		}
+
+		@Override
+		public UIDCacheDrain beginUIDCacheDrain() {
+			return null;
+		}
+
+		@Override
+		public XlinkPhase beginXlinkPhase() {
+			return null;
+		}
+
+		@Override
+		public ExportFeature beginExportFeature() {
+			return null;
+		}
+
+		@Override
+		public WriterWait beginWriterWait() {
+			return null;
+		}
+
+		@Override
+		public void startRecording(Path file) throws IOException {
+			throw new IOException("Java Flight Recorder is not supported by this JVM.");
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package org.citydb.writer;
 
 import org.citydb.concurrent.WorkerPool;
+import org.citydb.metrics.jfr.FlightRecorderEvents.WriterWait;
+import org.citydb.metrics.jfr.FlightRecording;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -55,8 +57,13 @@ public class SequentialWriter<T> {
                     long threadId = Thread.currentThread().getId();
                     cache.put(sequenceId, new CachedObject(object, threadId));
 
-                    if (shouldRun)
+                    if (shouldRun) {
+                        WriterWait jfrEvent = FlightRecording.events().beginWriterWait();
                         locks.computeIfAbsent(threadId, v -> lock.newCondition()).await();
+
+                        if (jfrEvent != null)
+                            jfrEvent.commit(sequenceId, currentId);
+                    }
                 }
             } finally {
                 lock.unlock();
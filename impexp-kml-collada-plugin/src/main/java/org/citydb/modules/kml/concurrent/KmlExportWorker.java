@@ -28,6 +28,7 @@
 package org.citydb.modules.kml.concurrent;
 
 import net.opengis.kml._2.ObjectFactory;
+import net.opengis.kml._2.PlacemarkType;
 import org.citydb.concurrent.Worker;
 import org.citydb.concurrent.WorkerPool;
 import org.citydb.config.Config;
@@ -59,8 +60,10 @@ import org.citydb.modules.kml.database.Transportation;
 import org.citydb.modules.kml.database.Tunnel;
 import org.citydb.modules.kml.database.WaterBody;
 import org.citydb.modules.kml.util.BalloonTemplateHandler;
+import org.citydb.modules.kml.util.ElevationProvider;
 import org.citydb.modules.kml.util.ElevationServiceHandler;
 import org.citydb.modules.kml.util.ExportTracker;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 import org.citydb.query.filter.type.FeatureTypeFilter;
 import org.citydb.util.Util;
@@ -72,6 +75,8 @@ import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.EnumMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class KmlExportWorker extends Worker<KmlSplittingResult> {
@@ -85,6 +90,7 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 	private final ObjectFactory kmlFactory; 
 	private final Config config;
 	private final EventDispatcher eventDispatcher;
+	private final ExportTracker tracker;
 	private final KmlExporterManager kmlExporterManager;
 
 	private KmlGenericObject singleObject = null;
@@ -94,7 +100,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 	private EnumMap<CityGMLClass, KmlGenericObject>objectGroup = new EnumMap<>(CityGMLClass.class);
 	private EnumMap<CityGMLClass, BalloonTemplateHandler>balloonTemplateHandler = new EnumMap<>(CityGMLClass.class);
 
-	private ElevationServiceHandler elevationServiceHandler;
+	private ElevationProvider elevationProvider;
+	private final TextureProcessor textureProcessor;
 
 	public KmlExportWorker(Connection connection,
 			AbstractDatabaseAdapter databaseAdapter,
@@ -105,13 +112,17 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 			Query query,
 			ObjectFactory kmlFactory,
 			Config config,
-			EventDispatcher eventDispatcher) {
+			EventDispatcher eventDispatcher,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor) {
 		this.connection = connection;
 		this.databaseAdapter = databaseAdapter;
 		this.query = query;
 		this.kmlFactory = kmlFactory;
 		this.config = config;
 		this.eventDispatcher = eventDispatcher;
+		this.tracker = tracker;
+		this.textureProcessor = textureProcessor;
 
 		textureExportAdapter = databaseAdapter.getSQLAdapter().getBlobExportAdapter(connection, BlobType.TEXTURE_IMAGE);
 
@@ -126,7 +137,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 				eventDispatcher,
 				config);
 
-		elevationServiceHandler = new ElevationServiceHandler(config);
+		// use the shared local elevation model if available
+		this.elevationProvider = elevationProvider != null ? elevationProvider : new ElevationServiceHandler(config);
 
 		FeatureTypeFilter typeFilter = query.getFeatureTypeFilter();
 		ColladaOptions colladaOptions;
@@ -276,6 +288,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 				}
 			}
 			
+			// count the objects of the tile before the worker terminates
+			tracker.addObjectCounter(kmlExporterManager.getObjectCounter());
 			eventDispatcher.triggerEvent(new ObjectCounterEvent(kmlExporterManager.getObjectCounter(), this));
 		}
 		finally {
@@ -310,7 +324,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -323,7 +338,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -336,7 +352,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -349,7 +366,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -362,7 +380,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -379,7 +398,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -392,7 +412,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -405,7 +426,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -418,7 +440,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -431,7 +454,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -443,7 +467,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -455,7 +480,8 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 						kmlFactory,
 						databaseAdapter,
 						textureExportAdapter,
-						elevationServiceHandler,
+						elevationProvider,
+						textureProcessor,
 						getBalloonTemplateHandler(featureClass),
 						eventDispatcher,
 						config);
@@ -504,33 +530,57 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 
 	private void sendGroupToFile(KmlGenericObject objectGroup) {
 		try {
-			double imageScaleFactor = 1;
 			ColladaOptions colladaOptions = objectGroup.getColladaOptions();
-			
-			if (colladaOptions.isCropImages()) {
-				objectGroup.cropImages();
-			}
-			
-			if (colladaOptions.isGenerateTextureAtlases()) {
-				if (colladaOptions.isScaleImages()) {
+
+			// process texture images on the texture processor pool while the
+			// placemark is created, since the latter does not depend on textures
+			Future<Void> textureProcessing = textureProcessor.submit(() -> {
+				double imageScaleFactor = 1;
+
+				if (colladaOptions.isCropImages()) {
+					objectGroup.cropImages();
+				}
+
+				if (colladaOptions.isGenerateTextureAtlases()) {
+					if (colladaOptions.isScaleImages()) {
+						imageScaleFactor = colladaOptions.getImageScaleFactor();
+					}
+					objectGroup.createTextureAtlas(colladaOptions.getPackingAlgorithm(),
+							imageScaleFactor,
+							colladaOptions.isTextureAtlasPots());
+				}
+				else if (colladaOptions.isScaleImages()) {
 					imageScaleFactor = colladaOptions.getImageScaleFactor();
+					if (imageScaleFactor < 1) {
+						objectGroup.resizeAllImagesByFactor(imageScaleFactor);
+					}
 				}
-				objectGroup.createTextureAtlas(colladaOptions.getPackingAlgorithm(),
-						imageScaleFactor,
-						colladaOptions.isTextureAtlasPots());
-			}
-			else if (colladaOptions.isScaleImages()) {
-				imageScaleFactor = colladaOptions.getImageScaleFactor();
-				if (imageScaleFactor < 1) {
-					objectGroup.resizeAllImagesByFactor(imageScaleFactor);
+
+				return null;
+			});
+
+			PlacemarkType placemark;
+			try {
+				placemark = objectGroup.createPlacemarkForColladaModel();
+			} catch (Exception e) {
+				// still wait for the texture processing, but keep the original exception
+				try {
+					awaitTextureProcessing(textureProcessing);
+				} catch (Exception textureException) {
+					e.addSuppressed(textureException);
 				}
+
+				throw e;
 			}
 
+			awaitTextureProcessing(textureProcessing);
+
 			ColladaBundle colladaBundle = new ColladaBundle();
 			colladaBundle.setCollada(objectGroup.generateColladaTree());
 			colladaBundle.setTexImages(objectGroup.getTexImages());
+			colladaBundle.setTexImageBytes(objectGroup.getTexImageBytes());
 			colladaBundle.setUnsupportedTexImageIds(objectGroup.getUnsupportedTexImageIds());
-			colladaBundle.setPlacemark(objectGroup.createPlacemarkForColladaModel());
+			colladaBundle.setPlacemark(placemark);
 			colladaBundle.setGmlId(objectGroup.getGmlId());
 			colladaBundle.setId(objectGroup.getId());
 
@@ -543,6 +593,14 @@ public class KmlExportWorker extends Worker<KmlSplittingResult> {
 		}
 	}
 
+	private void awaitTextureProcessing(Future<Void> textureProcessing) throws Exception {
+		try {
+			textureProcessing.get();
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+	}
+
 	private BalloonTemplateHandler getBalloonTemplateHandler(CityGMLClass cityObjectType) {
 		BalloonTemplateHandler currentBalloonTemplateHandler = balloonTemplateHandler.get(cityObjectType);
 
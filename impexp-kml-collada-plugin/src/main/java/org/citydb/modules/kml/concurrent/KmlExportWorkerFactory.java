@@ -38,7 +38,10 @@ import org.citydb.database.connection.DatabaseConnectionPool;
 import org.citydb.event.EventDispatcher;
 import org.citydb.log.Logger;
 import org.citydb.modules.kml.database.KmlSplittingResult;
+import org.citydb.modules.kml.database.StatementCache;
+import org.citydb.modules.kml.util.ElevationProvider;
 import org.citydb.modules.kml.util.ExportTracker;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 import org.citygml4j.util.xml.SAXEventBuffer;
 
@@ -57,6 +60,8 @@ public class KmlExportWorkerFactory implements WorkerFactory<KmlSplittingResult>
 	private final ObjectFactory kmlFactory;
 	private final Config config;
 	private final EventDispatcher eventDispatcher;
+	private final ElevationProvider elevationProvider;
+	private final TextureProcessor textureProcessor;
 
 	public KmlExportWorkerFactory(
 			JAXBContext jaxbKmlContext,
@@ -66,7 +71,9 @@ public class KmlExportWorkerFactory implements WorkerFactory<KmlSplittingResult>
 			Query query,
 			ObjectFactory kmlFactory,
 			Config config,
-			EventDispatcher eventDispatcher) {
+			EventDispatcher eventDispatcher,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor) {
 		this.jaxbKmlContext = jaxbKmlContext;
 		this.jaxbColladaContext = jaxbColladaContext;
 		this.writerPool = writerPool;
@@ -75,6 +82,8 @@ public class KmlExportWorkerFactory implements WorkerFactory<KmlSplittingResult>
 		this.kmlFactory = kmlFactory;
 		this.config = config;
 		this.eventDispatcher = eventDispatcher;
+		this.elevationProvider = elevationProvider;
+		this.textureProcessor = textureProcessor;
 	}
 
 	@Override
@@ -92,8 +101,12 @@ public class KmlExportWorkerFactory implements WorkerFactory<KmlSplittingResult>
 				databaseAdapter.getWorkspaceManager().gotoWorkspace(connection, workspace);
 			}
 
+			// the feature objects of a worker issue the same queries for every object. so
+			// keep the statements open until the worker closes its connection
+			connection = new StatementCache(connection).getConnection();
+
 			kmlWorker = new KmlExportWorker(connection, databaseAdapter, jaxbKmlContext, jaxbColladaContext, writerPool,
-					tracker, query, kmlFactory, config, eventDispatcher);
+					tracker, query, kmlFactory, config, eventDispatcher, elevationProvider, textureProcessor);
 		} catch (SQLException e) {
 			log.error("Failed to create export worker: " + e.getMessage());
 		}
@@ -51,23 +51,30 @@ import net.opengis.kml._2.StyleStateEnumType;
 import net.opengis.kml._2.StyleType;
 import net.opengis.kml._2.ViewRefreshModeEnumType;
 import org.citydb.ade.ADEExtensionManager;
+import org.citydb.concurrent.DefaultWorker;
 import org.citydb.concurrent.PoolSizeAdaptationStrategy;
+import org.citydb.concurrent.PoolSizeController;
 import org.citydb.concurrent.SingleWorkerPool;
 import org.citydb.concurrent.WorkerPool;
 import org.citydb.config.Config;
 import org.citydb.config.geometry.BoundingBox;
 import org.citydb.config.i18n.Language;
 import org.citydb.config.project.database.Database;
+import org.citydb.config.project.database.DatabaseSrs;
 import org.citydb.config.project.database.Workspace;
+import org.citydb.config.project.global.LogLevel;
 import org.citydb.config.project.kmlExporter.AltitudeOffsetMode;
 import org.citydb.config.project.kmlExporter.Balloon;
 import org.citydb.config.project.kmlExporter.BalloonContentMode;
 import org.citydb.config.project.kmlExporter.DisplayForm;
+import org.citydb.config.project.kmlExporter.ElevationModel;
 import org.citydb.config.project.kmlExporter.KmlTilingOptions;
 import org.citydb.config.project.kmlExporter.PointAndCurve;
 import org.citydb.config.project.kmlExporter.PointDisplayMode;
 import org.citydb.database.adapter.AbstractDatabaseAdapter;
+import org.citydb.database.connection.DatabaseConnectionDetails;
 import org.citydb.database.connection.DatabaseConnectionPool;
+import org.citydb.database.connection.StatementStatistics;
 import org.citydb.database.schema.mapping.FeatureType;
 import org.citydb.database.schema.mapping.SchemaMapping;
 import org.citydb.event.Event;
@@ -92,12 +99,18 @@ import org.citydb.modules.kml.database.KmlSplittingResult;
 import org.citydb.modules.kml.database.LandUse;
 import org.citydb.modules.kml.database.Relief;
 import org.citydb.modules.kml.database.SolitaryVegetationObject;
+import org.citydb.modules.kml.database.TileCounter;
+import org.citydb.modules.kml.database.TileFingerprint;
 import org.citydb.modules.kml.database.Transportation;
 import org.citydb.modules.kml.database.Tunnel;
 import org.citydb.modules.kml.database.WaterBody;
 import org.citydb.modules.kml.datatype.TypeAttributeValueEnum;
 import org.citydb.modules.kml.util.CityObject4JSON;
+import org.citydb.modules.kml.util.DemElevationProvider;
+import org.citydb.modules.kml.util.ExportManifest;
 import org.citydb.modules.kml.util.ExportTracker;
+import org.citydb.modules.kml.util.QuadtreeTile;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 import org.citydb.query.builder.QueryBuildException;
 import org.citydb.query.builder.config.ConfigQueryBuilder;
@@ -118,6 +131,7 @@ import org.citygml4j.util.xml.SAXEventBuffer;
 import org.citygml4j.util.xml.SAXFragmentWriter;
 import org.citygml4j.util.xml.SAXFragmentWriter.WriteMode;
 import org.citygml4j.util.xml.SAXWriter;
+import org.opengis.referencing.FactoryException;
 import org.xml.sax.SAXException;
 
 import javax.xml.bind.JAXBContext;
@@ -130,18 +144,24 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -156,9 +176,6 @@ public class KmlExporter implements EventHandler {
 	private final EventDispatcher eventDispatcher;
 
 	private ObjectFactory kmlFactory; 
-	private WorkerPool<KmlSplittingResult> kmlWorkerPool;
-	private SingleWorkerPool<SAXEventBuffer> writerPool;
-	private KmlSplitter kmlSplitter;
 
 	private volatile boolean shouldRun = true;
 	private AtomicBoolean isInterrupted = new AtomicBoolean(false);
@@ -166,9 +183,33 @@ public class KmlExporter implements EventHandler {
 	private final String ENCODING = "UTF-8";
 	private final Charset CHARSET = Charset.forName(ENCODING);
 	private final String TEMP_FOLDER = "__temp";
-	private File lastTempFolder = null;
 
-	private Map<Integer, Long> objectCounter = new HashMap<>();
+	private final Set<TileExport> tileExports = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger remainingTiles = new AtomicInteger();
+	private final AtomicReference<KmlExportException> exportException = new AtomicReference<>();
+	private WorkerPool<Tile> tileExportPool;
+	private int concurrentTiles;
+	private int minThreadsPerTile;
+	private int maxThreadsPerTile;
+
+	private Query query;
+	private Tiling tiling;
+	private KmlTilingOptions tilingOptions;
+	private Predicate predicate;
+	private boolean useTiling;
+	private String path;
+	private String fileName;
+	private String fileExtension;
+	private SAXWriter masterFileWriter;
+	private FileOutputStream jsonFileWriter;
+	private boolean jsonHasContent;
+	private DemElevationProvider elevationProvider;
+	private TextureProcessor textureProcessor;
+	private ExportManifest manifest;
+	private TileFingerprint tileFingerprint;
+	private List<QuadtreeTile> quadtreeTiles;
+	private final AtomicInteger skippedTiles = new AtomicInteger();
+
 	private Map<Integer, Long> totalObjectCounter = new HashMap<>();
 	private long geometryCounter;
 
@@ -205,8 +246,10 @@ public class KmlExporter implements EventHandler {
 			return false;
 
 		// check API key when using the elevation API
+		ElevationModel elevationModel = config.getProject().getKmlExporter().getElevationModel();
 		if (config.getProject().getKmlExporter().getAltitudeOffsetMode() == AltitudeOffsetMode.GENERIC_ATTRIBUTE
 			&& config.getProject().getKmlExporter().isCallGElevationService()
+			&& !elevationModel.isEnabled()
 			&& !config.getProject().getGlobal().getApiKeys().isSetGoogleElevation()) {
 			log.error("The Google Elevation API cannot be used due to a missing API key.");
 			log.error("Please enter an API key or change the export preferences.");
@@ -226,6 +269,19 @@ public class KmlExporter implements EventHandler {
 			throw new KmlExportException("Failed to retrieve status of spatial indexes.", e);
 		}
 
+		// check whether coordinates can be transformed to WGS84 on the client
+		if (config.getProject().getKmlExporter().isTransformCoordinatesOnClient()) {
+			DatabaseSrs dbSrs = databaseAdapter.getConnectionMetaData().getReferenceSystem();
+			DatabaseSrs targetSrs = dbSrs.is3D() ? databaseAdapter.getUtil().getWGS843D() : Database.PREDEFINED_SRS.get(Database.PredefinedSrsName.WGS84_2D);
+			try {
+				databaseAdapter.getUtil().getHorizontalTransform(dbSrs.getSrid(), targetSrs.getSrid());
+				log.info("Coordinates are transformed to WGS84 on the client.");
+			} catch (FactoryException e) {
+				log.warn("No exact client-side transformation from " + dbSrs.getDescription() + " to WGS84 is available: " + e.getMessage());
+				log.warn("Coordinates are transformed to WGS84 by the database instead.");
+			}
+		}
+
 		// check whether the selected theme existed in the database,just for Building Class...
 		String selectedTheme = config.getProject().getKmlExporter().getAppearanceTheme();
 		if (!selectedTheme.equals(org.citydb.config.project.kmlExporter.KmlExporter.THEME_NONE)) {
@@ -257,7 +313,6 @@ public class KmlExporter implements EventHandler {
 		}
 
 		// build query from filter settings
-		Query query = null;
 		try {
 			ConfigQueryBuilder queryBuilder = new ConfigQueryBuilder(schemaMapping, databaseAdapter);
 			query = queryBuilder.buildQuery(config.getProject().getKmlExporter().getQuery(), config.getProject().getNamespaceFilter());
@@ -266,11 +321,9 @@ public class KmlExporter implements EventHandler {
 		}
 
 		// tiling
-		Tiling tiling = query.getTiling();
-		KmlTilingOptions tilingOptions = null;
-		Predicate predicate = null;
-		boolean useTiling = query.isSetTiling();
-		int remainingTiles = 1;
+		tiling = query.getTiling();
+		useTiling = query.isSetTiling();
+		remainingTiles.set(1);
 		int rows = useTiling ? tiling.getRows() : 1;  
 		int columns = useTiling ? tiling.getColumns() : 1;
 
@@ -283,8 +336,8 @@ public class KmlExporter implements EventHandler {
 
 				// calculate and display number of tiles to be exported
 				int displayFormats = config.getProject().getKmlExporter().getActiveDisplayFormsAmount(config.getProject().getKmlExporter().getBuildingDisplayForms());
-				remainingTiles = rows * columns * displayFormats;
-				log.info(remainingTiles + " (" + rows + "x" + columns + "x" + displayFormats + ") tiles will be generated.");	
+				remainingTiles.set(rows * columns * displayFormats);
+				log.info(remainingTiles.get() + " (" + rows + "x" + columns + "x" + displayFormats + ") tiles will be generated.");	
 			} catch (FilterException e) {
 				throw new KmlExportException("Failed to transform tiling extent.", e);
 			}
@@ -305,22 +358,9 @@ public class KmlExporter implements EventHandler {
 		if (!balloonCheck) 
 			return false;	
 
-		// create a saxWriter instance 
-		// define indent for xml output and namespace mappings
-		SAXWriter saxWriter = new SAXWriter();
-		saxWriter.setIndentString("  ");
-		saxWriter.setHeaderComment("Written by " + this.getClass().getPackage().getImplementationTitle() + ", version \"" +
-				this.getClass().getPackage().getImplementationVersion() + '"', 
-				this.getClass().getPackage().getImplementationVendor());
-		saxWriter.setDefaultNamespace("http://www.opengis.net/kml/2.2"); // default namespace
-		saxWriter.setPrefix("gx", "http://www.google.com/kml/ext/2.2");
-		saxWriter.setPrefix("atom", "http://www.w3.org/2005/Atom");
-		saxWriter.setPrefix("xal", "urn:oasis:names:tc:ciq:xsdschema:xAL:2.0");
-
 		// set export filename and path
-		String path = config.getInternal().getExportFile().toAbsolutePath().normalize().toString();
-		String fileExtension = config.getProject().getKmlExporter().isExportAsKmz() ? ".kmz" : ".kml";
-		String fileName = null;
+		path = config.getInternal().getExportFile().toAbsolutePath().normalize().toString();
+		fileExtension = config.getProject().getKmlExporter().isExportAsKmz() ? ".kmz" : ".kml";
 
 		if (path.lastIndexOf(File.separator) == -1) {
 			fileName = path.lastIndexOf(".") == -1 ? path : path.substring(0, path.lastIndexOf("."));			
@@ -330,8 +370,18 @@ public class KmlExporter implements EventHandler {
 			path = path.substring(0, path.lastIndexOf(File.separator));
 		}
 
+		// load fingerprints of previously exported tiles for an incremental export
+		if (useTiling && tilingOptions.isIncrementalExport()) {
+			try {
+				manifest = new ExportManifest(Paths.get(path, fileName + ".manifest"), getSettingsFingerprint());
+				tileFingerprint = new TileFingerprint(schemaMapping, databaseAdapter, config);
+				log.info("Only tiles with changed content will be exported.");
+			} catch (IOException | JAXBException e) {
+				throw new KmlExportException("Failed to load the manifest of the previous export.", e);
+			}
+		}
+
 		// start writing KML master file if required
-		SAXWriter masterFileWriter = null;
 		if (useTiling) {
 			try {
 				masterFileWriter = writeMasterFileHeader(fileName, path, query);
@@ -341,8 +391,6 @@ public class KmlExporter implements EventHandler {
 		}
 
 		// start writing cityobject JSON file if required
-		FileOutputStream jsonFileWriter = null;
-		boolean jsonHasContent = false;
 		if (config.getProject().getKmlExporter().isWriteJSONFile() && useTiling) {
 			try {
 				File jsonFile = new File(path + File.separator + fileName + ".json");
@@ -359,305 +407,140 @@ public class KmlExporter implements EventHandler {
 		if (!ADEExtensionManager.getInstance().getEnabledExtensions().isEmpty())
 			log.warn("NOTE: This operation does not work on ADE features.");
 
-		long start = System.currentTimeMillis();
-
-		// iterate over tiles
-		for (int i = 0; shouldRun && i < rows; i++) {
-			for (int j = 0; shouldRun && j < columns; j++) {
-
-				// track exported objects
-				ExportTracker tracker = new ExportTracker();
-
-				// set active tile and get tile extent in WGS84
-				Tile tile = null;
-				if (useTiling) {
-					try {
-						tile = tiling.getTileAt(i, j);
-						tiling.setActiveTile(tile);
-
-						Predicate bboxFilter = tile.getFilterPredicate(databaseAdapter);
-						if (predicate != null)
-							query.setSelection(new SelectionFilter(LogicalOperationFactory.AND(predicate, bboxFilter)));
-						else
-							query.setSelection(new SelectionFilter(bboxFilter));
-					} catch (FilterException e) {
-						if (jsonFileWriter != null) try { jsonFileWriter.close(); } catch (IOException ioe) { }
-						throw new KmlExportException("Failed to get tile at [" + i + "," + j + "].", e);
-					}
-				}
-
-				// iterate over display forms
-				for (DisplayForm displayForm : config.getProject().getKmlExporter().getBuildingDisplayForms()) {
-					if (!displayForm.isActive()) 
-						continue;
-
-					if (lastTempFolder != null && lastTempFolder.exists()) 
-						deleteFolder(lastTempFolder); // just in case
-
-					File file = null;
-					ZipOutputStream zipOut = null;
-					String currentWorkingDirectoryPath = null;
-					try {
-						if (useTiling) {
-							File tilesRootDirectory = new File(path, "Tiles");
-							tilesRootDirectory.mkdir();
-							File rowTilesDirectory = new File(tilesRootDirectory.getPath(),  String.valueOf(i));
-							rowTilesDirectory.mkdir();
-							File columnTilesDirectory = new File(rowTilesDirectory.getPath(),  String.valueOf(j));
-							columnTilesDirectory.mkdir();
-							file = new File(columnTilesDirectory.getPath() + File.separator + fileName + "_Tile_" + i + "_" + j + "_" + displayForm.getName() + fileExtension);
-							currentWorkingDirectoryPath = columnTilesDirectory.getPath();
-						} else {
-							file = new File(path + File.separator + fileName + "_" + displayForm.getName() + fileExtension);
-							currentWorkingDirectoryPath = path;
-						}
-						tracker.setCurrentWorkingDirectoryPath(currentWorkingDirectoryPath);
-
-						eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("kmlExport.dialog.writingToFile"), this));
-						eventDispatcher.triggerEvent(new StatusDialogTitle(file.getName(), this));
-						eventDispatcher.triggerEvent(new CounterEvent(CounterType.REMAINING_TILES, --remainingTiles, this));
-
-						// open file for writing
-						try {
-							OutputStreamWriter fileWriter = null;
-							if (config.getProject().getKmlExporter().isExportAsKmz()) {
-								zipOut = new ZipOutputStream(new FileOutputStream(file));
-								ZipEntry zipEntry = new ZipEntry("doc.kml");
-								zipOut.putNextEntry(zipEntry);
-								fileWriter = new OutputStreamWriter(zipOut, CHARSET);
-							} else
-								fileWriter = new OutputStreamWriter(new FileOutputStream(file), CHARSET);
-
-							// set output for SAXWriter
-							saxWriter.setOutput(fileWriter);	
-						} catch (IOException e) {
-							throw new KmlExportException("Failed to open file '" + file.getName() + "' for writing.", e);
-						}
-
-						// create worker pools
-						// here we have an open issue: queue sizes are fix...
-						writerPool = new SingleWorkerPool<SAXEventBuffer>(
-								"kml_writer_pool",
-								new XMLWriterWorkerFactory(saxWriter, eventDispatcher),
-								100,
-								true);
-
-						kmlWorkerPool = new WorkerPool<KmlSplittingResult>(
-								"db_exporter_pool",
-								config.getProject().getKmlExporter().getResources().getThreadPool().getDefaultPool().getMinThreads(),
-								config.getProject().getKmlExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads(),
-								PoolSizeAdaptationStrategy.AGGRESSIVE,
-								new KmlExportWorkerFactory(
-										jaxbKmlContext,
-										jaxbColladaContext,
-										writerPool,
-										tracker,
-										query,
-										kmlFactory,
-										config,
-										eventDispatcher),
-								300,
-								false);
-
-						// prestart pool workers
-						writerPool.prestartCoreWorkers();
-						kmlWorkerPool.prestartCoreWorkers();
-
-						// fail if we could not start a single import worker
-						if (kmlWorkerPool.getPoolSize() == 0)
-							throw new KmlExportException("Failed to start database export worker pool. Check the database connection pool settings.");
-
-						// create file header writer
-						SAXFragmentWriter fragmentWriter = new SAXFragmentWriter(kmlFactory.createDocument(null).getName(), saxWriter);
-
-						// ok, preparations done. inform user...
-						log.info("Exporting to file: " + file.getAbsolutePath());
-
-						// create kml root element
-						KmlType kmlType = kmlFactory.createKmlType();
-						JAXBElement<KmlType> kml = kmlFactory.createKml(kmlType);
-
-						DocumentType document = kmlFactory.createDocumentType();
-						if (useTiling)
-							document.setName(fileName + "_Tile_" + i + "_" + j + "_" + displayForm.getName());
-						else 
-							document.setName(fileName + "_" + displayForm.getName());
-
-						document.setOpen(false);
-						kmlType.setAbstractFeatureGroup(kmlFactory.createDocument(document));
-
-						// write file header
-						Marshaller marshaller = null;
-						try {
-							marshaller = jaxbKmlContext.createMarshaller();
-							fragmentWriter.setWriteMode(WriteMode.HEAD);
-							marshaller.marshal(kml, fragmentWriter);
-
-							if (useTiling && config.getProject().getKmlExporter().isShowTileBorders())
-								addBorder(tile.getExtent(), null, saxWriter);
-
-						} catch (JAXBException e) {
-							throw new KmlExportException("Failed to write output file.", e);
-						}
-
-						// get database splitter and start query
-						try {
-							kmlSplitter = new KmlSplitter(
-									schemaMapping,
-									kmlWorkerPool,
-									query,
-									displayForm,
-									config);
-
-							if (shouldRun)
-								kmlSplitter.startQuery();
-						} catch (SQLException | QueryBuildException | FilterException e) {
-							throw new KmlExportException("Failed to query the database.", e);
-						}
-
-						// shutdown worker pools
-						try {
-							kmlWorkerPool.shutdownAndWait();
-							writerPool.shutdownAndWait();
-						} catch (InterruptedException e) {
-							throw new KmlExportException("Failed to shutdown worker pools.", e);
-						}
+		// collect the tiles to be exported. with quadtree tiling, the tiles of the
+		// grid are recursively split into four tiles based on the feature density
+		List<Tile> tiles = new ArrayList<>();
+		if (useTiling && tilingOptions.isQuadtreeTiling()) {
+			boolean hasDetailedDisplayForm = false;
+			for (DisplayForm displayForm : config.getProject().getKmlExporter().getBuildingDisplayForms())
+				hasDetailedDisplayForm |= displayForm.isActive() && isDetailedDisplayForm(displayForm);
+
+			if (hasDetailedDisplayForm) {
+				log.info("Building quadtree with up to " + tilingOptions.getQuadtreeMaxObjects() + " objects per tile...");
+				quadtreeTiles = buildQuadtree(rows, columns);
+
+				int displayFormats = 0;
+				for (QuadtreeTile quadtreeTile : quadtreeTiles)
+					addQuadtreeTiles(quadtreeTile, tiles);
+
+				for (Tile tile : tiles)
+					displayFormats += getDisplayForms(tile).size();
+
+				remainingTiles.set(displayFormats);
+				log.info(remainingTiles.get() + " quadtree tiles will be generated.");
+			} else
+				log.warn("Quadtree tiling requires the geometry or COLLADA display form. Using regular tiling instead.");
+		}
 
-						try {
-							// add styles
-							if (!objectCounter.isEmpty() &&
-									(!config.getProject().getKmlExporter().isOneFilePerObject() || !useTiling)) {
-								for (int objectClassId : objectCounter.keySet()) {
-									if (objectCounter.get(objectClassId) > 0)
-										addStyle(displayForm, objectClassId, saxWriter);
-								}
-							}
-						} catch (JAXBException e) {
-							throw new KmlExportException("Failed to write styles.", e);
-						}
+		if (quadtreeTiles == null) {
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < columns; j++)
+					tiles.add(useTiling ? getTileAt(i, j) : null);
+			}
+		}
 
-						// write footer element
-						try {
-							fragmentWriter.setWriteMode(WriteMode.TAIL);
-							marshaller.marshal(kml, fragmentWriter);
-						} catch (JAXBException e) {
-							throw new KmlExportException("Failed to write output file.", e);
-						}
-						
-						try {
-							if (!objectCounter.isEmpty()) {
-								saxWriter.flush();
-								if (config.getProject().getKmlExporter().isExportAsKmz()) {
-									zipOut.closeEntry();
+		// export several tiles concurrently if requested. the threads of the default
+		// pool are split between the tiles so that concurrent tiles share the same
+		// budget of database connections
+		int maxThreads = config.getProject().getKmlExporter().getResources().getThreadPool().getDefaultPool().getMaxThreads();
+		int minThreads = config.getProject().getKmlExporter().getResources().getThreadPool().getDefaultPool().getMinThreads();
+		concurrentTiles = useTiling ? Math.max(1, Math.min(tilingOptions.getConcurrentTiles(), tiles.size())) : 1;
+		maxThreadsPerTile = Math.max(1, maxThreads / concurrentTiles);
+
+		// export workers are bound by database round trips. so do not start more workers
+		// than the connection pool can serve besides the connection of the splitter
+		int maxDbThreadsPerTile = Math.max(1, DatabaseConnectionPool.getInstance().getAvailableConnections() / concurrentTiles - 1);
+		if (maxDbThreadsPerTile < maxThreadsPerTile) {
+			log.debug("Limiting database workers to " + maxDbThreadsPerTile + " threads per tile due to the size of the connection pool.");
+			maxThreadsPerTile = maxDbThreadsPerTile;
+		}
 
-									List<File> filesToZip = new ArrayList<File>();
-									File tempFolder = new File(currentWorkingDirectoryPath, TEMP_FOLDER);
-									lastTempFolder = tempFolder;
-									int indexOfZipFilePath = tempFolder.getCanonicalPath().length() + 1;
-
-									if (tempFolder.exists()) { // !config.getProject().getKmlExporter().isOneFilePerObject()
-										log.info("Zipping to kmz archive from temporary folder...");
-										getAllFiles(tempFolder, filesToZip);
-										for (File fileToZip : filesToZip) {
-											if (!fileToZip.isDirectory()) {
-												FileInputStream inputStream = new FileInputStream(fileToZip);
-												String zipEntryName = fileToZip.getCanonicalPath().substring(indexOfZipFilePath);
-												zipEntryName = zipEntryName.replace(File.separator, "/"); // MUST
-												ZipEntry zipEntry = new ZipEntry(zipEntryName);
-												zipOut.putNextEntry(zipEntry);
-
-												byte[] bytes = new byte[64*1024]; // 64K should be enough for most
-												int length;
-												while ((length = inputStream.read(bytes)) >= 0) {
-													zipOut.write(bytes, 0, length);
-												}
-												inputStream.close();
-												zipOut.closeEntry();
-											}
-										}
-										log.info("Removing temporary folder...");
-										deleteFolder(tempFolder);
-									}
-									zipOut.close();
-								}
-							}
-						} catch (Exception e) {
-							throw new KmlExportException("Failed to write output file.", e);
-						}
-						
-						// flush sax writer and close file
-						try {
-							saxWriter.flush();
-							saxWriter.getOutputWriter().close();
-						} catch (Exception e) {
-							throw new KmlExportException("Failed to close output file.", e);
-						}
+		minThreadsPerTile = Math.min(minThreads, maxThreadsPerTile);
 
-						// delete empty tile file if requested
-						if (useTiling && objectCounter.isEmpty() && !config.getProject().getKmlExporter().isExportEmptyTiles()) {
-							log.debug("Tile_" + i + "_" + j + " is empty. Deleting file " + file.getName() + ".");
-							file.delete();
-						}
+		// load local elevation model
+		if (config.getProject().getKmlExporter().getAltitudeOffsetMode() == AltitudeOffsetMode.GENERIC_ATTRIBUTE
+				&& config.getProject().getKmlExporter().isCallGElevationService()
+				&& elevationModel.isEnabled()) {
+			if (!elevationModel.isSetFiles()) {
+				log.error("No files have been provided for the local elevation model.");
+				return false;
+			}
 
-						eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("export.dialog.finish.msg"), this));
-					} finally {
-						// clean up
-						if (writerPool != null && !writerPool.isTerminated())
-							writerPool.shutdownNow();
+			try {
+				elevationProvider = new DemElevationProvider(elevationModel);
+			} catch (IOException | FactoryException e) {
+				throw new KmlExportException("Failed to load the local elevation model.", e);
+			}
+		}
 
-						if (kmlWorkerPool != null && !kmlWorkerPool.isTerminated())
-							kmlWorkerPool.shutdownNow();
+		// shared texture image cache and pool for texture processing
+		textureProcessor = new TextureProcessor();
 
-						try {
-							eventDispatcher.flushEvents();
-						} catch (InterruptedException e) {
-							//
-						}
-					}
-				}
+		StatementStatistics.getInstance().reset();
+		long start = System.currentTimeMillis();
 
-				// create reference to tile file in master file
-				if (masterFileWriter != null && !objectCounter.isEmpty()) {
-					try {
-						writeMasterFileTileReference(fileName, tile, tilingOptions, masterFileWriter);
-					} catch (JAXBException e) {
-						if (jsonFileWriter != null) try { jsonFileWriter.close(); } catch (IOException ioe) { }
-						throw new KmlExportException("Failed to write tile reference to master file.", e);
-					}
+		try {
+			if (concurrentTiles > 1) {
+				log.info("Exporting up to " + concurrentTiles + " tiles concurrently.");
+
+				tileExportPool = new WorkerPool<>(
+						"tile_exporter_pool",
+						concurrentTiles,
+						concurrentTiles,
+						PoolSizeAdaptationStrategy.NONE,
+						() -> new TileExportWorker(),
+						concurrentTiles,
+						false);
+
+				try {
+					tileExportPool.prestartCoreWorkers();
+					for (int i = 0; shouldRun && i < tiles.size(); i++)
+						tileExportPool.addWork(tiles.get(i));
+
+					tileExportPool.shutdownAndWait();
+				} catch (InterruptedException e) {
+					throw new KmlExportException("Failed to shutdown worker pools.", e);
+				} finally {
+					if (!tileExportPool.isTerminated())
+						tileExportPool.shutdownNow();
+
+					// concurrent tiles do not wait for each other's events
+					flushEvents();
 				}
 
-				// fill cityobject JSON file after tile has been processed
-				if (jsonFileWriter != null && !objectCounter.isEmpty()) {
+				KmlExportException e = exportException.get();
+				if (e != null)
+					throw e;
+			} else {
+				for (int i = 0; shouldRun && i < tiles.size(); i++) {
 					try {
-						Iterator<CityObject4JSON> iter = tracker.values().iterator();
-						if (iter.hasNext()) {
-							if (jsonHasContent)
-								jsonFileWriter.write(",\n".getBytes(CHARSET));
-							else
-								jsonHasContent = true;
-						}
-
-						while (iter.hasNext()) {
-							jsonFileWriter.write(iter.next().toString().getBytes(CHARSET));
-							if (iter.hasNext())
-								jsonFileWriter.write(",\n".getBytes(CHARSET));
-						}
-					} catch (IOException e) {
-						if (jsonFileWriter != null) try { jsonFileWriter.close(); } catch (IOException ioe) { }
-						throw new KmlExportException("Failed to write JSON file.", e);
+						exportTile(tiles.get(i));
+					} finally {
+						flushEvents();
 					}
 				}
-
-				objectCounter.clear();
 			}
+		} catch (KmlExportException e) {
+			if (jsonFileWriter != null) try { jsonFileWriter.close(); } catch (IOException ioe) { }
+			throw e;
+		} finally {
+			if (elevationProvider != null)
+				elevationProvider.close();
+
+			textureProcessor.shutdown();
 		}
 
 		// complete KML master file
 		if (masterFileWriter != null) {
 			try {
+				if (quadtreeTiles != null && shouldRun) {
+					for (QuadtreeTile quadtreeTile : quadtreeTiles)
+						writeQuadtreeReferences(quadtreeTile);
+				}
+
 				writeMasterFileFooter(masterFileWriter);
 				masterFileWriter.close();
-			} catch (JAXBException | SAXException e) {
+			} catch (JAXBException | SAXException | IOException e) {
 				throw new KmlExportException("Failed to write KML master file footer.", e);
 			}
 		}
@@ -685,6 +568,16 @@ public class KmlExporter implements EventHandler {
 			}
 		}		
 
+		// write manifest for the next incremental export
+		if (manifest != null && shouldRun) {
+			try {
+				manifest.write();
+				log.info(skippedTiles.get() + " unchanged tile(s) have been skipped.");
+			} catch (IOException e) {
+				throw new KmlExportException("Failed to write the manifest of the export.", e);
+			}
+		}
+
 		// show exported features
 		if (!totalObjectCounter.isEmpty()) {
 			log.info("Exported city objects:");
@@ -694,16 +587,523 @@ public class KmlExporter implements EventHandler {
 
 		log.info("Processed geometry objects: " + geometryCounter);
 
-		if (lastTempFolder != null && lastTempFolder.exists()) 
-			deleteFolder(lastTempFolder); // just in case
-
 		if (shouldRun)
 			log.info("Total export time: " + Util.formatElapsedTime(System.currentTimeMillis() - start) + ".");
 
+		// report the statements causing most database time
+		StatementStatistics statementStatistics = StatementStatistics.getInstance();
+		if (statementStatistics.isEnabled())
+			statementStatistics.logReport(config.getProject().getGlobal().getMetrics().getStatementReportSize());
+
 		return shouldRun;
 	}
 
-	private SAXWriter writeMasterFileHeader(String fileName, String path, Query query) throws JAXBException, IOException, SAXException {
+	private void flushEvents() {
+		try {
+			eventDispatcher.flushEvents();
+		} catch (InterruptedException e) {
+			//
+		}
+	}
+
+	private Tile getTileAt(int row, int column) throws KmlExportException {
+		try {
+			return tiling.getTileAt(row, column);
+		} catch (FilterException e) {
+			throw new KmlExportException("Failed to get tile at [" + row + "," + column + "].", e);
+		}
+	}
+
+	private void exportTile(Tile tile) throws KmlExportException {
+		TileExport tileExport = new TileExport();
+		tileExports.add(tileExport);
+
+		// track exported objects
+		ExportTracker tracker = new ExportTracker();
+		Query query = this.query;
+		File tempFolder = null;
+
+		try {
+			if (tile != null)
+				query = createTileQuery(tile);
+
+			// skip the tile if its content has not changed since the previous export
+			String fingerprint = null;
+			if (manifest != null) {
+				try {
+					fingerprint = tileFingerprint.calculate(query);
+				} catch (SQLException | QueryBuildException | FilterException e) {
+					throw new KmlExportException("Failed to calculate the fingerprint of " + getTileName(tile) + ".", e);
+				}
+
+				if (isUnchangedTile(tile, fingerprint)) {
+					log.debug(getTileName(tile) + " has not changed. Skipping export.");
+					int displayForms = getDisplayForms(tile).size();
+					eventDispatcher.triggerEvent(new CounterEvent(CounterType.REMAINING_TILES, remainingTiles.addAndGet(-displayForms), this));
+					skippedTiles.incrementAndGet();
+
+					manifest.keep(tile);
+					writeTileReferences(tile, manifest.hasContent(tile), manifest.getJsonContent(tile));
+					return;
+				}
+			}
+
+			// iterate over display forms. the display forms of a tile share
+			// the same folder and are therefore exported one after the other
+			for (DisplayForm displayForm : getDisplayForms(tile)) {
+				if (tempFolder != null && tempFolder.exists()) 
+					deleteFolder(tempFolder); // just in case
+
+				tempFolder = exportDisplayForm(tile, query, displayForm, tracker, tileExport);
+			}
+
+			String jsonContent = getJsonContent(tracker);
+			writeTileReferences(tile, !tracker.getObjectCounter().isEmpty(), jsonContent);
+
+			if (manifest != null && shouldRun)
+				manifest.update(tile, fingerprint, !tracker.getObjectCounter().isEmpty(), jsonContent);
+		} finally {
+			tileExports.remove(tileExport);
+			if (tempFolder != null && tempFolder.exists()) 
+				deleteFolder(tempFolder); // just in case
+		}
+	}
+
+	private Query createTileQuery(Tile tile) throws KmlExportException {
+		// use a copy of the query and tiling per tile so that
+		// tiles can be exported concurrently
+		try {
+			Tiling tiling = new Tiling(this.tiling);
+			tiling.setActiveTile(tile);
+
+			Query query = new Query(this.query);
+			query.setTiling(tiling);
+
+			Predicate bboxFilter = tile.getFilterPredicate(databaseAdapter);
+			if (predicate != null)
+				query.setSelection(new SelectionFilter(LogicalOperationFactory.AND(predicate, bboxFilter)));
+			else
+				query.setSelection(new SelectionFilter(bboxFilter));
+
+			return query;
+		} catch (FilterException e) {
+			throw new KmlExportException("Failed to get tile at [" + tile.getX() + "," + tile.getY() + "].", e);
+		}
+	}
+
+	private List<QuadtreeTile> buildQuadtree(int rows, int columns) throws KmlExportException {
+		TileCounter tileCounter = new TileCounter(schemaMapping, databaseAdapter, config);
+		List<QuadtreeTile> quadtreeTiles = new ArrayList<>();
+
+		for (int i = 0; shouldRun && i < rows; i++) {
+			for (int j = 0; shouldRun && j < columns; j++) {
+				QuadtreeTile quadtreeTile = new QuadtreeTile(getTileAt(i, j).getExtent(), i, j, 0);
+				splitQuadtreeTile(quadtreeTile, tileCounter);
+				quadtreeTiles.add(quadtreeTile);
+			}
+		}
+
+		return quadtreeTiles;
+	}
+
+	private void splitQuadtreeTile(QuadtreeTile quadtreeTile, TileCounter tileCounter) throws KmlExportException {
+		if (!shouldRun || quadtreeTile.getLevel() >= tilingOptions.getQuadtreeMaxLevel())
+			return;
+
+		long objectCount;
+		try {
+			objectCount = tileCounter.count(createTileQuery(quadtreeTile));
+		} catch (SQLException | QueryBuildException e) {
+			throw new KmlExportException("Failed to count the objects of " + quadtreeTile.getName() + ".", e);
+		}
+
+		if (objectCount > tilingOptions.getQuadtreeMaxObjects()) {
+			log.debug(quadtreeTile.getName() + " contains " + objectCount + " candidate objects and is split.");
+			for (QuadtreeTile child : quadtreeTile.split())
+				splitQuadtreeTile(child, tileCounter);
+		}
+	}
+
+	private void addQuadtreeTiles(QuadtreeTile quadtreeTile, List<Tile> tiles) {
+		if (!getDisplayForms(quadtreeTile).isEmpty())
+			tiles.add(quadtreeTile);
+
+		for (QuadtreeTile child : quadtreeTile.getChildren())
+			addQuadtreeTiles(child, tiles);
+	}
+
+	private List<DisplayForm> getDisplayForms(Tile tile) {
+		List<DisplayForm> displayForms = new ArrayList<>();
+		for (DisplayForm displayForm : config.getProject().getKmlExporter().getBuildingDisplayForms()) {
+			if (!displayForm.isActive())
+				continue;
+
+			// quadtree tiles export footprint and extruded display forms at the
+			// root level and geometry and COLLADA display forms at the leaves
+			if (tile instanceof QuadtreeTile) {
+				QuadtreeTile quadtreeTile = (QuadtreeTile) tile;
+				if (isDetailedDisplayForm(displayForm) ? !quadtreeTile.isLeaf() : !quadtreeTile.isRoot())
+					continue;
+			}
+
+			displayForms.add(displayForm);
+		}
+
+		return displayForms;
+	}
+
+	private boolean isDetailedDisplayForm(DisplayForm displayForm) {
+		return displayForm.getForm() == DisplayForm.GEOMETRY || displayForm.getForm() == DisplayForm.COLLADA;
+	}
+
+	private String getTileName(Tile tile) {
+		return tile instanceof QuadtreeTile ?
+				((QuadtreeTile) tile).getName() :
+				"Tile_" + tile.getX() + "_" + tile.getY();
+	}
+
+	private String getTilePath(Tile tile) {
+		return tile instanceof QuadtreeTile ?
+				((QuadtreeTile) tile).getPath() :
+				tile.getX() + "/" + tile.getY();
+	}
+
+	private File exportDisplayForm(Tile tile, Query query, DisplayForm displayForm, ExportTracker tracker, TileExport tileExport) throws KmlExportException {
+		File file = null;
+		File tempFolder = null;
+		ZipOutputStream zipOut = null;
+		String currentWorkingDirectoryPath = null;
+		SingleWorkerPool<SAXEventBuffer> writerPool = null;
+		WorkerPool<KmlSplittingResult> kmlWorkerPool = null;
+		PoolSizeController poolSizeController = null;
+		SAXWriter saxWriter = createSAXWriter();
+
+		try {
+			file = getTileFile(tile, displayForm);
+			currentWorkingDirectoryPath = file.getParent();
+			if (useTiling)
+				file.getParentFile().mkdirs();
+			tracker.setCurrentWorkingDirectoryPath(currentWorkingDirectoryPath);
+
+			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("kmlExport.dialog.writingToFile"), this));
+			eventDispatcher.triggerEvent(new StatusDialogTitle(file.getName(), this));
+			eventDispatcher.triggerEvent(new CounterEvent(CounterType.REMAINING_TILES, remainingTiles.decrementAndGet(), this));
+
+			// open file for writing
+			try {
+				OutputStreamWriter fileWriter = null;
+				if (config.getProject().getKmlExporter().isExportAsKmz()) {
+					zipOut = new ZipOutputStream(new FileOutputStream(file));
+					ZipEntry zipEntry = new ZipEntry("doc.kml");
+					zipOut.putNextEntry(zipEntry);
+					fileWriter = new OutputStreamWriter(zipOut, CHARSET);
+				} else
+					fileWriter = new OutputStreamWriter(new FileOutputStream(file), CHARSET);
+
+				// set output for SAXWriter
+				saxWriter.setOutput(fileWriter);	
+			} catch (IOException e) {
+				throw new KmlExportException("Failed to open file '" + file.getName() + "' for writing.", e);
+			}
+
+			// create worker pools
+			// here we have an open issue: queue sizes are fix...
+			writerPool = new SingleWorkerPool<SAXEventBuffer>(
+					"kml_writer_pool",
+					new XMLWriterWorkerFactory(saxWriter, eventDispatcher),
+					100,
+					true);
+
+			kmlWorkerPool = new WorkerPool<KmlSplittingResult>(
+					"db_exporter_pool",
+					minThreadsPerTile,
+					maxThreadsPerTile,
+					PoolSizeAdaptationStrategy.AGGRESSIVE,
+					new KmlExportWorkerFactory(
+							jaxbKmlContext,
+							jaxbColladaContext,
+							writerPool,
+							tracker,
+							query,
+							kmlFactory,
+							config,
+							eventDispatcher,
+							elevationProvider,
+							textureProcessor),
+					300,
+					false);
+
+			tileExport.kmlWorkerPool = kmlWorkerPool;
+
+			// prestart pool workers
+			writerPool.prestartCoreWorkers();
+			kmlWorkerPool.prestartCoreWorkers();
+
+			// fail if we could not start a single import worker
+			if (kmlWorkerPool.getPoolSize() == 0)
+				throw new KmlExportException("Failed to start database export worker pool. Check the database connection pool settings.");
+
+			// adapt pool sizes to the load at runtime if requested
+			if (config.getProject().getKmlExporter().getResources().getThreadPool().getDefaultPool().isAdaptivePoolSize()) {
+				poolSizeController = new PoolSizeController();
+				poolSizeController.register(kmlWorkerPool, kmlWorkerPool.getCorePoolSize(), maxThreadsPerTile,
+						() -> DatabaseConnectionPool.getInstance().getAvailableConnections());
+				poolSizeController.start();
+			}
+
+			// create file header writer
+			SAXFragmentWriter fragmentWriter = new SAXFragmentWriter(kmlFactory.createDocument(null).getName(), saxWriter);
+
+			// ok, preparations done. inform user...
+			log.info("Exporting to file: " + file.getAbsolutePath());
+
+			// create kml root element
+			KmlType kmlType = kmlFactory.createKmlType();
+			JAXBElement<KmlType> kml = kmlFactory.createKml(kmlType);
+
+			DocumentType document = kmlFactory.createDocumentType();
+			if (useTiling)
+				document.setName(fileName + "_" + getTileName(tile) + "_" + displayForm.getName());
+			else 
+				document.setName(fileName + "_" + displayForm.getName());
+
+			document.setOpen(false);
+			kmlType.setAbstractFeatureGroup(kmlFactory.createDocument(document));
+
+			// write file header
+			Marshaller marshaller = null;
+			try {
+				marshaller = jaxbKmlContext.createMarshaller();
+				fragmentWriter.setWriteMode(WriteMode.HEAD);
+				marshaller.marshal(kml, fragmentWriter);
+
+				if (useTiling && config.getProject().getKmlExporter().isShowTileBorders())
+					addBorder(tile.getExtent(), null, saxWriter);
+
+			} catch (JAXBException e) {
+				throw new KmlExportException("Failed to write output file.", e);
+			}
+
+			// get database splitter and start query
+			try {
+				KmlSplitter kmlSplitter = new KmlSplitter(
+						schemaMapping,
+						kmlWorkerPool,
+						query,
+						displayForm,
+						config);
+
+				tileExport.kmlSplitter = kmlSplitter;
+				if (shouldRun)
+					kmlSplitter.startQuery();
+			} catch (SQLException | QueryBuildException | FilterException e) {
+				throw new KmlExportException("Failed to query the database.", e);
+			}
+
+			// shutdown worker pools
+			try {
+				kmlWorkerPool.shutdownAndWait();
+				writerPool.shutdownAndWait();
+			} catch (InterruptedException e) {
+				throw new KmlExportException("Failed to shutdown worker pools.", e);
+			}
+
+			// the workers have added their object counts to the tracker
+			// of the tile when the worker pool has terminated
+			Map<Integer, Long> objectCounter = tracker.getObjectCounter();
+
+			try {
+				// add styles
+				if (!objectCounter.isEmpty() &&
+						(!config.getProject().getKmlExporter().isOneFilePerObject() || !useTiling)) {
+					for (int objectClassId : objectCounter.keySet()) {
+						if (objectCounter.get(objectClassId) > 0)
+							addStyle(displayForm, objectClassId, saxWriter);
+					}
+				}
+			} catch (JAXBException e) {
+				throw new KmlExportException("Failed to write styles.", e);
+			}
+
+			// write footer element
+			try {
+				fragmentWriter.setWriteMode(WriteMode.TAIL);
+				marshaller.marshal(kml, fragmentWriter);
+			} catch (JAXBException e) {
+				throw new KmlExportException("Failed to write output file.", e);
+			}
+
+			try {
+				if (!objectCounter.isEmpty()) {
+					saxWriter.flush();
+					if (config.getProject().getKmlExporter().isExportAsKmz()) {
+						zipOut.closeEntry();
+
+						List<File> filesToZip = new ArrayList<File>();
+						tempFolder = new File(currentWorkingDirectoryPath, TEMP_FOLDER);
+						int indexOfZipFilePath = tempFolder.getCanonicalPath().length() + 1;
+
+						if (tempFolder.exists()) { // !config.getProject().getKmlExporter().isOneFilePerObject()
+							log.info("Zipping to kmz archive from temporary folder...");
+							getAllFiles(tempFolder, filesToZip);
+							for (File fileToZip : filesToZip) {
+								if (!fileToZip.isDirectory()) {
+									FileInputStream inputStream = new FileInputStream(fileToZip);
+									String zipEntryName = fileToZip.getCanonicalPath().substring(indexOfZipFilePath);
+									zipEntryName = zipEntryName.replace(File.separator, "/"); // MUST
+									ZipEntry zipEntry = new ZipEntry(zipEntryName);
+									zipOut.putNextEntry(zipEntry);
+
+									byte[] bytes = new byte[64*1024]; // 64K should be enough for most
+									int length;
+									while ((length = inputStream.read(bytes)) >= 0) {
+										zipOut.write(bytes, 0, length);
+									}
+									inputStream.close();
+									zipOut.closeEntry();
+								}
+							}
+							log.info("Removing temporary folder...");
+							deleteFolder(tempFolder);
+						}
+						zipOut.close();
+					}
+				}
+			} catch (Exception e) {
+				throw new KmlExportException("Failed to write output file.", e);
+			}
+
+			// flush sax writer and close file
+			try {
+				saxWriter.flush();
+				saxWriter.getOutputWriter().close();
+			} catch (Exception e) {
+				throw new KmlExportException("Failed to close output file.", e);
+			}
+
+			// delete empty tile file if requested
+			if (useTiling && objectCounter.isEmpty() && !config.getProject().getKmlExporter().isExportEmptyTiles()) {
+				log.debug(getTileName(tile) + " is empty. Deleting file " + file.getName() + ".");
+				file.delete();
+			}
+
+			eventDispatcher.triggerEvent(new StatusDialogMessage(Language.I18N.getString("export.dialog.finish.msg"), this));
+		} finally {
+			// clean up
+			if (poolSizeController != null)
+				poolSizeController.shutdown();
+
+			if (writerPool != null && !writerPool.isTerminated())
+				writerPool.shutdownNow();
+
+			if (kmlWorkerPool != null && !kmlWorkerPool.isTerminated())
+				kmlWorkerPool.shutdownNow();
+
+			tileExport.kmlSplitter = null;
+			tileExport.kmlWorkerPool = null;
+		}
+
+		return tempFolder;
+	}
+
+	private File getTileFile(Tile tile, DisplayForm displayForm) {
+		if (useTiling) {
+			File columnTilesDirectory = getTileDirectory(tile);
+			return new File(columnTilesDirectory.getPath() + File.separator + fileName + "_" + getTileName(tile) + "_" + displayForm.getName() + fileExtension);
+		} else
+			return new File(path + File.separator + fileName + "_" + displayForm.getName() + fileExtension);
+	}
+
+	private File getTileDirectory(Tile tile) {
+		return Paths.get(path, ("Tiles/" + getTilePath(tile)).split("/")).toFile();
+	}
+
+	private boolean isUnchangedTile(Tile tile, String fingerprint) {
+		if (!manifest.isUnchanged(tile, fingerprint))
+			return false;
+
+		// the files of the previous export must still be available
+		if (manifest.hasContent(tile) || config.getProject().getKmlExporter().isExportEmptyTiles()) {
+			for (DisplayForm displayForm : getDisplayForms(tile)) {
+				if (!getTileFile(tile, displayForm).exists())
+					return false;
+			}
+		}
+
+		return true;
+	}
+
+	private String getSettingsFingerprint() throws JAXBException {
+		// any change of the export settings invalidates the tiles of previous exports
+		StringWriter writer = new StringWriter();
+		JAXBContext context = JAXBContext.newInstance(org.citydb.config.project.kmlExporter.KmlExporter.class);
+		context.createMarshaller().marshal(new JAXBElement<>(new QName("kmlExport"),
+				org.citydb.config.project.kmlExporter.KmlExporter.class,
+				config.getProject().getKmlExporter()), writer);
+
+		// tiles exported from another database, schema or workspace cannot be reused either
+		DatabaseConnectionDetails connection = databaseAdapter.getConnectionDetails();
+		Workspace workspace = config.getProject().getDatabase().getWorkspaces().getKmlExportWorkspace();
+
+		return path + File.separator + fileName + fileExtension + "\n" +
+				connection.getDatabaseType() + "://" + connection.getUser() + "@" +
+				connection.getServer() + ":" + connection.getPort() + "/" + connection.getSid() + "\n" +
+				connection.getSchema() + "\n" +
+				(databaseAdapter.hasVersioningSupport() ? workspace + "\n" : "") +
+				writer.toString();
+	}
+
+	private String getJsonContent(ExportTracker tracker) {
+		StringBuilder jsonContent = new StringBuilder();
+		Iterator<CityObject4JSON> iter = tracker.values().iterator();
+		while (iter.hasNext()) {
+			jsonContent.append(iter.next().toString());
+			if (iter.hasNext())
+				jsonContent.append(",\n");
+		}
+
+		return jsonContent.toString();
+	}
+
+	private synchronized void writeTileReferences(Tile tile, boolean hasContent, String jsonContent) throws KmlExportException {
+		boolean isQuadtreeTile = tile instanceof QuadtreeTile;
+		if (isQuadtreeTile) {
+			// quadtree tiles are referenced after the whole quadtree has been
+			// exported, and the JSON file only lists the objects of the leaves
+			((QuadtreeTile) tile).setHasContent(hasContent);
+			if (!((QuadtreeTile) tile).isLeaf())
+				return;
+		}
+
+		if (!hasContent)
+			return;
+
+		// create reference to tile file in master file
+		if (masterFileWriter != null && !isQuadtreeTile) {
+			try {
+				writeMasterFileTileReference(fileName, tile, tilingOptions, masterFileWriter);
+			} catch (JAXBException e) {
+				throw new KmlExportException("Failed to write tile reference to master file.", e);
+			}
+		}
+
+		// fill cityobject JSON file after tile has been processed
+		if (jsonFileWriter != null && !jsonContent.isEmpty()) {
+			try {
+				if (jsonHasContent)
+					jsonFileWriter.write(",\n".getBytes(CHARSET));
+				else
+					jsonHasContent = true;
+
+				jsonFileWriter.write(jsonContent.getBytes(CHARSET));
+			} catch (IOException e) {
+				throw new KmlExportException("Failed to write JSON file.", e);
+			}
+		}
+	}
+
+	private SAXWriter createSAXWriter() {
+		// define indent for xml output and namespace mappings
 		SAXWriter saxWriter = new SAXWriter();
 		saxWriter.setIndentString("  ");
 		saxWriter.setHeaderComment("Written by " + this.getClass().getPackage().getImplementationTitle() + ", version \"" +
@@ -714,6 +1114,11 @@ public class KmlExporter implements EventHandler {
 		saxWriter.setPrefix("atom", "http://www.w3.org/2005/Atom");
 		saxWriter.setPrefix("xal", "urn:oasis:names:tc:ciq:xsdschema:xAL:2.0");
 
+		return saxWriter;
+	}
+
+	private SAXWriter writeMasterFileHeader(String fileName, String path, Query query) throws JAXBException, IOException, SAXException {
+		SAXWriter saxWriter = createSAXWriter();
 		Marshaller marshaller = jaxbKmlContext.createMarshaller();
 
 		File mainFile = new File(path, fileName + ".kml");
@@ -824,17 +1229,19 @@ public class KmlExporter implements EventHandler {
 		Marshaller marshaller = jaxbKmlContext.createMarshaller();
 		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
 
+		FolderType folderType = createTileFolder(tileName, tile, getDisplayForms(tile), "Tiles/" + getTilePath(tile) + "/");
+		marshaller.marshal(kmlFactory.createFolder(folderType), saxWriter);
+	}
+
+	private FolderType createTileFolder(String tileName, Tile tile, List<DisplayForm> displayForms, String href) {
 		// tileName should not contain special characters,
 		// since it will be used as filename for all displayForm files
-		tileName = tileName + "_Tile_" + tile.getX() + "_" + tile.getY();
+		tileName = tileName + "_" + getTileName(tile);
 
 		FolderType folderType = kmlFactory.createFolderType();
 		folderType.setName(tileName);
 
-		for (DisplayForm displayForm : config.getProject().getKmlExporter().getBuildingDisplayForms()) {
-			if (!displayForm.isActive()) 
-				continue;
-
+		for (DisplayForm displayForm : displayForms) {
 			String fileExtension = config.getProject().getKmlExporter().isExportAsKmz() ? ".kmz" : ".kml";
 			String tilenameForDisplayForm = tileName + "_" + displayForm.getName() + fileExtension; 
 
@@ -858,7 +1265,7 @@ public class KmlExporter implements EventHandler {
 			regionType.setLod(lodType);
 
 			LinkType linkType = kmlFactory.createLinkType();
-			linkType.setHref("Tiles/" + tile.getX() + "/" + tile.getY() + "/" + tilenameForDisplayForm);
+			linkType.setHref(href + tilenameForDisplayForm);
 			linkType.setViewRefreshMode(ViewRefreshModeEnumType.fromValue(config.getProject().getKmlExporter().getViewRefreshMode()));
 			linkType.setViewFormat("");
 			if (linkType.getViewRefreshMode() == ViewRefreshModeEnumType.ON_STOP)
@@ -870,7 +1277,98 @@ public class KmlExporter implements EventHandler {
 			folderType.getAbstractFeatureGroup().add(kmlFactory.createNetworkLink(networkLinkType));
 		}
 
-		marshaller.marshal(kmlFactory.createFolder(folderType), saxWriter);
+		return folderType;
+	}
+
+	private void writeQuadtreeReferences(QuadtreeTile root) throws JAXBException, IOException, SAXException {
+		List<DisplayForm> displayForms = root.hasContent() ? getDisplayForms(root) : Collections.<DisplayForm>emptyList();
+		boolean hasLeafContent = !root.isLeaf() && root.hasLeafContent();
+		if (displayForms.isEmpty() && !hasLeafContent)
+			return;
+
+		// the master file references the display forms of the root tile and
+		// the index file of its quadtree
+		FolderType folderType = createTileFolder(fileName, root, displayForms, "Tiles/" + root.getPath() + "/");
+		if (hasLeafContent) {
+			folderType.getAbstractFeatureGroup().add(kmlFactory.createNetworkLink(
+					createQuadtreeLink(root, "Tiles/" + root.getPath() + "/")));
+			writeQuadtreeIndexFile(root);
+		}
+
+		Marshaller marshaller = jaxbKmlContext.createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+		marshaller.marshal(kmlFactory.createFolder(folderType), masterFileWriter);
+	}
+
+	private void writeQuadtreeIndexFile(QuadtreeTile quadtreeTile) throws JAXBException, IOException, SAXException {
+		File directory = getTileDirectory(quadtreeTile);
+		directory.mkdirs();
+
+		KmlType kmlType = kmlFactory.createKmlType();
+		DocumentType document = kmlFactory.createDocumentType();
+		document.setName(fileName + "_" + quadtreeTile.getName());
+		document.setOpen(false);
+		kmlType.setAbstractFeatureGroup(kmlFactory.createDocument(document));
+
+		// leaves are referenced by their display forms and inner tiles by their own index file
+		for (QuadtreeTile child : quadtreeTile.getChildren()) {
+			if (!child.hasLeafContent())
+				continue;
+
+			String href = Paths.get(quadtreeTile.getPath()).relativize(Paths.get(child.getPath())).toString().replace(File.separator, "/") + "/";
+			if (child.isLeaf())
+				document.getAbstractFeatureGroup().add(kmlFactory.createFolder(createTileFolder(fileName, child, getDisplayForms(child), href)));
+			else {
+				document.getAbstractFeatureGroup().add(kmlFactory.createNetworkLink(createQuadtreeLink(child, href)));
+				writeQuadtreeIndexFile(child);
+			}
+		}
+
+		SAXWriter saxWriter = createSAXWriter();
+		saxWriter.setOutput(new FileOutputStream(new File(directory, fileName + "_" + quadtreeTile.getName() + ".kml")), ENCODING);
+		try {
+			jaxbKmlContext.createMarshaller().marshal(kmlFactory.createKml(kmlType), saxWriter);
+		} finally {
+			saxWriter.close();
+		}
+	}
+
+	private NetworkLinkType createQuadtreeLink(QuadtreeTile quadtreeTile, String href) {
+		NetworkLinkType networkLinkType = kmlFactory.createNetworkLinkType();
+		networkLinkType.setName(fileName + "_" + quadtreeTile.getName());
+
+		BoundingBox extent = quadtreeTile.getExtent();
+		LatLonAltBoxType latLonAltBoxType = kmlFactory.createLatLonAltBoxType();
+		latLonAltBoxType.setNorth(extent.getUpperCorner().getY());
+		latLonAltBoxType.setSouth(extent.getLowerCorner().getY());
+		latLonAltBoxType.setEast(extent.getUpperCorner().getX());
+		latLonAltBoxType.setWest(extent.getLowerCorner().getX());
+
+		// load the index file as soon as the detailed display forms of any
+		// leaf within the extent of the tile may become visible
+		double minLodPixels = Double.MAX_VALUE;
+		for (DisplayForm displayForm : config.getProject().getKmlExporter().getBuildingDisplayForms()) {
+			if (displayForm.isActive() && isDetailedDisplayForm(displayForm))
+				minLodPixels = Math.min(minLodPixels, displayForm.getVisibleFrom());
+		}
+
+		LodType lodType = kmlFactory.createLodType();
+		lodType.setMinLodPixels(minLodPixels);
+		lodType.setMaxLodPixels(-1.0);
+
+		RegionType regionType = kmlFactory.createRegionType();
+		regionType.setLatLonAltBox(latLonAltBoxType);
+		regionType.setLod(lodType);
+
+		LinkType linkType = kmlFactory.createLinkType();
+		linkType.setHref(href + fileName + "_" + quadtreeTile.getName() + ".kml");
+		linkType.setViewRefreshMode(ViewRefreshModeEnumType.ON_REGION);
+
+		// confusion between atom:link and kml:Link in ogckml22.xsd
+		networkLinkType.getRest().add(kmlFactory.createLink(linkType));
+		networkLinkType.setRegion(regionType);
+
+		return networkLinkType;
 	}
 
 	private void writeMasterFileFooter(SAXWriter saxWriter) throws JAXBException, SAXException {
@@ -1542,10 +2040,7 @@ public class KmlExporter implements EventHandler {
 			Map<Integer, Long> counter = ((ObjectCounterEvent)e).getCounter();
 			
 			for (Entry<Integer, Long> entry : counter.entrySet()) {
-				Long tmp = objectCounter.get(entry.getKey());
-				objectCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
-				
-				tmp = totalObjectCounter.get(entry.getKey());
+				Long tmp = totalObjectCounter.get(entry.getKey());
 				totalObjectCounter.put(entry.getKey(), tmp == null ? entry.getValue() : tmp + entry.getValue());
 			}
 		}
@@ -1578,14 +2073,51 @@ public class KmlExporter implements EventHandler {
 
 				log.info("Waiting for objects being currently processed to end...");
 
-				if (kmlSplitter != null)
-					kmlSplitter.shutdown();
+				if (tileExportPool != null)
+					tileExportPool.drainWorkQueue();
+
+				for (TileExport tileExport : tileExports)
+					tileExport.interrupt();
+			}
+		}
+	}
 
-				if (kmlWorkerPool != null)
-					kmlWorkerPool.drainWorkQueue();
+	private static final class TileExport {
+		private volatile KmlSplitter kmlSplitter;
+		private volatile WorkerPool<KmlSplittingResult> kmlWorkerPool;
 
-				if (lastTempFolder != null && lastTempFolder.exists()) deleteFolder(lastTempFolder); // just in case
+		private void interrupt() {
+			KmlSplitter kmlSplitter = this.kmlSplitter;
+			if (kmlSplitter != null)
+				kmlSplitter.shutdown();
+
+			WorkerPool<KmlSplittingResult> kmlWorkerPool = this.kmlWorkerPool;
+			if (kmlWorkerPool != null)
+				kmlWorkerPool.drainWorkQueue();
+		}
+	}
+
+	private final class TileExportWorker extends DefaultWorker<Tile> {
+
+		@Override
+		public void doWork(Tile tile) {
+			if (!shouldRun)
+				return;
+
+			try {
+				exportTile(tile);
+			} catch (KmlExportException e) {
+				exportException.compareAndSet(null, e);
+				eventDispatcher.triggerSyncEvent(new InterruptEvent(null, LogLevel.ERROR, eventChannel, this));
+			} catch (Throwable e) {
+				exportException.compareAndSet(null, new KmlExportException("An unexpected error occurred.", e));
+				eventDispatcher.triggerSyncEvent(new InterruptEvent(null, LogLevel.ERROR, eventChannel, this));
 			}
 		}
+
+		@Override
+		public void shutdown() {
+			// nothing to do
+		}
 	}
 }
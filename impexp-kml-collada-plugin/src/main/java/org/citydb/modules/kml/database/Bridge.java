@@ -39,7 +39,8 @@ import org.citydb.database.connection.DatabaseConnectionPool;
 import org.citydb.event.EventDispatcher;
 import org.citydb.log.Logger;
 import org.citydb.modules.kml.util.BalloonTemplateHandler;
-import org.citydb.modules.kml.util.ElevationServiceHandler;
+import org.citydb.modules.kml.util.ElevationProvider;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 
 import javax.vecmath.Point3d;
@@ -62,7 +63,8 @@ public class Bridge extends KmlGenericObject{
 			net.opengis.kml._2.ObjectFactory kmlFactory,
 			AbstractDatabaseAdapter databaseAdapter,
 			BlobExportAdapter textureExportAdapter,
-			ElevationServiceHandler elevationServiceHandler,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor,
 			BalloonTemplateHandler balloonTemplateHandler,
 			EventDispatcher eventDispatcher,
 			Config config) {
@@ -73,7 +75,8 @@ public class Bridge extends KmlGenericObject{
 				kmlFactory,
 				databaseAdapter,
 				textureExportAdapter,
-				elevationServiceHandler,
+				elevationProvider,
+				textureProcessor,
 				balloonTemplateHandler,
 				eventDispatcher,
 				config);
@@ -183,12 +186,13 @@ public class Bridge extends KmlGenericObject{
 
 						try {
 							String query = queries.getBridgePartQuery(currentLod, work.getDisplayForm(), true);
-							psQuery = connection.prepareStatement(query, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+							psQuery = connection.prepareStatement(query);
 							for (int i = 1; i <= getParameterCount(query); i++)
 								psQuery.setLong(i, bridgePartId);
 
+							// the result is only checked for rows, so a forward-only cursor is enough
 							rs = psQuery.executeQuery();
-							if (rs.isBeforeFirst())
+							if (rs.next())
 								break;
 						} catch (SQLException e) {
 							log.error("SQL error while querying the highest available LOD: " + e.getMessage());
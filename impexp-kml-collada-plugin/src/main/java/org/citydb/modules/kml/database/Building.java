@@ -40,7 +40,8 @@ import org.citydb.database.connection.DatabaseConnectionPool;
 import org.citydb.event.EventDispatcher;
 import org.citydb.log.Logger;
 import org.citydb.modules.kml.util.BalloonTemplateHandler;
-import org.citydb.modules.kml.util.ElevationServiceHandler;
+import org.citydb.modules.kml.util.ElevationProvider;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 
 import javax.vecmath.Point3d;
@@ -63,7 +64,8 @@ public class Building extends KmlGenericObject{
 			net.opengis.kml._2.ObjectFactory kmlFactory,
 			AbstractDatabaseAdapter databaseAdapter,
 			BlobExportAdapter textureExportAdapter,
-			ElevationServiceHandler elevationServiceHandler,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor,
 			BalloonTemplateHandler balloonTemplateHandler,
 			EventDispatcher eventDispatcher,
 			Config config) {
@@ -74,7 +76,8 @@ public class Building extends KmlGenericObject{
 				kmlFactory,
 				databaseAdapter,
 				textureExportAdapter,
-				elevationServiceHandler,
+				elevationProvider,
+				textureProcessor,
 				balloonTemplateHandler,
 				eventDispatcher,
 				config);
@@ -184,12 +187,13 @@ public class Building extends KmlGenericObject{
 
 						try {
 							String query = queries.getBuildingPartQuery(currentLod, lod0FootprintMode, work.getDisplayForm(), true);
-							psQuery = connection.prepareStatement(query, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+							psQuery = connection.prepareStatement(query);
 							for (int i = 1; i <= getParameterCount(query); i++)
 								psQuery.setLong(i, buildingPartId);
 
+							// the result is only checked for rows, so a forward-only cursor is enough
 							rs = psQuery.executeQuery();
-							if (rs.isBeforeFirst())
+							if (rs.next())
 								break;
 						} catch (SQLException e) {
 							log.error("SQL error while querying the highest available LOD: " + e.getMessage());
@@ -40,7 +40,8 @@ import org.citydb.event.EventDispatcher;
 import org.citydb.log.Logger;
 import org.citydb.modules.kml.util.AffineTransformer;
 import org.citydb.modules.kml.util.BalloonTemplateHandler;
-import org.citydb.modules.kml.util.ElevationServiceHandler;
+import org.citydb.modules.kml.util.ElevationProvider;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 import org.citydb.util.Util;
 import org.citygml4j.geometry.Matrix;
@@ -65,7 +66,8 @@ public class CityFurniture extends KmlGenericObject{
 			net.opengis.kml._2.ObjectFactory kmlFactory,
 			AbstractDatabaseAdapter databaseAdapter,
 			BlobExportAdapter textureExportAdapter,
-			ElevationServiceHandler elevationServiceHandler,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor,
 			BalloonTemplateHandler balloonTemplateHandler,
 			EventDispatcher eventDispatcher,
 			Config config) {
@@ -76,7 +78,8 @@ public class CityFurniture extends KmlGenericObject{
 				kmlFactory,
 				databaseAdapter,
 				textureExportAdapter,
-				elevationServiceHandler,
+				elevationProvider,
+				textureProcessor,
 				balloonTemplateHandler,
 				eventDispatcher,
 				config);
@@ -44,7 +44,8 @@ import org.citydb.database.adapter.BlobExportAdapter;
 import org.citydb.event.EventDispatcher;
 import org.citydb.log.Logger;
 import org.citydb.modules.kml.util.BalloonTemplateHandler;
-import org.citydb.modules.kml.util.ElevationServiceHandler;
+import org.citydb.modules.kml.util.ElevationProvider;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 
 public class CityObjectGroup extends KmlGenericObject{
@@ -57,7 +58,8 @@ public class CityObjectGroup extends KmlGenericObject{
 			net.opengis.kml._2.ObjectFactory kmlFactory,
 			AbstractDatabaseAdapter databaseAdapter,
 			BlobExportAdapter textureExportAdapter,
-			ElevationServiceHandler elevationServiceHandler,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor,
 			BalloonTemplateHandler balloonTemplateHandler,
 			EventDispatcher eventDispatcher,
 			Config config) {
@@ -68,7 +70,8 @@ public class CityObjectGroup extends KmlGenericObject{
 				kmlFactory,
 				databaseAdapter,
 				textureExportAdapter,
-				elevationServiceHandler,
+				elevationProvider,
+				textureProcessor,
 				balloonTemplateHandler,
 				eventDispatcher,
 				config);
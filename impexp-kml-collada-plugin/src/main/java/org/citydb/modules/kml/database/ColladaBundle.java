@@ -28,6 +28,7 @@
 package org.citydb.modules.kml.database;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 
 import org.citydb.textureAtlas.model.TextureImage;
 import org.collada._2005._11.colladaschema.COLLADA;
@@ -43,8 +44,10 @@ public class ColladaBundle {
 	// images or atlases in usual formats (like .jpg)
 	private HashMap<String, TextureImage> texImages;
 
+	// encoded bytes of images that have not been modified since they were read
+	private IdentityHashMap<TextureImage, byte[]> texImageBytes;
+
 	private COLLADA collada;
-	private String colladaAsString;
 	private PlacemarkType placemark;
 	private String gmlId;
 	private long id;
@@ -58,6 +61,14 @@ public class ColladaBundle {
 		return texImages;
 	}
 
+	public void setTexImageBytes(IdentityHashMap<TextureImage, byte[]> texImageBytes) {
+		this.texImageBytes = texImageBytes;
+	}
+
+	public IdentityHashMap<TextureImage, byte[]> getTexImageBytes() {
+		return texImageBytes;
+	}
+
 	public 	void setUnsupportedTexImageIds(HashMap<String, Long> unsupportedTexImageIds) {
 		this.unsupportedTexImageIds = unsupportedTexImageIds;
 	}
@@ -98,14 +109,6 @@ public class ColladaBundle {
 		this.id = id;
 	}
 
-	public void setColladaAsString(String colladaAsString) {
-		this.colladaAsString = colladaAsString;
-	}
-
-	public String getColladaAsString() {
-		return colladaAsString;
-	}
-
 	public void setExternalBalloonFileContent(String externalBalloonFileContent) {
 		this.externalBalloonFileContent = externalBalloonFileContent;
 	}
@@ -53,7 +53,8 @@ import org.citydb.event.global.GeometryCounterEvent;
 import org.citydb.log.Logger;
 import org.citydb.modules.kml.util.AffineTransformer;
 import org.citydb.modules.kml.util.BalloonTemplateHandler;
-import org.citydb.modules.kml.util.ElevationServiceHandler;
+import org.citydb.modules.kml.util.ElevationProvider;
+import org.citydb.modules.kml.util.TextureProcessor;
 import org.citydb.query.Query;
 import org.citydb.util.Util;
 import org.citygml4j.geometry.Matrix;
@@ -85,7 +86,8 @@ public class GenericCityObject extends KmlGenericObject{
 			net.opengis.kml._2.ObjectFactory kmlFactory,
 			AbstractDatabaseAdapter databaseAdapter,
 			BlobExportAdapter textureExportAdapter,
-			ElevationServiceHandler elevationServiceHandler,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor,
 			BalloonTemplateHandler balloonTemplateHandler,
 			EventDispatcher eventDispatcher,
 			Config config) {
@@ -96,7 +98,8 @@ public class GenericCityObject extends KmlGenericObject{
 				kmlFactory,
 				databaseAdapter,
 				textureExportAdapter,
-				elevationServiceHandler,
+				elevationProvider,
+				textureProcessor,
 				balloonTemplateHandler,
 				eventDispatcher,
 				config);
@@ -50,6 +50,7 @@ import org.citydb.modules.kml.util.BalloonTemplateHandler;
 import org.citydb.modules.kml.util.CityObject4JSON;
 import org.citydb.modules.kml.util.ExportTracker;
 import org.citydb.query.Query;
+import org.citydb.textureAtlas.model.TextureImage;
 import org.citydb.util.ClientConstants;
 import org.citygml4j.util.xml.SAXEventBuffer;
 
@@ -57,18 +58,21 @@ import javax.imageio.ImageIO;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
-import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -185,7 +189,7 @@ public class KmlExporterManager {
 		KmlType kmlType = null;
 		DocumentType document = null;
 		ZipOutputStream zipOut = null;
-		OutputStreamWriter fileWriter = null;
+		OutputStream fileOut = null;
 
 		String path = tracker.getCurrentWorkingDirectoryPath();
 		File directory = new File(path);
@@ -234,9 +238,9 @@ public class KmlExporterManager {
 										balloonsDirectory.mkdir();
 									}
 									File htmlFile = new File(balloonsDirectory, work.getGmlId() + '-' + work.getId() + ".html");
-									FileOutputStream outputStream = new FileOutputStream(htmlFile);
-									outputStream.write(placemarkDescription.getBytes(CHARSET));
-									outputStream.close();
+									try (Writer writer = Files.newBufferedWriter(htmlFile.toPath(), CHARSET)) {
+										writer.write(placemarkDescription);
+									}
 								}
 								catch (IOException ioe) {
 									log.logStackTrace(ioe);
@@ -276,14 +280,14 @@ public class KmlExporterManager {
 							if (config.getProject().getKmlExporter().isExportAsKmz()) {
 								fileExtension = ".kmz";
 								File placemarkFile = new File(placemarkDirectory, filename + ".kmz");
-								zipOut = new ZipOutputStream(new FileOutputStream(placemarkFile));
+								zipOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(placemarkFile)));
 								ZipEntry zipEntry = new ZipEntry("doc.kml");
 								zipOut.putNextEntry(zipEntry);
-								fileWriter = new OutputStreamWriter(zipOut, CHARSET);
+								fileOut = zipOut;
 							}
 							else {
 								File placemarkFile = new File(placemarkDirectory, filename + ".kml");
-								fileWriter = new OutputStreamWriter(new FileOutputStream(placemarkFile), CHARSET);
+								fileOut = new BufferedOutputStream(new FileOutputStream(placemarkFile));
 							}
 
 							// the network link pointing to the file
@@ -343,7 +347,7 @@ public class KmlExporterManager {
 
 			if (useTiling && config.getProject().getKmlExporter().isOneFilePerObject() && kmlType != null) { // some Placemarks ARE null
 				if (config.getProject().getKmlExporter().isExportAsKmz()) {
-					kmlMarshaller.marshal(kmlFactory.createKml(kmlType), fileWriter);
+					kmlMarshaller.marshal(kmlFactory.createKml(kmlType), fileOut);
 					zipOut.closeEntry();
 
 					if (balloonInSeparateFile) {
@@ -352,7 +356,7 @@ public class KmlExporterManager {
 								ZipEntry zipEntry = new ZipEntry(BalloonTemplateHandler.balloonDirectoryName + "/" + work.getGmlId() + '-' + work.getId() + ".html");
 								if (placemarkDescription != null) {
 									zipOut.putNextEntry(zipEntry);
-									zipOut.write(placemarkDescription.getBytes(CHARSET));
+									write(placemarkDescription, zipOut);
 									zipOut.closeEntry();
 									break; // only once since gmlId is the same for all placemarks
 								}
@@ -363,8 +367,8 @@ public class KmlExporterManager {
 					zipOut.close();
 				}
 				else {
-					kmlMarshaller.marshal(kmlFactory.createKml(kmlType), fileWriter);
-					fileWriter.close();
+					kmlMarshaller.marshal(kmlFactory.createKml(kmlType), fileOut);
+					fileOut.close();
 				}
 			}
 
@@ -383,7 +387,6 @@ public class KmlExporterManager {
 	IOException,
 	SQLException {
 		ZipOutputStream zipOut = null;
-		OutputStreamWriter fileWriter = null;
 		SAXEventBuffer buffer = new SAXEventBuffer();
 
 		Marshaller kmlMarshaller = jaxbKmlContext.createMarshaller();
@@ -439,18 +442,17 @@ public class KmlExporterManager {
 					if (config.getProject().getKmlExporter().isExportAsKmz()) {
 						fileExtension = ".kmz";
 						File placemarkFile = new File(placemarkDirectory, colladaBundle.getGmlId() + "_collada.kmz");
-						zipOut = new ZipOutputStream(new FileOutputStream(placemarkFile));
+						zipOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(placemarkFile)));
 						ZipEntry zipEntry = new ZipEntry("doc.kml");
 						zipOut.putNextEntry(zipEntry);
-						fileWriter = new OutputStreamWriter(zipOut, CHARSET);
-						kmlMarshaller.marshal(kmlFactory.createKml(kmlType), fileWriter);
+						kmlMarshaller.marshal(kmlFactory.createKml(kmlType), zipOut);
 						zipOut.closeEntry();
 					}
 					else {
 						File placemarkFile = new File(placemarkDirectory, colladaBundle.getGmlId() + "_collada.kml");
-						fileWriter = new OutputStreamWriter(new FileOutputStream(placemarkFile), CHARSET);
-						kmlMarshaller.marshal(kmlFactory.createKml(kmlType), fileWriter);
-						fileWriter.close();
+						try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(placemarkFile))) {
+							kmlMarshaller.marshal(kmlFactory.createKml(kmlType), fileOut);
+						}
 					}
 				}
 				catch (IOException ioe) {
@@ -505,17 +507,13 @@ public class KmlExporterManager {
 		if (config.getProject().getKmlExporter().isExportAsKmz() &&	useTiling
 				&& config.getProject().getKmlExporter().isOneFilePerObject()) {
 
-			// marshalling in parallel threads should save some time
-			StringWriter sw = new StringWriter();
-			colladaMarshaller.marshal(colladaBundle.getCollada(), sw);
-			colladaBundle.setColladaAsString(sw.toString());
-			colladaBundle.setCollada(null); // free heap space
-
 			// ----------------- model saving -----------------
+			// the model is marshalled directly into the zip entry
 			ZipEntry zipEntry = new ZipEntry(colladaBundle.getId() + "/" + colladaBundle.getGmlId() + ".dae");
 			zipOut.putNextEntry(zipEntry);
-			zipOut.write(colladaBundle.getColladaAsString().getBytes(CHARSET));
+			colladaMarshaller.marshal(colladaBundle.getCollada(), zipOut);
 			zipOut.closeEntry();
+			colladaBundle.setCollada(null); // free heap space
 
 			// ----------------- image saving -----------------
 			if (colladaBundle.getUnsupportedTexImageIds() != null) {
@@ -538,14 +536,14 @@ public class KmlExporterManager {
 				Iterator<String> iterator = keySet.iterator();
 				while (iterator.hasNext()) {
 					String imageFilename = iterator.next();
-					BufferedImage texImage = colladaBundle.getTexImages().get(imageFilename).getBufferedImage();
+					TextureImage texImage = colladaBundle.getTexImages().get(imageFilename);
 					String imageType = imageFilename.substring(imageFilename.lastIndexOf('.') + 1);
 
 					zipEntry = imageFilename.startsWith("..") ?
 							new ZipEntry(imageFilename.substring(3)): // skip .. and File.separator
 								new ZipEntry(colladaBundle.getId() + "/" + imageFilename);
 							zipOut.putNextEntry(zipEntry);
-							ImageIO.write(texImage, imageType, zipOut);
+							write(texImage, imageType, colladaBundle.getTexImageBytes(), zipOut);
 							zipOut.closeEntry();
 				}
 			}
@@ -554,7 +552,7 @@ public class KmlExporterManager {
 			if (colladaBundle.getExternalBalloonFileContent() != null) {
 				zipEntry = new ZipEntry(BalloonTemplateHandler.balloonDirectoryName + "/" + colladaBundle.getGmlId() + '-' + colladaBundle.getId() + ".html");
 				zipOut.putNextEntry(zipEntry);
-				zipOut.write(colladaBundle.getExternalBalloonFileContent().getBytes(CHARSET));
+				write(colladaBundle.getExternalBalloonFileContent(), zipOut);
 				zipOut.closeEntry();
 			}
 
@@ -581,9 +579,9 @@ public class KmlExporterManager {
 			// ----------------- model saving -----------------
 			File colladaModelFile = new File(buildingDirectory, colladaBundle.getGmlId() + ".dae");
 			File gltfModelFile = new File(buildingDirectory, colladaBundle.getGmlId() + ".gltf");
-			FileOutputStream fos = new FileOutputStream(colladaModelFile);
-			colladaMarshaller.marshal(colladaBundle.getCollada(), fos);
-			fos.close();
+			try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(colladaModelFile))) {
+				colladaMarshaller.marshal(colladaBundle.getCollada(), fileOut);
+			}
 
 			// ----------------- create glTF without embedded textures-----------------
 			boolean exportGltfV1 = config.getProject().getKmlExporter().isExportGltfV1();
@@ -607,12 +605,15 @@ public class KmlExporterManager {
 				Iterator<String> iterator = keySet.iterator();
 				while (iterator.hasNext()) {
 					String imageFilename = iterator.next();
-					BufferedImage texImage = colladaBundle.getTexImages().get(imageFilename).getBufferedImage();
+					TextureImage texImage = colladaBundle.getTexImages().get(imageFilename);
 					String imageType = imageFilename.substring(imageFilename.lastIndexOf('.') + 1);
 
 					File imageFile = new File(buildingDirectory, imageFilename);
-					if (!imageFile.exists()) // avoid overwriting and access conflicts
-						ImageIO.write(texImage, imageType, imageFile);					
+					if (!imageFile.exists()) { // avoid overwriting and access conflicts
+						try (OutputStream fileOut = new BufferedOutputStream(new FileOutputStream(imageFile))) {
+							write(texImage, imageType, colladaBundle.getTexImageBytes(), fileOut);
+						}
+					}
 				}
 			}
 
@@ -639,9 +640,9 @@ public class KmlExporterManager {
 						balloonsDirectory.mkdir();
 					}
 					File htmlFile = new File(balloonsDirectory, colladaBundle.getGmlId() + '-' + colladaBundle.getId() + ".html");
-					FileOutputStream outputStream = new FileOutputStream(htmlFile);
-					outputStream.write(colladaBundle.getExternalBalloonFileContent().getBytes(CHARSET));
-					outputStream.close();
+					try (Writer writer = Files.newBufferedWriter(htmlFile.toPath(), CHARSET)) {
+						writer.write(colladaBundle.getExternalBalloonFileContent());
+					}
 				}
 				catch (IOException ioe) {
 					log.logStackTrace(ioe);
@@ -650,6 +651,21 @@ public class KmlExporterManager {
 		}
 	}
 
+	private void write(TextureImage texImage, String imageType, Map<TextureImage, byte[]> texImageBytes, OutputStream out) throws IOException {
+		// pass through the original image bytes if the image has not been modified
+		byte[] bytes = texImageBytes != null ? texImageBytes.get(texImage) : null;
+		if (bytes != null)
+			out.write(bytes);
+		else
+			ImageIO.write(texImage.getBufferedImage(), imageType, out);
+	}
+
+	private void write(String content, OutputStream out) throws IOException {
+		Writer writer = new OutputStreamWriter(out, CHARSET);
+		writer.write(content);
+		writer.flush();
+	}
+
 	private void convertColladaToglTF(ColladaBundle colladaBundle, File buildingDirectory, File colladaModelFile, File gltfModelFile, boolean exportGltfV1) {
 		String collada2gltfPath = config.getProject().getKmlExporter().getPathOfGltfConverter();
 		File collada2gltfFile = new File(ClientConstants.IMPEXP_HOME.resolve(collada2gltfPath).toString());
@@ -62,6 +62,9 @@ import org.citydb.log.Logger;
 import org.citydb.modules.kml.datatype.TypeAttributeValueEnum;
 import org.citydb.modules.kml.util.AffineTransformer;
 import org.citydb.modules.kml.util.BalloonTemplateHandler;
+import org.citydb.modules.kml.util.ElevationProvider;
+import org.citydb.modules.kml.util.TextureProcessor;
+import org.citydb.modules.kml.util.TextureProcessor.CachedTextureImage;
 import org.citydb.modules.kml.util.ElevationServiceHandler;
 import org.citydb.query.Query;
 import org.citydb.textureAtlas.TextureAtlasCreator;
@@ -113,6 +116,8 @@ import org.collada._2005._11.colladaschema.Triangles;
 import org.collada._2005._11.colladaschema.UpAxisType;
 import org.collada._2005._11.colladaschema.Vertices;
 import org.collada._2005._11.colladaschema.VisualScene;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.operation.TransformException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -142,10 +147,13 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
 
 public abstract class KmlGenericObject {
 	private final Logger log = Logger.getInstance();
@@ -155,12 +163,13 @@ public abstract class KmlGenericObject {
 	private final String NO_TEXIMAGE = "default";
 
 	private HashMap<Long, SurfaceInfo> surfaceInfos = new HashMap<Long, SurfaceInfo>();
-	private NodeZ coordinateTree;
+	private VertexIndex vertexIndex;
 
 	// key is surfaceId, surfaceId is originally a Long, here we use an Object for compatibility with the textureAtlasAPI
 	private HashMap<Object, String> texImageUris = new HashMap<Object, String>();
 	// key is imageUri
 	private HashMap<String, TextureImage> texImages = new HashMap<String, TextureImage>();
+	private IdentityHashMap<TextureImage, byte[]> texImageBytes = new IdentityHashMap<TextureImage, byte[]>();
 	// for images in unusual formats or wrapping textures. Most times it will be null.
 	// key is imageUri
 	private HashMap<String, Long> unsupportedTexImageIds = null;
@@ -169,7 +178,6 @@ public abstract class KmlGenericObject {
 
 	private long id;
 	private String gmlId;
-	private BigInteger vertexIdCounter = new BigInteger("-1");
 	protected VertexInfo firstVertexInfo = null;
 	private VertexInfo lastVertexInfo = null;
 
@@ -189,7 +197,8 @@ public abstract class KmlGenericObject {
 	protected AbstractDatabaseAdapter databaseAdapter;
 	protected BlobExportAdapter textureExportAdapter;
 	protected AbstractGeometryConverterAdapter geometryConverterAdapter;
-	protected ElevationServiceHandler elevationServiceHandler;
+	protected ElevationProvider elevationProvider;
+	protected TextureProcessor textureProcessor;
 	protected BalloonTemplateHandler balloonTemplateHandler;
 	protected EventDispatcher eventDispatcher;
 	protected Config config;
@@ -208,7 +217,8 @@ public abstract class KmlGenericObject {
 			net.opengis.kml._2.ObjectFactory kmlFactory,
 			AbstractDatabaseAdapter databaseAdapter,
 			BlobExportAdapter textureExportAdapter,
-			ElevationServiceHandler elevationServiceHandler,
+			ElevationProvider elevationProvider,
+			TextureProcessor textureProcessor,
 			BalloonTemplateHandler balloonTemplateHandler,
 			EventDispatcher eventDispatcher,
 			Config config) {
@@ -218,7 +228,8 @@ public abstract class KmlGenericObject {
 		this.kmlExporterManager = kmlExporterManager;
 		this.kmlFactory = kmlFactory;
 		this.textureExportAdapter = textureExportAdapter;
-		this.elevationServiceHandler = elevationServiceHandler;
+		this.elevationProvider = elevationProvider;
+		this.textureProcessor = textureProcessor;
 		this.balloonTemplateHandler = balloonTemplateHandler;
 		this.eventDispatcher = eventDispatcher;
 		this.config = config;
@@ -748,7 +759,7 @@ public abstract class KmlGenericObject {
 			// the vertex arrays in the collada file
 			for (int i = 0; i < indexes.length; i++) {				
 				VertexInfo vertexInfo = vertexInfos.get(indexes[i]);
-				triangles.getP().add(vertexInfo.getVertexId());
+				triangles.getP().add(BigInteger.valueOf(vertexInfo.getVertexId()));
 
 				if (getColladaOptions().isGenerateSurfaceNormals())
 					triangles.getP().add(BigInteger.valueOf(normalIndexes[i] + normalIndexOffset));
@@ -902,6 +913,10 @@ public abstract class KmlGenericObject {
 		return texImages;
 	}
 
+	public IdentityHashMap<TextureImage, byte[]> getTexImageBytes(){
+		return texImageBytes;
+	}
+
 	protected TextureImage getTexImage(String texImageUri){
 		TextureImage texImage = null;
 		if (texImages != null) {
@@ -935,84 +950,23 @@ public abstract class KmlGenericObject {
 	}
 
 	protected VertexInfo setVertexInfoForXYZ(long surfaceId, double x, double y, double z){
-		vertexIdCounter = vertexIdCounter.add(BigInteger.ONE);
-		VertexInfo vertexInfo = new VertexInfo(vertexIdCounter, x, y, z);
-		NodeZ nodeToInsert = new NodeZ(z, new NodeY(y, new NodeX(x, vertexInfo)));
-		if (coordinateTree == null) {
-			coordinateTree =  nodeToInsert;
-			firstVertexInfo = vertexInfo;
-			lastVertexInfo = vertexInfo;
-		}
-		else {
-			Node node = insertNode(coordinateTree, nodeToInsert);
-			if (node.value instanceof VertexInfo)
-				vertexInfo = (VertexInfo)node.value;
-		}
-
-		return vertexInfo;
-	}
-
-	private Node insertNode(Node currentBasis, Node nodeToInsert) {
-		int compareKeysResult = compareKeys(nodeToInsert.key, currentBasis.key, TOLERANCE);
-		if (compareKeysResult > 0) {
-			if (currentBasis.rightArc == null){
-				currentBasis.setRightArc(nodeToInsert);
-				linkCurrentVertexInfoToLastVertexInfo(nodeToInsert);
-				return nodeToInsert;
-			}
-			else {
-				return insertNode(currentBasis.rightArc, nodeToInsert);
-			}
-		}
-		else if (compareKeysResult < 0) {
-			if (currentBasis.leftArc == null){
-				currentBasis.setLeftArc(nodeToInsert);
-				linkCurrentVertexInfoToLastVertexInfo(nodeToInsert);
-				return nodeToInsert;
-			}
-			else {
-				return insertNode(currentBasis.leftArc, nodeToInsert);
-			}
-		}
-		else {
-			return replaceOrAddValue(currentBasis, nodeToInsert);
-		}
-	}
+		if (vertexIndex == null)
+			vertexIndex = new VertexIndex(TOLERANCE);
 
-	private Node replaceOrAddValue(Node currentBasis, Node nodeToInsert) {
-		if (nodeToInsert.value instanceof VertexInfo) {
-			VertexInfo vertexInfoToInsert = (VertexInfo)nodeToInsert.value;
-			if (currentBasis.value == null) { // no vertexInfo yet for this point
-				currentBasis.value = nodeToInsert.value;
-				linkCurrentVertexInfoToLastVertexInfo(vertexInfoToInsert);
-			} else
-				vertexIdCounter = vertexIdCounter.subtract(BigInteger.ONE);
+		VertexInfo vertexInfo = vertexIndex.get(x, y, z);
+		if (vertexInfo == null) {
+			vertexInfo = new VertexInfo(vertexIndex.size(), x, y, z);
+			vertexIndex.add(vertexInfo);
 
-			return currentBasis;
-		}
-		else { // Node
-			return insertNode((Node)currentBasis.value, (Node)nodeToInsert.value);
-		}
-	}
+			if (firstVertexInfo == null)
+				firstVertexInfo = vertexInfo;
+			else
+				lastVertexInfo.setNextVertexInfo(vertexInfo);
 
-	private void linkCurrentVertexInfoToLastVertexInfo (Node node) {
-		while (!(node.value instanceof VertexInfo)) {
-			node = (Node)node.value;
+			lastVertexInfo = vertexInfo;
 		}
-		linkCurrentVertexInfoToLastVertexInfo((VertexInfo)node.value);
-	}
 
-	private void linkCurrentVertexInfoToLastVertexInfo (VertexInfo currentVertexInfo) {
-		lastVertexInfo.setNextVertexInfo(currentVertexInfo);
-		lastVertexInfo = currentVertexInfo;
-	}
-
-	private int compareKeys (double key1, double key2, double tolerance){
-		int result = 0;
-		if (Math.abs(key1 - key2) > tolerance) {
-			result = key1 > key2 ? 1 : -1;
-		}
-		return result;
+		return vertexInfo;
 	}
 
 	public void appendObject (KmlGenericObject objectToAppend) {
@@ -1055,6 +1009,8 @@ public abstract class KmlGenericObject {
 			this.surfaceInfos.put(surfaceId, objectToAppend.surfaceInfos.get(surfaceId));
 		}
 
+		this.texImageBytes.putAll(objectToAppend.texImageBytes);
+
 		// adapt id accordingly
 		int indexOf_to_ = this.gmlId.indexOf("_to_");
 		String ownLowerLimit = "";
@@ -1089,41 +1045,51 @@ public abstract class KmlGenericObject {
 	// This function allows to crop large CityGML texture atlas into small texture images for the corresponding surface geometries
 	public void cropImages () {	
 		HashMap<String, TextureImage> newTexImages = new HashMap<String, TextureImage>();		
-		Set<Object> sgIdSet = texImageUris.keySet();
-		Iterator<Object> sgIdIterator = sgIdSet.iterator();
 		
-		// Crop texture image and calculate new texture coordinates for each surface geometry
-		while (sgIdIterator.hasNext()) {
-			Long sgId = (Long) sgIdIterator.next();		
-			
-			// step 1: calculate maximal and minimal texture coordinates
-			VertexInfo vertexInfoIterator = firstVertexInfo;			
-			double maxS = 0;
-			double minS = Double.MAX_VALUE;
-			double maxT = 0;
-			double minT = Double.MAX_VALUE;			
-			while (vertexInfoIterator != null) {
-				if (vertexInfoIterator.getAllTexCoords() != null && vertexInfoIterator.getAllTexCoords().containsKey(sgId)) {
-					double s = vertexInfoIterator.getTexCoords(sgId).getS();
-					double t = vertexInfoIterator.getTexCoords(sgId).getT();
-					if (s > maxS) {
-						maxS = s;
-					}
-					if (s < minS) {
-						minS = s;
-					}
-					if (t > maxT) {
-						maxT = t;
-					}
-					if (t < minT) {
-						minT = t;
-					}
+		// step 1: calculate maximal and minimal texture coordinates of all surface geometries in a single pass
+		HashMap<Long, double[]> texCoordsBounds = new HashMap<Long, double[]>();
+		for (VertexInfo vertexInfoIterator = firstVertexInfo; vertexInfoIterator != null; vertexInfoIterator = vertexInfoIterator.getNextVertexInfo()) {
+			if (vertexInfoIterator.getAllTexCoords() == null) {
+				continue;
+			}
+			for (Entry<Long, TexCoords> entry : vertexInfoIterator.getAllTexCoords().entrySet()) {
+				if (!texImageUris.containsKey(entry.getKey())) {
+					continue;
+				}
+				double[] bounds = texCoordsBounds.get(entry.getKey());
+				if (bounds == null) {
+					// maxS, minS, maxT, minT
+					bounds = new double[] {0, Double.MAX_VALUE, 0, Double.MAX_VALUE};
+					texCoordsBounds.put(entry.getKey(), bounds);
+				}
+				double s = entry.getValue().getS();
+				double t = entry.getValue().getT();
+				if (s > bounds[0]) {
+					bounds[0] = s;
+				}
+				if (s < bounds[1]) {
+					bounds[1] = s;
+				}
+				if (t > bounds[2]) {
+					bounds[2] = t;
+				}
+				if (t < bounds[3]) {
+					bounds[3] = t;
 				}
-				vertexInfoIterator = vertexInfoIterator.getNextVertexInfo();
 			}
-			
-			// step 2: crop images
-			String texImageUri = texImageUris.get(sgId);
+		}
+		
+		// step 2: crop texture image for each surface geometry
+		HashMap<Long, double[]> texCoordsTransforms = new HashMap<Long, double[]>();
+		for (Entry<Object, String> entry : texImageUris.entrySet()) {
+			Long sgId = (Long) entry.getKey();
+			double[] bounds = texCoordsBounds.get(sgId);
+			double maxS = bounds != null ? bounds[0] : 0;
+			double minS = bounds != null ? bounds[1] : Double.MAX_VALUE;
+			double maxT = bounds != null ? bounds[2] : 0;
+			double minT = bounds != null ? bounds[3] : Double.MAX_VALUE;
+
+			String texImageUri = entry.getValue();
 			TextureImage texImage = texImages.get(texImageUri);
 			int imageWidth = texImage.getWidth();
 			int imageHeight = texImage.getHeight();
@@ -1144,28 +1110,34 @@ public abstract class KmlGenericObject {
 				croppedImageHeight = endY - startY;	
 				BufferedImage imageToCrop = texImage.getBufferedImage().getSubimage(startX, startY, croppedImageWidth, croppedImageHeight);
 				String newImageUri = sgId + "_" + texImageUri;
-				texImageUris.put(sgId, newImageUri);
+				entry.setValue(newImageUri);
 				newTexImages.put(newImageUri, new TextureImage(imageToCrop));
 			}
 			catch (Exception e) {
 				newTexImages.put(texImageUri, texImage);
 				log.debug("City object '" + gmlId + "': " + "A texture coordinate lies outside the range [0, 1] for the texutre image '"  + texImageUri + "'; This image can therefore not be cropped" );
 			}
-			
-			// step 3: update the vertex coordinates according to the cropped images
-			vertexInfoIterator = firstVertexInfo;			
-			while (vertexInfoIterator != null) {
-				if (vertexInfoIterator.getAllTexCoords() != null && vertexInfoIterator.getAllTexCoords().containsKey(sgId)) {
-					double s = vertexInfoIterator.getTexCoords(sgId).getS();
-					double t = vertexInfoIterator.getTexCoords(sgId).getT();					
-					double newS = (s * imageWidth - startX) / croppedImageWidth;
-					double newT = (t * imageHeight - (imageHeight - endY)) / croppedImageHeight;
-					vertexInfoIterator.getTexCoords(sgId).setS(newS);
-					vertexInfoIterator.getTexCoords(sgId).setT(newT);
+
+			texCoordsTransforms.put(sgId, new double[] {imageWidth, imageHeight, startX, endY, croppedImageWidth, croppedImageHeight});
+		} 
+		
+		// step 3: update the vertex coordinates according to the cropped images
+		for (VertexInfo vertexInfoIterator = firstVertexInfo; vertexInfoIterator != null; vertexInfoIterator = vertexInfoIterator.getNextVertexInfo()) {
+			if (vertexInfoIterator.getAllTexCoords() == null) {
+				continue;
+			}
+			for (Entry<Long, TexCoords> entry : vertexInfoIterator.getAllTexCoords().entrySet()) {
+				double[] transform = texCoordsTransforms.get(entry.getKey());
+				if (transform == null) {
+					continue;
 				}
-				vertexInfoIterator = vertexInfoIterator.getNextVertexInfo();
+				TexCoords texCoords = entry.getValue();
+				double newS = (texCoords.getS() * transform[0] - transform[2]) / transform[4];
+				double newT = (texCoords.getT() * transform[1] - (transform[1] - transform[3])) / transform[5];
+				texCoords.setS(newS);
+				texCoords.setT(newT);
 			}
-		} 
+		}
 		
 		// step 4: update texture Images
 		texImages = newTexImages;
@@ -1241,22 +1213,34 @@ public abstract class KmlGenericObject {
 			return;
 		}
 
-		Set<String> keySet = texImages.keySet();
-		Iterator<String> iterator = keySet.iterator();
-		while (iterator.hasNext()) {
-			String imageName = iterator.next();
-			BufferedImage imageToResize = texImages.get(imageName).getBufferedImage();
+		// images are scaled independently of each other on the texture processor pool
+		List<String> imageNames = new ArrayList<String>();
+		List<Callable<TextureImage>> tasks = new ArrayList<Callable<TextureImage>>();
+		for (Entry<String, TextureImage> entry : texImages.entrySet()) {
+			BufferedImage imageToResize = entry.getValue().getBufferedImage();
 			if (imageToResize.getWidth()*factor < 1 || imageToResize.getHeight()*factor < 1) {
 				continue;
 			}
-			BufferedImage resizedImage = getScaledInstance(imageToResize,
+			imageNames.add(entry.getKey());
+			tasks.add(() -> new TextureImage(getScaledInstance(imageToResize,
 					(int)(imageToResize.getWidth()*factor),
 					(int)(imageToResize.getHeight()*factor),
 					RenderingHints.VALUE_INTERPOLATION_BILINEAR,
-					true);
-			texImages.put(imageName, new TextureImage(resizedImage));
+					true)));
 		}
 
+		List<TextureImage> resizedImages;
+		try {
+			resizedImages = textureProcessor.invokeAll(tasks);
+		} catch (IOException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Failed to resize texture images.", e);
+		}
+
+		for (int i = 0; i < imageNames.size(); i++) {
+			texImages.put(imageNames.get(i), resizedImages.get(i));
+		}
 	}
 
 
@@ -1953,19 +1937,31 @@ public abstract class KmlGenericObject {
 								texImageUri = "_" + texImageUri.substring(fileSeparatorIndex + 1); // for example: _tex4712047.jpeg
 
 								if ((getUnsupportedTexImageId(texImageUri) == -1) && (getTexImage(texImageUri) == null)) { 
-									byte[] imageBytes = textureExportAdapter.getInByteArray(textureImageId, texImageUri);
-									if (imageBytes != null) {
-										imageReader.setSupportRGB(generateTextureAtlas);
+									// texture images are often shared by many objects, so reuse decoded images
+									CachedTextureImage cached = textureProcessor.getTextureImage(textureImageId, generateTextureAtlas);
+									byte[] imageBytes = cached != null ?
+											cached.getImageBytes() :
+												textureExportAdapter.getInByteArray(textureImageId, texImageUri);
 
-										try {
-											TextureImage texImage = imageReader.read(new ByteArrayInputStream(imageBytes));
-											if (texImage != null)
-												addTexImage(texImageUri, texImage);
-											else
+									if (imageBytes != null) {
+										if (cached != null) {
+											addTexImage(texImageUri, cached.getTexImage());
+											texImageBytes.put(cached.getTexImage(), imageBytes);
+										} else {
+											imageReader.setSupportRGB(generateTextureAtlas);
+
+											try {
+												TextureImage texImage = imageReader.read(new ByteArrayInputStream(imageBytes));
+												if (texImage != null) {
+													addTexImage(texImageUri, texImage);
+													texImageBytes.put(texImage, imageBytes);
+													textureProcessor.putTextureImage(textureImageId, generateTextureAtlas, texImage, imageBytes);
+												} else
+													addUnsupportedTexImageId(texImageUri, textureImageId);
+											} catch (IOException ioe) {
+												// unsupported image format
 												addUnsupportedTexImageId(texImageUri, textureImageId);
-										} catch (IOException ioe) {
-											// unsupported image format
-											addUnsupportedTexImageId(texImageUri, textureImageId);
+											}
 										}
 
 										if (++texImageCounter == 20) {
@@ -2317,7 +2313,6 @@ public abstract class KmlGenericObject {
 				}
 			case FILE :
 				if (getBalloonTemplateHandler() != null) {
-					getBalloonTemplateHandler().getBalloonContent(id, currentLod, connection, schemaName);
 					placemark.setDescription(getBalloonTemplateHandler().getBalloonContent(id, currentLod, connection, schemaName));
 				}
 				break;
@@ -2466,8 +2461,10 @@ public abstract class KmlGenericObject {
 					coords = geomObj.getCoordinates(0);
 				}
 
-				log.info("Getting zOffset from Google's elevation API for " + getGmlId() + " with " + candidates.size() + " points.");
-				zOffset = elevationServiceHandler.getZOffset(coords);
+				if (elevationProvider instanceof ElevationServiceHandler)
+					log.info("Getting zOffset from Google's elevation API for " + getGmlId() + " with " + candidates.size() + " points.");
+
+				zOffset = elevationProvider.getZOffset(coords);
 
 				// save result in DB for next time
 				String genericAttribName = "GE_LoD" + currentLod + "_zOffset";
@@ -2549,8 +2546,23 @@ public abstract class KmlGenericObject {
 
 	protected GeometryObject convertToWGS84(GeometryObject geomObj) throws SQLException {
 		GeometryObject convertedGeomObj = null;
+		DatabaseSrs targetSrs = dbSrs.is3D() ? databaseAdapter.getUtil().getWGS843D() : Database.PREDEFINED_SRS.get(Database.PredefinedSrsName.WGS84_2D);
+
+		// the client-side transformation only converts horizontal coordinates,
+		// so it is used whenever the original height values are kept. without an
+		// exact transformation, the database transforms the coordinates instead
+		if (config.getProject().getKmlExporter().isTransformCoordinatesOnClient()
+				&& (geomObj.getDimension() == 2 || config.getProject().getKmlExporter().isUseOriginalZCoords())
+				&& databaseAdapter.getUtil().isHorizontalTransformSupported(geomObj.getSrid(), targetSrs.getSrid())) {
+			try {
+				return databaseAdapter.getUtil().transformOnClient(geomObj, targetSrs);
+			} catch (FactoryException | TransformException e) {
+				log.warn("Failed to convert geometry to WGS84: " + e.getMessage());
+				throw new SQLException("Failed to convert geometry to WGS84.", e);
+			}
+		}
+
 		try {
-			DatabaseSrs targetSrs = dbSrs.is3D() ? databaseAdapter.getUtil().getWGS843D() : Database.PREDEFINED_SRS.get(Database.PredefinedSrsName.WGS84_2D);
 			convertedGeomObj = databaseAdapter.getUtil().transform(geomObj, targetSrs);
 		} catch (SQLException e) {
 			log.warn("SQL exception when converting geometry to WGS84: " + e.getMessage());
@@ -2570,50 +2582,6 @@ public abstract class KmlGenericObject {
 		return convertedGeomObj;
 	}
 
-	protected class Node{
-		double key;
-		Object value;
-		Node rightArc;
-		Node leftArc;
-
-		protected Node(double key, Object value){
-			this.key = key;
-			this.value = value;
-		}
-
-		protected void setLeftArc(Node leftArc) {
-			this.leftArc = leftArc;
-		}
-
-		protected Node getLeftArc() {
-			return leftArc;
-		}
-
-		protected void setRightArc (Node rightArc) {
-			this.rightArc = rightArc;
-		}
-
-		protected Node getRightArc() {
-			return rightArc;
-		}
-	}
-
-	protected class NodeX extends Node{
-		protected NodeX(double key, Object value){
-			super(key, value);
-		}
-	}
-	protected class NodeY extends Node{
-		protected NodeY(double key, Object value){
-			super(key, value);
-		}
-	}
-	protected class NodeZ extends Node{
-		protected NodeZ(double key, Object value){
-			super(key, value);
-		}
-	}
-
 	protected int getParameterCount(String query) {
 		// due to a bug in the Oracle JDBC driver, we cannot use getParameterMetaData().getParameterCount() to
 		// get the number of parameters in a prepared statement having a long query string...
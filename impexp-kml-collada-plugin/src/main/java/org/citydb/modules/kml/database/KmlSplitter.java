@@ -68,6 +68,7 @@ public class KmlSplitter {
 	private final WorkerPool<KmlSplittingResult> dbWorkerPool;
 	private final DisplayForm displayForm;
 	private final Query query;
+	private final int fetchSize;
 	private volatile boolean shouldRun = true;
 
 	private AbstractDatabaseAdapter databaseAdapter;
@@ -101,6 +102,11 @@ public class KmlSplitter {
 
 		schema = databaseAdapter.getConnectionDetails().getSchema();
 
+		// disable auto-commit so that the top-level features can be streamed
+		// in chunks that match the capacity of the work queue
+		connection.setAutoCommit(false);
+		fetchSize = dbWorkerPool.getMaximumQueueSize();
+
 		BuildProperties buildProperties = BuildProperties.defaults()
 				.addProjectionColumn(MappingConstants.GMLID);
 
@@ -121,7 +127,7 @@ public class KmlSplitter {
 		// create query statement
 		Select select = builder.buildQuery(query);
 
-		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection);
+		try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection, fetchSize);
 			 ResultSet rs = stmt.executeQuery()) {
 			int objectCount = 0;
 
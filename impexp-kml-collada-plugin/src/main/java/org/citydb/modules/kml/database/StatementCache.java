@@ -0,0 +1,221 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the prepared statements of a single export worker open across the
+ * feature objects it processes. The KML feature objects build their SQL from
+ * the feature type, LoD, display form and implicit geometry flag, so the SQL
+ * string identifies the shape of a query and is used as cache key together
+ * with the result set type.
+ *
+ * <p>The cache wraps the connection of the worker. Closing a statement that
+ * has been prepared through the wrapped connection returns it to the cache,
+ * closing the connection closes all cached statements. The cache is not
+ * thread-safe and must only be used by the thread owning the connection.</p>
+ */
+public class StatementCache {
+	public static final int DEFAULT_CACHE_SIZE = 64;
+
+	private final Connection connection;
+	private final Connection proxy;
+	private final Map<Key, Deque<PreparedStatement>> statements;
+
+	public StatementCache(Connection connection, int cacheSize) {
+		this.connection = connection;
+
+		proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[]{Connection.class}, new ConnectionHandler());
+
+		statements = new LinkedHashMap<Key, Deque<PreparedStatement>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Deque<PreparedStatement>> eldest) {
+				if (size() > cacheSize) {
+					close(eldest.getValue());
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+	public StatementCache(Connection connection) {
+		this(connection, DEFAULT_CACHE_SIZE);
+	}
+
+	public Connection getConnection() {
+		return proxy;
+	}
+
+	public void clear() {
+		for (Iterator<Deque<PreparedStatement>> iter = statements.values().iterator(); iter.hasNext(); ) {
+			close(iter.next());
+			iter.remove();
+		}
+	}
+
+	private PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		Key key = new Key(sql, resultSetType, resultSetConcurrency);
+		Deque<PreparedStatement> cached = statements.get(key);
+		PreparedStatement statement = cached != null ? cached.poll() : null;
+		if (statement == null)
+			statement = connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+
+		return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+				new Class<?>[]{PreparedStatement.class}, new StatementHandler(key, statement));
+	}
+
+	private void release(Key key, PreparedStatement statement) throws SQLException {
+		if (statement.isClosed())
+			return;
+
+		statement.clearParameters();
+		statements.computeIfAbsent(key, k -> new ArrayDeque<>()).push(statement);
+	}
+
+	private void close(Deque<PreparedStatement> cached) {
+		for (PreparedStatement statement : cached) {
+			try {
+				statement.close();
+			} catch (SQLException e) {
+				//
+			}
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private class ConnectionHandler implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "prepareStatement":
+					Class<?>[] types = method.getParameterTypes();
+					if (types.length == 1)
+						return prepareStatement((String) args[0], ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+					else if (types.length == 3 && types[1] == int.class && types[2] == int.class)
+						return prepareStatement((String) args[0], (Integer) args[1], (Integer) args[2]);
+					break;
+				case "close":
+					clear();
+					break;
+			}
+
+			return StatementCache.invoke(connection, method, args);
+		}
+	}
+
+	private class StatementHandler implements InvocationHandler {
+		private final Key key;
+		private final PreparedStatement statement;
+		private boolean closed;
+
+		StatementHandler(Key key, PreparedStatement statement) {
+			this.key = key;
+			this.statement = statement;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					if (!closed) {
+						closed = true;
+						release(key, statement);
+					}
+					return null;
+				case "isClosed":
+					return closed || statement.isClosed();
+				case "getConnection":
+					return StatementCache.this.proxy;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					if (closed)
+						throw new SQLException("The statement has already been closed.");
+
+					return StatementCache.invoke(statement, method, args);
+			}
+		}
+	}
+
+	private static final class Key {
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+
+		Key(String sql, int resultSetType, int resultSetConcurrency) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+
+			if (!(obj instanceof Key))
+				return false;
+
+			Key other = (Key) obj;
+			return resultSetType == other.resultSetType
+					&& resultSetConcurrency == other.resultSetConcurrency
+					&& sql.equals(other.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return (sql.hashCode() * 31 + resultSetType) * 31 + resultSetConcurrency;
+		}
+	}
+}
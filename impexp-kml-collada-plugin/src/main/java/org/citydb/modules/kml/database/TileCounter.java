@@ -0,0 +1,76 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.database;
+
+import org.citydb.config.Config;
+import org.citydb.database.adapter.AbstractDatabaseAdapter;
+import org.citydb.database.connection.DatabaseConnectionPool;
+import org.citydb.database.schema.mapping.SchemaMapping;
+import org.citydb.query.Query;
+import org.citydb.query.builder.QueryBuildException;
+import org.citydb.query.builder.sql.BuildProperties;
+import org.citydb.query.builder.sql.SQLQueryBuilder;
+import org.citydb.sqlbuilder.select.Select;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class TileCounter {
+	private final SchemaMapping schemaMapping;
+	private final AbstractDatabaseAdapter databaseAdapter;
+	private final Config config;
+
+	public TileCounter(SchemaMapping schemaMapping, AbstractDatabaseAdapter databaseAdapter, Config config) {
+		this.schemaMapping = schemaMapping;
+		this.databaseAdapter = databaseAdapter;
+		this.config = config;
+	}
+
+	public long count(Query query) throws SQLException, QueryBuildException {
+		SQLQueryBuilder builder = new SQLQueryBuilder(schemaMapping, databaseAdapter, BuildProperties.defaults());
+		Select select = builder.buildQuery(query);
+
+		// counts all top-level features whose envelope intersects the tile. this slightly
+		// overestimates the number of features assigned to the tile by their center point
+		try (Connection connection = DatabaseConnectionPool.getInstance().getConnection()) {
+			if (databaseAdapter.hasVersioningSupport()) {
+				databaseAdapter.getWorkspaceManager().gotoWorkspace(connection,
+						config.getProject().getDatabase().getWorkspaces().getKmlExportWorkspace());
+			}
+
+			try (PreparedStatement stmt = connection.prepareStatement("select count(*) from (" + select.toString() + ") cnt")) {
+				databaseAdapter.getSQLAdapter().fillPlaceHolders(select, stmt, connection);
+				try (ResultSet rs = stmt.executeQuery()) {
+					return rs.next() ? rs.getLong(1) : 0;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.database;
+
+import org.citydb.config.Config;
+import org.citydb.config.geometry.GeometryObject;
+import org.citydb.config.geometry.GeometryType;
+import org.citydb.config.geometry.Point;
+import org.citydb.database.adapter.AbstractDatabaseAdapter;
+import org.citydb.database.connection.DatabaseConnectionPool;
+import org.citydb.database.schema.mapping.MappingConstants;
+import org.citydb.database.schema.mapping.SchemaMapping;
+import org.citydb.query.Query;
+import org.citydb.query.builder.QueryBuildException;
+import org.citydb.query.builder.sql.BuildProperties;
+import org.citydb.query.builder.sql.SQLQueryBuilder;
+import org.citydb.query.filter.FilterException;
+import org.citydb.query.filter.tiling.Tile;
+import org.citydb.sqlbuilder.select.Select;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TileFingerprint {
+	private final SchemaMapping schemaMapping;
+	private final AbstractDatabaseAdapter databaseAdapter;
+	private final Config config;
+
+	public TileFingerprint(SchemaMapping schemaMapping, AbstractDatabaseAdapter databaseAdapter, Config config) {
+		this.schemaMapping = schemaMapping;
+		this.databaseAdapter = databaseAdapter;
+		this.config = config;
+	}
+
+	public String calculate(Query query) throws SQLException, QueryBuildException, FilterException {
+		Tile activeTile = query.getTiling().getActiveTile();
+
+		BuildProperties buildProperties = BuildProperties.defaults()
+				.addProjectionColumn(MappingConstants.LAST_MODIFICATION_DATE)
+				.addProjectionColumn(MappingConstants.ENVELOPE);
+
+		SQLQueryBuilder builder = new SQLQueryBuilder(schemaMapping, databaseAdapter, buildProperties);
+		Select select = builder.buildQuery(query);
+
+		// the fingerprint is built from the ids, modification dates and envelopes
+		// of the top-level features that are assigned to the tile
+		List<String> rows = new ArrayList<>();
+		try (Connection connection = DatabaseConnectionPool.getInstance().getConnection()) {
+			if (databaseAdapter.hasVersioningSupport()) {
+				databaseAdapter.getWorkspaceManager().gotoWorkspace(connection,
+						config.getProject().getDatabase().getWorkspaces().getKmlExportWorkspace());
+			}
+
+			try (PreparedStatement stmt = databaseAdapter.getSQLAdapter().prepareStatement(select, connection);
+				 ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					long id = rs.getLong(MappingConstants.ID);
+					Timestamp lastModificationDate = rs.getTimestamp(MappingConstants.LAST_MODIFICATION_DATE);
+
+					double[] coordinates = null;
+					Object geomObj = rs.getObject(MappingConstants.ENVELOPE);
+					if (!rs.wasNull() && geomObj != null) {
+						GeometryObject envelope = databaseAdapter.getGeometryConverter().getEnvelope(geomObj);
+						if (envelope != null && envelope.getGeometryType() == GeometryType.ENVELOPE) {
+							coordinates = envelope.getCoordinates(0);
+
+							// same tile assignment as used by the KML splitter
+							if (!activeTile.isOnTile(new Point(
+									(coordinates[0] + coordinates[3]) / 2.0,
+									(coordinates[1] + coordinates[4]) / 2.0,
+									databaseAdapter.getConnectionMetaData().getReferenceSystem()),
+									databaseAdapter))
+								continue;
+						}
+					}
+
+					rows.add(id + ";" + (lastModificationDate != null ? lastModificationDate.getTime() : "") + ";" + Arrays.toString(coordinates));
+				}
+			}
+		}
+
+		Collections.sort(rows);
+
+		try {
+			MessageDigest md5 = MessageDigest.getInstance("MD5");
+			for (String row : rows)
+				md5.update((row + "\n").getBytes(StandardCharsets.UTF_8));
+
+			return toHexString(md5.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new SQLException("Failed to create tile fingerprint.", e);
+		}
+	}
+
+	private String toHexString(byte[] bytes) {
+		StringBuilder hexString = new StringBuilder();
+		for (byte b : bytes)
+			hexString.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
+
+		return hexString.toString();
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.database;
+
+import java.util.Arrays;
+
+/**
+ * Welds vertices whose coordinates differ by at most a given tolerance on each
+ * axis. Vertices are hashed into a grid of cubic cells, so a lookup only has
+ * to check the cell of the vertex and those neighbouring cells that are within
+ * the tolerance. If several vertices match, the vertex added first is returned.
+ */
+class VertexIndex {
+	// cells are larger than the tolerance so that most lookups hit a single cell
+	private static final int CELL_SIZE_FACTOR = 16;
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final double tolerance;
+	private final double cellSize;
+
+	private VertexInfo[] vertices = new VertexInfo[INITIAL_CAPACITY];
+	private double[] coords = new double[INITIAL_CAPACITY * 3];
+	private int[] next = new int[INITIAL_CAPACITY];
+	private int size;
+
+	// open addressing hash table from cell keys to the last vertex of the cell
+	private long[] cellKeys = new long[INITIAL_CAPACITY * 2];
+	private int[] cellHeads = new int[INITIAL_CAPACITY * 2];
+	private int cells;
+
+	VertexIndex(double tolerance) {
+		if (tolerance <= 0)
+			throw new IllegalArgumentException("Tolerance must be greater than zero.");
+
+		this.tolerance = tolerance;
+		cellSize = tolerance * CELL_SIZE_FACTOR;
+		Arrays.fill(cellHeads, -1);
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the first added vertex matching the given coordinates
+	 * within the tolerance or {@code null} if there is no such vertex
+	 */
+	VertexInfo get(double x, double y, double z) {
+		long cx = cell(x), cy = cell(y), cz = cell(z);
+		int fromX = neighbour(x, cx, -1), toX = neighbour(x, cx, 1);
+		int fromY = neighbour(y, cy, -1), toY = neighbour(y, cy, 1);
+		int fromZ = neighbour(z, cz, -1), toZ = neighbour(z, cz, 1);
+
+		int match = Integer.MAX_VALUE;
+		for (int i = fromX; i <= toX; i++) {
+			for (int j = fromY; j <= toY; j++) {
+				for (int k = fromZ; k <= toZ; k++) {
+					// vertices of a cell are chained from the last to the first added one
+					for (int index = head(key(cx + i, cy + j, cz + k)); index >= 0; index = next[index]) {
+						if (index < match && matches(index, x, y, z))
+							match = index;
+					}
+				}
+			}
+		}
+
+		return match != Integer.MAX_VALUE ? vertices[match] : null;
+	}
+
+	void add(VertexInfo vertex) {
+		if (size == vertices.length) {
+			int capacity = size * 2;
+			vertices = Arrays.copyOf(vertices, capacity);
+			coords = Arrays.copyOf(coords, capacity * 3);
+			next = Arrays.copyOf(next, capacity);
+		}
+
+		int index = size++;
+		vertices[index] = vertex;
+		coords[index * 3] = vertex.getX();
+		coords[index * 3 + 1] = vertex.getY();
+		coords[index * 3 + 2] = vertex.getZ();
+
+		long key = key(cell(vertex.getX()), cell(vertex.getY()), cell(vertex.getZ()));
+		int slot = slot(key);
+		if (cellHeads[slot] < 0) {
+			cellKeys[slot] = key;
+			next[index] = -1;
+			cellHeads[slot] = index;
+			if (++cells * 2 > cellKeys.length)
+				rehash();
+		} else {
+			next[index] = cellHeads[slot];
+			cellHeads[slot] = index;
+		}
+	}
+
+	private boolean matches(int index, double x, double y, double z) {
+		return Math.abs(coords[index * 3] - x) <= tolerance
+				&& Math.abs(coords[index * 3 + 1] - y) <= tolerance
+				&& Math.abs(coords[index * 3 + 2] - z) <= tolerance;
+	}
+
+	private long cell(double value) {
+		return (long) Math.floor(value / cellSize);
+	}
+
+	private int neighbour(double value, long cell, int direction) {
+		// only neighbouring cells within the tolerance can hold a match, the
+		// doubled tolerance covers rounding errors of the cell computation
+		double border = (direction < 0 ? cell : cell + 1) * cellSize;
+		return Math.abs(value - border) <= 2 * tolerance ? direction : 0;
+	}
+
+	private long key(long cx, long cy, long cz) {
+		// cells sharing a key just share their chain, since matches are checked exactly
+		return (cx * 0x9E3779B97F4A7C15L) ^ (cy * 0xC2B2AE3D27D4EB4FL) ^ (cz * 0x165667B19E3779F9L);
+	}
+
+	private int head(long key) {
+		// empty slots hold -1
+		return cellHeads[slot(key)];
+	}
+
+	private int slot(long key) {
+		int mask = cellKeys.length - 1;
+		int slot = (int) (key ^ (key >>> 32)) & mask;
+		while (cellHeads[slot] >= 0 && cellKeys[slot] != key)
+			slot = (slot + 1) & mask;
+
+		return slot;
+	}
+
+	private void rehash() {
+		long[] oldKeys = cellKeys;
+		int[] oldHeads = cellHeads;
+
+		cellKeys = new long[oldKeys.length * 2];
+		cellHeads = new int[oldHeads.length * 2];
+		Arrays.fill(cellHeads, -1);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldHeads[i] >= 0) {
+				int slot = slot(oldKeys[i]);
+				cellKeys[slot] = oldKeys[i];
+				cellHeads[slot] = oldHeads[i];
+			}
+		}
+	}
+}
@@ -27,27 +27,26 @@
  */
 package org.citydb.modules.kml.database;
 
-import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Set;
 
 public class VertexInfo {
-	private BigInteger vertexId;
+	private int vertexId;
 	private double x;
 	private double y;
 	private double z;
 	private HashMap<Long, TexCoords> texCoords;
 	private VertexInfo nextVertexInfo = null;
 
-	protected VertexInfo (BigInteger vertexId, double x, double y, double z) {
+	protected VertexInfo (int vertexId, double x, double y, double z) {
 		setVertexId(vertexId);
 		setX(x);
 		setY(y);
 		setZ(z);
 	}
 
-	protected VertexInfo (BigInteger vertexId) {
+	protected VertexInfo (int vertexId) {
 		setVertexId(vertexId);
 	}
 
@@ -89,11 +88,11 @@ public class VertexInfo {
 	}
 	
 
-	protected void setVertexId(BigInteger vertexId) {
+	protected void setVertexId(int vertexId) {
 		this.vertexId = vertexId;
 	}
 
-	protected BigInteger getVertexId() {
+	protected int getVertexId() {
 		return vertexId;
 	}
 
@@ -44,9 +44,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 
@@ -1129,6 +1131,14 @@ public class BalloonTemplateHandler {
 	List<BalloonStatement> statementList = null;
 	List<String> htmlChunkList = null;
 
+	private static final int MAX_TEMPLATE_HANDLERS = 100;
+	private final LinkedHashMap<String, BalloonTemplateHandler> templateHandlers = new LinkedHashMap<String, BalloonTemplateHandler>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, BalloonTemplateHandler> eldest) {
+			return size() > MAX_TEMPLATE_HANDLERS;
+		}
+	};
+
 	public BalloonTemplateHandler(File templateFile, AbstractDatabaseAdapter databaseAdapter) {
 		this.databaseAdapter = databaseAdapter;
 		setTemplate(templateFile);
@@ -1193,20 +1203,22 @@ public class BalloonTemplateHandler {
 			schemaName = databaseAdapter.getSchemaManager().getDefaultSchema();
 
 		String balloonContent = "";
-		List<BalloonStatement> statementListBackup = statementList;
-		List<String> htmlChunkListBackup = htmlChunkList;
-		statementList = new ArrayList<BalloonStatement>();
-		htmlChunkList = new ArrayList<String>();
 		try {
-			fillStatementAndHtmlChunkList(template);
-			balloonContent = getBalloonContent(id, lod, connection, schemaName);
+			// templates from generic attributes are usually shared by many objects,
+			// so keep them parsed together with their converted SQL statements
+			BalloonTemplateHandler templateHandler = templateHandlers.get(template);
+			if (templateHandler == null) {
+				templateHandler = new BalloonTemplateHandler((String) null, databaseAdapter);
+				templateHandler.fillStatementAndHtmlChunkList(template);
+				templateHandlers.put(template, templateHandler);
+			}
+
+			balloonContent = templateHandler.getBalloonContent(id, lod, connection, schemaName);
 		}
 		catch (Exception e) {
 			log.warn("Following message applies to generic attribute 'Balloon_Content' for cityobject with id = " + id);
 			log.warn(e.getMessage());
 		}
-		statementList = statementListBackup;
-		htmlChunkList = htmlChunkListBackup;
 		return balloonContent;
 	}
 
@@ -1252,17 +1264,9 @@ public class BalloonTemplateHandler {
 				}
 			}
 
-			if (cityGMLClassForBalloonHandler != cityObjectTypeForGmlId) {
-				for (BalloonStatement statement: statementList) {
-					statement.setConversionTried(false);
-				}
-				cityGMLClassForBalloonHandler = cityObjectTypeForGmlId;
-			}
+			cityGMLClassForBalloonHandler = cityObjectTypeForGmlId;
 
-			List<String> resultList = new ArrayList<String>();
-			for (BalloonStatement statement: statementList) {
-				resultList.add(executeStatement(statement, id, lod, connection, schemaName));
-			}
+			List<String> resultList = executeStatements(statementList, id, lod, connection, schemaName);
 
 			Iterator<String> htmlChunkIterator = htmlChunkList.iterator();
 			Iterator<String> resultIterator = resultList.iterator();
@@ -1317,17 +1321,9 @@ public class BalloonTemplateHandler {
 				}
 			}
 
-			if (cityGMLClassForBalloonHandler != cityObjectTypeForId) {
-				for (BalloonStatement statement: statementList) {
-					statement.setConversionTried(false);
-				}
-				cityGMLClassForBalloonHandler = cityObjectTypeForId;
-			}
+			cityGMLClassForBalloonHandler = cityObjectTypeForId;
 
-			List<String> resultList = new ArrayList<String>();
-			for (BalloonStatement statement: statementList) {
-				resultList.add(executeStatement(statement, id, lod, connection, schemaName));
-			}
+			List<String> resultList = executeStatements(statementList, id, lod, connection, schemaName);
 
 			Iterator<String> htmlChunkIterator = htmlChunkList.iterator();
 			Iterator<String> resultIterator = resultList.iterator();
@@ -1342,6 +1338,139 @@ public class BalloonTemplateHandler {
 		return balloonContent.toString();
 	}
 
+	private List<String> executeStatements(List<BalloonStatement> statements, long id, int lod, Connection connection, String schemaName) {
+		// expressions reading the same rows of the same table are answered by a single query
+		LinkedHashMap<String, List<BalloonStatement>> mergeableStatements = new LinkedHashMap<String, List<BalloonStatement>>();
+		for (BalloonStatement statement: statements) {
+			if (statement.isForeach() || statement.isNested())
+				continue;
+
+			ProperSQLStatement properSQLStatement = statement.getConvertedStatement(lod, schemaName);
+			if (properSQLStatement.isMergeable()) {
+				List<BalloonStatement> group = mergeableStatements.get(properSQLStatement.getMergeKey());
+				if (group == null) {
+					group = new ArrayList<BalloonStatement>();
+					mergeableStatements.put(properSQLStatement.getMergeKey(), group);
+				}
+				group.add(statement);
+			}
+		}
+
+		HashMap<BalloonStatement, String> mergedResults = new HashMap<BalloonStatement, String>();
+		for (List<BalloonStatement> group: mergeableStatements.values()) {
+			if (group.size() > 1)
+				executeMergedStatements(group, id, lod, connection, schemaName, mergedResults);
+		}
+
+		List<String> resultList = new ArrayList<String>();
+		for (BalloonStatement statement: statements) {
+			String result = mergedResults.get(statement);
+			resultList.add(result != null ? result : executeStatement(statement, id, lod, connection, schemaName));
+		}
+		return resultList;
+	}
+
+	private void executeMergedStatements(List<BalloonStatement> group, long id, int lod, Connection connection, String schemaName, Map<BalloonStatement, String> mergedResults) {
+		ProperSQLStatement[] properSQLStatements = new ProperSQLStatement[group.size()];
+		int[] columnIndexes = new int[group.size()];
+		StringBuilder query = new StringBuilder("SELECT ");
+		int columnIndex = 1;
+		for (int i = 0; i < group.size(); i++) {
+			properSQLStatements[i] = group.get(i).getConvertedStatement(lod, schemaName);
+			if (i > 0)
+				query.append(", ");
+
+			query.append(properSQLStatements[i].getSelectClause());
+			columnIndexes[i] = columnIndex;
+			columnIndex += properSQLStatements[i].getColumnCount();
+		}
+
+		// the rows are sorted like the first expression of the group
+		String orderByClause = properSQLStatements[0].getOrderByClause();
+		query.append(properSQLStatements[0].getFromClause()).append(orderByClause);
+
+		PreparedStatement preparedStatement = null;
+		ResultSet rs = null;
+		try {
+			preparedStatement = connection.prepareStatement(query.toString());
+			for (int i = 1; i <= getParameterCount(query.toString()); i++)
+				preparedStatement.setLong(i, id);
+
+			StringBuilder[] results = new StringBuilder[group.size()];
+			for (int i = 0; i < results.length; i++)
+				results[i] = new StringBuilder();
+
+			int rows = 0;
+			rs = preparedStatement.executeQuery();
+			while (rs.next()) {
+				rows++;
+				for (int i = 0; i < results.length; i++) {
+					if (rows > 1)
+						results[i].append(", ");
+
+					String value = getColumnValue(rs, columnIndexes[i]);
+					if (value != null)
+						results[i].append(value);
+				}
+			}
+
+			// expressions sorted differently are only correct if there is at most one row,
+			// otherwise they are executed on their own
+			for (int i = 0; i < results.length; i++) {
+				if (rows <= 1 || orderByClause.equals(properSQLStatements[i].getOrderByClause()))
+					mergedResults.put(group.get(i), results[i].toString());
+			}
+		}
+		catch (Exception e) {
+			// the expressions are executed one by one instead
+			log.debug("Exception when executing merged balloon statement: " + query + " --> " + e.getMessage());
+		}
+		finally {
+			try {
+				if (rs != null) rs.close();
+				if (preparedStatement != null) preparedStatement.close();
+			}
+			catch (Exception e2) {}
+		}
+	}
+
+	private String getColumnValue(ResultSet rs, int columnIndex) throws SQLException {
+		Object object = rs.getObject(columnIndex);
+		if (rs.wasNull() || object == null)
+			return null;
+
+		GeometryObject geomObj = databaseAdapter.getGeometryConverter().getGeometry(object);
+		if (geomObj != null) {
+			int dimension = geomObj.getDimension();
+			StringBuilder result = new StringBuilder("(");
+			for (int ringNo = 0; ringNo < geomObj.getNumElements(); ringNo++) {
+				double[] ring = geomObj.getCoordinates(ringNo);
+
+				for (int i = 0; i < ring.length; i = i + dimension) {
+					for (int j = 0; j < dimension; j++) {
+						result.append(ring[i+j]);
+						if (j < dimension - 1) 
+							result.append(",");
+					}
+
+					if (i+dimension < ring.length)
+						result.append(" ");
+				}	
+
+				if (ringNo < geomObj.getNumElements() - 1)
+					result.append(" ");
+			}
+			return result.append(")").toString();
+		}
+		else {
+			String tmp = object.toString();
+			if (tmp.indexOf("oracle.sql.TIMESTAMPTZ") >= 0) {
+				tmp =  rs.getTimestamp(columnIndex).toString();
+			}
+			return tmp.replaceAll("\"", "&quot;"); // workaround, the JAXB KML marshaler does not escape " properly;
+		}
+	}
+
 	private String executeStatement(BalloonStatement statement, long id, int lod, Connection connection, String schemaName) {
 		String result = "";
 		String query = "";
@@ -1354,46 +1483,16 @@ public class BalloonTemplateHandler {
 				}
 
 				if (statement.isNested()) {
-					String rawStatement = statement.getRawStatement();
-					List<String> textBetweenNestedStatements = new ArrayList<String>();
-					List<BalloonStatement> nestedStatementList = new ArrayList<BalloonStatement>();
-					int nestingLevel = 0;
-					int lastIndex = 0;
-					int index = 0;
-					int beginOfSubexpression = 0;
-
-					while (nestingLevel > 0 || rawStatement.indexOf(END_TAG, index) > -1) {
-						int indexOfNextStart = rawStatement.indexOf(START_TAG, index);
-						int indexOfNextEnd = rawStatement.indexOf(END_TAG, index);
-						if (indexOfNextStart != -1 && indexOfNextStart < indexOfNextEnd) {
-							nestingLevel++;
-							if (nestingLevel == 1) {
-								textBetweenNestedStatements.add(rawStatement.substring(lastIndex, indexOfNextStart));
-								beginOfSubexpression = indexOfNextStart + START_TAG.length();
-							}
-							index = indexOfNextStart + START_TAG.length();
-						}
-						else {
-							nestingLevel--;
-							index = indexOfNextEnd;
-							if (nestingLevel == 0) {
-								String originalNestedStatement = rawStatement.substring(beginOfSubexpression, index);
-								BalloonStatement nestedStatement = new BalloonStatement(originalNestedStatement);
-								nestedStatement.setNested(originalNestedStatement.contains(START_TAG));
-								nestedStatementList.add(nestedStatement);
-								lastIndex = index + END_TAG.length();
-							}
-							index = index + END_TAG.length();
-						}
-					}
-					textBetweenNestedStatements.add(rawStatement.substring(index));
+					// nested expressions are parsed only once
+					if (statement.getNestedStatementList() == null)
+						parseNestedStatement(statement);
+
+					List<String> textBetweenNestedStatements = statement.getTextBetweenNestedStatements();
+					List<BalloonStatement> nestedStatementList = statement.getNestedStatementList();
 
 					StringBuilder notNestedAnymore = new StringBuilder();
 					if (nestedStatementList != null) {
-						List<String> resultList = new ArrayList<String>();
-						for (BalloonStatement nestedStatement: nestedStatementList) {
-							resultList.add(executeStatement(nestedStatement, id, lod, connection, schemaName));
-						}
+						List<String> resultList = executeStatements(nestedStatementList, id, lod, connection, schemaName);
 
 						Iterator<String> textIterator = textBetweenNestedStatements.iterator();
 						Iterator<String> resultIterator = resultList.iterator();
@@ -1408,11 +1507,16 @@ public class BalloonTemplateHandler {
 
 					BalloonStatement dummy = new BalloonStatement(notNestedAnymore.toString());
 					query = dummy.getProperSQLStatement(lod, schemaName);
+					if (query == null) {
+						// the invalid expression has already been reported
+						return result;
+					}
 					preparedStatement = connection.prepareStatement(query);
 				}
 				else { // not nested
-					if (statement.getProperSQLStatement(lod, schemaName) == null) {
-						// malformed expression between proper START_TAG and END_TAG
+					if (!statement.getConvertedStatement(lod, schemaName).isValid()) {
+						// malformed expression between proper START_TAG and END_TAG, which
+						// has already been reported when converting it
 						return result; // skip db call, rs and preparedStatement are currently null
 					}
 					query = statement.getProperSQLStatement(lod, schemaName);
@@ -1427,39 +1531,9 @@ public class BalloonTemplateHandler {
 					if (rs.getRow() > 1) {
 						result = result + ", ";
 					}
-					Object object = rs.getObject(1);
-					if (!rs.wasNull() && object != null) {
-						GeometryObject geomObj = databaseAdapter.getGeometryConverter().getGeometry(object);
-						if (geomObj != null) {
-							int dimension = geomObj.getDimension();
-
-							result = result + "(";
-							for (int ringNo = 0; ringNo < geomObj.getNumElements(); ringNo++) {
-								double[] ring = geomObj.getCoordinates(ringNo);
-
-								for (int i = 0; i < ring.length; i = i + dimension) {
-									for (int j = 0; j < dimension; j++) {
-										result = result + ring[i+j];
-										if (j < dimension - 1) 
-											result = result + ",";
-									}
-
-									if (i+dimension < ring.length)
-										result = result + " ";
-								}	
-
-								if (ringNo < geomObj.getNumElements() - 1)
-									result = result + " ";
-							}
-							result = result + ")";
-						}
-						else {
-							String tmp = rs.getObject(1).toString();
-							if (tmp.indexOf("oracle.sql.TIMESTAMPTZ") >= 0) {
-								tmp =  rs.getTimestamp(1).toString();
-							}
-							result = result + tmp.replaceAll("\"", "&quot;"); // workaround, the JAXB KML marshaler does not escape " properly;
-						}
+					String value = getColumnValue(rs, 1);
+					if (value != null) {
+						result = result + value;
 					}
 				}
 			}
@@ -1477,6 +1551,45 @@ public class BalloonTemplateHandler {
 		return result;
 	}
 
+	private void parseNestedStatement(BalloonStatement statement) {
+		String rawStatement = statement.getRawStatement();
+		List<String> textBetweenNestedStatements = new ArrayList<String>();
+		List<BalloonStatement> nestedStatementList = new ArrayList<BalloonStatement>();
+		int nestingLevel = 0;
+		int lastIndex = 0;
+		int index = 0;
+		int beginOfSubexpression = 0;
+
+		while (nestingLevel > 0 || rawStatement.indexOf(END_TAG, index) > -1) {
+			int indexOfNextStart = rawStatement.indexOf(START_TAG, index);
+			int indexOfNextEnd = rawStatement.indexOf(END_TAG, index);
+			if (indexOfNextStart != -1 && indexOfNextStart < indexOfNextEnd) {
+				nestingLevel++;
+				if (nestingLevel == 1) {
+					textBetweenNestedStatements.add(rawStatement.substring(lastIndex, indexOfNextStart));
+					beginOfSubexpression = indexOfNextStart + START_TAG.length();
+				}
+				index = indexOfNextStart + START_TAG.length();
+			}
+			else {
+				nestingLevel--;
+				index = indexOfNextEnd;
+				if (nestingLevel == 0) {
+					String originalNestedStatement = rawStatement.substring(beginOfSubexpression, index);
+					BalloonStatement nestedStatement = new BalloonStatement(originalNestedStatement);
+					nestedStatement.setNested(originalNestedStatement.contains(START_TAG));
+					nestedStatementList.add(nestedStatement);
+					lastIndex = index + END_TAG.length();
+				}
+				index = index + END_TAG.length();
+			}
+		}
+		textBetweenNestedStatements.add(rawStatement.substring(index));
+
+		statement.textBetweenNestedStatements = textBetweenNestedStatements;
+		statement.nestedStatementList = nestedStatementList;
+	}
+
 	private String executeForeachStatement(BalloonStatement statement, long id, int lod, Connection connection, String schemaName) {
 		String resultBody = "";
 
@@ -1602,11 +1715,80 @@ public class BalloonTemplateHandler {
 	}
 
 
+	private static class ProperSQLStatement {
+		private final String sqlStatement;
+		private final String selectClause;
+		private final String fromClause;
+		private final String orderByClause;
+		private final int columnCount;
+		private final String error;
+
+		private ProperSQLStatement(String sqlStatement, String selectClause, String fromClause, String orderByClause, int columnCount, String error) {
+			this.sqlStatement = sqlStatement;
+			this.selectClause = selectClause;
+			this.fromClause = fromClause;
+			this.orderByClause = orderByClause;
+			this.columnCount = columnCount;
+			this.error = error;
+		}
+
+		private static ProperSQLStatement of(String sqlStatement) {
+			return new ProperSQLStatement(sqlStatement, null, null, null, 0, null);
+		}
+
+		private static ProperSQLStatement mergeable(String sqlStatement, String selectClause, String fromClause, String orderByClause, int columnCount) {
+			return new ProperSQLStatement(sqlStatement, selectClause, fromClause, orderByClause, columnCount, null);
+		}
+
+		private static ProperSQLStatement invalid(String error) {
+			return new ProperSQLStatement(null, null, null, null, 0, error);
+		}
+
+		private String getSQLStatement() {
+			return sqlStatement;
+		}
+
+		private boolean isValid() {
+			return error == null;
+		}
+
+		private boolean isMergeable() {
+			return selectClause != null;
+		}
+
+		private String getMergeKey() {
+			// aggregations must not be mixed with plain column values
+			return (orderByClause == null ? "AGGREGATE" : "COLUMNS") + fromClause;
+		}
+
+		private String getSelectClause() {
+			return selectClause;
+		}
+
+		private String getFromClause() {
+			return fromClause;
+		}
+
+		private String getOrderByClause() {
+			return orderByClause != null ? orderByClause : "";
+		}
+
+		private int getColumnCount() {
+			return columnCount;
+		}
+	}
+
 	private class BalloonStatement {
 		private String rawStatement;
 		private boolean nested = false;
 		private String properSQLStatement = null;
-		private boolean conversionTried = false;
+		private String selectClause;
+		private String fromClause;
+		private String orderByClause;
+		private HashMap<Long, ProperSQLStatement> properSQLStatements = new HashMap<Long, ProperSQLStatement>();
+		private String schemaName;
+		private List<BalloonStatement> nestedStatementList;
+		private List<String> textBetweenNestedStatements;
 		private int columnAmount;
 		private boolean foreach = false;
 		private String foreachBody;
@@ -1639,15 +1821,61 @@ public class BalloonTemplateHandler {
 		}
 
 		private String getProperSQLStatement(int lod, String schemaName) throws Exception {
-			if (!conversionTried && properSQLStatement == null) {
-				this.convertStatementToProperSQL(lod, schemaName);
-				conversionTried = true;
+			return getConvertedStatement(lod, schemaName).getSQLStatement();
+		}
+
+		private ProperSQLStatement getConvertedStatement(int lod, String schemaName) {
+			// the SQL statement depends on the feature class and the LoD, so it is
+			// converted once per combination and reused for all further objects
+			if (!schemaName.equals(this.schemaName)) {
+				properSQLStatements.clear();
+				this.schemaName = schemaName;
+			}
+
+			int classKey = cityGMLClassForBalloonHandler != null ? cityGMLClassForBalloonHandler.ordinal() + 1 : 0;
+			Long key = ((long) classKey << 32) | (lod & 0xffffffffL);
+			ProperSQLStatement converted = properSQLStatements.get(key);
+			if (converted == null) {
+				properSQLStatement = null;
+				selectClause = null;
+				fromClause = null;
+				orderByClause = null;
+				String error = null;
+				try {
+					this.convertStatementToProperSQL(lod, schemaName);
+					if (properSQLStatement == null)
+						error = "Unsupported expression for feature type " + cityGMLClassForBalloonHandler + ".";
+				}
+				catch (Exception e) {
+					error = e.getMessage() != null ? e.getMessage() : e.toString();
+				}
+
+				// failed conversions are reported once and marked as invalid, so that
+				// they are not tried again for every further object
+				if (error != null) {
+					log.warn("Invalid balloon statement \"" + rawStatement + "\" in LoD " + lod + " --> " + error);
+					converted = ProperSQLStatement.invalid(error);
+				}
+				else if (selectClause != null) {
+					converted = ProperSQLStatement.mergeable(properSQLStatement, selectClause, fromClause, orderByClause,
+							orderByClause != null ? getColumnAmount() : 1);
+				}
+				else {
+					converted = ProperSQLStatement.of(properSQLStatement);
+				}
+
+				properSQLStatements.put(key, converted);
 			}
-			return properSQLStatement;
+
+			return converted;
+		}
+
+		private List<BalloonStatement> getNestedStatementList() {
+			return nestedStatementList;
 		}
 
-		private void setConversionTried(boolean conversionTried) {
-			this.conversionTried = conversionTried;
+		private List<String> getTextBetweenNestedStatements() {
+			return textBetweenNestedStatements;
 		}
 
 		private boolean isForeach() {
@@ -1864,9 +2092,12 @@ public class BalloonTemplateHandler {
 					}
 				}				
 				if (aggregateFunction == null) {
+					String orderBy = "";
 					if (orderByColumnAllowed) {
-						sqlStatement = sqlStatement + " ORDER by " + tableShortId + "." + columns.get(0);
+						orderBy = " ORDER by " + tableShortId + "." + columns.get(0);
 					}
+					setMergeableClauses(sqlStatement, orderBy);
+					sqlStatement = sqlStatement + orderBy;
 				}
 				else {
 					if ((!orderByColumnAllowed) && (rownum > 0
@@ -1925,13 +2156,33 @@ public class BalloonTemplateHandler {
 							break;
 						}
 					}
-					// no ORDER by for MAX, MIN, AVG, COUNT, SUM
+					else {
+						// no ORDER by for MAX, MIN, AVG, COUNT, SUM
+						setMergeableClauses(sqlStatement, null);
+					}
 				}
 			}
 
 			setProperSQLStatement(sqlStatement);
 		}
 
+		private void setMergeableClauses(String sqlStatement, String orderBy) {
+			// plain SELECT ... FROM ... statements can be combined with other statements
+			// having the same FROM clause. The ORDER by clause is null for aggregations.
+			int index = sqlStatement.indexOf(" FROM ");
+			if (!sqlStatement.startsWith("SELECT ") || index == -1)
+				return;
+
+			String select = sqlStatement.substring("SELECT ".length(), index);
+			String upperCaseSelect = select.toUpperCase();
+			if (upperCaseSelect.startsWith("DISTINCT ") || upperCaseSelect.contains("SELECT"))
+				return;
+
+			selectClause = select;
+			fromClause = sqlStatement.substring(index);
+			orderByClause = orderBy;
+		}
+
 		private String sqlStatementForBuilding(String table,
 				List<String> columns,
 				String aggregateString,
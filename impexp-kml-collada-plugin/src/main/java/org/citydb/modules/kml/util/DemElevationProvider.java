@@ -0,0 +1,477 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.util;
+
+import org.citydb.config.project.kmlExporter.ElevationModel;
+import org.citydb.log.Logger;
+import org.geotools.coverage.GridSampleDimension;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.gce.geotiff.GeoTiffReader;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.opengis.metadata.spatial.PixelOrientation;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.MathTransform2D;
+import org.opengis.referencing.operation.TransformException;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DemElevationProvider implements ElevationProvider {
+	private final Logger log = Logger.getInstance();
+
+	private final int MAX_BLOCK_SIZE = 1 << 28;
+	private final int MAX_CACHE_SIZE = 1 << 20;
+
+	private final List<Grid> grids = new ArrayList<>();
+	private final ConcurrentHashMap<Position, Double> cache = new ConcurrentHashMap<>();
+
+	public DemElevationProvider(ElevationModel elevationModel) throws IOException, FactoryException {
+		CoordinateReferenceSystem defaultCrs = elevationModel.isSetSrid() ?
+				CRS.decode("EPSG:" + elevationModel.getSrid(), true) : null;
+
+		try {
+			for (String fileName : elevationModel.getFiles()) {
+				File file = new File(fileName);
+				File[] files = file.isDirectory() ? file.listFiles() : new File[]{file};
+				if (files == null)
+					throw new IOException("Failed to read the elevation model directory " + file + ".");
+
+				for (File candidate : files) {
+					String name = candidate.getName().toLowerCase(Locale.ROOT);
+					if (name.endsWith(".asc"))
+						grids.add(readAsciiGrid(candidate, defaultCrs));
+					else if (name.endsWith(".tif") || name.endsWith(".tiff"))
+						grids.add(readGeoTiff(candidate, defaultCrs));
+					else if (!file.isDirectory())
+						throw new IOException("The elevation model " + candidate + " is neither an ASCII grid nor a GeoTIFF file.");
+				}
+			}
+
+			if (grids.isEmpty())
+				throw new IOException("No elevation model files found.");
+		} catch (IOException | FactoryException e) {
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public double getZOffset(double[] candidateCoords) throws Exception {
+		double minElevation = Double.MAX_VALUE;
+		double zOffset = 0;
+
+		for (int i = 0; i < candidateCoords.length; i += 3) {
+			double elevation = getElevation(candidateCoords[i], candidateCoords[i + 1]);
+			if (elevation < minElevation) {
+				minElevation = elevation;
+				zOffset = elevation - candidateCoords[i + 2];
+			}
+		}
+
+		if (minElevation == Double.MAX_VALUE)
+			throw new Exception("The elevation model does not cover the candidate points.");
+
+		return zOffset;
+	}
+
+	public double getElevation(double longitude, double latitude) throws TransformException {
+		Position position = new Position(longitude, latitude);
+		Double elevation = cache.get(position);
+		if (elevation == null) {
+			elevation = Double.NaN;
+			for (Grid grid : grids) {
+				elevation = grid.sample(longitude, latitude);
+				if (!Double.isNaN(elevation))
+					break;
+			}
+
+			if (cache.size() >= MAX_CACHE_SIZE)
+				cache.clear();
+
+			cache.put(position, elevation);
+		}
+
+		return elevation;
+	}
+
+	public void close() {
+		for (Grid grid : grids)
+			grid.close();
+
+		grids.clear();
+		cache.clear();
+	}
+
+	private Grid readAsciiGrid(File file, CoordinateReferenceSystem defaultCrs) throws IOException, FactoryException {
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.US_ASCII)) {
+			int columns = 0, rows = 0;
+			double x = 0, y = 0, cellSize = 0, noData = Double.NaN;
+			boolean isCenter = false;
+
+			// the header consists of keyword/value pairs followed by the rows of the grid
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] tokens = line.trim().split("\\s+");
+				if (tokens[0].isEmpty())
+					continue;
+
+				if (!Character.isLetter(tokens[0].charAt(0)))
+					break;
+
+				String key = tokens[0].toLowerCase(Locale.ROOT);
+				double value = Double.parseDouble(tokens[1]);
+				switch (key) {
+				case "ncols":
+					columns = (int) value;
+					break;
+				case "nrows":
+					rows = (int) value;
+					break;
+				case "xllcenter":
+					isCenter = true;
+				case "xllcorner":
+					x = value;
+					break;
+				case "yllcenter":
+					isCenter = true;
+				case "yllcorner":
+					y = value;
+					break;
+				case "cellsize":
+					cellSize = value;
+					break;
+				case "nodata_value":
+					noData = value;
+					break;
+				}
+			}
+
+			if (columns <= 0 || rows <= 0 || cellSize <= 0)
+				throw new IOException("Invalid ASCII grid header in elevation model " + file + ".");
+
+			if (!isCenter) {
+				x += cellSize / 2;
+				y += cellSize / 2;
+			}
+
+			CoordinateReferenceSystem crs = defaultCrs;
+			File prjFile = new File(file.getParentFile(), file.getName().replaceFirst("\\.[^.]*$", ".prj"));
+			if (crs == null && prjFile.exists())
+				crs = CRS.parseWKT(new String(Files.readAllBytes(prjFile.toPath()), StandardCharsets.UTF_8));
+
+			Grid grid = new Grid(file, columns, rows, x, y + (rows - 1) * cellSize, cellSize, -cellSize, crs);
+			try {
+				try (GridWriter writer = new GridWriter(grid)) {
+					long count = 0, total = (long) columns * rows;
+					if (line != null) {
+						for (String token : line.trim().split("\\s+")) {
+							if (count < total) {
+								writer.write(Double.parseDouble(token), noData);
+								count++;
+							}
+						}
+					}
+
+					StringBuilder token = new StringBuilder();
+					int c;
+					while (count < total && (c = reader.read()) != -1) {
+						if (!Character.isWhitespace(c))
+							token.append((char) c);
+						else if (token.length() > 0) {
+							writer.write(Double.parseDouble(token.toString()), noData);
+							token.setLength(0);
+							count++;
+						}
+					}
+
+					if (count < total && token.length() > 0) {
+						writer.write(Double.parseDouble(token.toString()), noData);
+						count++;
+					}
+
+					if (count < total)
+						throw new IOException("The ASCII grid " + file + " contains fewer values than declared in its header.");
+				}
+
+				grid.map();
+			} catch (IOException | RuntimeException e) {
+				grid.close();
+				throw e;
+			}
+
+			log.info("Loaded elevation model " + file + " (" + columns + "x" + rows + " cells).");
+			return grid;
+		}
+	}
+
+	private Grid readGeoTiff(File file, CoordinateReferenceSystem defaultCrs) throws IOException {
+		GeoTiffReader reader = new GeoTiffReader(file);
+		GridCoverage2D coverage = null;
+
+		try {
+			coverage = reader.read(null);
+			RenderedImage image = coverage.getRenderedImage();
+
+			MathTransform2D gridToCrs = coverage.getGridGeometry().getGridToCRS2D(PixelOrientation.CENTER);
+			if (!(gridToCrs instanceof AffineTransform)
+					|| ((AffineTransform) gridToCrs).getShearX() != 0
+					|| ((AffineTransform) gridToCrs).getShearY() != 0)
+				throw new IOException("The GeoTIFF " + file + " uses a rotated or sheared grid which is not supported.");
+
+			AffineTransform affine = (AffineTransform) gridToCrs;
+			Point2D origin = affine.transform(new Point2D.Double(image.getMinX(), image.getMinY()), null);
+
+			double noData = Double.NaN;
+			GridSampleDimension sampleDimension = coverage.getSampleDimension(0);
+			double[] noDataValues = sampleDimension.getNoDataValues();
+			if (noDataValues != null && noDataValues.length > 0)
+				noData = noDataValues[0];
+
+			CoordinateReferenceSystem crs = coverage.getCoordinateReferenceSystem2D();
+			if (crs == null)
+				crs = defaultCrs;
+
+			Grid grid = new Grid(file, image.getWidth(), image.getHeight(), origin.getX(), origin.getY(),
+					affine.getScaleX(), affine.getScaleY(), crs);
+
+			try {
+				try (GridWriter writer = new GridWriter(grid)) {
+					// copy the image one row of tiles at a time to keep the memory footprint small
+					float[] samples = new float[image.getTileWidth()];
+					for (int tileY = image.getMinTileY(); tileY < image.getMinTileY() + image.getNumYTiles(); tileY++) {
+						Raster[] tiles = new Raster[image.getNumXTiles()];
+						for (int i = 0; i < tiles.length; i++)
+							tiles[i] = image.getTile(image.getMinTileX() + i, tileY);
+
+						int minY = Math.max(tiles[0].getMinY(), image.getMinY());
+						int maxY = Math.min(tiles[0].getMinY() + tiles[0].getHeight(), image.getMinY() + image.getHeight());
+						for (int y = minY; y < maxY; y++) {
+							for (Raster tile : tiles) {
+								int minX = Math.max(tile.getMinX(), image.getMinX());
+								int width = Math.min(tile.getMinX() + tile.getWidth(), image.getMinX() + image.getWidth()) - minX;
+								samples = tile.getSamples(minX, y, width, 1, 0, samples);
+								for (int x = 0; x < width; x++)
+									writer.write(samples[x], noData);
+							}
+						}
+					}
+				}
+
+				grid.map();
+			} catch (IOException | RuntimeException e) {
+				grid.close();
+				throw e;
+			}
+
+			log.info("Loaded elevation model " + file + " (" + grid.columns + "x" + grid.rows + " cells).");
+			return grid;
+		} finally {
+			if (coverage != null)
+				coverage.dispose(true);
+
+			reader.dispose();
+		}
+	}
+
+	private final class Grid {
+		private final int columns;
+		private final int rows;
+		private final double originX;
+		private final double originY;
+		private final double scaleX;
+		private final double scaleY;
+		private final MathTransform transform;
+		private final File dataFile;
+		private final int rowsPerBlock;
+		private FloatBuffer[] blocks;
+
+		Grid(File file, int columns, int rows, double originX, double originY, double scaleX, double scaleY, CoordinateReferenceSystem crs) throws IOException {
+			this.columns = columns;
+			this.rows = rows;
+			this.originX = originX;
+			this.originY = originY;
+			this.scaleX = scaleX;
+			this.scaleY = scaleY;
+
+			// only accept exact transformations, since a lenient one silently ignores
+			// datum shifts and would sample the elevation model at the wrong position
+			try {
+				CoordinateReferenceSystem horizontalCrs = crs != null ? CRS.getHorizontalCRS(crs) : null;
+				if (crs != null && horizontalCrs == null)
+					throw new FactoryException("Failed to determine the horizontal reference system.");
+
+				transform = horizontalCrs != null ?
+						CRS.findMathTransform(DefaultGeographicCRS.WGS84, horizontalCrs, false) :
+						null;
+			} catch (FactoryException e) {
+				throw new IOException("No exact transformation from WGS84 to the reference system of the elevation model " + file + " is available.", e);
+			}
+
+			rowsPerBlock = Math.max(1, MAX_BLOCK_SIZE / (columns * 4));
+			dataFile = File.createTempFile("dem", ".raw");
+			dataFile.deleteOnExit();
+		}
+
+		private void map() throws IOException {
+			try (RandomAccessFile file = new RandomAccessFile(dataFile, "r");
+				 FileChannel channel = file.getChannel()) {
+				// the grid is split into memory-mapped blocks of whole rows
+				blocks = new FloatBuffer[(rows + rowsPerBlock - 1) / rowsPerBlock];
+				for (int i = 0; i < blocks.length; i++) {
+					long offset = (long) i * rowsPerBlock * columns * 4;
+					long size = (long) Math.min(rowsPerBlock, rows - i * rowsPerBlock) * columns * 4;
+					blocks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, size)
+							.order(ByteOrder.nativeOrder())
+							.asFloatBuffer();
+				}
+			}
+		}
+
+		private double sample(double longitude, double latitude) throws TransformException {
+			double[] point = {longitude, latitude};
+			if (transform != null)
+				transform.transform(point, 0, point, 0, 1);
+
+			double column = (point[0] - originX) / scaleX;
+			double row = (point[1] - originY) / scaleY;
+			if (column < -0.5 || column > columns - 0.5 || row < -0.5 || row > rows - 0.5)
+				return Double.NaN;
+
+			int c0 = Math.max(0, Math.min((int) Math.floor(column), columns - 1));
+			int r0 = Math.max(0, Math.min((int) Math.floor(row), rows - 1));
+			int c1 = Math.min(c0 + 1, columns - 1);
+			int r1 = Math.min(r0 + 1, rows - 1);
+			double fx = Math.max(0, Math.min(column - c0, 1));
+			double fy = Math.max(0, Math.min(row - r0, 1));
+
+			// bilinear interpolation ignoring cells without data
+			double[] values = {get(c0, r0), get(c1, r0), get(c0, r1), get(c1, r1)};
+			double[] weights = {(1 - fx) * (1 - fy), fx * (1 - fy), (1 - fx) * fy, fx * fy};
+			double sum = 0, weight = 0;
+			for (int i = 0; i < values.length; i++) {
+				if (!Double.isNaN(values[i]) && weights[i] > 0) {
+					sum += values[i] * weights[i];
+					weight += weights[i];
+				}
+			}
+
+			return weight > 0 ? sum / weight : Double.NaN;
+		}
+
+		private double get(int column, int row) {
+			return blocks[row / rowsPerBlock].get((row % rowsPerBlock) * columns + column);
+		}
+
+		private void close() {
+			// mapped buffers are released once they are garbage collected
+			blocks = null;
+			if (!dataFile.delete())
+				dataFile.deleteOnExit();
+		}
+	}
+
+	private static final class GridWriter implements AutoCloseable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+
+		GridWriter(Grid grid) throws IOException {
+			channel = new RandomAccessFile(grid.dataFile, "rw").getChannel();
+			buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.nativeOrder());
+		}
+
+		private void write(double value, double noData) throws IOException {
+			if (!buffer.hasRemaining())
+				flush();
+
+			buffer.putFloat(value == noData ? Float.NaN : (float) value);
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+
+			buffer.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	private static final class Position {
+		private final double x;
+		private final double y;
+
+		Position(double x, double y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+
+			if (!(obj instanceof Position))
+				return false;
+
+			Position other = (Position) obj;
+			return Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Double.hashCode(x) + Double.hashCode(y);
+		}
+	}
+}
@@ -41,7 +41,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
-public class ElevationServiceHandler {
+public class ElevationServiceHandler implements ElevationProvider {
 	private static final ReentrantLock runLock = new ReentrantLock();
 	private final Logger log = Logger.getInstance();
 
@@ -77,6 +77,7 @@ public class ElevationServiceHandler {
 				config.getProject().getGlobal().getApiKeys().getGoogleElevation() : "";
 	}
 
+	@Override
 	public double getZOffset(double[] candidateCoords) throws Exception {
 		double zOffset = 0;
 		location = -1;
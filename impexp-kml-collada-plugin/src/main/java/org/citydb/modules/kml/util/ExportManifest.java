@@ -0,0 +1,122 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.util;
+
+import org.citydb.query.filter.tiling.Tile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+public class ExportManifest {
+	private final String SETTINGS = "settings";
+	private final String FINGERPRINT = ".fingerprint";
+	private final String HAS_CONTENT = ".hasContent";
+	private final String JSON = ".json";
+
+	private final Path file;
+	private final Properties previous = new Properties();
+	private final Properties current = new Properties();
+
+	public ExportManifest(Path file, String settings) throws IOException {
+		this.file = file;
+
+		try {
+			MessageDigest md5 = MessageDigest.getInstance("MD5");
+			settings = toHexString(md5.digest(settings.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("Failed to create fingerprint of the export settings.", e);
+		}
+
+		if (Files.exists(file)) {
+			try (InputStream stream = Files.newInputStream(file)) {
+				previous.load(stream);
+			}
+
+			// tiles of previous exports cannot be reused if the export settings have changed
+			if (!settings.equals(previous.getProperty(SETTINGS)))
+				previous.clear();
+		}
+
+		current.setProperty(SETTINGS, settings);
+	}
+
+	public boolean isUnchanged(Tile tile, String fingerprint) {
+		return fingerprint.equals(previous.getProperty(getKey(tile) + FINGERPRINT));
+	}
+
+	public boolean hasContent(Tile tile) {
+		return Boolean.parseBoolean(previous.getProperty(getKey(tile) + HAS_CONTENT));
+	}
+
+	public String getJsonContent(Tile tile) {
+		return previous.getProperty(getKey(tile) + JSON, "");
+	}
+
+	public void keep(Tile tile) {
+		update(tile, previous.getProperty(getKey(tile) + FINGERPRINT), hasContent(tile), getJsonContent(tile));
+	}
+
+	public void update(Tile tile, String fingerprint, boolean hasContent, String jsonContent) {
+		String key = getKey(tile);
+		current.setProperty(key + FINGERPRINT, fingerprint);
+		current.setProperty(key + HAS_CONTENT, String.valueOf(hasContent));
+		current.setProperty(key + JSON, jsonContent);
+	}
+
+	public void write() throws IOException {
+		// replace the manifest atomically so that an interrupted export cannot leave a broken file
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (OutputStream stream = Files.newOutputStream(tmp)) {
+			current.store(stream, "KML/COLLADA tile fingerprints");
+		}
+
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private String toHexString(byte[] bytes) {
+		StringBuilder hexString = new StringBuilder();
+		for (byte b : bytes)
+			hexString.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
+
+		return hexString.toString();
+	}
+
+	private String getKey(Tile tile) {
+		return tile instanceof QuadtreeTile ?
+				"tile." + ((QuadtreeTile) tile).getName() :
+				"tile.Tile_" + tile.getX() + "_" + tile.getY();
+	}
+}
@@ -28,11 +28,13 @@
 package org.citydb.modules.kml.util;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class ExportTracker {
 	
 	private final ConcurrentHashMap<Long, CityObject4JSON> map;
+	private final ConcurrentHashMap<Integer, Long> objectCounter = new ConcurrentHashMap<>();
 	private String currentWorkingDirectoryPath;
 	
 	public ExportTracker() {
@@ -55,6 +57,15 @@ public class ExportTracker {
 		return map.values();
 	}
 
+	public void addObjectCounter(Map<Integer, Long> counter) {
+		for (Map.Entry<Integer, Long> entry : counter.entrySet())
+			objectCounter.merge(entry.getKey(), entry.getValue(), Long::sum);
+	}
+
+	public Map<Integer, Long> getObjectCounter() {
+		return objectCounter;
+	}
+
 	public String getCurrentWorkingDirectoryPath() {
 		return currentWorkingDirectoryPath;
 	}
@@ -0,0 +1,121 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.util;
+
+import org.citydb.config.geometry.BoundingBox;
+import org.citydb.config.geometry.Position;
+import org.citydb.query.filter.tiling.Tile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class QuadtreeTile extends Tile {
+	private final int level;
+	private final List<QuadtreeTile> children = new ArrayList<>(4);
+	private volatile boolean hasContent;
+
+	public QuadtreeTile(BoundingBox extent, int x, int y, int level) {
+		super(extent, x, y);
+		this.level = level;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public boolean isRoot() {
+		return level == 0;
+	}
+
+	public boolean isLeaf() {
+		return children.isEmpty();
+	}
+
+	public List<QuadtreeTile> getChildren() {
+		return Collections.unmodifiableList(children);
+	}
+
+	public List<QuadtreeTile> split() {
+		if (!children.isEmpty())
+			return getChildren();
+
+		BoundingBox extent = getExtent();
+		double width = (extent.getUpperCorner().getX() - extent.getLowerCorner().getX()) / 2;
+		double height = (extent.getUpperCorner().getY() - extent.getLowerCorner().getY()) / 2;
+
+		// rows run along the y axis and columns along the x axis as for the tiling grid
+		for (int row = 0; row < 2; row++) {
+			for (int column = 0; column < 2; column++) {
+				double minX = extent.getLowerCorner().getX() + column * width;
+				double minY = extent.getLowerCorner().getY() + row * height;
+
+				BoundingBox childExtent = new BoundingBox(
+						new Position(minX, minY),
+						new Position(minX + width, minY + height),
+						extent.getSrs());
+
+				children.add(new QuadtreeTile(childExtent, 2 * getX() + row, 2 * getY() + column, level + 1));
+			}
+		}
+
+		return getChildren();
+	}
+
+	public boolean hasContent() {
+		return hasContent;
+	}
+
+	public void setHasContent(boolean hasContent) {
+		this.hasContent = hasContent;
+	}
+
+	public boolean hasLeafContent() {
+		if (isLeaf())
+			return hasContent;
+
+		for (QuadtreeTile child : children) {
+			if (child.hasLeafContent())
+				return true;
+		}
+
+		return false;
+	}
+
+	public String getName() {
+		return level == 0 ?
+				"Tile_" + getX() + "_" + getY() :
+				"Tile_L" + level + "_" + getX() + "_" + getY();
+	}
+
+	public String getPath() {
+		return level == 0 ?
+				getX() + "/" + getY() :
+				"L" + level + "/" + getX() + "/" + getY();
+	}
+}
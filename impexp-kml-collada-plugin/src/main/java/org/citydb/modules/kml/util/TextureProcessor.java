@@ -0,0 +1,132 @@
+/*
+ * 3D City Database - The Open Source CityGML Database
+ * http://www.3dcitydb.org/
+ *
+ * Copyright 2013 - 2019
+ * Chair of Geoinformatics
+ * Technical University of Munich, Germany
+ * https://www.gis.bgu.tum.de/
+ *
+ * The 3D City Database is jointly developed with the following
+ * cooperation partners:
+ *
+ * virtualcitySYSTEMS GmbH, Berlin <http://www.virtualcitysystems.de/>
+ * M.O.S.S. Computer Grafik Systeme GmbH, Taufkirchen <http://www.moss.de/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.citydb.modules.kml.util;
+
+import org.citydb.textureAtlas.model.TextureImage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+public class TextureProcessor {
+	private final ForkJoinPool pool;
+	private final long maxCacheSize;
+
+	private final LinkedHashMap<Long, CachedTextureImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private long cacheSize;
+
+	public TextureProcessor(int parallelism, long maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+
+		pool = new ForkJoinPool(Math.max(1, parallelism), p -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			thread.setName("texture_processor-" + thread.getPoolIndex());
+			return thread;
+		}, null, false);
+	}
+
+	public TextureProcessor() {
+		this(Runtime.getRuntime().availableProcessors(), Math.min(1L << 28, Runtime.getRuntime().maxMemory() / 8));
+	}
+
+	public synchronized CachedTextureImage getTextureImage(long texImageId, boolean supportRGB) {
+		return cache.get(getKey(texImageId, supportRGB));
+	}
+
+	public synchronized void putTextureImage(long texImageId, boolean supportRGB, TextureImage texImage, byte[] imageBytes) {
+		CachedTextureImage cached = new CachedTextureImage(texImage, imageBytes);
+		if (cached.size > maxCacheSize)
+			return;
+
+		CachedTextureImage previous = cache.put(getKey(texImageId, supportRGB), cached);
+		cacheSize += cached.size - (previous != null ? previous.size : 0);
+
+		// evict least recently used images
+		Iterator<CachedTextureImage> iter = cache.values().iterator();
+		while (cacheSize > maxCacheSize && iter.hasNext()) {
+			cacheSize -= iter.next().size;
+			iter.remove();
+		}
+	}
+
+	public <T> Future<T> submit(Callable<T> task) {
+		return pool.submit(task);
+	}
+
+	public <T> List<T> invokeAll(List<Callable<T>> tasks) throws Exception {
+		List<T> results = new ArrayList<>(tasks.size());
+		for (Future<T> future : pool.invokeAll(tasks)) {
+			try {
+				results.add(future.get());
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				throw cause instanceof Exception ? (Exception) cause : e;
+			}
+		}
+
+		return results;
+	}
+
+	public void shutdown() {
+		pool.shutdownNow();
+		synchronized (this) {
+			cache.clear();
+			cacheSize = 0;
+		}
+	}
+
+	private long getKey(long texImageId, boolean supportRGB) {
+		return texImageId << 1 | (supportRGB ? 1 : 0);
+	}
+
+	public static class CachedTextureImage {
+		private final TextureImage texImage;
+		private final byte[] imageBytes;
+		private final long size;
+
+		private CachedTextureImage(TextureImage texImage, byte[] imageBytes) {
+			this.texImage = texImage;
+			this.imageBytes = imageBytes;
+			size = 4L * texImage.getWidth() * texImage.getHeight() + (imageBytes != null ? imageBytes.length : 0);
+		}
+
+		public TextureImage getTexImage() {
+			return texImage;
+		}
+
+		public byte[] getImageBytes() {
+			return imageBytes;
+		}
+	}
+}